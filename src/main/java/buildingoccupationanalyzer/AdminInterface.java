@@ -1,16 +1,37 @@
 package buildingoccupationanalyzer;
 
+import java.io.BufferedOutputStream;
 import java.io.BufferedReader;
 import java.io.IOException;
+import java.io.OutputStream;
+import java.io.PrintWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
 import java.text.DecimalFormat;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.EnumSet;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
 
 /**
  * Class for admin interface, implements abstract TerminalInterface class
  */
 public class AdminInterface implements TerminalInterface {
+    private static final Set<String> DATA_COMMANDS = new HashSet<>(Arrays.asList("del", "ut", "uta", "utr", "utar", "import", "compact", "replay", "export", "rank", "busy", "health")); //Commands that wait for background loading
+
     private DataStore dataStore;
     private BufferedReader reader;
     private DataAnalyzer dataAnalyzer;
+    private DataCompactor dataCompactor; //Used when no background compaction runs
 
     /**
      * Constructor for AdminInterface class
@@ -87,9 +108,19 @@ public class AdminInterface implements TerminalInterface {
 
         while (true) {
             try {
-                System.out.println("\n\nPlease enter (ls) to list all sensors, (uta) followed by the number of days to get a overall utilization report (uta 1), "
-                        + "(ut) followed by a building name, room/area name, and the number of days to search over to get a utilization report (ut Reynolds 003 1), "
-                        + "(import) followed by a filename (from the resources/sensorData folder) to import more data (import DataFile_2020-02-07.csv), (del) followed by the sensor name to delete a sensor (del 123abc) "
+                System.out.println("\n\nPlease enter (ls) optionally followed by a building or all, a sensor type prefix and page and a page number to list sensors (ls all CS page 1), (uta) followed by the number of days and optionally a format (terminal, json or csv) and a resolution (10s, 1m, 15m) to get a overall utilization report (uta 1 json 15m), "
+                        + "(ut) followed by a building name, room/area name, the number of days to search over and optionally a resolution to get a utilization report (ut Reynolds 003 1 15m), "
+                        + "(ut) or (uta) followed by approx to get the utilization with its 95% confidence interval (uta 365 approx), "
+                        + "(utr) followed by a building name, room/area name, start and end date to get a utilization report over a date range (utr Reynolds 003 2020-02-08 2020-02-08), "
+                        + "(utar) followed by a start and end date to get a overall utilization report over a date range (utar 2020-02-01 2020-02-08), "
+                        + "(import) followed by a filename (from the resources/sensorData folder) to import more data (import DataFile_2020-02-07.csv), (del) followed by the sensor name to delete a sensor (del 123abc), "
+                        + "(compact) optionally followed by raw and total retention days to compact old data (compact 7 365), "
+                        + "(stats) optionally followed by a file name to show or dump performance metrics in Prometheus format (stats metrics.prom), "
+                        + "(replay) followed by a start date, end date, step in minutes and optionally a speed to replay occupancy over time (replay 2020-02-08 2020-02-08 15),"
+                        + " (export) followed by csv or bin, a start date, end date, file name and optionally hour to export per-room utilization per day or hour (export csv 2020-02-01 2020-02-08 report.csv hour),"
+                        + " (rank) followed by top or bottom, the number of rooms/areas, the number of days and optionally a building to rank rooms/areas by utilization (rank bottom 5 30 Reynolds),"
+                        + " (busy) followed by a start date, end date and optionally a building to show how much of the days its rooms/areas or the campus are occupied together (busy 2020-02-01 2020-02-08 Reynolds),"
+                        + " (health) to list stuck, silent, unpaired and chattering sensors,"
                         + " (l) to logout as a admin, or (q)uit to exit the program\n\n");
                 System.out.print(">");
 
@@ -118,6 +149,9 @@ public class AdminInterface implements TerminalInterface {
         if (userInput == null) {
             return 0;
         }
+        if (DATA_COMMANDS.contains(userInput.split(" ")[0])) {
+            BackgroundDataLoader.awaitData(this.dataStore);
+        }
         if (userInput.equals("l")) {
             System.out.println("Logging out...");
             return -1;
@@ -129,6 +163,10 @@ public class AdminInterface implements TerminalInterface {
                 System.out.println("Invalid input, missing sensor name");
                 return 1;
             }
+        } else if ((userInput.split(" ")[0].equals("ut") || userInput.split(" ")[0].equals("uta")) && userInput.endsWith(" approx")) {
+            return handleApproximateUtilization(userInput);
+        } else if (userInput.split(" ")[0].equals("ut") && userInput.split(" ").length == 5) {
+            return handleResolutionUtilization(userInput);
         } else if (userInput.split(" ")[0].equals("ut")) {
             try {
                 double returnVal = this.dataAnalyzer.getUtilization(userInput.split(" ")[1], userInput.split(" ")[2], Integer.parseInt(userInput.split(" ")[3]));
@@ -143,6 +181,8 @@ public class AdminInterface implements TerminalInterface {
                 System.out.println("Invalid input, missing building, days, and or room/area name");
             }
             return 1;
+        } else if (userInput.split(" ")[0].equals("uta") && userInput.split(" ").length > 2) {
+            return handleFormattedUtilization(userInput);
         } else if (userInput.split(" ")[0].equals("uta")) {
             try {
                 double returnVal = this.dataAnalyzer.getOverallUtilization(Integer.parseInt(userInput.split(" ")[1]));
@@ -157,24 +197,28 @@ public class AdminInterface implements TerminalInterface {
                 System.out.println("Invalid input, missing number of days");
             }
             return 1;
-        } else if (userInput.equals("ls")) {
-            System.out.println("All Sensors:\n");
-            System.out.println(dataStore.getSensors());
-            return 0;
+        } else if (userInput.split(" ")[0].equals("utr")) {
+            return handleRangeUtilization(userInput);
+        } else if (userInput.split(" ")[0].equals("utar")) {
+            return handleOverallRangeUtilization(userInput);
+        } else if (userInput.split(" ")[0].equals("ls")) {
+            return ListingPrinter.print(userInput, "All Sensors:\n", "", this.dataStore::writeSensors);
         } else if (userInput.split(" ")[0].equals("import")) {
-            try {
-                System.out.println("Attempting to import data from ../resources/sensorData/" + userInput.split(" ")[1]);
-
-                dataStore.addData(userInput.split(" ")[1]);
-
-                System.out.println("Data uploaded...");
-                return 0;
-            } catch (IndexOutOfBoundsException e) {
-                System.out.println("Invalid input, missing file name");
-            } catch (IOException e) {
-                System.out.println("Error occurred while importing new data, invalid file name");
-            }
-            return 1;
+            return handleImport(userInput);
+        } else if (userInput.split(" ")[0].equals("compact")) {
+            return handleCompact(userInput);
+        } else if (userInput.split(" ")[0].equals("stats")) {
+            return handleStats(userInput);
+        } else if (userInput.split(" ")[0].equals("replay")) {
+            return handleReplay(userInput);
+        } else if (userInput.split(" ")[0].equals("export")) {
+            return handleExport(userInput);
+        } else if (userInput.split(" ")[0].equals("rank")) {
+            return handleRank(userInput);
+        } else if (userInput.split(" ")[0].equals("busy")) {
+            return handleBusy(userInput);
+        } else if (userInput.equals("health")) {
+            return handleHealth();
         } else if (userInput.equals("q")) {
             System.out.println("Bye Bye!");
             this.reader.close();
@@ -185,4 +229,456 @@ public class AdminInterface implements TerminalInterface {
             return 1;
         }
     }
+
+    /**
+     * Method for handling the import command
+     *
+     * @param userInput user input to handle
+     * @return returns a integer to show if the command succeeded or not
+     */
+    int handleImport(String userInput) {
+        try {
+            System.out.println("Attempting to import data from ../resources/sensorData/" + userInput.split(" ")[1]);
+
+            if (dataStore.addData(userInput.split(" ")[1])) {
+                System.out.println("Data uploaded...");
+            } else {
+                System.out.println("Data file was already imported, skipping...");
+            }
+            return 0;
+        } catch (IndexOutOfBoundsException e) {
+            System.out.println("Invalid input, missing file name");
+        } catch (IOException e) {
+            System.out.println("Error occurred while importing new data, invalid file name");
+        }
+        return 1;
+    }
+
+    /**
+     * Method for handling the compact command
+     *
+     * @param userInput user input to handle
+     * @return returns a integer to show if the command succeeded or not
+     */
+    int handleCompact(String userInput) {
+        String[] splitInput = userInput.split(" ");
+        DataCompactor compactor = getDataCompactor();
+
+        try {
+            if (splitInput.length >= 3) {
+                compactor.setRetentionPolicy(new RetentionPolicy(Integer.parseInt(splitInput[1]), Integer.parseInt(splitInput[2]), Constants.CURRENT_MOCK_DATE));
+            } else if (splitInput.length == 2) {
+                System.out.println("Invalid input, provide both raw and total retention days or neither");
+                return 1;
+            }
+        } catch (IllegalArgumentException e) {
+            System.out.println("Invalid retention policy: " + e.getMessage());
+            return 1;
+        }
+
+        System.out.println(compactor.compact());
+        return 0;
+    }
+
+    /**
+     * Helper method for getting the compactor the compact command changes and runs, the background compactor of the data
+     * store if one is running so a new retention policy also applies to the background runs
+     *
+     * @return the compactor
+     */
+    private DataCompactor getDataCompactor() {
+        if (this.dataStore.getDataCompactor() != null) {
+            return this.dataStore.getDataCompactor();
+        } else if (this.dataCompactor == null) {
+            this.dataCompactor = new DataCompactor(this.dataStore, RetentionPolicy.defaultPolicy());
+        }
+        return this.dataCompactor;
+    }
+
+    /**
+     * Method for handling the stats command
+     *
+     * @param userInput user input to handle
+     * @return returns a integer to show if the command succeeded or not
+     */
+    int handleStats(String userInput) {
+        String[] splitInput = userInput.split(" ");
+
+        if (splitInput.length == 1) {
+            System.out.println("Performance metrics:\n");
+            System.out.print(MetricsRegistry.getDefault().getSummary());
+            return 0;
+        }
+
+        try (Writer writer = Files.newBufferedWriter(Paths.get(splitInput[1]), StandardCharsets.UTF_8)) {
+            MetricsRegistry.getDefault().writePrometheus(writer);
+            System.out.println("Metrics written to " + splitInput[1]);
+            return 0;
+        } catch (IOException e) {
+            System.out.println("Error occurred while writing metrics to " + splitInput[1]);
+            return 1;
+        }
+    }
+
+    /**
+     * Method for handling the replay command
+     *
+     * @param userInput user input to handle
+     * @return returns a integer to show if the command succeeded or not
+     */
+    int handleReplay(String userInput) {
+        String[] splitInput = userInput.split(" ");
+
+        try {
+            LocalDate startDate = LocalDate.parse(splitInput[1]);
+            LocalDate endDate = LocalDate.parse(splitInput[2]);
+            Duration step = Duration.ofMinutes(Integer.parseInt(splitInput[3]));
+            double speed = splitInput.length > 4 ? Double.parseDouble(splitInput[4]) : 0.0;
+            ReplaySimulator simulator = new ReplaySimulator(this.dataStore);
+
+            System.out.println(simulator.replay(startDate, endDate, step, speed, System.out::println));
+            return 0;
+        } catch (IndexOutOfBoundsException e) {
+            System.out.println("Invalid input, missing start date, end date and or step");
+        } catch (DateTimeParseException e) {
+            System.out.println("Invalid input, dates must be in the form yyyy-MM-dd");
+        } catch (IllegalArgumentException e) {
+            System.out.println("Invalid input, step must be a positive number of minutes");
+        }
+        return 1;
+    }
+
+    /**
+     * Method for handling the export command, writes a per-room/area utilization table for a date range to a file as CSV
+     * or as a binary columnar file, one row per day or with hour one row per hour
+     *
+     * @param userInput user input to handle
+     * @return returns a integer to show if the command succeeded or not
+     */
+    int handleExport(String userInput) {
+        String[] splitInput = userInput.split(" ");
+
+        try {
+            LocalDate start = LocalDate.parse(splitInput[2]);
+            LocalDate end = LocalDate.parse(splitInput[3]);
+            UtilizationExporter.Granularity granularity = splitInput.length > 5 && splitInput[5].equals("hour")
+                    ? UtilizationExporter.Granularity.HOUR : UtilizationExporter.Granularity.DAY;
+            UtilizationExporter exporter = new UtilizationExporter(this.dataStore);
+            long startTime = System.nanoTime();
+            long rows;
+
+            if (splitInput[1].equals("csv")) {
+                try (Writer writer = Files.newBufferedWriter(Paths.get(splitInput[4]), StandardCharsets.UTF_8)) {
+                    rows = exporter.exportCsv(start, end, granularity, writer);
+                }
+            } else if (splitInput[1].equals("bin")) {
+                try (OutputStream output = new BufferedOutputStream(Files.newOutputStream(Paths.get(splitInput[4])))) {
+                    rows = exporter.exportBinary(start, end, granularity, output);
+                }
+            } else {
+                System.out.println("Invalid input, format must be csv or bin");
+                return 1;
+            }
+            System.out.println("Exported " + rows + " rows to " + splitInput[4] + " in " + Duration.ofNanos(System.nanoTime() - startTime).toMillis() + " ms");
+            return 0;
+        } catch (IndexOutOfBoundsException e) {
+            System.out.println("Invalid input, missing format, start date, end date and or file name");
+        } catch (DateTimeParseException e) {
+            System.out.println("Invalid input, dates must be in the form yyyy-MM-dd");
+        } catch (IOException e) {
+            System.out.println("Error occurred while writing the export file: " + e.getMessage());
+        }
+        return 1;
+    }
+
+    /**
+     * Method for handling the utr command, dates may also be given with a hour (2020-02-08T09:00)
+     *
+     * @param userInput user input to handle
+     * @return returns a integer to show if the command succeeded or not
+     */
+    int handleRangeUtilization(String userInput) {
+        String[] splitInput = userInput.split(" ");
+
+        try {
+            LocalDateTime start = Utils.parseRangeBound(splitInput[3], false);
+            LocalDateTime end = Utils.parseRangeBound(splitInput[4], true);
+            double returnVal = this.dataAnalyzer.getUtilization(splitInput[1], splitInput[2], start, end);
+            DecimalFormat df = new DecimalFormat("0.00");
+
+            if (returnVal == Constants.ERROR_DOUBLE_VALUE) {
+                System.out.println("Error occurred getting utilization, refer to above");
+            } else {
+                System.out.println("Utilization of room/area " + splitInput[2] + " in building " + splitInput[1] + " from " + start + " to " + end + " is " + df.format(returnVal) + "%");
+                return 0;
+            }
+        } catch (IndexOutOfBoundsException e) {
+            System.out.println("Invalid input, missing building, room/area name, start and or end date");
+        } catch (DateTimeParseException e) {
+            System.out.println("Invalid input, dates must be in the form yyyy-MM-dd or yyyy-MM-ddTHH:mm");
+        }
+        return 1;
+    }
+
+    /**
+     * Method for handling the utar command, dates may also be given with a hour (2020-02-08T09:00)
+     *
+     * @param userInput user input to handle
+     * @return returns a integer to show if the command succeeded or not
+     */
+    int handleOverallRangeUtilization(String userInput) {
+        String[] splitInput = userInput.split(" ");
+
+        try {
+            LocalDateTime start = Utils.parseRangeBound(splitInput[1], false);
+            LocalDateTime end = Utils.parseRangeBound(splitInput[2], true);
+            double returnVal = this.dataAnalyzer.getOverallUtilization(start, end);
+            DecimalFormat df = new DecimalFormat("0.00");
+
+            if (returnVal == Constants.ERROR_DOUBLE_VALUE) {
+                System.out.println("Error occurred getting utilization, refer to above");
+            } else {
+                System.out.println("Overall utilization from " + start + " to " + end + ": " + df.format(returnVal) + "%");
+                return 0;
+            }
+        } catch (IndexOutOfBoundsException e) {
+            System.out.println("Invalid input, missing start and or end date");
+        } catch (DateTimeParseException e) {
+            System.out.println("Invalid input, dates must be in the form yyyy-MM-dd or yyyy-MM-ddTHH:mm");
+        }
+        return 1;
+    }
+
+    /**
+     * Method for handling the uta command with a output format, errors are printed to standard error so json and csv
+     * output stays machine readable
+     *
+     * @param userInput user input to handle
+     * @return returns a integer to show if the command succeeded or not
+     */
+    int handleFormattedUtilization(String userInput) {
+        String[] splitInput = userInput.split(" ");
+
+        try {
+            UtilizationRenderer renderer = new TerminalUtilizationRenderer();
+            TimeResolution resolution = TimeResolution.MINUTE;
+
+            for (int i = 2; i < splitInput.length; i++) {
+                if (splitInput[i].matches("[0-9]+[smh]")) {
+                    resolution = TimeResolution.parse(splitInput[i]);
+                } else {
+                    renderer = UtilizationRenderer.forFormat(splitInput[i]);
+                }
+            }
+
+            CampusUtilization result = this.dataAnalyzer.analyzeCampus(Integer.parseInt(splitInput[1]), resolution);
+            PrintWriter writer = new PrintWriter(System.out);
+
+            renderer.renderCampus(result, writer);
+            if (renderer instanceof JsonUtilizationRenderer) {
+                writer.println();
+            } else if (renderer instanceof TerminalUtilizationRenderer && result.isOk()) {
+                writer.println("Overall utilization over the past " + splitInput[1] + " days" + (resolution.isMinute() ? "" : " at " + resolution + " resolution") + ": " + new DecimalFormat("0.00").format(result.getUtilization()) + "%");
+            }
+            writer.flush();
+            if (!result.isOk()) {
+                System.err.println(result.getMessage());
+                return 1;
+            }
+            return 0;
+        } catch (NumberFormatException e) {
+            System.out.println("Invalid input, number of days must be a number");
+        } catch (IllegalArgumentException e) {
+            System.out.println("Invalid input, " + e.getMessage());
+        } catch (IOException e) {
+            Utils.handleException(e, false);
+        }
+        return 1;
+    }
+
+    /**
+     * Method for handling the ut command with a time resolution
+     *
+     * @param userInput user input to handle
+     * @return returns a integer to show if the command succeeded or not
+     */
+    @SuppressWarnings("checkstyle:MagicNumber")
+    int handleResolutionUtilization(String userInput) {
+        String[] splitInput = userInput.split(" ");
+
+        try {
+            TimeResolution resolution = TimeResolution.parse(splitInput[4]);
+            RoomUtilization result = this.dataAnalyzer.analyzeRoom(splitInput[1], splitInput[2], Integer.parseInt(splitInput[3]), resolution);
+
+            if (!result.isOk()) {
+                System.out.println("Error occurred getting utilization, " + result.getMessage());
+                return 1;
+            }
+            System.out.println("Utilization of room/area " + splitInput[2] + " in building " + splitInput[1] + " at " + resolution + " resolution is " + new DecimalFormat("0.00").format(result.getUtilization()) + "%");
+            return 0;
+        } catch (NumberFormatException e) {
+            System.out.println("Invalid input, number of days must be a number");
+        } catch (IllegalArgumentException e) {
+            System.out.println("Invalid input, " + e.getMessage());
+        }
+        return 1;
+    }
+
+    /**
+     * Method for handling the approx flag of the ut and uta commands, prints the utilization with its confidence interval.
+     * The analyzer counts the occupancy bitmaps exactly, which the output states along with the zero-width interval
+     *
+     * @param userInput user input to handle
+     * @return returns a integer to show if the command succeeded or not
+     */
+    int handleApproximateUtilization(String userInput) {
+        String[] splitInput = userInput.split(" ");
+        boolean overall = splitInput[0].equals("uta");
+        UtilizationEstimate result;
+
+        try {
+            if (overall && splitInput.length == 3) {
+                result = this.dataAnalyzer.estimateOverallUtilization(Integer.parseInt(splitInput[1]));
+            } else if (!overall && splitInput.length == 5) {
+                result = this.dataAnalyzer.estimateUtilization(splitInput[1], splitInput[2], Integer.parseInt(splitInput[3]));
+            } else {
+                System.out.println(overall ? "Invalid input, missing number of days" : "Invalid input, missing building, days, and or room/area name");
+                return 1;
+            }
+        } catch (NumberFormatException e) {
+            System.out.println("Invalid input, number of days must be a number");
+            return 1;
+        }
+        if (!result.isOk()) {
+            System.out.println("Error occurred getting utilization, " + result.getMessage());
+            return 1;
+        }
+
+        DecimalFormat df = new DecimalFormat("0.00");
+        String estimate = df.format(result.getUtilization()) + "% +/- " + df.format(result.getMargin()) + "% (95% confidence"
+                + (result.isExact() ? ", exact count from the occupancy bitmaps)" : ")");
+
+        if (overall) {
+            System.out.println("Approximate overall utilization over the past " + splitInput[1] + " days: " + estimate);
+        } else {
+            System.out.println("Approximate utilization of room/area " + splitInput[2] + " in building " + splitInput[1] + " is " + estimate);
+        }
+        return 0;
+    }
+
+    /**
+     * Method for handling the rank command
+     *
+     * @param userInput user input to handle
+     * @return returns a integer to show if the command succeeded or not
+     */
+    @SuppressWarnings("checkstyle:MagicNumber")
+    int handleRank(String userInput) {
+        String[] splitInput = userInput.split(" ");
+        RoomRanking result;
+
+        if (splitInput.length < 4 || !(splitInput[1].equals("top") || splitInput[1].equals("bottom"))) {
+            System.out.println("Invalid input, expected top or bottom followed by the number of rooms/areas and days");
+            return 1;
+        }
+        try {
+            result = this.dataAnalyzer.rankRooms(splitInput.length > 4 ? splitInput[4] : null, Integer.parseInt(splitInput[3]), Integer.parseInt(splitInput[2]), splitInput[1].equals("top"));
+        } catch (NumberFormatException e) {
+            System.out.println("Invalid input, number of rooms/areas and days must be numbers");
+            return 1;
+        }
+        if (!result.isOk()) {
+            System.out.println("Error occurred ranking rooms/areas, " + result.getMessage());
+            return 1;
+        }
+
+        DecimalFormat df = new DecimalFormat("0.00");
+        System.out.println((splitInput[1].equals("top") ? "Most" : "Least") + " utilized rooms/areas over the past " + splitInput[3] + " days:");
+        for (int i = 0; i < result.getRooms().size(); i++) {
+            RoomUtilization room = result.getRooms().get(i);
+            System.out.println((i + 1) + ". " + room.getRoom() + " in building " + room.getBuilding() + ": " + df.format(room.getUtilization()) + "%");
+        }
+        return 0;
+    }
+
+    /**
+     * Method for handling the busy command, prints the minutes of a range of days in which any or every room/area of a
+     * building or the campus is occupied, those within business hours and the most rooms/areas occupied at once
+     *
+     * @param userInput user input to handle
+     * @return returns a integer to show if the command succeeded or not
+     */
+    @SuppressWarnings("checkstyle:MagicNumber")
+    int handleBusy(String userInput) {
+        String[] splitInput = userInput.split(" ");
+        String buildingName = splitInput.length > 3 ? splitInput[3] : null;
+        LocalDate start;
+        LocalDate end;
+
+        try {
+            start = LocalDate.parse(splitInput[1]);
+            end = LocalDate.parse(splitInput[2]);
+        } catch (IndexOutOfBoundsException e) {
+            System.out.println("Invalid input, missing start and or end date");
+            return 1;
+        } catch (DateTimeParseException e) {
+            System.out.println("Invalid input, dates must be in the form yyyy-MM-dd");
+            return 1;
+        }
+        if (end.isBefore(start)) {
+            System.out.println("Invalid input, end date must not be before start date");
+            return 1;
+        } else if (buildingName != null && !this.dataStore.getBuildingsAsList().contains(buildingName)) {
+            System.out.println("Building " + buildingName + " was not found");
+            return 1;
+        }
+
+        int[] counts = this.dataAnalyzer.getConcurrentRoomCounts(buildingName, start, end);
+        int peak = 0;
+        for (int minute = 1; minute < counts.length; minute++) {
+            if (counts[minute] > counts[peak]) {
+                peak = minute;
+            }
+        }
+        System.out.println("Rooms/areas of " + (buildingName == null ? "the campus" : "building " + buildingName) + " from " + start + " to " + end + ":");
+        System.out.println("Minutes any room/area is occupied: " + this.dataAnalyzer.getCombinedOccupiedMinutes(buildingName, start, end, false));
+        System.out.println("Minutes every room/area is occupied: " + this.dataAnalyzer.getCombinedOccupiedMinutes(buildingName, start, end, true));
+        System.out.println("Business hour minutes (" + Constants.BUSINESS_HOURS_START + ":00 to " + Constants.BUSINESS_HOURS_END + ":00) any room/area is occupied: "
+                + this.dataAnalyzer.getBusinessHoursOccupiedMinutes(buildingName, start, end));
+        System.out.println("Most rooms/areas occupied at once: " + counts[peak] + (counts[peak] == 0 ? "" : " at " + start.atStartOfDay().plusMinutes(peak)));
+        return 0;
+    }
+
+    /**
+     * Method for handling the health command, prints every sensor flagged by the sensor health monitor
+     *
+     * @return returns a integer to show if the command succeeded or not
+     */
+    int handleHealth() {
+        Map<String, String> sensorRooms = new TreeMap<>();
+
+        for (Map.Entry<String, ArrayList<String>> room : this.dataStore.getSensorLocationMap().entrySet()) {
+            for (String sensor : room.getValue()) {
+                sensorRooms.put(sensor, room.getKey());
+            }
+        }
+
+        Map<String, EnumSet<SensorAnomaly>> anomalies = this.dataStore.getLiveOccupancy().getHealthMonitor().findAnomalies(sensorRooms.keySet(), this.dataAnalyzer.getClock().millis());
+
+        if (anomalies.isEmpty()) {
+            System.out.println("All " + sensorRooms.size() + " sensors are healthy");
+            return 0;
+        }
+        System.out.println(anomalies.size() + " of " + sensorRooms.size() + " sensors flagged:");
+        for (Map.Entry<String, EnumSet<SensorAnomaly>> sensor : anomalies.entrySet()) {
+            String[] names = sensorRooms.get(sensor.getKey()).split(Constants.BUILDING_AREA_NAME_SEPARATOR);
+            StringBuilder line = new StringBuilder(sensor.getKey() + " in room/area " + names[1] + " of building " + names[0] + ":");
+
+            for (SensorAnomaly anomaly : sensor.getValue()) {
+                line.append(" ").append(anomaly.getDescription()).append(";");
+            }
+            System.out.println(line.substring(0, line.length() - 1));
+        }
+        return 0;
+    }
 }
@@ -0,0 +1,60 @@
+package buildingoccupationanalyzer;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * Flight recorder event emitted around a single phase of a analyzer query (valid date generation, minute map building,
+ * door interval expansion, occupancy bitmap lookup). Door interval expansion is recorded once per room/area around the
+ * pass over its readings, with the number of intervals expanded
+ */
+@Name("buildingoccupationanalyzer.AnalyzerPhase")
+@Label("Analyzer Phase")
+@Category({"Building Occupancy", "Analyzer"})
+@Description("One phase of a analyzer query")
+public final class AnalyzerPhaseEvent extends Event {
+    public static final String VALID_DATES = "validDates";
+    public static final String MINUTES_MAP = "minutesMap";
+    public static final String DOOR_INTERVAL_EXPANSION = "doorIntervalExpansion";
+    public static final String OCCUPANCY_BITMAP = "occupancyBitmap";
+
+    @Label("Phase")
+    private String phase;
+
+    @Label("Building")
+    private String building;
+
+    @Label("Room")
+    private String room;
+
+    @Label("Day Count")
+    private int dayCount;
+
+    @Label("Door Intervals")
+    private int doorIntervals;
+
+    /**
+     * Constructor for AnalyzerPhaseEvent class
+     *
+     * @param incomingPhase    name of the phase
+     * @param incomingBuilding building name, null when the phase is not tied to a room
+     * @param incomingRoom     room/area name, null when the phase is not tied to a room
+     * @param incomingDayCount number of days the phase covers
+     */
+    public AnalyzerPhaseEvent(String incomingPhase, String incomingBuilding, String incomingRoom, int incomingDayCount) {
+        this.phase = incomingPhase;
+        this.building = incomingBuilding;
+        this.room = incomingRoom;
+        this.dayCount = incomingDayCount;
+    }
+
+    /**
+     * Setter for door intervals
+     *
+     * @param incomingDoorIntervals number of door intervals expanded in the phase
+     */
+    public void setDoorIntervals(int incomingDoorIntervals) { this.doorIntervals = incomingDoorIntervals; }
+}
@@ -0,0 +1,141 @@
+package buildingoccupationanalyzer;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Loads sensor data files into a data store on background threads so the interface can start before the data is loaded
+ * Files are imported in parallel, each through DataStore.addData so readings are merged and recorded in the import manifest
+ * as usual. The live occupancy table is updated as each reading is ingested and places readings older than a sensors latest
+ * in time order, so it does not depend on the order the threads finished in. Commands that need sensor data call awaitData,
+ * which reports the loading progress and blocks until every file is loaded or skipped, commands that only need the sensor
+ * location map can run right away
+ */
+public class BackgroundDataLoader {
+    private static final LatencyHistogram LOAD_LATENCY = MetricsRegistry.getDefault().histogram("startup_seconds{phase=\"dataLoaded\"}", "Time from program start to the end of a startup phase");
+
+    private final DataStore dataStore;
+    private final List<String> fileNames;
+    private final AtomicInteger loadedFiles = new AtomicInteger();
+    private final CountDownLatch loaded;
+
+    /**
+     * Constructor for BackgroundDataLoader class
+     *
+     * @param incomingDataStore data store to load the files into
+     * @param incomingFileNames names of the sensor data files to load
+     */
+    public BackgroundDataLoader(DataStore incomingDataStore, List<String> incomingFileNames) {
+        this.dataStore = incomingDataStore;
+        this.fileNames = new ArrayList<>(incomingFileNames);
+        this.loaded = new CountDownLatch(incomingFileNames.size());
+    }
+
+    /**
+     * Method for starting to load the files, one task per file on up to one daemon thread per processor. The loader is
+     * registered with the data store so interfaces can wait for it
+     *
+     * @param startNanos System.nanoTime() at program start, used to record the time until every file is loaded
+     */
+    public void start(long startNanos) {
+        int threads = Math.max(1, Math.min(this.fileNames.size(), Runtime.getRuntime().availableProcessors()));
+
+        this.dataStore.setDataLoader(this);
+        ExecutorService executor = Executors.newFixedThreadPool(threads, runnable -> {
+            Thread thread = new Thread(runnable, "data-loader");
+            thread.setDaemon(true);
+            return thread;
+        });
+        for (String fileName : this.fileNames) {
+            executor.submit(() -> load(fileName, startNanos));
+        }
+        executor.shutdown();
+    }
+
+    /**
+     * Helper method for loading one file, a file that cannot be read is fatal as it is when data is loaded up front. A file
+     * whose contents fail to import is reported and skipped, the file still counts as done so waiting commands go on
+     *
+     * @param fileName   name of the file to load
+     * @param startNanos System.nanoTime() at program start
+     */
+    private void load(String fileName, long startNanos) {
+        try {
+            this.dataStore.addData(fileName);
+        } catch (IOException e) {
+            Utils.handleException(e, true);
+        } catch (RuntimeException e) {
+            System.err.println("Data file " + fileName + " could not be loaded, it is skipped");
+            Utils.handleException(e, false);
+        } finally {
+            if (this.loadedFiles.incrementAndGet() == this.fileNames.size()) {
+                LOAD_LATENCY.recordSince(startNanos);
+            }
+            this.loaded.countDown(); //Always counted so a bad file can not leave commands waiting forever
+        }
+    }
+
+    /**
+     * Method for checking if every file is loaded
+     *
+     * @return true if every file is loaded
+     */
+    public boolean isLoaded() { return this.loaded.getCount() == 0; }
+
+    /**
+     * Getter for the number of loaded files
+     *
+     * @return the number of files loaded so far
+     */
+    public int getLoadedFiles() { return this.loadedFiles.get(); }
+
+    /**
+     * Getter for the number of files to load
+     *
+     * @return the number of files to load
+     */
+    public int getTotalFiles() { return this.fileNames.size(); }
+
+    /**
+     * Method for describing the loading progress
+     *
+     * @return the loading progress, for example 1 of 2 data files loaded
+     */
+    public String getProgress() {
+        return getLoadedFiles() + " of " + getTotalFiles() + " data files loaded";
+    }
+
+    /**
+     * Method for blocking until every file is loaded
+     *
+     * @throws InterruptedException thrown if the thread is interrupted while waiting
+     */
+    public void awaitLoaded() throws InterruptedException {
+        this.loaded.await();
+    }
+
+    /**
+     * Method for waiting until the sensor data of a data store is loaded, returns right away if the data store has no
+     * background loader or it is done. The progress is printed before waiting
+     *
+     * @param dataStore data store whose data is needed
+     */
+    public static void awaitData(DataStore dataStore) {
+        BackgroundDataLoader loader = dataStore.getDataLoader();
+
+        if (loader == null || loader.isLoaded()) {
+            return;
+        }
+        System.out.println("Sensor data is still loading (" + loader.getProgress() + "), waiting...");
+        try {
+            loader.awaitLoaded();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
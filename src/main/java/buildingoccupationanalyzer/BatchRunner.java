@@ -0,0 +1,350 @@
+package buildingoccupationanalyzer;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.StringWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Runs a script of admin commands against one loaded data store without the interactive interface, for scheduled report runs
+ * Read commands (ut, uta, utr, utar, oc, ls) are pipelined, they run in parallel on a worker pool while their results are
+ * written in script order. Commands that change the data (import, del) are barriers, they wait for every earlier command
+ * to finish and run alone so later commands see their changes
+ * Every command produces one JSON line: {"line":n,"command":"...","status":"OK",...} with status OK or ERROR and either
+ * the commands result or a error message. Blank lines and lines starting with # are skipped
+ */
+public class BatchRunner {
+    static final String COMMENT_PREFIX = "#";
+
+    private final DataStore dataStore;
+    private final DataAnalyzer dataAnalyzer;
+    private final int threads;
+
+    /**
+     * Constructor for BatchRunner class
+     *
+     * @param incomingDataStore data store to run the commands against
+     * @param incomingThreads   number of worker threads for read commands
+     */
+    public BatchRunner(DataStore incomingDataStore, int incomingThreads) {
+        this.dataStore = incomingDataStore;
+        this.dataAnalyzer = new DataAnalyzer(incomingDataStore);
+        this.threads = Math.max(1, incomingThreads);
+    }
+
+    /**
+     * Getter for data analyzer
+     *
+     * @return the analyzer commands are run with
+     */
+    public DataAnalyzer getDataAnalyzer() { return this.dataAnalyzer; }
+
+    /**
+     * Method for reading the commands of a command file, - reads the commands from standard input
+     *
+     * @param fileName path of the command file or -
+     * @param stdin    reader for standard input
+     * @return the lines of the command file
+     * @throws IOException thrown if the file cannot be read
+     */
+    public static List<String> readCommands(String fileName, BufferedReader stdin) throws IOException {
+        if (!fileName.equals("-")) {
+            return Files.readAllLines(Paths.get(fileName), StandardCharsets.UTF_8);
+        }
+
+        List<String> commands = new ArrayList<>();
+        String line;
+        while ((line = stdin.readLine()) != null) {
+            commands.add(line);
+        }
+        return commands;
+    }
+
+    /**
+     * Method for running a list of commands, one result line is written per command in the order of the list
+     *
+     * @param commands commands to run
+     * @param output   writer for the result lines
+     * @return the number of commands that failed
+     * @throws IOException thrown if the output cannot be written
+     */
+    public int run(List<String> commands, Writer output) throws IOException {
+        ExecutorService executor = Executors.newFixedThreadPool(this.threads);
+        Deque<Future<CommandResult>> pending = new ArrayDeque<>();
+        int failed = 0;
+
+        try {
+            for (int i = 0; i < commands.size(); i++) {
+                String command = commands.get(i).trim();
+                int lineNumber = i + 1;
+
+                if (command.isEmpty() || command.startsWith(COMMENT_PREFIX)) {
+                    continue;
+                }
+                if (isWriteCommand(command)) {
+                    failed += drain(pending, output, 0);
+                    failed += write(execute(lineNumber, command), output);
+                } else {
+                    pending.add(executor.submit(() -> execute(lineNumber, command)));
+                    failed += drain(pending, output, this.threads);
+                }
+            }
+            failed += drain(pending, output, 0);
+        } finally {
+            executor.shutdownNow();
+        }
+        output.flush();
+        return failed;
+    }
+
+    /**
+     * Helper method for writing finished results from the head of the pipeline until at most limit results are pending,
+     * waiting for the head result when more than limit are pending
+     *
+     * @param pending results in script order
+     * @param output  writer for the result lines
+     * @param limit   number of results that may stay pending
+     * @return the number of written results that failed
+     * @throws IOException thrown if the output cannot be written
+     */
+    private static int drain(Deque<Future<CommandResult>> pending, Writer output, int limit) throws IOException {
+        int failed = 0;
+
+        while (!pending.isEmpty() && (pending.size() > limit || pending.peek().isDone())) {
+            try {
+                failed += write(pending.poll().get(), output);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IOException("Interrupted while waiting for batch results", e);
+            } catch (ExecutionException e) {
+                throw new IOException("Batch command failed unexpectedly", e.getCause());
+            }
+        }
+        return failed;
+    }
+
+    /**
+     * Helper method for writing one result line
+     *
+     * @param result result to write
+     * @param output writer for the result lines
+     * @return 1 if the result failed, 0 if not
+     * @throws IOException thrown if the output cannot be written
+     */
+    private static int write(CommandResult result, Writer output) throws IOException {
+        output.write(result.getJson());
+        output.write(System.lineSeparator());
+        return result.isOk() ? 0 : 1;
+    }
+
+    /**
+     * Method for checking if a command changes the data store and therefore has to run as a barrier
+     *
+     * @param command command to check
+     * @return true if the command changes the data store
+     */
+    static boolean isWriteCommand(String command) {
+        String name = command.split(" ")[0];
+        return name.equals("import") || name.equals("del");
+    }
+
+    /**
+     * Method for running one command
+     *
+     * @param lineNumber line of the command in the script
+     * @param command    command to run
+     * @return the commands result
+     */
+    CommandResult execute(int lineNumber, String command) {
+        String prefix = "{\"line\":" + lineNumber + ",\"command\":" + JsonUtilizationRenderer.quote(command) + ",";
+        String[] splitInput = command.split(" +");
+
+        try {
+            switch (splitInput[0]) {
+                case "ut":
+                    RoomUtilization room = this.dataAnalyzer.analyzeRoom(splitInput[1], splitInput[2], Integer.parseInt(splitInput[3]));
+                    return utilizationResult(prefix, room.isOk(), room.getMessage(), render(room));
+                case "utr":
+                    RoomUtilization rangeRoom = this.dataAnalyzer.analyzeRoom(splitInput[1], splitInput[2],
+                            Utils.parseRangeBound(splitInput[3], false), Utils.parseRangeBound(splitInput[4], true));
+                    return utilizationResult(prefix, rangeRoom.isOk(), rangeRoom.getMessage(), render(rangeRoom));
+                case "uta":
+                    CampusUtilization campus = this.dataAnalyzer.analyzeCampus(Integer.parseInt(splitInput[1]));
+                    return utilizationResult(prefix, campus.isOk(), campus.getMessage(), render(campus));
+                case "utar":
+                    LocalDateTime start = Utils.parseRangeBound(splitInput[1], false);
+                    CampusUtilization rangeCampus = this.dataAnalyzer.analyzeCampus(start, Utils.parseRangeBound(splitInput[2], true));
+                    return utilizationResult(prefix, rangeCampus.isOk(), rangeCampus.getMessage(), render(rangeCampus));
+                case "oc":
+                    return occupancyResult(prefix, splitInput);
+                case "ls":
+                    return new CommandResult(true, prefix + "\"status\":\"OK\",\"sensors\":" + renderSensors() + "}");
+                case "import":
+                    return new CommandResult(true, prefix + "\"status\":\"OK\",\"imported\":" + this.dataStore.addData(splitInput[1]) + "}");
+                case "del":
+                    String removed = this.dataStore.removeSensor(splitInput[1]);
+                    return errorOr(prefix, !removed.equals("Sensor Not Found"), removed, "\"status\":\"OK\",\"message\":" + JsonUtilizationRenderer.quote(removed));
+                default:
+                    return errorOr(prefix, false, "Unknown command " + splitInput[0], null);
+            }
+        } catch (IndexOutOfBoundsException e) {
+            return errorOr(prefix, false, "Missing arguments", null);
+        } catch (NumberFormatException e) {
+            return errorOr(prefix, false, "Number of days must be a number", null);
+        } catch (DateTimeParseException e) {
+            return errorOr(prefix, false, "Dates must be in the form yyyy-MM-dd or yyyy-MM-ddTHH:mm", null);
+        } catch (IOException e) {
+            return errorOr(prefix, false, "Error occurred while importing new data, invalid file name", null);
+        }
+    }
+
+    /**
+     * Helper method for creating the result of the oc command, oc building room checks one room/area and oc all
+     * optionally followed by a building checks every room/area at once
+     *
+     * @param prefix     json prefix of the result line
+     * @param splitInput split command
+     * @return the commands result
+     */
+    private CommandResult occupancyResult(String prefix, String[] splitInput) {
+        if (splitInput[1].equals("all")) {
+            Map<String, Integer> occupancy = splitInput.length > 2
+                    ? this.dataAnalyzer.checkOccupancyForBuilding(splitInput[2]) : this.dataAnalyzer.checkOccupancyAll();
+            StringBuilder body = new StringBuilder("\"status\":\"OK\",\"occupancy\":{");
+            String separator = "";
+
+            for (Map.Entry<String, Integer> entry : new TreeMap<>(occupancy).entrySet()) {
+                body.append(separator).append(JsonUtilizationRenderer.quote(entry.getKey())).append(":").append(entry.getValue() == 1);
+                separator = ",";
+            }
+            return new CommandResult(true, prefix + body + "}}");
+        }
+
+        int occupied = this.dataAnalyzer.checkOccupancy(splitInput[1], splitInput[2]);
+        return errorOr(prefix, occupied != -1, "Building name and Room name combination was not found", "\"status\":\"OK\",\"occupied\":" + (occupied == 1));
+    }
+
+    /**
+     * Helper method for rendering the sensors of every room/area as a json object
+     *
+     * @return the sensors by building~room key
+     */
+    private String renderSensors() {
+        StringBuilder sensors = new StringBuilder("{");
+        String separator = "";
+
+        for (Map.Entry<String, ArrayList<String>> entry : new TreeMap<>(this.dataStore.getSensorLocationMap()).entrySet()) {
+            sensors.append(separator).append(JsonUtilizationRenderer.quote(entry.getKey())).append(":[");
+            for (int i = 0; i < entry.getValue().size(); i++) {
+                sensors.append(i > 0 ? "," : "").append(JsonUtilizationRenderer.quote(entry.getValue().get(i)));
+            }
+            sensors.append("]");
+            separator = ",";
+        }
+        return sensors.append("}").toString();
+    }
+
+    /**
+     * Helper method for creating the result of a utilization command, the rendered result is included even when it failed
+     *
+     * @param prefix   json prefix of the result line
+     * @param ok       if the utilization was computed
+     * @param message  error message of the utilization
+     * @param rendered json rendering of the utilization result
+     * @return the commands result
+     */
+    private static CommandResult utilizationResult(String prefix, boolean ok, String message, String rendered) {
+        String status = ok ? "\"status\":\"OK\"" : "\"status\":\"ERROR\",\"message\":" + JsonUtilizationRenderer.quote(message);
+        return new CommandResult(ok, prefix + status + ",\"result\":" + rendered + "}");
+    }
+
+    /**
+     * Helper method for creating a error result, or a successful result with the given body
+     *
+     * @param prefix  json prefix of the result line
+     * @param ok      if the command succeeded
+     * @param message error message used when the command failed
+     * @param body    json body used when the command succeeded
+     * @return the commands result
+     */
+    private static CommandResult errorOr(String prefix, boolean ok, String message, String body) {
+        if (ok) {
+            return new CommandResult(true, prefix + body + "}");
+        }
+        return new CommandResult(false, prefix + "\"status\":\"ERROR\",\"message\":" + JsonUtilizationRenderer.quote(message) + "}");
+    }
+
+    /**
+     * Helper method for rendering a room/area result as json
+     *
+     * @param result result to render
+     * @return the json rendering
+     * @throws IOException never thrown by the string writer
+     */
+    private static String render(RoomUtilization result) throws IOException {
+        StringWriter writer = new StringWriter();
+        new JsonUtilizationRenderer().renderRoom(result, writer);
+        return writer.toString();
+    }
+
+    /**
+     * Helper method for rendering a campus result as json
+     *
+     * @param result result to render
+     * @return the json rendering
+     * @throws IOException never thrown by the string writer
+     */
+    private static String render(CampusUtilization result) throws IOException {
+        StringWriter writer = new StringWriter();
+        new JsonUtilizationRenderer().renderCampus(result, writer);
+        return writer.toString();
+    }
+
+    /**
+     * Result of one batch command
+     */
+    static final class CommandResult {
+        private final boolean ok;
+        private final String json;
+
+        /**
+         * Constructor for CommandResult class
+         *
+         * @param incomingOk   if the command succeeded
+         * @param incomingJson result line of the command
+         */
+        CommandResult(boolean incomingOk, String incomingJson) {
+            this.ok = incomingOk;
+            this.json = incomingJson;
+        }
+
+        /**
+         * Getter for ok
+         *
+         * @return true if the command succeeded
+         */
+        boolean isOk() { return this.ok; }
+
+        /**
+         * Getter for json
+         *
+         * @return the result line of the command
+         */
+        String getJson() { return this.json; }
+    }
+}
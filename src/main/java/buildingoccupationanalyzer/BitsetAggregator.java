@@ -0,0 +1,49 @@
+package buildingoccupationanalyzer;
+
+import java.util.List;
+
+/**
+ * Backend for word-parallel aggregation of plain occupied-minute bitsets, bit i of a bitset is the i-th minute of the
+ * queried range. Every bitset passed to one call must have the same length
+ */
+public interface BitsetAggregator {
+    /**
+     * Method for combining bitsets, a bit is set if it is set in any bitset
+     *
+     * @param bitsets bitsets to combine, at least one
+     * @return a new bitset
+     */
+    long[] or(List<long[]> bitsets);
+
+    /**
+     * Method for intersecting bitsets, a bit is set if it is set in every bitset
+     *
+     * @param bitsets bitsets to intersect, at least one
+     * @return a new bitset
+     */
+    long[] and(List<long[]> bitsets);
+
+    /**
+     * Method for counting the set bits of a bitset
+     *
+     * @param bitset bitset to count
+     * @return number of set bits
+     */
+    long popcount(long[] bitset);
+
+    /**
+     * Method for counting in how many bitsets each bit is set, the number of rooms/areas occupied in each minute
+     *
+     * @param bitsets bitsets to count
+     * @param bits    number of bits to count, at most 64 times the bitset length
+     * @return count for each bit
+     */
+    int[] countPerBit(List<long[]> bitsets, int bits);
+
+    /**
+     * Getter for the name of the backend
+     *
+     * @return the name of the backend
+     */
+    String getName();
+}
@@ -0,0 +1,105 @@
+package buildingoccupationanalyzer;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Immutable utilization result of a building, the average of its rooms/areas
+ * A failed result keeps the rooms/areas computed before the failure
+ */
+public final class BuildingUtilization {
+    private final String building;
+    private final List<RoomUtilization> rooms;
+    private final double utilization;
+    private final UtilizationStatus status;
+    private final String message;
+
+    /**
+     * Constructor for BuildingUtilization class
+     *
+     * @param incomingBuilding    building name
+     * @param incomingRooms       results of the buildings rooms/areas
+     * @param incomingUtilization utilization as a percentage, only meaningful when the status is OK
+     * @param incomingStatus      status of the result
+     * @param incomingMessage     error message, null when the status is OK
+     */
+    private BuildingUtilization(String incomingBuilding, List<RoomUtilization> incomingRooms, double incomingUtilization, UtilizationStatus incomingStatus, String incomingMessage) {
+        this.building = incomingBuilding;
+        this.rooms = Collections.unmodifiableList(new ArrayList<>(incomingRooms));
+        this.utilization = incomingUtilization;
+        this.status = incomingStatus;
+        this.message = incomingMessage;
+    }
+
+    /**
+     * Method for creating a successful result, the utilization is the average of the rooms/areas
+     *
+     * @param building building name
+     * @param rooms    results of the buildings rooms/areas, all successful
+     * @return the result
+     */
+    public static BuildingUtilization ok(String building, List<RoomUtilization> rooms) {
+        double overallPercentage = 0.0;
+
+        for (RoomUtilization room : rooms) {
+            overallPercentage += room.getUtilization();
+        }
+        return new BuildingUtilization(building, rooms, rooms.isEmpty() ? 0.0 : overallPercentage / rooms.size(), UtilizationStatus.OK, null);
+    }
+
+    /**
+     * Method for creating a failed result
+     *
+     * @param building building name
+     * @param rooms    results of the rooms/areas computed before the failure
+     * @param status   reason the utilization could not be computed
+     * @param message  error message, may be null if the error was already reported
+     * @return the result
+     */
+    public static BuildingUtilization error(String building, List<RoomUtilization> rooms, UtilizationStatus status, String message) {
+        return new BuildingUtilization(building, rooms, Constants.ERROR_DOUBLE_VALUE, status, message);
+    }
+
+    /**
+     * Getter for building
+     *
+     * @return building name
+     */
+    public String getBuilding() { return this.building; }
+
+    /**
+     * Getter for rooms
+     *
+     * @return results of the buildings rooms/areas
+     */
+    public List<RoomUtilization> getRooms() { return this.rooms; }
+
+    /**
+     * Getter for utilization
+     *
+     * @return utilization as a percentage, only meaningful when the status is OK
+     */
+    public double getUtilization() { return this.utilization; }
+
+    /**
+     * Getter for status
+     *
+     * @return status of the result
+     */
+    public UtilizationStatus getStatus() { return this.status; }
+
+    /**
+     * Getter for message
+     *
+     * @return error message, null when the status is OK
+     */
+    public String getMessage() { return this.message; }
+
+    /**
+     * Method for checking if the utilization was computed
+     *
+     * @return true if the status is OK
+     */
+    public boolean isOk() { return this.status == UtilizationStatus.OK; }
+}
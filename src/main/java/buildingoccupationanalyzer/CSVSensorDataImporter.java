@@ -10,11 +10,16 @@ import java.util.HashMap;
 import java.io.FileNotFoundException;
 import java.io.IOException;
 import java.io.InputStreamReader;
+import java.util.function.Predicate;
 
 /**
  * Class for importing CSV sensor data files
  */
 public class CSVSensorDataImporter implements DataImporter<HashMap<String, ArrayList<Date>>> {
+    private static final LatencyHistogram IMPORT_LATENCY = MetricsRegistry.getDefault().histogram("import_file_seconds", "Time spent importing a sensor data file");
+    private static final Counter IMPORTED_FILES = MetricsRegistry.getDefault().counter("imported_files_total", "Sensor data files imported");
+    private static final Counter IMPORTED_READINGS = MetricsRegistry.getDefault().counter("imported_readings_total", "Sensor readings parsed from data files");
+
     /**
      * Default constructor
      */
@@ -29,6 +34,22 @@ public class CSVSensorDataImporter implements DataImporter<HashMap<String, Array
      */
     @Override
     public HashMap<String, ArrayList<Date>> importData(String fileName) throws IOException {
+        return importData(fileName, sensor -> true);
+    }
+
+    /**
+     * Method for importing the readings of some sensors from a sensor data file, lines of other sensors are skipped
+     * without parsing their times
+     *
+     * @param fileName     path to the file to be imported
+     * @param sensorFilter accepts the names of the sensors to import
+     * @return returns a map of the accepted sensors with lists sensor readings
+     * @throws IOException thrown if a input exception occurs during parsing
+     */
+    public HashMap<String, ArrayList<Date>> importData(String fileName, Predicate<String> sensorFilter) throws IOException {
+        long startTime = System.nanoTime();
+        ImportFileEvent event = new ImportFileEvent(fileName);
+        event.begin();
         InputStream resources = this.getClass().getResourceAsStream("/sensorData/" + fileName); //Get file from resources
 
         if (resources == null) {
@@ -39,16 +60,26 @@ public class CSVSensorDataImporter implements DataImporter<HashMap<String, Array
         HashMap<String, ArrayList<Date>> sensorDataMap = new HashMap<>();
         String date = fileName.split(Constants.DATA_FILE_SEPARATOR)[1].replace(".csv", ""); //Get date from file name
 
+        long readingCount = 0;
+
         String line = myReader.readLine();
         line = myReader.readLine(); //Skip first line of CSV as it is the headers
 
         while (line != null) { //Loop till EOF
-            parseLine(line, sensorDataMap, date);
+            if (sensorFilter.test(line.split(Constants.CSV_TOKEN)[0])) {
+                parseLine(line, sensorDataMap, date);
+                readingCount++;
+            }
             line = myReader.readLine();
         }
 
         myReader.close();
 
+        IMPORTED_FILES.increment();
+        IMPORTED_READINGS.add(readingCount);
+        IMPORT_LATENCY.recordSince(startTime);
+        event.setReadingCount(readingCount);
+        event.commit();
         return sensorDataMap;
     }
 
@@ -3,6 +3,9 @@ package buildingoccupationanalyzer;
 import java.io.FileNotFoundException;
 import java.io.IOException;
 import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.HashMap;
@@ -33,7 +36,33 @@ public class CSVSensorLocationFileImporter implements DataImporter<HashMap<Strin
             throw new FileNotFoundException("FILE NOT FOUND IN RESOURCES");
         }
 
-        BufferedReader myReader = new BufferedReader(new InputStreamReader(resources, "UTF-8"));
+        return parse(new BufferedReader(new InputStreamReader(resources, "UTF-8")));
+    }
+
+    /**
+     * Method for importing a sensor location file from disk instead of the resources, used to reload the locations
+     * while the program runs
+     *
+     * @param file path to the file to be imported
+     * @return returns a map of buildings to a list of sensors
+     * @throws IOException thrown if the file can not be read or a line is malformed
+     */
+    public HashMap<String, ArrayList<String>> importFile(Path file) throws IOException {
+        try {
+            return parse(Files.newBufferedReader(file, StandardCharsets.UTF_8));
+        } catch (ArrayIndexOutOfBoundsException e) {
+            throw new IOException("Malformed line in sensor location file " + file, e);
+        }
+    }
+
+    /**
+     * Private helper function for parsing every line of a CSV sensor location file, the reader is closed
+     *
+     * @param myReader reader positioned at the start of the file
+     * @return returns a map of buildings to a list of sensors
+     * @throws IOException thrown if a input exception occurs during parsing
+     */
+    private HashMap<String, ArrayList<String>> parse(BufferedReader myReader) throws IOException {
         HashMap<String, ArrayList<String>> sensorLocationMap = new HashMap<>();
         String line = myReader.readLine();
         line = myReader.readLine(); //Skip first line of CSV as it is the headers
@@ -0,0 +1,93 @@
+package buildingoccupationanalyzer;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Immutable utilization result of the whole campus, the average of its buildings
+ * A failed result keeps the buildings computed before the failure
+ */
+public final class CampusUtilization {
+    private final List<BuildingUtilization> buildings;
+    private final double utilization;
+    private final UtilizationStatus status;
+    private final String message;
+
+    /**
+     * Constructor for CampusUtilization class
+     *
+     * @param incomingBuildings   results of the buildings
+     * @param incomingUtilization utilization as a percentage, only meaningful when the status is OK
+     * @param incomingStatus      status of the result
+     * @param incomingMessage     error message, null when the status is OK
+     */
+    private CampusUtilization(List<BuildingUtilization> incomingBuildings, double incomingUtilization, UtilizationStatus incomingStatus, String incomingMessage) {
+        this.buildings = Collections.unmodifiableList(new ArrayList<>(incomingBuildings));
+        this.utilization = incomingUtilization;
+        this.status = incomingStatus;
+        this.message = incomingMessage;
+    }
+
+    /**
+     * Method for creating a successful result, the utilization is the average of the buildings
+     *
+     * @param buildings results of the buildings, all successful
+     * @return the result
+     */
+    public static CampusUtilization ok(List<BuildingUtilization> buildings) {
+        double overallPercentage = 0.0;
+
+        for (BuildingUtilization building : buildings) {
+            overallPercentage += building.getUtilization();
+        }
+        return new CampusUtilization(buildings, buildings.isEmpty() ? 0.0 : overallPercentage / buildings.size(), UtilizationStatus.OK, null);
+    }
+
+    /**
+     * Method for creating a failed result
+     *
+     * @param buildings results of the buildings computed before the failure
+     * @param status    reason the utilization could not be computed
+     * @param message   error message, may be null if the error was already reported
+     * @return the result
+     */
+    public static CampusUtilization error(List<BuildingUtilization> buildings, UtilizationStatus status, String message) {
+        return new CampusUtilization(buildings, Constants.ERROR_DOUBLE_VALUE, status, message);
+    }
+
+    /**
+     * Getter for buildings
+     *
+     * @return results of the buildings
+     */
+    public List<BuildingUtilization> getBuildings() { return this.buildings; }
+
+    /**
+     * Getter for utilization
+     *
+     * @return utilization as a percentage, only meaningful when the status is OK
+     */
+    public double getUtilization() { return this.utilization; }
+
+    /**
+     * Getter for status
+     *
+     * @return status of the result
+     */
+    public UtilizationStatus getStatus() { return this.status; }
+
+    /**
+     * Getter for message
+     *
+     * @return error message, null when the status is OK
+     */
+    public String getMessage() { return this.message; }
+
+    /**
+     * Method for checking if the utilization was computed
+     *
+     * @return true if the status is OK
+     */
+    public boolean isOk() { return this.status == UtilizationStatus.OK; }
+}
@@ -0,0 +1,65 @@
+package buildingoccupationanalyzer;
+
+/**
+ * Immutable summary of a single compaction run
+ */
+public final class CompactionReport {
+    private final int readingsRemoved;
+    private final int daysAggregated;
+    private final int daysDropped;
+    private final long bytesReclaimed;
+
+    /**
+     * Constructor for CompactionReport class
+     *
+     * @param incomingReadingsRemoved raw readings removed from the sensor data map
+     * @param incomingDaysAggregated  room days that were collapsed into hourly aggregates
+     * @param incomingDaysDropped     room day aggregates that were dropped past the hard horizon
+     * @param incomingBytesReclaimed  estimated bytes of heap reclaimed
+     */
+    public CompactionReport(int incomingReadingsRemoved, int incomingDaysAggregated, int incomingDaysDropped, long incomingBytesReclaimed) {
+        this.readingsRemoved = incomingReadingsRemoved;
+        this.daysAggregated = incomingDaysAggregated;
+        this.daysDropped = incomingDaysDropped;
+        this.bytesReclaimed = incomingBytesReclaimed;
+    }
+
+    /**
+     * Getter for readings removed
+     *
+     * @return readings removed
+     */
+    public int getReadingsRemoved() { return this.readingsRemoved; }
+
+    /**
+     * Getter for days aggregated
+     *
+     * @return room days aggregated
+     */
+    public int getDaysAggregated() { return this.daysAggregated; }
+
+    /**
+     * Getter for days dropped
+     *
+     * @return room days dropped
+     */
+    public int getDaysDropped() { return this.daysDropped; }
+
+    /**
+     * Getter for bytes reclaimed
+     *
+     * @return estimated bytes reclaimed
+     */
+    public long getBytesReclaimed() { return this.bytesReclaimed; }
+
+    /**
+     * Method for formatting the report for output
+     *
+     * @return human readable report
+     */
+    @Override
+    public String toString() {
+        return "Compaction reclaimed " + this.bytesReclaimed + " bytes (" + this.readingsRemoved + " readings removed, "
+                + this.daysAggregated + " room days aggregated, " + this.daysDropped + " room days dropped)";
+    }
+}
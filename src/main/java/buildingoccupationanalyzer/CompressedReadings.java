@@ -0,0 +1,162 @@
+package buildingoccupationanalyzer;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+
+/**
+ * Immutable compressed readings of one sensor, split into blocks of READING_BLOCK_SIZE timestamps
+ * The readings keep their stored order so decoding returns exactly the list that was encoded. Cursors skip every block
+ * whose smallest and largest timestamp lie outside the query window and decode the other blocks one at a time into a
+ * reused buffer, so a window query never materializes the readings as Date objects
+ */
+public final class CompressedReadings {
+    private static final int HEADER_BYTES = 24;
+
+    private final ReadingBlock[] blocks;
+    private final int size;
+
+    /**
+     * Constructor for CompressedReadings class
+     *
+     * @param incomingBlocks blocks holding the readings in stored order
+     * @param incomingSize   total number of readings
+     */
+    private CompressedReadings(ReadingBlock[] incomingBlocks, int incomingSize) {
+        this.blocks = incomingBlocks;
+        this.size = incomingSize;
+    }
+
+    /**
+     * Method for compressing the readings of a sensor
+     *
+     * @param readings readings to compress, in stored order
+     * @return the compressed readings
+     */
+    public static CompressedReadings encode(List<Date> readings) {
+        long[] timestamps = new long[readings.size()];
+        ReadingBlock[] blocks = new ReadingBlock[(timestamps.length + Constants.READING_BLOCK_SIZE - 1) / Constants.READING_BLOCK_SIZE];
+
+        for (int i = 0; i < timestamps.length; i++) {
+            timestamps[i] = readings.get(i).getTime();
+        }
+        for (int i = 0; i < blocks.length; i++) {
+            int from = i * Constants.READING_BLOCK_SIZE;
+            blocks[i] = ReadingBlock.encode(timestamps, from, Math.min(Constants.READING_BLOCK_SIZE, timestamps.length - from));
+        }
+        return new CompressedReadings(blocks, timestamps.length);
+    }
+
+    /**
+     * Getter for size
+     *
+     * @return number of readings
+     */
+    public int size() { return this.size; }
+
+    /**
+     * Method for decoding every reading
+     *
+     * @return a new list of the readings in stored order
+     */
+    public ArrayList<Date> decode() {
+        long[] buffer = new long[Constants.READING_BLOCK_SIZE];
+        ArrayList<Date> readings = new ArrayList<>(this.size);
+
+        for (ReadingBlock block : this.blocks) {
+            block.decode(buffer, 0);
+            for (int i = 0; i < block.size(); i++) {
+                readings.add(new Date(buffer[i]));
+            }
+        }
+        return readings;
+    }
+
+    /**
+     * Method for estimating the heap memory used by the readings
+     *
+     * @return estimated bytes including every block
+     */
+    public long getMemoryBytes() {
+        long bytes = HEADER_BYTES + (long) this.blocks.length * Integer.BYTES;
+
+        for (ReadingBlock block : this.blocks) {
+            bytes += block.getMemoryBytes();
+        }
+        return bytes;
+    }
+
+    /**
+     * Method for creating a cursor over the readings within a window
+     *
+     * @param startMillis start of the window, inclusive
+     * @param endMillis   end of the window, exclusive
+     * @return the cursor
+     */
+    public ReadingCursor cursor(long startMillis, long endMillis) {
+        return new BlockCursor(startMillis, endMillis);
+    }
+
+    /**
+     * Cursor that decodes the blocks overlapping its window one at a time
+     */
+    private final class BlockCursor implements ReadingCursor {
+        private final long startMillis;
+        private final long endMillis;
+        private final long[] buffer = new long[Constants.READING_BLOCK_SIZE];
+        private int blockIndex = -1;
+        private int blockSize;
+        private int index;
+        private long current;
+
+        /**
+         * Constructor for BlockCursor class
+         *
+         * @param incomingStartMillis start of the window, inclusive
+         * @param incomingEndMillis   end of the window, exclusive
+         */
+        BlockCursor(long incomingStartMillis, long incomingEndMillis) {
+            this.startMillis = incomingStartMillis;
+            this.endMillis = incomingEndMillis;
+        }
+
+        @Override
+        public boolean next() {
+            while (true) {
+                while (this.index < this.blockSize) {
+                    this.current = this.buffer[this.index++];
+                    if (this.current >= this.startMillis && this.current < this.endMillis) {
+                        return true;
+                    }
+                }
+                if (!nextBlock()) {
+                    return false;
+                }
+            }
+        }
+
+        @Override
+        public long getMillis() { return this.current; }
+
+        /**
+         * Helper method for decoding the next block that overlaps the window
+         *
+         * @return true if a block was decoded, false if no block is left
+         */
+        private boolean nextBlock() {
+            while (++this.blockIndex < CompressedReadings.this.blocks.length) {
+                ReadingBlock block = CompressedReadings.this.blocks[this.blockIndex];
+
+                if (block.getMax() >= this.startMillis && block.getMin() < this.endMillis) {
+                    block.decode(this.buffer, 0);
+                    this.blockSize = block.size();
+                    this.index = 0;
+                    return true;
+                }
+            }
+            this.blockSize = 0;
+            this.index = 0;
+            return false;
+        }
+    }
+}
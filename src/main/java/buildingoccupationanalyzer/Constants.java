@@ -14,6 +14,7 @@ public final class Constants {
     public static final String SENSOR_SEPARATOR_TOKEN = " ";
     public static final String CONFIG_FILE_NAME = "buildingSensorMap.csv";
     public static final String DATA_FILE_NAME = "DataFile_2020-02-08.csv";
+    public static final String[] STARTUP_DATA_FILE_NAMES = {DATA_FILE_NAME};
     public static final String ADMIN_PASSWORD = "password123";
     public static final String BUILDING_AREA_NAME_SEPARATOR = "~";
     public static final String CURRENT_MOCK_DATE = "2020-02-08";
@@ -25,4 +26,35 @@ public final class Constants {
     public static final int TOTAL_MILLISECONDS_IN_A_MINUTE = 60000;
     public static final double PERCENT_COVERT_NUMBER = 100.0;
     public static final int TIME_BETWEEN_READINGS = 1;
+    public static final int TOTAL_HOURS_IN_A_DAY = 24;
+    public static final int RAW_RETENTION_DAYS = 7;
+    public static final int AGGREGATE_RETENTION_DAYS = 365;
+    public static final int COMPACTION_INTERVAL_MINUTES = 60;
+    public static final int WRITE_BUFFER_FLUSH_READINGS = 1024;
+    public static final int WRITE_BUFFER_MAX_RUNS = 4;
+    public static final int LISTING_PAGE_SIZE = 20;
+    public static final int EXPORT_BLOCK_ROWS = 16384;
+    public static final int READING_BLOCK_SIZE = 128;
+    public static final String COMPRESSED_STORAGE_PROPERTY = "buildingoccupationanalyzer.compressedStorage";
+    public static final int BUSINESS_HOURS_START = 8;
+    public static final int BUSINESS_HOURS_END = 18;
+    public static final int SENSOR_STUCK_HOURS = 24;
+    public static final int SENSOR_STUCK_GAP_MINUTES = 2;
+    public static final int SENSOR_SILENT_HOURS = 48;
+    public static final int SENSOR_MAX_DOOR_INTERVAL_HOURS = 16;
+    public static final int SENSOR_CHATTER_READINGS_PER_MINUTE = 4;
+    public static final int SENSOR_HEALTH_CHECKPOINTS = 24;
+    public static final String WAL_DIRECTORY_PROPERTY = "buildingoccupationanalyzer.wal.directory";
+    public static final String WAL_FSYNC_PROPERTY = "buildingoccupationanalyzer.wal.fsync";
+    public static final String WAL_LOG_FILE_NAME = "readings.wal";
+    public static final String WAL_SNAPSHOT_FILE_NAME = "readings.snapshot";
+    public static final int WAL_FSYNC_INTERVAL_MILLIS = 100;
+    public static final long WAL_CHECKPOINT_BYTES = 67108864;
+    public static final int WAL_MAX_RECORD_BYTES = 268435456;
+    public static final String LOCATION_FILE_PROPERTY = "buildingoccupationanalyzer.locations.file";
+    public static final int LOCATION_RELOAD_DEBOUNCE_MILLIS = 200;
+    public static final String EVENTS_PORT_PROPERTY = "buildingoccupationanalyzer.events.port";
+    public static final int OCCUPANCY_SUBSCRIPTION_QUEUE_CHANGES = 256;
+    public static final int OCCUPANCY_SWEEP_MILLIS = 1000;
+    public static final int OCCUPANCY_HEARTBEAT_MILLIS = 15000;
 }
@@ -0,0 +1,110 @@
+package buildingoccupationanalyzer;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.text.DecimalFormat;
+import java.util.Map;
+
+/**
+ * Class for the coordinator interface of a sharded deployment, implements abstract TerminalInterface class
+ */
+public class CoordinatorInterface implements TerminalInterface {
+    private final ShardCoordinator coordinator;
+    private final BufferedReader reader;
+
+    /**
+     * Constructor for CoordinatorInterface class
+     *
+     * @param incomingCoordinator coordinator to send queries through
+     * @param incomingReader      reader to read input from
+     */
+    public CoordinatorInterface(ShardCoordinator incomingCoordinator, BufferedReader incomingReader) {
+        this.coordinator = incomingCoordinator;
+        this.reader = incomingReader;
+    }
+
+    /**
+     * Implementing abstract method to display the coordinator interface
+     */
+    public void displayInterface() {
+        System.out.println("Coordinating " + this.coordinator.getShards().size() + " shards: " + this.coordinator.getShards());
+
+        while (true) {
+            try {
+                System.out.println("\n\nPlease enter (uta) followed by the number of days to get a overall utilization report (uta 1), "
+                        + "optionally followed by terminal, json or csv for the output format (uta 1 json), "
+                        + "(oc all) to check every room/area at once, or (q)uit to exit the program\n\n");
+                System.out.print(">");
+
+                if (handleCoordinatorInput(this.reader.readLine()) == -1) {
+                    break;
+                }
+            } catch (IOException e) {
+                Utils.handleException(e, false);
+            }
+        }
+    }
+
+    /**
+     * Method for handling coordinator input
+     *
+     * @param userInput user input to handle
+     * @return returns a integer to show if the command succeeded, failed or if the interface should exit
+     */
+    int handleCoordinatorInput(String userInput) {
+        if (userInput == null || userInput.equals("q")) {
+            System.out.println("Bye Bye!");
+            this.coordinator.shutdown();
+            return -1;
+        }
+        try {
+            if (userInput.split(" ")[0].equals("uta")) {
+                return handleUtilization(userInput);
+            } else if (userInput.equals("oc all")) {
+                Map<String, Integer> occupancy = this.coordinator.checkOccupancyAll();
+                for (Map.Entry<String, Integer> entry : occupancy.entrySet()) {
+                    String[] location = entry.getKey().split(Constants.BUILDING_AREA_NAME_SEPARATOR);
+                    System.out.println(location[0] + " " + location[1] + ": " + (entry.getValue() == 1 ? "occupied" : "not occupied"));
+                }
+                return 0;
+            }
+            System.out.println("Invalid input");
+        } catch (IndexOutOfBoundsException | NumberFormatException e) {
+            System.out.println("Invalid input, missing number of days");
+        } catch (IllegalArgumentException e) {
+            System.out.println("Invalid input, " + e.getMessage());
+        } catch (IOException e) {
+            System.out.println("Error occurred while querying shards: " + e.getMessage());
+        }
+        return 1;
+    }
+
+    /**
+     * Method for handling the uta command, the campus result of the shards is rendered as terminal report lines or in
+     * the given output format. Errors are printed to standard error so json and csv output stays machine readable
+     *
+     * @param userInput user input to handle
+     * @return returns a integer to show if the command succeeded or not
+     * @throws IOException thrown if the report can not be written
+     */
+    private int handleUtilization(String userInput) throws IOException {
+        String[] splitInput = userInput.split(" ");
+        UtilizationRenderer renderer = splitInput.length > 2 ? UtilizationRenderer.forFormat(splitInput[2]) : new TerminalUtilizationRenderer();
+        CampusUtilization result = this.coordinator.analyzeCampus(Integer.parseInt(splitInput[1]));
+        PrintWriter writer = new PrintWriter(System.out);
+
+        renderer.renderCampus(result, writer);
+        if (renderer instanceof JsonUtilizationRenderer) {
+            writer.println();
+        } else if (renderer instanceof TerminalUtilizationRenderer && result.isOk()) {
+            writer.println("Overall utilization over the past " + splitInput[1] + " days: " + new DecimalFormat("0.00").format(result.getUtilization()) + "%");
+        }
+        writer.flush();
+        if (!result.isOk()) {
+            System.err.println(result.getMessage());
+            return 1;
+        }
+        return 0;
+    }
+}
@@ -0,0 +1,29 @@
+package buildingoccupationanalyzer;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Monotonic counter metric, safe to increment from any thread without locking
+ */
+public final class Counter {
+    private final LongAdder value = new LongAdder();
+
+    /**
+     * Method for incrementing the counter by one
+     */
+    public void increment() { this.value.increment(); }
+
+    /**
+     * Method for incrementing the counter
+     *
+     * @param amount amount to add
+     */
+    public void add(long amount) { this.value.add(amount); }
+
+    /**
+     * Getter for the counter value
+     *
+     * @return the current value
+     */
+    public long getValue() { return this.value.sum(); }
+}
@@ -0,0 +1,92 @@
+package buildingoccupationanalyzer;
+
+import java.io.IOException;
+import java.io.Writer;
+
+/**
+ * Renders utilization results as CSV with a header line and one row per room/area, building and campus total
+ * Columns are level,building,room,status,utilization,message, utilization is empty unless the status is OK
+ */
+public final class CsvUtilizationRenderer implements UtilizationRenderer {
+    static final String HEADER = "level,building,room,status,utilization,message";
+
+    /**
+     * Default constructor
+     */
+    public CsvUtilizationRenderer() { }
+
+    @Override
+    public void renderRoom(RoomUtilization result, Writer writer) throws IOException {
+        writer.write(HEADER + "\n");
+        writeRoom(result, writer);
+    }
+
+    @Override
+    public void renderBuilding(BuildingUtilization result, Writer writer) throws IOException {
+        writer.write(HEADER + "\n");
+        writeBuilding(result, writer);
+    }
+
+    @Override
+    public void renderCampus(CampusUtilization result, Writer writer) throws IOException {
+        writer.write(HEADER + "\n");
+        for (BuildingUtilization building : result.getBuildings()) {
+            writeBuilding(building, writer);
+        }
+        writer.write("campus,,," + statusColumns(result.getStatus(), result.getUtilization(), result.getMessage()) + "\n");
+    }
+
+    /**
+     * Helper method for writing the row of a room/area
+     *
+     * @param result the result to write
+     * @param writer writer to write to
+     * @throws IOException thrown if the writer fails
+     */
+    private static void writeRoom(RoomUtilization result, Writer writer) throws IOException {
+        writer.write("room," + escape(result.getBuilding()) + "," + escape(result.getRoom()) + ","
+                + statusColumns(result.getStatus(), result.getUtilization(), result.getMessage()) + "\n");
+    }
+
+    /**
+     * Helper method for writing the rows of a building and its rooms/areas
+     *
+     * @param result the result to write
+     * @param writer writer to write to
+     * @throws IOException thrown if the writer fails
+     */
+    private static void writeBuilding(BuildingUtilization result, Writer writer) throws IOException {
+        for (RoomUtilization room : result.getRooms()) {
+            writeRoom(room, writer);
+        }
+        writer.write("building," + escape(result.getBuilding()) + ",,"
+                + statusColumns(result.getStatus(), result.getUtilization(), result.getMessage()) + "\n");
+    }
+
+    /**
+     * Helper method for formatting the status, utilization and message columns of a row
+     *
+     * @param status      status of the result
+     * @param utilization utilization of the result
+     * @param message     error message of the result
+     * @return the formatted columns
+     */
+    private static String statusColumns(UtilizationStatus status, double utilization, String message) {
+        return status.name() + "," + (status == UtilizationStatus.OK ? String.valueOf(utilization) : "") + "," + escape(message);
+    }
+
+    /**
+     * Helper method for escaping a CSV field
+     *
+     * @param value the field
+     * @return the escaped field, empty if the field is null
+     */
+    static String escape(String value) {
+        if (value == null) {
+            return "";
+        } else if (value.contains(",") || value.contains("\"") || value.contains("\n")) {
+            return "\"" + value.replace("\"", "\"\"") + "\"";
+        }
+        return value;
+    }
+}
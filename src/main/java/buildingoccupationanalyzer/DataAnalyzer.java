@@ -1,20 +1,44 @@
 package buildingoccupationanalyzer;
 
-import java.text.DecimalFormat;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.io.Writer;
 import java.text.ParseException;
 import java.text.SimpleDateFormat;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Calendar;
 import java.util.Date;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
 
 /**
  * Class for data analysis
  */
 public class DataAnalyzer {
+    private static final LatencyHistogram UTILIZATION_LATENCY = MetricsRegistry.getDefault().histogram("analyzer_query_seconds{query=\"utilization\"}", "Time spent answering analyzer queries");
+    private static final LatencyHistogram BUILDING_UTILIZATION_LATENCY = MetricsRegistry.getDefault().histogram("analyzer_query_seconds{query=\"buildingUtilization\"}", "Time spent answering analyzer queries");
+    private static final LatencyHistogram OVERALL_UTILIZATION_LATENCY = MetricsRegistry.getDefault().histogram("analyzer_query_seconds{query=\"overallUtilization\"}", "Time spent answering analyzer queries");
+    private static final LatencyHistogram OCCUPANCY_LATENCY = MetricsRegistry.getDefault().histogram("analyzer_query_seconds{query=\"occupancy\"}", "Time spent answering analyzer queries");
+    private static final LatencyHistogram BATCH_OCCUPANCY_LATENCY = MetricsRegistry.getDefault().histogram("analyzer_query_seconds{query=\"batchOccupancy\"}", "Time spent answering analyzer queries");
+    private static final LatencyHistogram RANGE_UTILIZATION_LATENCY = MetricsRegistry.getDefault().histogram("analyzer_query_seconds{query=\"rangeUtilization\"}", "Time spent answering analyzer queries");
+    private static final LatencyHistogram APPROXIMATE_UTILIZATION_LATENCY = MetricsRegistry.getDefault().histogram("analyzer_query_seconds{query=\"approximateUtilization\"}", "Time spent answering analyzer queries");
+    private static final LatencyHistogram RANKING_LATENCY = MetricsRegistry.getDefault().histogram("analyzer_query_seconds{query=\"ranking\"}", "Time spent answering analyzer queries");
+    private static final Counter QUERY_ERRORS = MetricsRegistry.getDefault().counter("analyzer_query_errors_total", "Analyzer queries that returned a error");
+
     private DataStore dataStore;
+    private Clock clock;
+    private BitsetAggregator bitsetAggregator = new ScalarBitsetAggregator();
 
     /**
      * Default constructor
@@ -22,7 +46,54 @@ public class DataAnalyzer {
      * @param incomingDataStore Incoming data store to set
      */
     public DataAnalyzer(DataStore incomingDataStore) {
+        this(incomingDataStore, MockDateClock.defaultClock());
+    }
+
+    /**
+     * Constructor for DataAnalyzer class with a custom clock
+     *
+     * @param incomingDataStore Incoming data store to set
+     * @param incomingClock     Clock that defines the current time for occupancy checks
+     */
+    public DataAnalyzer(DataStore incomingDataStore, Clock incomingClock) {
         this.dataStore = incomingDataStore;
+        this.clock = incomingClock;
+    }
+
+    /**
+     * Getter for clock
+     *
+     * @return the clock that defines the current time for occupancy checks
+     */
+    public Clock getClock() {
+        return this.clock;
+    }
+
+    /**
+     * Setter for clock
+     *
+     * @param incomingClock Clock to set
+     */
+    public void setClock(Clock incomingClock) {
+        this.clock = incomingClock;
+    }
+
+    /**
+     * Getter for bitset aggregator
+     *
+     * @return the backend aggregating the occupied minutes of many rooms/areas
+     */
+    public BitsetAggregator getBitsetAggregator() {
+        return this.bitsetAggregator;
+    }
+
+    /**
+     * Setter for bitset aggregator
+     *
+     * @param incomingBitsetAggregator Bitset aggregator to set
+     */
+    public void setBitsetAggregator(BitsetAggregator incomingBitsetAggregator) {
+        this.bitsetAggregator = incomingBitsetAggregator;
     }
 
     /**
@@ -44,81 +115,449 @@ public class DataAnalyzer {
     }
 
     /**
-     * Method for getting overall building utilization
+     * Method for getting overall building utilization, prints the utilization of each room/area
      *
      * @param numberOfDays Number of days to perform the calculation on
      * @param buildingName Building name to look into
      * @return A percentage representing the buildings utilization
      */
     double getOverallBuildingUtilization(int numberOfDays, String buildingName) {
-        if (numberOfDays == 0) {
-            System.err.println("Error, days must not be 0");
-            return Constants.ERROR_DOUBLE_VALUE;
-        }
+        BuildingUtilization result = analyzeBuilding(buildingName, numberOfDays);
 
-        if (buildingName == null) {
-            System.err.println("Error, building name must not be null");
-            return Constants.ERROR_DOUBLE_VALUE;
+        printReport(writer -> new TerminalUtilizationRenderer().renderBuilding(result, writer));
+        return toLegacyValue(result.getStatus(), result.getUtilization(), result.getMessage());
+    }
+
+    /**
+     * Method for getting overall utilization, prints the utilization of each room/area and building
+     *
+     * @param numberOfDays Number of days to perform the calculation on
+     * @return A percentage representing overall utilization
+     */
+    public double getOverallUtilization(int numberOfDays) {
+        CampusUtilization result = analyzeCampus(numberOfDays);
+
+        printReport(writer -> new TerminalUtilizationRenderer().renderCampus(result, writer));
+        return toLegacyValue(result.getStatus(), result.getUtilization(), result.getMessage());
+    }
+
+    /**
+     * Method for getting the utilization of a room/area
+     *
+     * @param buildingName The building name to look for
+     * @param roomName     The room name to look for
+     * @param numberOfDays Number of days to perform the calculation on
+     * @return Returns a double representing the utilization
+     */
+    public double getUtilization(String buildingName, String roomName, int numberOfDays) {
+        RoomUtilization result = analyzeRoom(buildingName, roomName, numberOfDays);
+
+        return toLegacyValue(result.getStatus(), result.getUtilization(), result.getMessage());
+    }
+
+    /**
+     * Method for estimating the utilization of a room/area with its 95% confidence interval. Counting the occupied
+     * minutes of the occupancy bitmap costs less than sampling them, so the estimate is the exact count with a interval
+     * of width 0
+     *
+     * @param buildingName The building name to look for
+     * @param roomName     The room name to look for
+     * @param numberOfDays Number of days to perform the estimate on
+     * @return the estimate
+     */
+    public UtilizationEstimate estimateUtilization(String buildingName, String roomName, int numberOfDays) {
+        long startTime = System.nanoTime();
+        RoomUtilization room = analyzeRoom(buildingName, roomName, numberOfDays);
+        UtilizationEstimate result = room.isOk() ? UtilizationEstimate.exact(room.getUtilization()) : UtilizationEstimate.error(room.getStatus(), room.getMessage());
+
+        recordQuery(APPROXIMATE_UTILIZATION_LATENCY, startTime, !result.isOk());
+        return result;
+    }
+
+    /**
+     * Method for estimating the overall utilization with its 95% confidence interval, like estimateUtilization the
+     * estimate is the exact count with a interval of width 0
+     *
+     * @param numberOfDays Number of days to perform the estimate on
+     * @return the estimate
+     */
+    public UtilizationEstimate estimateOverallUtilization(int numberOfDays) {
+        long startTime = System.nanoTime();
+        CampusUtilization campus = analyzeCampus(numberOfDays);
+        UtilizationEstimate result = campus.isOk() ? UtilizationEstimate.exact(campus.getUtilization()) : UtilizationEstimate.error(campus.getStatus(), campus.getMessage());
+
+        recordQuery(APPROXIMATE_UTILIZATION_LATENCY, startTime, !result.isOk());
+        return result;
+    }
+
+    /**
+     * Method for ranking the K most or least utilized rooms/areas of a building or the campus, only rooms/areas that may
+     * make the list are counted exactly
+     *
+     * @param buildingName Building to rank, null for every room/area of the campus
+     * @param numberOfDays Number of days to rank over
+     * @param k            Number of rooms/areas to return
+     * @param mostUtilized true for the most utilized rooms/areas, false for the least utilized
+     * @return the ranking, best ranked first
+     */
+    public RoomRanking rankRooms(String buildingName, int numberOfDays, int k, boolean mostUtilized) {
+        long startTime = System.nanoTime();
+        RoomRanking result = new RoomRanker(this.dataStore).rank(buildingName, numberOfDays, k, mostUtilized);
+
+        recordQuery(RANKING_LATENCY, startTime, !result.isOk());
+        return result;
+    }
+
+    /**
+     * Method for getting the utilization of a room/area over a range of time from the occupancy index
+     * Both times are truncated to the hour
+     *
+     * @param buildingName The building name to look for
+     * @param roomName     The room name to look for
+     * @param start        Start of the range, inclusive
+     * @param end          End of the range, exclusive
+     * @return Returns a double representing the utilization
+     */
+    public double getUtilization(String buildingName, String roomName, LocalDateTime start, LocalDateTime end) {
+        RoomUtilization result = analyzeRoom(buildingName, roomName, start, end);
+
+        return toLegacyValue(result.getStatus(), result.getUtilization(), result.getMessage());
+    }
+
+    /**
+     * Method for getting overall utilization over a range of time from the occupancy index, prints the utilization of
+     * each room/area and building
+     *
+     * @param start Start of the range, inclusive
+     * @param end   End of the range, exclusive
+     * @return A percentage representing overall utilization
+     */
+    public double getOverallUtilization(LocalDateTime start, LocalDateTime end) {
+        CampusUtilization result = analyzeCampus(start, end);
+
+        printReport(writer -> new TerminalUtilizationRenderer().renderCampus(result, writer));
+        return toLegacyValue(result.getStatus(), result.getUtilization(), result.getMessage());
+    }
+
+    /**
+     * Method for counting the minutes of a range of days in which the rooms/areas of a building or the campus are
+     * occupied together, from the occupancy bitmaps of the rooms/areas
+     *
+     * @param buildingName Building to look into, null for every room/area of the campus
+     * @param start        First day of the range
+     * @param end          Last day of the range, inclusive
+     * @param allRooms     true to count minutes every room/area is occupied, false to count minutes at least one is
+     * @return the number of occupied minutes
+     */
+    public long getCombinedOccupiedMinutes(String buildingName, LocalDate start, LocalDate end, boolean allRooms) {
+        return this.dataStore.getOccupancyIndex().combine(getRoomKeys(buildingName), allRooms)
+                .getCardinality(start.toEpochDay() * Constants.TOTAL_MINUTES_IN_A_DAY, (end.toEpochDay() + 1) * Constants.TOTAL_MINUTES_IN_A_DAY);
+    }
+
+    /**
+     * Method for counting how many rooms/areas of a building or the campus are occupied in each minute of a range of
+     * days, aggregated by the bitset aggregator
+     *
+     * @param buildingName Building to look into, null for every room/area of the campus
+     * @param start        First day of the range
+     * @param end          Last day of the range, inclusive
+     * @return the number of occupied rooms/areas for each minute of the range
+     */
+    public int[] getConcurrentRoomCounts(String buildingName, LocalDate start, LocalDate end) {
+        int minutes = getRangeMinutes(start, end);
+        List<long[]> roomWords = getRoomWords(getRoomKeys(buildingName), start, minutes);
+
+        return roomWords.isEmpty() ? new int[minutes] : this.bitsetAggregator.countPerBit(roomWords, minutes);
+    }
+
+    /**
+     * Method for counting the minutes within business hours (BUSINESS_HOURS_START to BUSINESS_HOURS_END) of a range of
+     * days in which at least one room/area of a building or the campus is occupied, aggregated by the bitset aggregator
+     *
+     * @param buildingName Building to look into, null for every room/area of the campus
+     * @param start        First day of the range
+     * @param end          Last day of the range, inclusive
+     * @return the number of occupied business hour minutes
+     */
+    public long getBusinessHoursOccupiedMinutes(String buildingName, LocalDate start, LocalDate end) {
+        int minutes = getRangeMinutes(start, end);
+        List<long[]> roomWords = getRoomWords(getRoomKeys(buildingName), start, minutes);
+
+        if (roomWords.isEmpty()) {
+            return 0;
         }
+        return this.bitsetAggregator.popcount(this.bitsetAggregator.and(Arrays.asList(this.bitsetAggregator.or(roomWords), createBusinessHoursMask(minutes))));
+    }
 
-        double overallPercentage = 0.0;
-        double returnPercentage = 0.0;
-        List<String> areas = this.dataStore.getAreasAsList(buildingName);
-        int roomCount = areas.size();
-        DecimalFormat df = new DecimalFormat("0.00");
+    /**
+     * Method for creating a bitset of the business hour minutes of a range of whole days
+     *
+     * @param minutes length of the range in minutes, a multiple of a day
+     * @return bitset with the minutes from BUSINESS_HOURS_START to BUSINESS_HOURS_END of every day set
+     */
+    static long[] createBusinessHoursMask(int minutes) {
+        OccupancyBitmap.Builder mask = OccupancyBitmap.builder();
 
-        for (String area : areas) {
-            returnPercentage = getUtilization(buildingName, area, numberOfDays);
+        for (long dayStart = 0; dayStart < minutes; dayStart += Constants.TOTAL_MINUTES_IN_A_DAY) {
+            mask.addRange(dayStart + Constants.BUSINESS_HOURS_START * Constants.TOTAL_MINUTES_IN_HOUR, dayStart + Constants.BUSINESS_HOURS_END * Constants.TOTAL_MINUTES_IN_HOUR);
+        }
+        return mask.build().toWords(0, minutes);
+    }
+
+    /**
+     * Helper method for listing the building~room keys of a building or the campus
+     *
+     * @param buildingName Building to list, null for every room/area of the campus
+     * @return the room/area keys
+     */
+    private List<String> getRoomKeys(String buildingName) {
+        List<String> roomKeys = new ArrayList<>();
 
-            if (returnPercentage == Constants.ERROR_DOUBLE_VALUE) {
-                return Constants.ERROR_DOUBLE_VALUE;
+        if (buildingName == null) {
+            roomKeys.addAll(this.dataStore.getSensorLocationMap().keySet());
+        } else {
+            for (String area : this.dataStore.getAreasAsList(buildingName)) {
+                roomKeys.add(buildingName + Constants.BUILDING_AREA_NAME_SEPARATOR + area);
             }
+        }
+        return roomKeys;
+    }
+
+    /**
+     * Helper method for copying the occupied minutes of rooms/areas into plain bitsets, unknown rooms/areas are left out
+     *
+     * @param roomKeys building~room keys
+     * @param start    First day of the range
+     * @param minutes  length of the range in minutes
+     * @return one bitset per room/area, bit i is the i-th minute of the range
+     */
+    private List<long[]> getRoomWords(List<String> roomKeys, LocalDate start, int minutes) {
+        List<long[]> roomWords = new ArrayList<>();
+        long startMinute = start.toEpochDay() * Constants.TOTAL_MINUTES_IN_A_DAY;
 
-            System.out.println("Overall utilization for room/area " + area + " in building " + buildingName + " is: " + df.format(returnPercentage) + "%");
-            overallPercentage += returnPercentage;
+        for (String roomKey : roomKeys) {
+            OccupancyBitmap bitmap = this.dataStore.getOccupancyIndex().getRoomBitmap(roomKey);
+            if (bitmap != null) {
+                roomWords.add(bitmap.toWords(startMinute, startMinute + minutes));
+            }
         }
+        return roomWords;
+    }
+
+    /**
+     * Helper method for getting the length of a range of days
+     *
+     * @param start First day of the range
+     * @param end   Last day of the range, inclusive
+     * @return length of the range in minutes, 0 if end is before start
+     */
+    private static int getRangeMinutes(LocalDate start, LocalDate end) {
+        return (int) Math.max(0, (end.toEpochDay() - start.toEpochDay() + 1) * Constants.TOTAL_MINUTES_IN_A_DAY);
+    }
+
+    /**
+     * Method for computing the utilization of a room/area
+     *
+     * @param buildingName The building name to look for
+     * @param roomName     The room name to look for
+     * @param numberOfDays Number of days to perform the calculation on
+     * @return the rooms result
+     */
+    public RoomUtilization analyzeRoom(String buildingName, String roomName, int numberOfDays) {
+        long startTime = System.nanoTime();
+        RoomUtilizationEvent event = new RoomUtilizationEvent(buildingName, roomName, numberOfDays);
+        event.begin();
+        RoomUtilization result = computeUtilization(buildingName, roomName, numberOfDays);
+
+        event.setUtilization(result.getUtilization());
+        event.commit();
+        recordQuery(UTILIZATION_LATENCY, startTime, !result.isOk());
+        return result;
+    }
+
+    /**
+     * Method for computing the utilization of a room/area over a range of time from the occupancy index
+     * Both times are truncated to the hour
+     *
+     * @param buildingName The building name to look for
+     * @param roomName     The room name to look for
+     * @param start        Start of the range, inclusive
+     * @param end          End of the range, exclusive
+     * @return the rooms result
+     */
+    public RoomUtilization analyzeRoom(String buildingName, String roomName, LocalDateTime start, LocalDateTime end) {
+        long startTime = System.nanoTime();
+        RoomUtilization result = computeRangeUtilization(buildingName, roomName, start, end);
+
+        recordQuery(RANGE_UTILIZATION_LATENCY, startTime, !result.isOk());
+        return result;
+    }
+
+    /**
+     * Method for computing the utilization of a building and each of its rooms/areas
+     *
+     * @param buildingName Building name to look into
+     * @param numberOfDays Number of days to perform the calculation on
+     * @return the buildings result
+     */
+    public BuildingUtilization analyzeBuilding(String buildingName, int numberOfDays) {
+        long startTime = System.nanoTime();
+        BuildingUtilization result;
 
-        if (roomCount == 0.0) {
-            return 0.0;
+        if (numberOfDays == 0) {
+            result = BuildingUtilization.error(buildingName, new ArrayList<>(), UtilizationStatus.INVALID_ARGUMENT, "Error, days must not be 0");
+        } else {
+            result = computeBuildingUtilization(buildingName, area -> analyzeRoom(buildingName, area, numberOfDays));
         }
+        recordQuery(BUILDING_UTILIZATION_LATENCY, startTime, !result.isOk());
+        return result;
+    }
 
-        return (overallPercentage / roomCount);
+    /**
+     * Method for computing the utilization of a building and each of its rooms/areas over a range of time
+     *
+     * @param buildingName Building name to look into
+     * @param start        Start of the range, inclusive
+     * @param end          End of the range, exclusive
+     * @return the buildings result
+     */
+    public BuildingUtilization analyzeBuilding(String buildingName, LocalDateTime start, LocalDateTime end) {
+        String rangeError = getRangeError(start, end);
+
+        if (rangeError != null) {
+            return BuildingUtilization.error(buildingName, new ArrayList<>(), UtilizationStatus.INVALID_ARGUMENT, rangeError);
+        }
+        return computeBuildingUtilization(buildingName, area -> analyzeRoom(buildingName, area, start, end));
     }
 
     /**
-     * Method for getting overall utilization
+     * Method for computing the utilization of the campus, each building and each room/area
      *
      * @param numberOfDays Number of days to perform the calculation on
-     * @return A percentage representing overall utilization
+     * @return the campus result
      */
-    public double getOverallUtilization(int numberOfDays) {
+    public CampusUtilization analyzeCampus(int numberOfDays) {
+        long startTime = System.nanoTime();
+        CampusUtilization result;
+
         if (numberOfDays == 0) {
-            System.err.println("Error, days must not be 0");
-            return Constants.ERROR_DOUBLE_VALUE;
+            result = CampusUtilization.error(new ArrayList<>(), UtilizationStatus.INVALID_ARGUMENT, "Error, days must not be 0");
+        } else {
+            result = computeCampusUtilization(building -> analyzeBuilding(building, numberOfDays));
         }
+        recordQuery(OVERALL_UTILIZATION_LATENCY, startTime, !result.isOk());
+        return result;
+    }
 
-        double overallPercentage = 0.0;
-        double returnPercentage = 0.0;
-        List<String> buildings = this.dataStore.getBuildingsAsList();
-        int buildingCount = buildings.size();
-        DecimalFormat df = new DecimalFormat("0.00");
+    /**
+     * Method for computing the utilization of a room/area at a time resolution, one minute gives the same result as
+     * analyzeRoom without a resolution
+     *
+     * @param buildingName The building name to look for
+     * @param roomName     The room name to look for
+     * @param numberOfDays Number of days to perform the calculation on
+     * @param resolution   bucket size to count occupancy in
+     * @return the rooms result
+     */
+    public RoomUtilization analyzeRoom(String buildingName, String roomName, int numberOfDays, TimeResolution resolution) {
+        if (resolution.isMinute()) {
+            return analyzeRoom(buildingName, roomName, numberOfDays);
+        }
+        long startTime = System.nanoTime();
+        RoomUtilization result = computeUtilization(buildingName, roomName, numberOfDays, resolution);
 
-        for (String building : buildings) {
-            returnPercentage = getOverallBuildingUtilization(numberOfDays, building);
+        recordQuery(UTILIZATION_LATENCY, startTime, !result.isOk());
+        return result;
+    }
 
-            if (returnPercentage == Constants.ERROR_DOUBLE_VALUE) {
-                return Constants.ERROR_DOUBLE_VALUE;
-            }
+    /**
+     * Method for computing the utilization of a building and each of its rooms/areas at a time resolution
+     *
+     * @param buildingName Building name to look into
+     * @param numberOfDays Number of days to perform the calculation on
+     * @param resolution   bucket size to count occupancy in
+     * @return the buildings result
+     */
+    public BuildingUtilization analyzeBuilding(String buildingName, int numberOfDays, TimeResolution resolution) {
+        if (numberOfDays == 0 || resolution.isMinute()) {
+            return analyzeBuilding(buildingName, numberOfDays);
+        }
+        return computeBuildingUtilization(buildingName, area -> analyzeRoom(buildingName, area, numberOfDays, resolution));
+    }
 
-            System.out.println("Overall utilization for building " + building + " is: " + df.format(returnPercentage) + "%\n");
-            overallPercentage += returnPercentage;
+    /**
+     * Method for computing the utilization of the campus, each building and each room/area at a time resolution
+     *
+     * @param numberOfDays Number of days to perform the calculation on
+     * @param resolution   bucket size to count occupancy in
+     * @return the campus result
+     */
+    public CampusUtilization analyzeCampus(int numberOfDays, TimeResolution resolution) {
+        if (numberOfDays == 0 || resolution.isMinute()) {
+            return analyzeCampus(numberOfDays);
         }
+        return computeCampusUtilization(building -> analyzeBuilding(building, numberOfDays, resolution));
+    }
+
+    /**
+     * Method for computing the utilization of the campus, each building and each room/area over a range of time
+     *
+     * @param start Start of the range, inclusive
+     * @param end   End of the range, exclusive
+     * @return the campus result
+     */
+    public CampusUtilization analyzeCampus(LocalDateTime start, LocalDateTime end) {
+        String rangeError = getRangeError(start, end);
+
+        if (rangeError != null) {
+            return CampusUtilization.error(new ArrayList<>(), UtilizationStatus.INVALID_ARGUMENT, rangeError);
+        }
+        return computeCampusUtilization(building -> analyzeBuilding(building, start, end));
+    }
+
+    /**
+     * Helper method for computing the utilization of every room/area of a building, stops at the first failed room/area
+     *
+     * @param buildingName    Building name to look into
+     * @param roomUtilization Function computing the result of a room/area from its name
+     * @return the buildings result
+     */
+    private BuildingUtilization computeBuildingUtilization(String buildingName, Function<String, RoomUtilization> roomUtilization) {
+        if (buildingName == null) {
+            return BuildingUtilization.error(null, new ArrayList<>(), UtilizationStatus.INVALID_ARGUMENT, "Error, building name must not be null");
+        }
+
+        List<RoomUtilization> rooms = new ArrayList<>();
 
-        if (buildingCount == 0.0) {
-            return 0.0;
+        for (String area : this.dataStore.getAreasAsList(buildingName)) {
+            RoomUtilization room = roomUtilization.apply(area);
+
+            if (!room.isOk()) {
+                return BuildingUtilization.error(buildingName, rooms, room.getStatus(), room.getMessage());
+            }
+            rooms.add(room);
         }
+        return BuildingUtilization.ok(buildingName, rooms);
+    }
+
+    /**
+     * Helper method for computing the utilization of every building, stops at the first failed building
+     *
+     * @param buildingUtilization Function computing the result of a building from its name
+     * @return the campus result
+     */
+    private CampusUtilization computeCampusUtilization(Function<String, BuildingUtilization> buildingUtilization) {
+        List<BuildingUtilization> buildings = new ArrayList<>();
 
-        return (overallPercentage / buildingCount);
+        for (String building : this.dataStore.getBuildingsAsList()) {
+            BuildingUtilization result = buildingUtilization.apply(building);
+
+            buildings.add(result);
+            if (!result.isOk()) {
+                return CampusUtilization.error(buildings, result.getStatus(), result.getMessage());
+            }
+        }
+        return CampusUtilization.ok(buildings);
     }
 
     /**
@@ -136,14 +575,14 @@ public class DataAnalyzer {
 
         try {
             currDate = dateFormat.parse(Constants.CURRENT_MOCK_DATE);
-            currDateKey = currDate.getDate() + "~" + currDate.getMonth() + "~" + currDate.getYear();
+            currDateKey = Utils.getDayKey(currDate);
             validDates.add(currDateKey);
             cal.setTime(currDate);
 
             for (int i = 1; i < numberOfDays; i++) {
                 cal.add(Calendar.DATE, -1);
                 Date newDate = cal.getTime();
-                currDateKey = newDate.getDate() + "~" + newDate.getMonth() + "~" + newDate.getYear();
+                currDateKey = Utils.getDayKey(newDate);
                 validDates.add(currDateKey);
             }
         } catch (ParseException e) {
@@ -154,77 +593,345 @@ public class DataAnalyzer {
     }
 
     /**
-     * Method for getting the utilization of a room/area
+     * Helper method for computing the utilization of a room/area
      *
      * @param buildingName The building name to look for
      * @param roomName     The room name to look for
      * @param numberOfDays Number of days to perform the calculation on
-     * @return Returns a double representing the utilization
+     * @return the rooms result
      */
-    public double getUtilization(String buildingName, String roomName, int numberOfDays) {
-        ArrayList<String> sensorList = this.dataStore.getSensorLocationMap().get(buildingName + Constants.BUILDING_AREA_NAME_SEPARATOR + roomName);
-        HashMap<String, ArrayList<Date>> sensorDataMap = this.dataStore.getSensorDataMap();
-        HashMap<String, HashMap<Integer, String>> utilization = new HashMap<>();
+    private RoomUtilization computeUtilization(String buildingName, String roomName, int numberOfDays) {
+        String roomKey = buildingName + Constants.BUILDING_AREA_NAME_SEPARATOR + roomName;
+        ArrayList<String> sensorList = this.dataStore.getSensorLocationMap().get(roomKey);
         double totalMinutes = numberOfDays * Constants.TOTAL_MINUTES_IN_A_DAY;
-        double totalCountedMinutes = 0.0;
+        long lastDay = LocalDate.parse(Constants.CURRENT_MOCK_DATE).toEpochDay();
+        long firstDay = lastDay - Math.max(1, numberOfDays) + 1;
 
         if (sensorList == null) {
-            System.err.println("Building name and Room name combination was not found");
-            return Constants.ERROR_DOUBLE_VALUE;
+            return RoomUtilization.error(buildingName, roomName, UtilizationStatus.NOT_FOUND, "Building name and Room name combination was not found");
         } else if (totalMinutes == 0) {
-            System.err.println("Number of days must not be 0");
-            return Constants.ERROR_DOUBLE_VALUE;
+            return RoomUtilization.error(buildingName, roomName, UtilizationStatus.INVALID_ARGUMENT, "Number of days must not be 0");
+        }
+        AnalyzerPhaseEvent phaseEvent = new AnalyzerPhaseEvent(AnalyzerPhaseEvent.OCCUPANCY_BITMAP, buildingName, roomName, numberOfDays);
+        phaseEvent.begin();
+        OccupancyBitmap bitmap = this.dataStore.getOccupancyIndex().getRoomBitmap(roomKey);
+        double totalCountedMinutes = bitmap == null ? 0 : bitmap.getCardinality(firstDay * Constants.TOTAL_MINUTES_IN_A_DAY, (lastDay + 1) * Constants.TOTAL_MINUTES_IN_A_DAY);
+        phaseEvent.commit();
+        return RoomUtilization.ok(buildingName, roomName, (totalCountedMinutes / totalMinutes) * Constants.PERCENT_COVERT_NUMBER);
+    }
+
+    /**
+     * Helper method for computing the utilization of a room/area at a time resolution other than one minute. Whole
+     * minute buckets are grouped from the occupancy index, finer buckets are built from the readings within the days
+     *
+     * @param buildingName The building name to look for
+     * @param roomName     The room name to look for
+     * @param numberOfDays Number of days to perform the calculation on
+     * @param resolution   bucket size to count occupancy in
+     * @return the rooms result
+     */
+    private RoomUtilization computeUtilization(String buildingName, String roomName, int numberOfDays, TimeResolution resolution) {
+        String roomKey = buildingName + Constants.BUILDING_AREA_NAME_SEPARATOR + roomName;
+        ArrayList<String> sensorList = this.dataStore.getSensorLocationMap().get(roomKey);
+        double totalBuckets = (double) numberOfDays * resolution.getBucketsPerDay();
+        LocalDate lastDay = LocalDate.parse(Constants.CURRENT_MOCK_DATE);
+        LocalDate firstDay = lastDay.minusDays(Math.max(1, numberOfDays) - 1);
+
+        if (sensorList == null) {
+            return RoomUtilization.error(buildingName, roomName, UtilizationStatus.NOT_FOUND, "Building name and Room name combination was not found");
+        } else if (totalBuckets == 0) {
+            return RoomUtilization.error(buildingName, roomName, UtilizationStatus.INVALID_ARGUMENT, "Number of days must not be 0");
+        }
+
+        OccupancyBitmap bitmap;
+        if (resolution.isWholeMinutes()) {
+            OccupancyBitmap minutes = this.dataStore.getOccupancyIndex().getRoomBitmap(roomKey);
+            bitmap = minutes == null ? OccupancyBitmap.empty() : minutes.coarsen(resolution.getBucketSeconds() / TimeResolution.MINUTE.getBucketSeconds());
         } else {
-            Date startTime = null;
-            Date endTime = null;
-            for (String sensor : sensorList) {
-                for (Date date : sensorDataMap.get(sensor)) {
-                    if (!sensor.contains(Constants.DOOR_SENSOR_ID)) {
-                        String key = date.getDate() + "~" + date.getMonth() + "~" + date.getYear();
+            bitmap = buildOccupancyBitmap(sensorList, firstDay, lastDay.plusDays(1), resolution);
+        }
+        double occupiedBuckets = bitmap.getCardinality(resolution.getDayStart(firstDay), resolution.getDayStart(lastDay.plusDays(1)));
+        return RoomUtilization.ok(buildingName, roomName, (occupiedBuckets / totalBuckets) * Constants.PERCENT_COVERT_NUMBER);
+    }
+
+    /**
+     * Helper method for computing the utilization of a room/area over a range of time from the occupancy index
+     *
+     * @param buildingName The building name to look for
+     * @param roomName     The room name to look for
+     * @param start        Start of the range, inclusive
+     * @param end          End of the range, exclusive
+     * @return the rooms result
+     */
+    private RoomUtilization computeRangeUtilization(String buildingName, String roomName, LocalDateTime start, LocalDateTime end) {
+        String rangeError = getRangeError(start, end);
+
+        if (rangeError != null) {
+            return RoomUtilization.error(buildingName, roomName, UtilizationStatus.INVALID_ARGUMENT, rangeError);
+        }
+
+        LocalDateTime rangeStart = start.truncatedTo(ChronoUnit.HOURS);
+        LocalDateTime rangeEnd = end.truncatedTo(ChronoUnit.HOURS);
+        String roomKey = buildingName + Constants.BUILDING_AREA_NAME_SEPARATOR + roomName;
+        long occupiedMinutes = this.dataStore.getOccupancyIndex().getOccupiedMinutes(roomKey, rangeStart, rangeEnd);
+        double totalMinutes = Duration.between(rangeStart, rangeEnd).toMinutes();
+
+        if (occupiedMinutes == -1) {
+            return RoomUtilization.error(buildingName, roomName, UtilizationStatus.NOT_FOUND, "Building name and Room name combination was not found");
+        }
+        return RoomUtilization.ok(buildingName, roomName, (occupiedMinutes / totalMinutes) * Constants.PERCENT_COVERT_NUMBER);
+    }
+
+    /**
+     * Helper method for validating a range of time, the range must span at least one whole hour
+     *
+     * @param start Start of the range, inclusive
+     * @param end   End of the range, exclusive
+     * @return error message, null if the range is valid
+     */
+    private static String getRangeError(LocalDateTime start, LocalDateTime end) {
+        if (start == null || end == null) {
+            return "Error, start and end must not be null";
+        } else if (!end.truncatedTo(ChronoUnit.HOURS).isAfter(start.truncatedTo(ChronoUnit.HOURS))) {
+            return "Error, end must be at least one hour after start";
+        }
+        return null;
+    }
+
+    /**
+     * Helper method for converting a result to the value returned by the console reporting methods, errors are printed
+     * and returned as ERROR_DOUBLE_VALUE
+     *
+     * @param status      status of the result
+     * @param utilization utilization of the result
+     * @param message     error message of the result
+     * @return the utilization, or ERROR_DOUBLE_VALUE if the result failed
+     */
+    private static double toLegacyValue(UtilizationStatus status, double utilization, String message) {
+        if (status == UtilizationStatus.OK) {
+            return utilization;
+        }
+        if (message != null) {
+            System.err.println(message);
+        }
+        return Constants.ERROR_DOUBLE_VALUE;
+    }
+
+    /**
+     * Helper method for rendering a report to the console
+     *
+     * @param report the rendering to perform
+     */
+    private static void printReport(ReportWriter report) {
+        PrintWriter writer = new PrintWriter(System.out);
+
+        try {
+            report.write(writer);
+        } catch (IOException e) {
+            Utils.handleException(e, false);
+        }
+        writer.flush();
+    }
+
+    /**
+     * Rendering of a report to a writer
+     */
+    private interface ReportWriter {
+        /**
+         * Method for writing the report
+         *
+         * @param writer writer to write to
+         * @throws IOException thrown if the writer fails
+         */
+        void write(Writer writer) throws IOException;
+    }
+
+    /**
+     * Method for building a map of days to occupied minutes for the sensors of a room/area
+     *
+     * @param sensorList    The sensors belonging to the room/area
+     * @param sensorDataMap The sensor readings to build the map from
+     * @return Map of day keys to a map whose keys are the occupied minutes of that day
+     */
+    HashMap<String, HashMap<Integer, String>> buildMinutesMap(List<String> sensorList, HashMap<String, ArrayList<Date>> sensorDataMap) {
+        HashMap<String, HashMap<Integer, String>> utilization = new HashMap<>();
+        AnalyzerPhaseEvent expansionEvent = new AnalyzerPhaseEvent(AnalyzerPhaseEvent.DOOR_INTERVAL_EXPANSION, null, null, 1);
+        int doorIntervals = 0;
+        Date startTime = null;
+        Date endTime = null;
+
+        expansionEvent.begin();
+        for (String sensor : sensorList) {
+            if (sensorDataMap.get(sensor) == null) {
+                continue;
+            }
+            for (Date date : sensorDataMap.get(sensor)) {
+                if (!sensor.contains(Constants.DOOR_SENSOR_ID)) {
+                    String key = Utils.getDayKey(date);
+                    HashMap<Integer, String> minutesMap;
+                    if (utilization.get(key) == null) {
+                        minutesMap = new HashMap<Integer, String>();
+                    } else {
+                        minutesMap = utilization.get(key);
+                    }
+                    minutesMap.put((date.getHours() * Constants.TOTAL_MINUTES_IN_HOUR) + date.getMinutes(), null);
+                    utilization.put(key, minutesMap);
+                } else {
+                    if (startTime == null) {
+                        startTime = date;
+                    } else if (endTime == null) {
+                        endTime = date;
+                        doorIntervals++;
+                        String key = Utils.getDayKey(date);
                         HashMap<Integer, String> minutesMap;
                         if (utilization.get(key) == null) {
                             minutesMap = new HashMap<Integer, String>();
                         } else {
                             minutesMap = utilization.get(key);
                         }
-                        minutesMap.put((date.getHours() * Constants.TOTAL_MINUTES_IN_HOUR) + date.getMinutes(), null);
-                        utilization.put(key, minutesMap);
-                    } else {
-                        if (startTime == null) {
-                            startTime = date;
-                        } else if (endTime == null) {
-                            endTime = date;
-                            String key = date.getDate() + "~" + date.getMonth() + "~" + date.getYear();
-                            HashMap<Integer, String> minutesMap;
-                            if (utilization.get(key) == null) {
-                                minutesMap = new HashMap<Integer, String>();
-                            } else {
-                                minutesMap = utilization.get(key);
-                            }
+                        minutesMap.put((endTime.getHours() * Constants.TOTAL_MINUTES_IN_HOUR) + endTime.getMinutes(), null);
+                        minutesMap.put((startTime.getHours() * Constants.TOTAL_MINUTES_IN_HOUR) + startTime.getMinutes(), null);
+                        while (endTime.getTime() >= startTime.getTime()) {
+                            endTime = new Date(endTime.getTime() - Constants.TOTAL_MILLISECONDS_IN_A_MINUTE);
                             minutesMap.put((endTime.getHours() * Constants.TOTAL_MINUTES_IN_HOUR) + endTime.getMinutes(), null);
-                            minutesMap.put((startTime.getHours() * Constants.TOTAL_MINUTES_IN_HOUR) + startTime.getMinutes(), null);
-                            while (endTime.getTime() >= startTime.getTime()) {
-                                endTime = new Date(endTime.getTime() - Constants.TOTAL_MILLISECONDS_IN_A_MINUTE);
-                                minutesMap.put((endTime.getHours() * Constants.TOTAL_MINUTES_IN_HOUR) + endTime.getMinutes(), null);
-                            }
-                            utilization.put(key, minutesMap);
-                            endTime = null;
-                            startTime = null;
                         }
+                        utilization.put(key, minutesMap);
+                        endTime = null;
+                        startTime = null;
                     }
                 }
             }
         }
-        ArrayList<String> validDates = getValidDates(numberOfDays);
-        if (validDates == null) {
-            return Constants.ERROR_DOUBLE_VALUE;
+        expansionEvent.setDoorIntervals(doorIntervals);
+        expansionEvent.commit();
+        return utilization;
+    }
+
+    /**
+     * Method for building a bitmap of the occupied minutes of a room/area, with the same minutes as buildMinutesMap: a
+     * ceiling sensor reading occupies its minute and a pair of door sensor readings occupies every minute between them,
+     * counted on the day of the second reading
+     *
+     * @param sensorList    The sensors belonging to the room/area
+     * @param sensorDataMap The sensor readings to build the bitmap from
+     * @return the occupied minutes
+     */
+    OccupancyBitmap buildOccupancyBitmap(List<String> sensorList, HashMap<String, ArrayList<Date>> sensorDataMap) {
+        return buildOccupancyBitmap(sensorList, sensor -> ReadingCursor.over(sensorDataMap.get(sensor), Long.MIN_VALUE, Long.MAX_VALUE));
+    }
+
+    /**
+     * Method for building a bitmap of the occupied minutes of a room/area from the readings held by the data store. The
+     * readings are walked with cursors, so compressed readings are decoded a block at a time instead of into lists
+     *
+     * @param sensorList The sensors belonging to the room/area
+     * @return the occupied minutes
+     */
+    OccupancyBitmap buildOccupancyBitmap(List<String> sensorList) {
+        return buildOccupancyBitmap(sensorList, sensor -> this.dataStore.getReadingCursor(sensor, Long.MIN_VALUE, Long.MAX_VALUE));
+    }
+
+    /**
+     * Helper method for building a bitmap of the occupied minutes of a room/area from cursors over the readings of its
+     * sensors
+     *
+     * @param sensorList The sensors belonging to the room/area
+     * @param readings   cursor over every reading of a sensor in stored order
+     * @return the occupied minutes
+     */
+    private static OccupancyBitmap buildOccupancyBitmap(List<String> sensorList, Function<String, ReadingCursor> readings) {
+        OccupancyBitmap.Builder builder = OccupancyBitmap.builder();
+        AnalyzerPhaseEvent expansionEvent = new AnalyzerPhaseEvent(AnalyzerPhaseEvent.DOOR_INTERVAL_EXPANSION, null, null, 1);
+        int doorIntervals = 0;
+        long startTime = -1;
+
+        expansionEvent.begin();
+        for (String sensor : sensorList) {
+            ReadingCursor cursor = readings.apply(sensor);
+
+            while (cursor.next()) {
+                if (!sensor.contains(Constants.DOOR_SENSOR_ID)) {
+                    builder.add(Utils.getLocalMinute(cursor.getMillis()));
+                } else if (startTime == -1) {
+                    startTime = cursor.getMillis();
+                } else {
+                    addDoorInterval(builder, startTime, cursor.getMillis());
+                    doorIntervals++;
+                    startTime = -1;
+                }
+            }
         }
-        for (String key : utilization.keySet()) {
-            if (validDates.indexOf(key) != -1) {
-                totalCountedMinutes += utilization.get(key).keySet().size();
+        expansionEvent.setDoorIntervals(doorIntervals);
+        expansionEvent.commit();
+        return builder.build();
+    }
+
+    /**
+     * Method for building a bitmap of the occupied buckets of a room/area between two days at a time resolution. Ceiling
+     * readings within the days occupy their bucket, door readings are paired like buildOccupancyBitmap and occupy the
+     * same span addDoorInterval walks, whole minutes back from the end reading to just before the start reading
+     *
+     * @param sensorList sensors of the room/area
+     * @param start      first day, inclusive
+     * @param end        last day, exclusive
+     * @param resolution bucket size
+     * @return bitmap of occupied bucket numbers
+     */
+    OccupancyBitmap buildOccupancyBitmap(List<String> sensorList, LocalDate start, LocalDate end, TimeResolution resolution) {
+        OccupancyBitmap.Builder builder = OccupancyBitmap.builder();
+        long startMillis = start.atStartOfDay(ZoneId.systemDefault()).toInstant().toEpochMilli();
+        long endMillis = end.atStartOfDay(ZoneId.systemDefault()).toInstant().toEpochMilli();
+        long doorStart = -1;
+
+        for (String sensor : sensorList) {
+            if (!sensor.contains(Constants.DOOR_SENSOR_ID)) {
+                ReadingCursor cursor = this.dataStore.getReadingCursor(sensor, startMillis, endMillis);
+                while (cursor.next()) {
+                    builder.add(resolution.getBucket(cursor.getMillis()));
+                }
+                continue;
+            }
+            ReadingCursor readings = this.dataStore.getReadingCursor(sensor, Long.MIN_VALUE, Long.MAX_VALUE);
+            while (readings.next()) {
+                if (doorStart == -1) {
+                    doorStart = readings.getMillis();
+                } else {
+                    long doorEnd = readings.getMillis();
+                    long steps = doorEnd >= doorStart ? (doorEnd - doorStart) / Constants.TOTAL_MILLISECONDS_IN_A_MINUTE + 1 : 0;
+
+                    builder.add(resolution.getBucket(doorStart));
+                    builder.addRange(resolution.getBucket(doorEnd - steps * Constants.TOTAL_MILLISECONDS_IN_A_MINUTE), resolution.getBucket(doorEnd) + 1);
+                    doorStart = -1;
+                }
             }
         }
-        return (totalCountedMinutes / totalMinutes) * Constants.PERCENT_COVERT_NUMBER;
+        return builder.build();
+    }
+
+    /**
+     * Helper method for adding the minutes of a door sensor interval to a bitmap. Like buildMinutesMap the interval is
+     * walked back a minute at a time from its end to just before its start and each minute of the day is counted on
+     * the day of the end, so the interval is added as one range unless it crosses midnight or a change of UTC offset
+     *
+     * @param builder     bitmap to add to
+     * @param startMillis time of the first reading
+     * @param endMillis   time of the second reading
+     */
+    private static void addDoorInterval(OccupancyBitmap.Builder builder, long startMillis, long endMillis) {
+        long endMinute = Utils.getLocalMinute(endMillis);
+        long dayStart = Math.floorDiv(endMinute, Constants.TOTAL_MINUTES_IN_A_DAY) * Constants.TOTAL_MINUTES_IN_A_DAY;
+        long steps = endMillis >= startMillis ? (endMillis - startMillis) / Constants.TOTAL_MILLISECONDS_IN_A_MINUTE + 1 : 0;
+        long lowestMillis = endMillis - steps * Constants.TOTAL_MILLISECONDS_IN_A_MINUTE;
+        long lowestMinute = Utils.getLocalMinute(lowestMillis);
+
+        builder.add(dayStart + Math.floorMod(Utils.getLocalMinute(startMillis), Constants.TOTAL_MINUTES_IN_A_DAY));
+        if (endMinute - lowestMinute == steps && lowestMinute >= dayStart) {
+            builder.addRange(lowestMinute, endMinute + 1);
+            return;
+        }
+        for (long millis = endMillis; millis >= lowestMillis; millis -= Constants.TOTAL_MILLISECONDS_IN_A_MINUTE) {
+            builder.add(dayStart + Math.floorMod(Utils.getLocalMinute(millis), Constants.TOTAL_MINUTES_IN_A_DAY));
+        }
     }
 
     /**
@@ -235,24 +942,14 @@ public class DataAnalyzer {
      * @return A new date bound
      */
     Date createDateBound(Boolean minusMinutes, Boolean addMinutes) {
-        LocalDateTime dateTime;
-        SimpleDateFormat dateFormat = new SimpleDateFormat("yyyy-MM-dd HH:mm:ss");
+        OccupancyWindow window = createOccupancyWindow();
 
         if (minusMinutes) {
-            dateTime = LocalDateTime.now().minusMinutes(Constants.TIME_BETWEEN_READINGS);
+            return new Date(window.getLowerBound());
         } else if (addMinutes) {
-            dateTime = LocalDateTime.now().plusMinutes(Constants.TIME_BETWEEN_READINGS);
-        } else {
-            dateTime = LocalDateTime.now();
-        }
-
-        try {
-            return dateFormat.parse(Constants.CURRENT_MOCK_DATE + " " + dateTime.getHour() + ":" + dateTime.getMinute() + ":" + dateTime.getSecond());
-        } catch (ParseException e) {
-            Utils.handleException(e, false);
-            return null;
+            return new Date(window.getUpperBound());
         }
-
+        return new Date(window.getCurrentTime());
     }
 
     /**
@@ -263,44 +960,180 @@ public class DataAnalyzer {
      * @return Returns a int detailing if the room is occupied or not
      */
     public int checkOccupancy(String buildingName, String roomName) {
-        ArrayList<String> sensorList = this.dataStore.getSensorLocationMap().get(buildingName + Constants.BUILDING_AREA_NAME_SEPARATOR + roomName);
-        HashMap<String, ArrayList<Date>> sensorDataMap = this.dataStore.getSensorDataMap();
-        Date lowerBound = createDateBound(true, false); // Define time bounds
-        Date upperBound = createDateBound(false, true);
-        Date currentDate = createDateBound(false, false);
+        long startTime = System.nanoTime();
+        OccupancyCheckEvent event = new OccupancyCheckEvent(buildingName, roomName);
+        event.begin();
+        int returnVal = computeOccupancy(buildingName, roomName);
 
-        if (lowerBound == null || upperBound == null || currentDate == null) {
-            return -1;
+        event.setResult(returnVal);
+        event.commit();
+        recordQuery(OCCUPANCY_LATENCY, startTime, returnVal == -1);
+        return returnVal;
+    }
+
+    /**
+     * Method for creating the time bounds of a occupancy check from the analyzers clock
+     *
+     * @return the occupancy window
+     */
+    OccupancyWindow createOccupancyWindow() {
+        ZonedDateTime now = ZonedDateTime.now(this.clock).withNano(0);
+
+        return new OccupancyWindow(
+                now.minusMinutes(Constants.TIME_BETWEEN_READINGS).toInstant().toEpochMilli(),
+                now.plusMinutes(Constants.TIME_BETWEEN_READINGS).toInstant().toEpochMilli(),
+                now.toInstant().toEpochMilli());
+    }
+
+    /**
+     * Checks if every room/area on campus is currently occupied, the time bounds are computed once for all rooms
+     *
+     * @return Map of building~room keys to 1 if the room is occupied or 0 if not
+     */
+    public Map<String, Integer> checkOccupancyAll() {
+        return checkOccupancyBatch(new ArrayList<>(this.dataStore.getSensorLocationMap().keySet()));
+    }
+
+    /**
+     * Checks if every room/area of a building is currently occupied, the time bounds are computed once for all rooms
+     *
+     * @param buildingName Name of building to check
+     * @return Map of building~room keys to 1 if the room is occupied or 0 if not, empty if the building is unknown
+     */
+    public Map<String, Integer> checkOccupancyForBuilding(String buildingName) {
+        List<String> roomKeys = new ArrayList<>();
+
+        for (String area : this.dataStore.getAreasAsList(buildingName)) {
+            roomKeys.add(buildingName + Constants.BUILDING_AREA_NAME_SEPARATOR + area);
+        }
+        return checkOccupancyBatch(roomKeys);
+    }
+
+    /**
+     * Checks the live occupancy of a room/area from the state maintained as readings are ingested, without scanning readings
+     *
+     * @param buildingName Name of building to search in
+     * @param roomName     Name of room/area to search in
+     * @return Returns 1 if the room is occupied, 0 if not and -1 if the room is unknown
+     */
+    public int getLiveOccupancy(String buildingName, String roomName) {
+        return this.dataStore.getLiveOccupancy().getOccupancy(buildingName + Constants.BUILDING_AREA_NAME_SEPARATOR + roomName, createOccupancyWindow().getCurrentTime());
+    }
+
+    /**
+     * Checks the live occupancy of every room/area, or every room/area of a building, from the state maintained as readings are ingested
+     *
+     * @param buildingName Name of building to check, null for the whole campus
+     * @return Map of building~room keys to 1 if the room is occupied or 0 if not
+     */
+    public Map<String, Integer> getLiveOccupancyAll(String buildingName) {
+        List<String> roomKeys = new ArrayList<>();
+
+        if (buildingName == null) {
+            roomKeys.addAll(this.dataStore.getSensorLocationMap().keySet());
+        } else {
+            for (String area : this.dataStore.getAreasAsList(buildingName)) {
+                roomKeys.add(buildingName + Constants.BUILDING_AREA_NAME_SEPARATOR + area);
+            }
         }
+        return this.dataStore.getLiveOccupancy().getOccupancy(roomKeys, createOccupancyWindow().getCurrentTime());
+    }
+
+    /**
+     * Helper method for checking the occupancy of a list of rooms against one shared occupancy window
+     *
+     * @param roomKeys building~room keys of the rooms to check
+     * @return Map of building~room keys to 1 if the room is occupied or 0 if not
+     */
+    private Map<String, Integer> checkOccupancyBatch(List<String> roomKeys) {
+        long startTime = System.nanoTime();
+        OccupancyWindow window = createOccupancyWindow();
+        HashMap<String, ArrayList<String>> sensorLocationMap = this.dataStore.getSensorLocationMap();
+        Map<String, Integer> occupancy = new LinkedHashMap<>();
+
+        for (String roomKey : roomKeys) {
+            ArrayList<String> sensorList = sensorLocationMap.get(roomKey);
+            occupancy.put(roomKey, evaluateOccupancy(sensorList, window));
+        }
+        recordQuery(BATCH_OCCUPANCY_LATENCY, startTime, false);
+        return occupancy;
+    }
+
+    /**
+     * Helper method for checking if a specified room is currently occupied
+     *
+     * @param buildingName Name of building to search in
+     * @param roomName     Name of room/area to search in
+     * @return Returns a int detailing if the room is occupied or not
+     */
+    private int computeOccupancy(String buildingName, String roomName) {
+        ArrayList<String> sensorList = this.dataStore.getSensorLocationMap().get(buildingName + Constants.BUILDING_AREA_NAME_SEPARATOR + roomName);
 
         if (sensorList == null) {
             System.err.println("Building name and Room name combination was not found");
             return -1;
-        } else {
-            Date startTime = null;
-            Date endTime = null;
-            for (String sensor : sensorList) {
-                for (Date date : sensorDataMap.get(sensor)) {
-                    if (!sensor.contains(Constants.DOOR_SENSOR_ID)) {
-                        if (date.getTime() < upperBound.getTime() && date.getTime() > lowerBound.getTime()) { // Check if time is within bounds
-                            return 1;
-                        }
-                    } else {
-                        if (startTime == null) {
-                            startTime = date;
-                        } else if (endTime == null) {
-                            endTime = date;
-                            if (currentDate.getTime() < endTime.getTime() && currentDate.getTime() > startTime.getTime()) {
-                                return 1;
-                            }
-                            endTime = null;
-                            startTime = null;
-                        }
+        }
+        return evaluateOccupancy(sensorList, createOccupancyWindow());
+    }
+
+    /**
+     * Helper method for checking a rooms sensors against a occupancy window, each sensor is scanned at most once
+     * Ceiling sensors only need a reading within the window, so they are walked with a cursor over the window, door
+     * sensors are paired from a cursor over all their readings
+     *
+     * @param sensorList The sensors belonging to the room/area
+     * @param window     The time bounds to check against
+     * @return Returns 1 if the room is occupied or 0 if not
+     */
+    private int evaluateOccupancy(List<String> sensorList, OccupancyWindow window) {
+        return evaluateOccupancy(sensorList, window, this.dataStore::getReadingCursor);
+    }
+
+    /**
+     * Helper method for checking a rooms sensors against a occupancy window from any source of readings, shared with the
+     * live occupancy states for times before their latest readings
+     *
+     * @param sensorList    The sensors belonging to the room/area
+     * @param window        The time bounds to check against
+     * @param readingSource source of cursors over the readings of a sensor
+     * @return Returns 1 if the room is occupied or 0 if not
+     */
+    static int evaluateOccupancy(List<String> sensorList, OccupancyWindow window, ReadingCursor.Source readingSource) {
+        long startTime = -1;
+
+        for (String sensor : sensorList) {
+            if (!sensor.contains(Constants.DOOR_SENSOR_ID)) {
+                if (readingSource.open(sensor, window.getLowerBound() + 1, window.getUpperBound()).next()) { // Check if a reading is within bounds
+                    return 1;
+                }
+                continue;
+            }
+            ReadingCursor readings = readingSource.open(sensor, Long.MIN_VALUE, Long.MAX_VALUE);
+            while (readings.next()) {
+                if (startTime == -1) {
+                    startTime = readings.getMillis();
+                } else {
+                    if (window.getCurrentTime() < readings.getMillis() && window.getCurrentTime() > startTime) {
+                        return 1;
                     }
+                    startTime = -1;
                 }
             }
         }
         return 0;
     }
 
+    /**
+     * Helper method for recording the metrics of a finished query
+     *
+     * @param histogram latency histogram of the query
+     * @param startTime start time of the query taken from System.nanoTime()
+     * @param error     if the query returned a error
+     */
+    private static void recordQuery(LatencyHistogram histogram, long startTime, boolean error) {
+        histogram.recordSince(startTime);
+        if (error) {
+            QUERY_ERRORS.increment();
+        }
+    }
 }
@@ -0,0 +1,242 @@
+package buildingoccupationanalyzer;
+
+import java.util.ArrayList;
+import java.util.Calendar;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Class for applying a retention policy to a data store, can be run on demand or as a background task
+ */
+public class DataCompactor {
+    private static final long BYTES_PER_READING = 32; //ArrayList slot plus a java.util.Date object
+    private static final long BYTES_PER_AGGREGATE = 200; //int[24] plus the aggregate object, day key and map entry
+
+    private final DataStore dataStore;
+    private final DataAnalyzer dataAnalyzer;
+    private volatile RetentionPolicy retentionPolicy;
+    private volatile CompactionReport lastReport;
+    private ScheduledExecutorService scheduler;
+
+    /**
+     * Constructor for DataCompactor class
+     *
+     * @param incomingDataStore       data store to compact
+     * @param incomingRetentionPolicy policy to apply
+     */
+    public DataCompactor(DataStore incomingDataStore, RetentionPolicy incomingRetentionPolicy) {
+        this.dataStore = incomingDataStore;
+        this.dataAnalyzer = new DataAnalyzer(incomingDataStore);
+        this.retentionPolicy = incomingRetentionPolicy;
+    }
+
+    /**
+     * Getter for retention policy
+     *
+     * @return the retention policy
+     */
+    public RetentionPolicy getRetentionPolicy() { return this.retentionPolicy; }
+
+    /**
+     * Setter for retention policy, applies from the next compaction run
+     *
+     * @param incomingRetentionPolicy policy to set
+     */
+    public void setRetentionPolicy(RetentionPolicy incomingRetentionPolicy) { this.retentionPolicy = incomingRetentionPolicy; }
+
+    /**
+     * Getter for the report of the most recent compaction run
+     *
+     * @return last report, null if compaction has not run yet
+     */
+    public CompactionReport getLastReport() { return this.lastReport; }
+
+    /**
+     * Method for starting periodic background compaction, the compactor is registered with the data store so retention
+     * policy changes made through the admin interface apply to the background runs
+     *
+     * @param intervalMinutes minutes between compaction runs
+     */
+    public synchronized void start(int intervalMinutes) {
+        if (this.scheduler != null) {
+            return;
+        }
+        this.dataStore.setDataCompactor(this);
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "data-compactor");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.scheduler.scheduleWithFixedDelay(() -> {
+            try {
+                compact();
+            } catch (RuntimeException e) {
+                Utils.handleException(e, false);
+            }
+        }, intervalMinutes, intervalMinutes, TimeUnit.MINUTES);
+    }
+
+    /**
+     * Method for stopping periodic background compaction
+     */
+    public synchronized void stop() {
+        if (this.scheduler != null) {
+            this.scheduler.shutdownNow();
+            this.scheduler = null;
+        }
+    }
+
+    /**
+     * Method for running a single compaction. Writers are blocked for the duration of the run while queries keep
+     * reading the previous data until the compacted data is swapped in
+     *
+     * @return report describing the run
+     */
+    public CompactionReport compact() {
+        RetentionPolicy policy = this.retentionPolicy;
+        long rawCutoff = policy.getRawCutoff();
+        long hardCutoff = policy.getHardCutoff();
+        int readingsRemoved = 0;
+        int daysAggregated = 0;
+        int daysDropped = 0;
+
+        synchronized (this.dataStore.getWriteLock()) {
+            this.dataStore.flushWriteBuffer();
+            HashMap<String, ArrayList<Date>> currentData = this.dataStore.getSensorDataMap();
+            HashMap<String, ArrayList<Date>> keptData = new HashMap<>();
+            HashMap<String, ArrayList<Date>> agedData = new HashMap<>();
+
+            for (Map.Entry<String, ArrayList<Date>> entry : currentData.entrySet()) {
+                ArrayList<Date> kept = splitReadings(entry.getKey(), entry.getValue(), rawCutoff, hardCutoff, agedData);
+                keptData.put(entry.getKey(), kept);
+                readingsRemoved += entry.getValue().size() - kept.size();
+            }
+
+            for (Map.Entry<String, ArrayList<String>> room : this.dataStore.getSensorLocationMap().entrySet()) {
+                HashMap<String, RoomDayAggregate> existing = this.dataStore.getHourlyAggregates().get(room.getKey());
+                HashMap<String, RoomDayAggregate> updated = new HashMap<>();
+
+                if (existing != null) {
+                    for (RoomDayAggregate aggregate : existing.values()) {
+                        if (aggregate.getDayStart() < hardCutoff) {
+                            daysDropped++;
+                        } else {
+                            updated.put(aggregate.getDayKey(), aggregate);
+                        }
+                    }
+                }
+                for (RoomDayAggregate aggregate : aggregateRoom(room.getValue(), agedData)) {
+                    RoomDayAggregate previous = updated.get(aggregate.getDayKey());
+                    updated.put(aggregate.getDayKey(), previous == null ? aggregate : previous.merge(aggregate));
+                    if (previous == null) {
+                        daysAggregated++;
+                    }
+                }
+                if (updated.isEmpty()) {
+                    this.dataStore.getHourlyAggregates().remove(room.getKey());
+                } else {
+                    this.dataStore.getHourlyAggregates().put(room.getKey(), updated);
+                }
+            }
+
+            this.dataStore.setSensorDataMap(keptData);
+        }
+
+        long bytesReclaimed = readingsRemoved * BYTES_PER_READING + (daysDropped - daysAggregated) * BYTES_PER_AGGREGATE;
+        this.lastReport = new CompactionReport(readingsRemoved, daysAggregated, daysDropped, bytesReclaimed);
+        return this.lastReport;
+    }
+
+    /**
+     * Helper method for splitting a sensors readings into readings kept raw and readings to aggregate, readings past the hard
+     * horizon are discarded. Door sensor readings are only ever moved in start/end pairs so the remaining pairing stays intact
+     *
+     * @param sensor     sensor name
+     * @param readings   the sensors readings
+     * @param rawCutoff  time before which readings are aggregated
+     * @param hardCutoff time before which readings are dropped
+     * @param agedData   map to put the readings to aggregate in
+     * @return the readings to keep raw
+     */
+    private ArrayList<Date> splitReadings(String sensor, ArrayList<Date> readings, long rawCutoff, long hardCutoff, HashMap<String, ArrayList<Date>> agedData) {
+        ArrayList<Date> kept = new ArrayList<>();
+        ArrayList<Date> aged = new ArrayList<>();
+        ArrayList<Date> dropped = new ArrayList<>();
+
+        for (Date reading : readings) {
+            if (reading.getTime() >= rawCutoff) {
+                kept.add(reading);
+            } else if (reading.getTime() >= hardCutoff) {
+                aged.add(reading);
+            } else {
+                dropped.add(reading);
+            }
+        }
+
+        if (sensor.contains(Constants.DOOR_SENSOR_ID)) {
+            if (dropped.size() % 2 != 0) { //Keep the start of a pair that straddles the hard horizon with its end
+                aged.add(0, dropped.remove(dropped.size() - 1));
+            }
+            if ((dropped.size() + aged.size()) % 2 != 0) { //Keep a pair that straddles the raw cutoff together in the raw data
+                kept.add(0, aged.remove(aged.size() - 1));
+            }
+        }
+
+        if (!aged.isEmpty()) {
+            agedData.put(sensor, aged);
+        }
+        return kept;
+    }
+
+    /**
+     * Helper method for collapsing a rooms aged readings into hourly aggregates
+     *
+     * @param sensorList the rooms sensors
+     * @param agedData   readings to aggregate
+     * @return list of aggregates, one per day
+     */
+    private ArrayList<RoomDayAggregate> aggregateRoom(ArrayList<String> sensorList, HashMap<String, ArrayList<Date>> agedData) {
+        ArrayList<RoomDayAggregate> aggregates = new ArrayList<>();
+        HashMap<String, Long> dayStarts = new HashMap<>();
+
+        for (String sensor : sensorList) {
+            if (agedData.get(sensor) != null) {
+                for (Date reading : agedData.get(sensor)) {
+                    dayStarts.putIfAbsent(Utils.getDayKey(reading), getDayStart(reading));
+                }
+            }
+        }
+
+        HashMap<String, HashMap<Integer, String>> minutesMap = this.dataAnalyzer.buildMinutesMap(sensorList, agedData);
+        for (Map.Entry<String, HashMap<Integer, String>> day : minutesMap.entrySet()) {
+            int[] hours = new int[Constants.TOTAL_HOURS_IN_A_DAY];
+
+            for (Integer minute : day.getValue().keySet()) {
+                hours[minute / Constants.TOTAL_MINUTES_IN_HOUR]++;
+            }
+            aggregates.add(new RoomDayAggregate(day.getKey(), dayStarts.get(day.getKey()), hours));
+        }
+        return aggregates;
+    }
+
+    /**
+     * Helper method for getting the start of the day a reading belongs to
+     *
+     * @param reading a reading
+     * @return start of the day in milliseconds
+     */
+    private long getDayStart(Date reading) {
+        Calendar cal = Calendar.getInstance();
+
+        cal.setTime(reading);
+        cal.set(Calendar.HOUR_OF_DAY, 0);
+        cal.set(Calendar.MINUTE, 0);
+        cal.set(Calendar.SECOND, 0);
+        cal.set(Calendar.MILLISECOND, 0);
+        return cal.getTimeInMillis();
+    }
+}
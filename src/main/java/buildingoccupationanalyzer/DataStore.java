@@ -1,18 +1,67 @@
 package buildingoccupationanalyzer;
 
 import java.io.IOException;
+import java.io.StringWriter;
+import java.io.Writer;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Date;
 import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.Map;
+import java.util.Objects;
 import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
 
 /**
  * Data storage  class that allows for modification and viewing of the programs data
+ * Sensor data is replaced copy on write so queries keep a stable view while imports, removals and compaction run
+ * Single readings are ingested through a write buffer and merged into the sensor data by a background compaction,
+ * queries see buffered readings through getReadings and getSensorData
+ * With a write-ahead log attached by recover every import, ingested reading and removed sensor is logged before the call
+ * returns, checkpoint writes a snapshot and empties the log
  */
 public class DataStore {
-    private HashMap<String, ArrayList<String>> sensorLocationMap;
-    private HashMap<String, ArrayList<Date>> sensorDataMap;
+    private static final LatencyHistogram ADD_DATA_LATENCY = MetricsRegistry.getDefault().histogram("datastore_operation_seconds{operation=\"addData\"}", "Time spent in data store write operations");
+    private static final LatencyHistogram REMOVE_SENSOR_LATENCY = MetricsRegistry.getDefault().histogram("datastore_operation_seconds{operation=\"removeSensor\"}", "Time spent in data store write operations");
+    private static final Counter SKIPPED_IMPORTS = MetricsRegistry.getDefault().counter("imported_files_skipped_total", "Sensor data files skipped because they were already imported");
+    private static final Counter DUPLICATE_READINGS = MetricsRegistry.getDefault().counter("imported_readings_duplicate_total", "Imported sensor readings dropped as duplicates");
+    private static final LatencyHistogram WRITE_BUFFER_COMPACTION_LATENCY = MetricsRegistry.getDefault().histogram("datastore_operation_seconds{operation=\"writeBufferCompaction\"}", "Time spent in data store write operations");
+    private static final Counter INGESTED_READINGS = MetricsRegistry.getDefault().counter("datastore_ingested_readings_total", "Single readings ingested through the write buffer");
+    private static final long UNCOMPRESSED_READING_BYTES = 28;
+    private static final Counter REMOVED_SENSORS = MetricsRegistry.getDefault().counter("datastore_sensors_removed_total", "Sensors removed from the data store");
+    private static final LatencyHistogram CHECKPOINT_LATENCY = MetricsRegistry.getDefault().histogram("datastore_operation_seconds{operation=\"checkpoint\"}", "Time spent in data store write operations");
+    private static final AtomicInteger STORE_IDS = new AtomicInteger();
+
+    private volatile HashMap<String, ArrayList<String>> sensorLocationMap;
+    private volatile HashMap<String, ArrayList<Date>> sensorDataMap;
+    private volatile HashMap<String, CompressedReadings> compressedDataMap;
+    private final int storeId = STORE_IDS.incrementAndGet();
+    private final boolean compressedStorage;
+    private final ConcurrentHashMap<String, HashMap<String, RoomDayAggregate>> hourlyAggregates = new ConcurrentHashMap<>();
+    private final LiveOccupancyTable liveOccupancy = new LiveOccupancyTable(this::getReadingCursor);
+    private final OccupancyIndex occupancyIndex = new OccupancyIndex(this);
+    private final ImportManifest importManifest = new ImportManifest();
+    private final WriteBuffer writeBuffer = new WriteBuffer(Constants.WRITE_BUFFER_FLUSH_READINGS);
+    private final AtomicBoolean compactionScheduled = new AtomicBoolean();
+    private ExecutorService compactionExecutor;
+    private final Object writeLock = new Object();
+    private volatile BackgroundDataLoader dataLoader;
+    private volatile DataCompactor dataCompactor;
+    private final ReentrantReadWriteLock checkpointLock = new ReentrantReadWriteLock();
+    private final Set<String> removedSensors = new LinkedHashSet<>();
+    private volatile WriteAheadLog writeAheadLog;
+    private Path logDirectory;
 
     /**
      * Constructor for data store class
@@ -21,10 +70,42 @@ public class DataStore {
      * @param incomingSensorDataMap     map of sensors to sensor data entries
      */
     public DataStore(HashMap<String, ArrayList<String>> incomingSensorLocationMap, HashMap<String, ArrayList<Date>> incomingSensorDataMap) {
-        this.sensorDataMap = incomingSensorDataMap;
+        this(incomingSensorLocationMap, incomingSensorDataMap, false);
+    }
+
+    /**
+     * Constructor for data store class that can hold the sensor data compressed. Compressed readings are kept as
+     * delta encoded, bit-packed blocks. Occupancy checks and the occupancy index walk them with block cursors, the
+     * list getters decode a new list on every call
+     *
+     * @param incomingSensorLocationMap map of sensors to sensor locations
+     * @param incomingSensorDataMap     map of sensors to sensor data entries
+     * @param incomingCompressedStorage true to hold the sensor data compressed
+     */
+    public DataStore(HashMap<String, ArrayList<String>> incomingSensorLocationMap, HashMap<String, ArrayList<Date>> incomingSensorDataMap, boolean incomingCompressedStorage) {
+        this.compressedStorage = incomingCompressedStorage;
+        if (incomingCompressedStorage) {
+            this.compressedDataMap = compress(incomingSensorDataMap);
+        } else {
+            this.sensorDataMap = incomingSensorDataMap;
+        }
         this.sensorLocationMap = incomingSensorLocationMap;
+        this.liveOccupancy.rebuild(incomingSensorLocationMap, incomingSensorDataMap);
+        this.occupancyIndex.rebuild();
+        String labels = "{store=\"" + this.storeId + "\"}";
+        MetricsRegistry.getDefault().gauge("datastore_sensors" + labels, "Sensors with readings in the data store", this, store -> store.getStoredSensors().size());
+        MetricsRegistry.getDefault().gauge("datastore_reading_bytes" + labels, "Estimated heap bytes of the raw sensor readings", this, DataStore::getReadingMemoryBytes);
+        MetricsRegistry.getDefault().gauge("datastore_readings" + labels, "Raw sensor readings held in the data store", this, DataStore::getReadingCount);
+        MetricsRegistry.getDefault().gauge("datastore_write_buffer_readings" + labels, "Ingested readings waiting in the write buffer", this, store -> store.writeBuffer.size());
     }
 
+    /**
+     * Getter for store id
+     *
+     * @return id of the data store, labels the gauges of the data store
+     */
+    public int getStoreId() { return this.storeId; }
+
     /**
      * Getter for sensor location map
      *
@@ -33,25 +114,362 @@ public class DataStore {
     public HashMap<String, ArrayList<String>> getSensorLocationMap() { return this.sensorLocationMap; }
 
     /**
-     * Getter for sensor data map
+     * Getter for sensor data map, a decoded copy is returned when the sensor data is held compressed
      *
      * @return returns sensor data map
      */
-    public HashMap<String, ArrayList<Date>> getSensorDataMap() { return this.sensorDataMap; }
+    public HashMap<String, ArrayList<Date>> getSensorDataMap() {
+        if (!this.compressedStorage) {
+            return this.sensorDataMap;
+        }
+
+        HashMap<String, ArrayList<Date>> decoded = new HashMap<>();
+        for (Map.Entry<String, CompressedReadings> entry : this.compressedDataMap.entrySet()) {
+            decoded.put(entry.getKey(), entry.getValue().decode());
+        }
+        return decoded;
+    }
+
+    /**
+     * Method for checking if the sensor data is held compressed
+     *
+     * @return true if the sensor data is held compressed
+     */
+    public boolean isCompressedStorage() { return this.compressedStorage; }
 
     /**
      * Setter for sensor location map
      *
      * @param incomingSensorLocationMap sensor location map object to be set
      */
-    public void setSensorLocationMap(HashMap<String, ArrayList<String>> incomingSensorLocationMap) { this.sensorLocationMap = incomingSensorLocationMap; }
+    public void setSensorLocationMap(HashMap<String, ArrayList<String>> incomingSensorLocationMap) {
+        synchronized (this.writeLock) {
+            this.sensorLocationMap = incomingSensorLocationMap;
+            this.liveOccupancy.rebuild(this.sensorLocationMap, getAllSensorData());
+            this.occupancyIndex.rebuild();
+        }
+    }
+
+    /**
+     * Method for swapping in a reloaded sensor location map, sensor readings are left untouched. Queries that already
+     * read the old map finish on it, the live occupancy states and occupancy index are rebuilt only for rooms/areas whose
+     * sensors changed. Hourly aggregates of compacted days are kept, their raw readings no longer exist to rebuild them.
+     * Sensors removed with removeSensor stay removed, they are left out of the reloaded map before it is compared
+     *
+     * @param reloadedSensorLocationMap reloaded map of building~room keys to sensors
+     * @return building~room keys of the rooms/areas that were added, removed or had their sensors changed
+     */
+    public Set<String> reloadSensorLocationMap(HashMap<String, ArrayList<String>> reloadedSensorLocationMap) {
+        Set<String> changedRooms = new HashSet<>();
+
+        synchronized (this.writeLock) {
+            HashMap<String, ArrayList<String>> incomingSensorLocationMap = withoutRemovedSensors(reloadedSensorLocationMap);
+            HashMap<String, ArrayList<String>> currentMap = this.sensorLocationMap;
+            Set<String> roomKeys = new HashSet<>(currentMap.keySet());
+            List<String> changedSensors = new ArrayList<>();
+
+            roomKeys.addAll(incomingSensorLocationMap.keySet());
+            for (String roomKey : roomKeys) {
+                if (!Objects.equals(currentMap.get(roomKey), incomingSensorLocationMap.get(roomKey))) {
+                    changedRooms.add(roomKey);
+                    changedSensors.addAll(incomingSensorLocationMap.getOrDefault(roomKey, new ArrayList<>()));
+                }
+            }
+            if (changedRooms.isEmpty()) {
+                return changedRooms;
+            }
+            this.sensorLocationMap = incomingSensorLocationMap;
+            this.liveOccupancy.update(incomingSensorLocationMap, changedRooms, getSensorData(changedSensors));
+            this.occupancyIndex.update(changedRooms);
+        }
+        return changedRooms;
+    }
+
+    /**
+     * Helper method for leaving the sensors removed with removeSensor out of a location map
+     *
+     * @param locationMap map of building~room keys to sensors
+     * @return the map itself if no sensor was removed, otherwise a copy without the removed sensors
+     */
+    private HashMap<String, ArrayList<String>> withoutRemovedSensors(HashMap<String, ArrayList<String>> locationMap) {
+        synchronized (this.removedSensors) {
+            if (this.removedSensors.isEmpty()) {
+                return locationMap;
+            }
+
+            HashMap<String, ArrayList<String>> filtered = new HashMap<>();
+            for (Map.Entry<String, ArrayList<String>> room : locationMap.entrySet()) {
+                ArrayList<String> sensors = new ArrayList<>(room.getValue());
+                sensors.removeAll(this.removedSensors);
+                filtered.put(room.getKey(), sensors);
+            }
+            return filtered;
+        }
+    }
 
     /**
      * Setter for sensor data map
      *
      * @param incomingSensorDataMap sensor data map object to be set
      */
-    public void setSensorDataMap(HashMap<String, ArrayList<Date>> incomingSensorDataMap) { this.sensorDataMap = incomingSensorDataMap; }
+    public void setSensorDataMap(HashMap<String, ArrayList<Date>> incomingSensorDataMap) {
+        synchronized (this.writeLock) {
+            if (this.compressedStorage) {
+                this.compressedDataMap = compress(incomingSensorDataMap);
+            } else {
+                this.sensorDataMap = incomingSensorDataMap;
+            }
+            this.liveOccupancy.rebuild(this.sensorLocationMap, getAllSensorData());
+            this.occupancyIndex.rebuild();
+        }
+    }
+
+    /**
+     * Getter for the background loader filling the data store
+     *
+     * @return the loader, null if the data was loaded before the data store was created
+     */
+    public BackgroundDataLoader getDataLoader() { return this.dataLoader; }
+
+    /**
+     * Setter for the background loader filling the data store
+     *
+     * @param incomingDataLoader loader to be set
+     */
+    public void setDataLoader(BackgroundDataLoader incomingDataLoader) { this.dataLoader = incomingDataLoader; }
+
+    /**
+     * Getter for the compactor applying the retention policy in the background
+     *
+     * @return the compactor, null if no background compaction was started
+     */
+    public DataCompactor getDataCompactor() { return this.dataCompactor; }
+
+    /**
+     * Setter for the compactor applying the retention policy in the background
+     *
+     * @param incomingDataCompactor compactor to be set
+     */
+    public void setDataCompactor(DataCompactor incomingDataCompactor) { this.dataCompactor = incomingDataCompactor; }
+
+    /**
+     * Getter for the live occupancy state of every room/area
+     *
+     * @return the live occupancy table
+     */
+    public LiveOccupancyTable getLiveOccupancy() { return this.liveOccupancy; }
+
+    /**
+     * Getter for the prefix-sum occupancy index of every room/area
+     *
+     * @return the occupancy index
+     */
+    public OccupancyIndex getOccupancyIndex() { return this.occupancyIndex; }
+
+    /**
+     * Getter for the write buffer of ingested readings
+     *
+     * @return the write buffer
+     */
+    public WriteBuffer getWriteBuffer() { return this.writeBuffer; }
+
+    /**
+     * Method for getting the readings of a sensor including readings still in the write buffer
+     *
+     * @param sensorName name of the sensor
+     * @return the sensors readings in time order, null if the sensor has no readings
+     */
+    public ArrayList<Date> getReadings(String sensorName) {
+        ArrayList<Date> pending = this.writeBuffer.getPending(sensorName); //Read before the sensor data, compaction swaps the sensor data before dropping runs
+        ArrayList<Date> stored = getStoredReadings(sensorName);
+
+        if (pending == null) {
+            return stored;
+        }
+        return mergeReadings(stored == null ? new ArrayList<>() : stored, pending, new ArrayList<>());
+    }
+
+    /**
+     * Method for walking the readings of a sensor within a window including readings still in the write buffer.
+     * Compressed readings are walked block by block without decoding blocks outside the window, other readings from the
+     * first reading within the window. Buffered readings are merged in as the cursor goes, so the stored readings are
+     * never copied
+     *
+     * @param sensorName  name of the sensor
+     * @param startMillis start of the window, inclusive
+     * @param endMillis   end of the window, exclusive
+     * @return cursor over the readings within the window in time order
+     */
+    public ReadingCursor getReadingCursor(String sensorName, long startMillis, long endMillis) {
+        ArrayList<Date> pending = this.writeBuffer.getPending(sensorName); //Read before the sensor data, compaction swaps the sensor data before dropping runs
+        ReadingCursor stored;
+
+        if (this.compressedStorage) {
+            CompressedReadings readings = this.compressedDataMap.get(sensorName);
+            stored = readings == null ? ReadingCursor.over(null, startMillis, endMillis) : readings.cursor(startMillis, endMillis);
+        } else {
+            stored = ReadingCursor.overSorted(getStoredReadings(sensorName), startMillis, endMillis);
+        }
+        if (pending == null) {
+            return stored;
+        }
+        pending.sort(null); //A copy of the buffered readings only
+        return ReadingCursor.merge(stored, ReadingCursor.overSorted(pending, startMillis, endMillis));
+    }
+
+    /**
+     * Method for getting the readings of a set of sensors including readings still in the write buffer
+     *
+     * @param sensors names of the sensors
+     * @return map of sensors to readings in time order, sensors without readings are left out
+     */
+    public HashMap<String, ArrayList<Date>> getSensorData(Collection<String> sensors) {
+        HashMap<String, ArrayList<Date>> sensorData = new HashMap<>();
+
+        for (String sensor : sensors) {
+            ArrayList<Date> readings = getReadings(sensor);
+            if (readings != null) {
+                sensorData.put(sensor, readings);
+            }
+        }
+        return sensorData;
+    }
+
+    /**
+     * Helper method for getting the readings of every sensor including readings still in the write buffer
+     *
+     * @return map of sensors to readings
+     */
+    private HashMap<String, ArrayList<Date>> getAllSensorData() {
+        if (this.writeBuffer.size() == 0) {
+            return getSensorDataMap();
+        }
+
+        ArrayList<String> sensors = new ArrayList<>(getStoredSensors());
+        for (ArrayList<String> roomSensors : this.sensorLocationMap.values()) {
+            sensors.addAll(roomSensors);
+        }
+        return getSensorData(sensors);
+    }
+
+    /**
+     * Getter for the manifest of imported sensor data files
+     *
+     * @return the import manifest
+     */
+    public ImportManifest getImportManifest() { return this.importManifest; }
+
+    /**
+     * Getter for the hourly aggregates of compacted days
+     *
+     * @return map of building~room keys to a map of day keys to aggregates
+     */
+    public ConcurrentHashMap<String, HashMap<String, RoomDayAggregate>> getHourlyAggregates() { return this.hourlyAggregates; }
+
+    /**
+     * Method for counting the raw readings held in the data store
+     *
+     * @return number of readings
+     */
+    public long getReadingCount() {
+        long count = 0;
+
+        if (this.compressedStorage) {
+            for (CompressedReadings readings : this.compressedDataMap.values()) {
+                count += readings.size();
+            }
+            return count;
+        }
+        for (ArrayList<Date> readings : this.sensorDataMap.values()) {
+            count += readings.size();
+        }
+        return count;
+    }
+
+    /**
+     * Method for estimating the heap memory used by the raw readings, a uncompressed reading costs a list slot and a
+     * Date object
+     *
+     * @return estimated bytes
+     */
+    public long getReadingMemoryBytes() {
+        long bytes = 0;
+
+        if (!this.compressedStorage) {
+            return getReadingCount() * UNCOMPRESSED_READING_BYTES;
+        }
+        for (CompressedReadings readings : this.compressedDataMap.values()) {
+            bytes += readings.getMemoryBytes();
+        }
+        return bytes;
+    }
+
+    /**
+     * Helper method for getting the stored readings of a sensor, leaving out readings still in the write buffer
+     *
+     * @param sensorName name of the sensor
+     * @return the stored readings, decoded when held compressed, null if the sensor has no readings
+     */
+    private ArrayList<Date> getStoredReadings(String sensorName) {
+        if (!this.compressedStorage) {
+            return this.sensorDataMap.get(sensorName);
+        }
+
+        CompressedReadings stored = this.compressedDataMap.get(sensorName);
+        return stored == null ? null : stored.decode();
+    }
+
+    /**
+     * Helper method for getting the sensors with stored readings
+     *
+     * @return the sensor names
+     */
+    private Set<String> getStoredSensors() {
+        return this.compressedStorage ? this.compressedDataMap.keySet() : this.sensorDataMap.keySet();
+    }
+
+    /**
+     * Helper method for replacing the stored readings of some sensors with a copy-on-write swap, must be called with
+     * the write lock held
+     *
+     * @param changedData   map of sensors to their new readings
+     * @param removedSensor sensor whose readings are removed, null to remove none
+     */
+    private void storeReadings(Map<String, ArrayList<Date>> changedData, String removedSensor) {
+        if (this.compressedStorage) {
+            HashMap<String, CompressedReadings> updatedData = new HashMap<>(this.compressedDataMap);
+            updatedData.putAll(compress(changedData));
+            updatedData.remove(removedSensor);
+            this.compressedDataMap = updatedData;
+        } else {
+            HashMap<String, ArrayList<Date>> updatedData = new HashMap<>(this.sensorDataMap);
+            updatedData.putAll(changedData);
+            updatedData.remove(removedSensor);
+            this.sensorDataMap = updatedData;
+        }
+    }
+
+    /**
+     * Helper method for compressing the readings of every sensor of a map
+     *
+     * @param sensorData map of sensors to readings
+     * @return map of sensors to compressed readings
+     */
+    private static HashMap<String, CompressedReadings> compress(Map<String, ArrayList<Date>> sensorData) {
+        HashMap<String, CompressedReadings> compressed = new HashMap<>();
+
+        for (Map.Entry<String, ArrayList<Date>> entry : sensorData.entrySet()) {
+            compressed.put(entry.getKey(), CompressedReadings.encode(entry.getValue()));
+        }
+        return compressed;
+    }
+
+    /**
+     * Getter for the lock held by writers of the sensor data
+     *
+     * @return the write lock
+     */
+    Object getWriteLock() { return this.writeLock; }
 
     /**
      * Method that searches the data set and gathers a list of all buildings
@@ -59,19 +477,35 @@ public class DataStore {
      * @return returns a StringBuilder object containing all buildings
      */
     public StringBuilder getBuildings() {
-        List<String> keys = new ArrayList<>(this.sensorLocationMap.keySet());
-        StringBuilder returnStr = new StringBuilder();
-        List<String> buildings = new ArrayList<>(); //Keep a list to avoid duplicates
+        StringWriter writer = new StringWriter();
 
-        for (String tmp : keys) {
-            String buildingName = tmp.split(Constants.BUILDING_AREA_NAME_SEPARATOR)[0]; //Building name is the first portion
-            if (!buildings.contains(buildingName)) {
-                buildings.add(buildingName);
-                returnStr.append("\n");
-                returnStr.append(buildingName);
+        try {
+            writeBuildings(writer, ListingFilter.all());
+        } catch (IOException e) {
+            Utils.handleException(e, false); //A StringWriter does not fail
+        }
+        return new StringBuilder(writer.toString());
+    }
+
+    /**
+     * Method that streams the buildings to a writer, one building per line in the order they are first found. Only the
+     * building names seen so far are kept, not the listing
+     *
+     * @param writer writer to write to
+     * @param filter page of buildings to write
+     * @return the number of buildings
+     * @throws IOException thrown if the writer fails
+     */
+    public int writeBuildings(Writer writer, ListingFilter filter) throws IOException {
+        Set<String> buildings = new HashSet<>(); //Keep a set to avoid duplicates
+
+        for (String key : this.sensorLocationMap.keySet()) {
+            String buildingName = key.split(Constants.BUILDING_AREA_NAME_SEPARATOR)[0]; //Building name is the first portion
+            if (buildings.add(buildingName) && filter.isOnPage(buildings.size() - 1)) {
+                writer.write("\n" + buildingName);
             }
         }
-        return returnStr;
+        return buildings.size();
     }
 
     /**
@@ -117,40 +551,52 @@ public class DataStore {
      * @return returns a StringBuilder object containing all areas/rooms
      */
     public StringBuilder getAreas() {
-        StringBuilder returnStr = new StringBuilder();
-        List<String> keys = new ArrayList<>(this.sensorLocationMap.keySet());
-        Map<String, StringBuilder> buildingAreas = new HashMap<>(); //Generate a list of areas/rooms per building for nice output sake
-        List<String> buildingKeys;
+        StringWriter writer = new StringWriter();
 
-        for (String tmp : keys) {
-            String buildingName = tmp.split(Constants.BUILDING_AREA_NAME_SEPARATOR)[0]; //Building name is the first portion
-            String areaName = tmp.split(Constants.BUILDING_AREA_NAME_SEPARATOR)[1]; //Building area/room is the second portion
+        try {
+            writeAreas(writer, ListingFilter.all());
+        } catch (IOException e) {
+            Utils.handleException(e, false); //A StringWriter does not fail
+        }
+        return new StringBuilder(writer.toString());
+    }
 
-            if (!buildingAreas.containsKey(buildingName)) { //Check if building is already stored so that we don't overwrite data
-                StringBuilder newBuilder = new StringBuilder();
+    /**
+     * Method that streams the areas/rooms to a writer grouped by building, each building is written as a building: line
+     * followed by one area/room per line. With a sensor prefix only areas/rooms with a matching sensor are written. The
+     * location map is scanned once, grouping the matching areas/rooms of each building before they are written
+     *
+     * @param writer writer to write to
+     * @param filter building, sensor prefix and page of areas/rooms to write
+     * @return the number of matching areas/rooms
+     * @throws IOException thrown if the writer fails
+     */
+    public int writeAreas(Writer writer, ListingFilter filter) throws IOException {
+        Map<String, List<String>> buildings = new HashMap<>();
+        int index = 0;
 
-                newBuilder.append("\n");
-                newBuilder.append(areaName);
-                buildingAreas.put(buildingName, newBuilder);
-            } else {
-                StringBuilder oldBuilder = buildingAreas.get(buildingName);
+        for (Map.Entry<String, ArrayList<String>> entry : this.sensorLocationMap.entrySet()) {
+            String[] location = entry.getKey().split(Constants.BUILDING_AREA_NAME_SEPARATOR);
+            List<String> areas = buildings.computeIfAbsent(location[0], key -> new ArrayList<>()); //Building name is the first portion
 
-                oldBuilder.append("\n");
-                oldBuilder.append(areaName);
-                buildingAreas.put(buildingName, oldBuilder);
+            if (filter.matchesBuilding(location[0]) && hasMatchingSensor(entry.getValue(), filter)) {
+                areas.add(location[1]);
             }
         }
+        for (Map.Entry<String, List<String>> building : buildings.entrySet()) {
+            boolean headerWritten = false;
 
-        buildingKeys = new ArrayList<>(buildingAreas.keySet());
-
-        for (String tmp : buildingKeys) { //Combine all building area strings into one
-            returnStr.append("\n\n");
-            returnStr.append(tmp);
-            returnStr.append(":");
-            returnStr.append(buildingAreas.get(tmp).toString());
+            for (String area : building.getValue()) {
+                if (filter.isOnPage(index++)) {
+                    if (!headerWritten) {
+                        writer.write("\n\n" + building.getKey() + ":");
+                        headerWritten = true;
+                    }
+                    writer.write("\n" + area);
+                }
+            }
         }
-
-        return returnStr;
+        return index;
     }
 
     /**
@@ -159,28 +605,68 @@ public class DataStore {
      * @return returns a StringBuilder object containing all sensors
      */
     public StringBuilder getSensors() {
-        StringBuilder returnStr = new StringBuilder();
-        List<String> keys = new ArrayList<>(this.sensorLocationMap.keySet());
+        StringWriter writer = new StringWriter();
 
-        for (String tmp : keys) {
-            String buildingName = tmp.split(Constants.BUILDING_AREA_NAME_SEPARATOR)[0]; //Building name is the first portion
-            String areaName = tmp.split(Constants.BUILDING_AREA_NAME_SEPARATOR)[1]; //Building area/room is the first portion
+        try {
+            writeSensors(writer, ListingFilter.all());
+        } catch (IOException e) {
+            Utils.handleException(e, false); //A StringWriter does not fail
+        }
+        return new StringBuilder(writer.toString());
+    }
 
-            returnStr.append("\n");
-            returnStr.append("Listing sensors in building:");
-            returnStr.append("\n");
-            returnStr.append(buildingName);
-            returnStr.append("\n");
-            returnStr.append("And in the area:\n");
-            returnStr.append(areaName);
-            returnStr.append("\n");
-            returnStr.append(sensorLocationMap.get(tmp).toString());
-            returnStr.append("\n");
+    /**
+     * Method that streams the sensors of every area/room to a writer, one block per area/room. With a sensor prefix only
+     * the matching sensors are written and areas/rooms without one are skipped
+     *
+     * @param writer writer to write to
+     * @param filter building, sensor prefix and page of areas/rooms to write
+     * @return the number of matching areas/rooms
+     * @throws IOException thrown if the writer fails
+     */
+    public int writeSensors(Writer writer, ListingFilter filter) throws IOException {
+        int index = 0;
+
+        for (Map.Entry<String, ArrayList<String>> entry : this.sensorLocationMap.entrySet()) {
+            String buildingName = entry.getKey().split(Constants.BUILDING_AREA_NAME_SEPARATOR)[0]; //Building name is the first portion
+            String areaName = entry.getKey().split(Constants.BUILDING_AREA_NAME_SEPARATOR)[1]; //Building area/room is the second portion
+
+            if (filter.matchesBuilding(buildingName) && hasMatchingSensor(entry.getValue(), filter) && filter.isOnPage(index++)) {
+                List<String> sensors = entry.getValue();
+                if (filter.filtersSensors()) {
+                    sensors = new ArrayList<>();
+                    for (String sensor : entry.getValue()) {
+                        if (filter.matchesSensor(sensor)) {
+                            sensors.add(sensor);
+                        }
+                    }
+                }
+                writer.write("\nListing sensors in building:\n" + buildingName + "\nAnd in the area:\n" + areaName + "\n" + sensors + "\n");
+            }
         }
+        return index;
+    }
 
-        return returnStr;
+    /**
+     * Helper method for checking if a area/room has a sensor selected by a listing filter
+     *
+     * @param sensors sensors of the area/room
+     * @param filter  listing filter
+     * @return true if a sensor matches, or the filter has no sensor prefix
+     */
+    private static boolean hasMatchingSensor(List<String> sensors, ListingFilter filter) {
+        if (!filter.filtersSensors()) {
+            return true;
+        }
+        for (String sensor : sensors) {
+            if (filter.matchesSensor(sensor)) {
+                return true;
+            }
+        }
+        return false;
     }
 
+
     /**
      * This method removes a specified sensor from the systems data
      *
@@ -188,41 +674,420 @@ public class DataStore {
      * @return string stating if the sensor was removed or not
      */
     public String removeSensor(String sensorName) {
+        long startTime = System.nanoTime();
         String returnStr = "Sensor Not Found";
-        List<String> buildingKeys = new ArrayList<>(this.sensorLocationMap.keySet());
+        long sequence = 0;
 
-        if (this.sensorDataMap.keySet().contains(sensorName)) {
-            this.sensorDataMap.remove(sensorName); //Remove from sensor data 
-
-            for (String tmp : buildingKeys) {
-                if (sensorLocationMap.get(tmp).contains(sensorName)) {
-                    sensorLocationMap.get(tmp).remove(sensorName); //remove from sensor map
+        this.checkpointLock.readLock().lock();
+        try {
+            synchronized (this.writeLock) {
+                if (getStoredSensors().contains(sensorName)) {
+                    sequence = this.writeAheadLog == null ? 0 : this.writeAheadLog.appendRemoveSensor(sensorName);
+                    applyRemoveSensor(sensorName);
+                    returnStr = "Sensor Removed";
+                    REMOVED_SENSORS.increment();
+                    this.liveOccupancy.rebuild(this.sensorLocationMap, getAllSensorData());
+                    this.occupancyIndex.rebuild();
                 }
             }
-            returnStr = "Sensor Removed";
+        } finally {
+            this.checkpointLock.readLock().unlock();
+        }
+        try {
+            commitLogged(sequence);
+        } catch (IOException e) {
+            Utils.handleException(e, false);
         }
+        REMOVE_SENSOR_LATENCY.recordSince(startTime);
 
         return returnStr;
     }
 
     /**
-     * This method adds data from a new file to the sensor data map
+     * Helper method for removing a sensor from the sensor data, the write buffer and the location map, must be called
+     * with the write lock held. The location map is copied with new sensor lists for the rooms/areas of the sensor and
+     * swapped in, queries iterating the old map finish on it
+     *
+     * @param sensorName name of sensor to remove
+     */
+    private void applyRemoveSensor(String sensorName) {
+        HashMap<String, ArrayList<String>> updatedMap = new HashMap<>(this.sensorLocationMap);
+
+        storeReadings(new HashMap<>(), sensorName); //Remove from sensor data
+        this.writeBuffer.remove(sensorName);
+        for (Map.Entry<String, ArrayList<String>> room : this.sensorLocationMap.entrySet()) {
+            if (room.getValue().contains(sensorName)) {
+                ArrayList<String> roomSensors = new ArrayList<>(room.getValue());
+                roomSensors.remove(sensorName); //remove from sensor map
+                updatedMap.put(room.getKey(), roomSensors);
+            }
+        }
+        this.sensorLocationMap = updatedMap;
+        synchronized (this.removedSensors) {
+            this.removedSensors.add(sensorName);
+        }
+    }
+
+    /**
+     * This method adds data from a new file to the sensor data map. Readings are kept sorted per sensor and readings
+     * that are already stored are dropped, files already listed in the import manifest are skipped without parsing
      *
      * @param fileName The import file
+     * @return true if the file was imported, false if it was already imported
      * @throws IOException If a error occurs during import
      */
-    public void addData(String fileName) throws IOException {
+    public boolean addData(String fileName) throws IOException {
+        long startTime = System.nanoTime();
+        String fingerprint = ImportManifest.fingerprint(fileName);
+
+        if (this.importManifest.contains(fingerprint)) {
+            SKIPPED_IMPORTS.increment();
+            return false;
+        }
+
         CSVSensorDataImporter sensorImporter = new CSVSensorDataImporter();
         HashMap<String, ArrayList<Date>> newData = sensorImporter.importData(fileName);
+        long sequence = 0;
 
-        for (String key : newData.keySet()) {
-            if (this.sensorDataMap.get(key) != null) {
-                ArrayList<Date> currData = this.sensorDataMap.get(key);
-                currData.addAll(newData.get(key));
-                this.sensorDataMap.put(key, currData);
-            } else {
-                this.sensorDataMap.put(key, newData.get(key));
+        this.checkpointLock.readLock().lock();
+        try {
+            synchronized (this.writeLock) {
+                if (this.importManifest.contains(fingerprint)) { //Imported by another thread while this one was parsing
+                    SKIPPED_IMPORTS.increment();
+                    return false;
+                }
+
+                HashMap<String, ArrayList<Date>> updatedData = new HashMap<>();
+                HashMap<String, ArrayList<Date>> addedData = new HashMap<>();
+
+                for (String key : newData.keySet()) {
+                    ArrayList<Date> added = new ArrayList<>();
+                    ArrayList<Date> currData = getStoredReadings(key);
+
+                    updatedData.put(key, mergeReadings(currData == null ? new ArrayList<>() : currData, newData.get(key), added));
+                    addedData.put(key, added);
+                    DUPLICATE_READINGS.add(newData.get(key).size() - added.size());
+                    if (this.writeAheadLog != null && !added.isEmpty()) {
+                        this.writeAheadLog.appendReadings(key, added);
+                    }
+                }
+                if (this.writeAheadLog != null) {
+                    sequence = this.writeAheadLog.appendImport(fileName, fingerprint);
+                }
+                storeReadings(updatedData, null);
+                this.liveOccupancy.recordReadings(addedData);
+                this.occupancyIndex.updateSensors(newData.keySet());
+                this.importManifest.record(fileName, fingerprint);
             }
+        } finally {
+            this.checkpointLock.readLock().unlock();
+        }
+        commitLogged(sequence);
+        ADD_DATA_LATENCY.recordSince(startTime);
+        return true;
+    }
+
+    /**
+     * Helper method for merging new readings into a sensors readings with a linear sorted merge. Readings at a time
+     * that is already stored are dropped, neither list is modified
+     *
+     * @param current  the sensors stored readings
+     * @param incoming the new readings
+     * @param added    list to put the readings that were not already stored in
+     * @return a new sorted list of all readings
+     */
+    static ArrayList<Date> mergeReadings(List<Date> current, List<Date> incoming, List<Date> added) {
+        List<Date> sortedCurrent = sortedCopy(current);
+        List<Date> sortedIncoming = sortedCopy(incoming);
+        ArrayList<Date> merged = new ArrayList<>(sortedCurrent.size() + sortedIncoming.size());
+        int i = 0;
+        int j = 0;
+
+        while (i < sortedCurrent.size() || j < sortedIncoming.size()) {
+            boolean takeCurrent = j == sortedIncoming.size()
+                    || (i < sortedCurrent.size() && sortedCurrent.get(i).getTime() <= sortedIncoming.get(j).getTime());
+            Date next = takeCurrent ? sortedCurrent.get(i++) : sortedIncoming.get(j++);
+
+            if (!merged.isEmpty() && merged.get(merged.size() - 1).getTime() == next.getTime()) {
+                continue; //Duplicate reading
+            }
+            merged.add(next);
+            if (!takeCurrent) {
+                added.add(next);
+            }
+        }
+        return merged;
+    }
+
+    /**
+     * Helper method for getting a list of readings in time order, the list itself is returned if it is already sorted
+     *
+     * @param readings list of readings
+     * @return the readings in time order
+     */
+    private static List<Date> sortedCopy(List<Date> readings) {
+        for (int i = 1; i < readings.size(); i++) {
+            if (readings.get(i - 1).getTime() > readings.get(i).getTime()) {
+                ArrayList<Date> sorted = new ArrayList<>(readings);
+                sorted.sort(null);
+                return sorted;
+            }
+        }
+        return readings;
+    }
+
+    /**
+     * This method adds a single reading as it arrives from a sensor, readings may arrive late or out of order
+     * The reading is buffered and merged into the sensor data by a background compaction once enough runs are flushed,
+     * with a write-ahead log attached the call returns once the reading is committed to the log
+     *
+     * @param sensorName name of the sensor the reading is from
+     * @param reading    time of the reading
+     */
+    public void ingest(String sensorName, Date reading) {
+        int runCount;
+        long sequence = 0;
+
+        this.checkpointLock.readLock().lock();
+        try {
+            WriteAheadLog log = this.writeAheadLog;
+            if (log != null) {
+                sequence = log.appendReading(sensorName, reading.getTime());
+            }
+            runCount = this.writeBuffer.add(sensorName, reading);
+            String roomKey = this.liveOccupancy.recordReading(sensorName, reading.getTime());
+
+            if (roomKey != null) {
+                this.occupancyIndex.markStale(roomKey);
+            }
+        } finally {
+            this.checkpointLock.readLock().unlock();
+        }
+        try {
+            commitLogged(sequence);
+        } catch (IOException e) {
+            Utils.handleException(e, false);
+        }
+        INGESTED_READINGS.increment();
+        if (runCount >= Constants.WRITE_BUFFER_MAX_RUNS) {
+            scheduleWriteBufferCompaction();
+        }
+    }
+
+    /**
+     * Method for flushing the write buffer and merging every buffered reading into the sensor data
+     */
+    public void flushWriteBuffer() {
+        synchronized (this.writeLock) {
+            this.writeBuffer.flush();
+            compactWriteBuffer();
+        }
+    }
+
+    /**
+     * Method for merging the sorted runs of the write buffer into the sensor data, the memtable is left in place
+     */
+    public void compactWriteBuffer() {
+        long startTime = System.nanoTime();
+
+        synchronized (this.writeLock) {
+            List<SortedRun> runs = this.writeBuffer.getRuns();
+
+            if (runs.isEmpty()) {
+                return;
+            }
+
+            HashMap<String, ArrayList<Date>> updatedData = new HashMap<>();
+            HashMap<String, ArrayList<Date>> runData = new HashMap<>();
+
+            for (SortedRun run : runs) {
+                for (String sensor : run.getSensors()) {
+                    runData.computeIfAbsent(sensor, key -> new ArrayList<>()).addAll(run.getReadings(sensor));
+                }
+            }
+            for (Map.Entry<String, ArrayList<Date>> entry : runData.entrySet()) {
+                ArrayList<Date> currData = getStoredReadings(entry.getKey());
+                updatedData.put(entry.getKey(), mergeReadings(currData == null ? new ArrayList<>() : currData, entry.getValue(), new ArrayList<>()));
+            }
+            storeReadings(updatedData, null); //Swap the sensor data before dropping the runs so readers never miss a reading
+            this.writeBuffer.removeRuns(runs);
+        }
+        WRITE_BUFFER_COMPACTION_LATENCY.recordSince(startTime);
+    }
+
+    /**
+     * Helper method for compacting the write buffer on a background thread, at most one compaction is queued at a time
+     */
+    private void scheduleWriteBufferCompaction() {
+        if (!this.compactionScheduled.compareAndSet(false, true)) {
+            return;
+        }
+        synchronized (this.compactionScheduled) {
+            if (this.compactionExecutor == null) {
+                this.compactionExecutor = Executors.newSingleThreadExecutor(runnable -> {
+                    Thread thread = new Thread(runnable, "write-buffer-compactor");
+                    thread.setDaemon(true);
+                    return thread;
+                });
+            }
+        }
+        this.compactionExecutor.execute(() -> {
+            try {
+                this.compactionScheduled.set(false);
+                compactWriteBuffer();
+            } catch (RuntimeException e) {
+                Utils.handleException(e, false);
+            }
+        });
+    }
+
+    /**
+     * Method for recovering the data store from a write-ahead log directory and logging every later mutation there.
+     * The snapshot is replayed first and the log on top of it, a torn record at the end of the log is cut off. Must be
+     * called before any data is added
+     *
+     * @param directory   directory holding the snapshot and the log, created if missing
+     * @param fsyncPolicy when commits are forced to disk
+     * @throws IOException if the snapshot or the log could not be read
+     */
+    public void recover(Path directory, FsyncPolicy fsyncPolicy) throws IOException {
+        RecoveredState state = new RecoveredState();
+        Path snapshot = directory.resolve(Constants.WAL_SNAPSHOT_FILE_NAME);
+
+        Files.createDirectories(directory);
+        if (Files.exists(snapshot)) {
+            WriteAheadLog.replay(snapshot, state);
+        }
+        WriteAheadLog log = WriteAheadLog.open(directory.resolve(Constants.WAL_LOG_FILE_NAME), fsyncPolicy, state);
+
+        synchronized (this.writeLock) {
+            HashMap<String, ArrayList<Date>> updatedData = new HashMap<>();
+
+            for (String sensor : state.removedSensors) {
+                applyRemoveSensor(sensor);
+            }
+            for (Map.Entry<String, ArrayList<Date>> entry : state.readings.entrySet()) {
+                ArrayList<Date> currData = getStoredReadings(entry.getKey());
+                updatedData.put(entry.getKey(), mergeReadings(currData == null ? new ArrayList<>() : currData, entry.getValue(), new ArrayList<>()));
+            }
+            storeReadings(updatedData, null);
+            for (Map.Entry<String, String> entry : state.imports.entrySet()) {
+                this.importManifest.record(entry.getKey(), entry.getValue());
+            }
+            this.hourlyAggregates.putAll(state.aggregates);
+            this.liveOccupancy.rebuild(this.sensorLocationMap, getAllSensorData());
+            this.occupancyIndex.rebuild();
+            this.logDirectory = directory;
+            this.writeAheadLog = log;
+        }
+    }
+
+    /**
+     * Method for writing a snapshot of the data store and emptying the write-ahead log, mutations wait while the
+     * snapshot is written. Does nothing without a write-ahead log
+     *
+     * @throws IOException if the snapshot could not be written or the log could not be emptied
+     */
+    public void checkpoint() throws IOException {
+        long startTime = System.nanoTime();
+        WriteAheadLog log = this.writeAheadLog;
+
+        if (log == null) {
+            return;
+        }
+        this.checkpointLock.writeLock().lock();
+        try {
+            List<String> removed;
+            HashMap<String, ArrayList<Date>> sensorData;
+            HashMap<String, HashMap<String, RoomDayAggregate>> aggregates;
+            synchronized (this.removedSensors) {
+                removed = new ArrayList<>(this.removedSensors);
+            }
+            synchronized (this.writeLock) { //Compaction swaps the sensor data and the aggregates together under this lock
+                flushWriteBuffer();
+                sensorData = getSensorDataMap();
+                aggregates = new HashMap<>(this.hourlyAggregates);
+            }
+            WriteAheadLog.writeSnapshot(this.logDirectory.resolve(Constants.WAL_SNAPSHOT_FILE_NAME), removed, sensorData, aggregates, this.importManifest.getEntries());
+            log.reset();
+        } finally {
+            this.checkpointLock.writeLock().unlock();
+        }
+        CHECKPOINT_LATENCY.recordSince(startTime);
+    }
+
+    /**
+     * Getter for the write-ahead log
+     *
+     * @return the log, null if the data store is not logged
+     */
+    public WriteAheadLog getWriteAheadLog() { return this.writeAheadLog; }
+
+    /**
+     * Method for committing and closing the write-ahead log, later mutations are not logged
+     *
+     * @throws IOException if the log could not be written or closed
+     */
+    public void closeWriteAheadLog() throws IOException {
+        WriteAheadLog log = this.writeAheadLog;
+
+        if (log != null) {
+            this.writeAheadLog = null;
+            log.close();
+        }
+    }
+
+    /**
+     * Helper method for committing logged mutations after the locks are released so concurrent writers share a
+     * commit, a checkpoint is written once the log grows past WAL_CHECKPOINT_BYTES
+     *
+     * @param sequence sequence number of the last logged record, 0 if nothing was logged
+     * @throws IOException if the log could not be written
+     */
+    private void commitLogged(long sequence) throws IOException {
+        WriteAheadLog log = this.writeAheadLog;
+
+        if (log == null || sequence == 0) {
+            return;
+        }
+        log.commit(sequence);
+        if (log.size() > Constants.WAL_CHECKPOINT_BYTES && !this.checkpointLock.isWriteLocked()) {
+            checkpoint();
+        }
+    }
+
+    /**
+     * Records of a replayed snapshot and log collected before they are applied to the data store
+     */
+    private static final class RecoveredState implements WriteAheadLog.RecordHandler {
+        private final Map<String, ArrayList<Date>> readings = new LinkedHashMap<>();
+        private final Set<String> removedSensors = new LinkedHashSet<>();
+        private final Map<String, String> imports = new LinkedHashMap<>();
+        private final Map<String, HashMap<String, RoomDayAggregate>> aggregates = new HashMap<>();
+
+        @Override
+        public void readings(String sensorName, long[] times) {
+            ArrayList<Date> sensorReadings = this.readings.computeIfAbsent(sensorName, key -> new ArrayList<>());
+
+            for (long time : times) {
+                sensorReadings.add(new Date(time));
+            }
+        }
+
+        @Override
+        public void removeSensor(String sensorName) {
+            this.readings.remove(sensorName); //Readings logged before the removal are dropped with the sensor
+            this.removedSensors.add(sensorName);
+        }
+
+        @Override
+        public void imported(String fileName, String fingerprint) {
+            this.imports.put(fileName, fingerprint);
+        }
+
+        @Override
+        public void aggregate(String roomKey, RoomDayAggregate aggregate) {
+            this.aggregates.computeIfAbsent(roomKey, key -> new HashMap<>()).put(aggregate.getDayKey(), aggregate);
         }
     }
 }
@@ -0,0 +1,37 @@
+package buildingoccupationanalyzer;
+
+/**
+ * When the write-ahead log forces committed records to disk
+ */
+public enum FsyncPolicy {
+    /**
+     * Every group commit is forced to disk before the writers return, nothing committed is lost on a crash
+     */
+    ALWAYS,
+    /**
+     * A group commit is forced to disk if the last force is older than WAL_FSYNC_INTERVAL_MILLIS, and a background
+     * thread forces the commits written since every WAL_FSYNC_INTERVAL_MILLIS. A crash of the machine may lose the
+     * commits of the last interval
+     */
+    INTERVAL,
+    /**
+     * Records are handed to the operating system and never forced, only a crash of the process is survived
+     */
+    NEVER;
+
+    /**
+     * Method for parsing a policy name, case insensitive
+     *
+     * @param name always, interval or never
+     * @return the policy
+     * @throws IllegalArgumentException if the name is not a policy
+     */
+    public static FsyncPolicy parse(String name) {
+        for (FsyncPolicy policy : values()) {
+            if (policy.name().equalsIgnoreCase(name)) {
+                return policy;
+            }
+        }
+        throw new IllegalArgumentException("unknown fsync policy " + name + ", expected always, interval or never");
+    }
+}
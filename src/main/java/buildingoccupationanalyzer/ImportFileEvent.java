@@ -0,0 +1,38 @@
+package buildingoccupationanalyzer;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * Flight recorder event emitted around the import of a single sensor data file
+ */
+@Name("buildingoccupationanalyzer.ImportFile")
+@Label("Import Sensor Data File")
+@Category({"Building Occupancy", "Importer"})
+@Description("Parsing of one sensor data file")
+public final class ImportFileEvent extends Event {
+    @Label("File Name")
+    private String fileName;
+
+    @Label("Reading Count")
+    private long readingCount;
+
+    /**
+     * Constructor for ImportFileEvent class
+     *
+     * @param incomingFileName name of the file being imported
+     */
+    public ImportFileEvent(String incomingFileName) {
+        this.fileName = incomingFileName;
+    }
+
+    /**
+     * Setter for reading count
+     *
+     * @param incomingReadingCount number of readings parsed from the file
+     */
+    public void setReadingCount(long incomingReadingCount) { this.readingCount = incomingReadingCount; }
+}
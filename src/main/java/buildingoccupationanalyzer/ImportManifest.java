@@ -0,0 +1,99 @@
+package buildingoccupationanalyzer;
+
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Record of the sensor data files imported into a data store, keyed by a fingerprint of each file so a file that was
+ * already imported can be skipped without parsing it
+ */
+public class ImportManifest {
+    private static final int BUFFER_SIZE = 8192;
+
+    private final Map<String, String> fingerprints = new LinkedHashMap<>();
+
+    /**
+     * Default constructor
+     */
+    public ImportManifest() { }
+
+    /**
+     * Method for computing the fingerprint of a sensor data file, a SHA-256 digest of its name and contents. The name is
+     * included as the day of a files readings comes from its name
+     *
+     * @param fileName name of the file in the resources sensorData folder
+     * @return the fingerprint as a hex string
+     * @throws IOException thrown if the file can not be read
+     */
+    public static String fingerprint(String fileName) throws IOException {
+        try (InputStream resources = ImportManifest.class.getResourceAsStream("/sensorData/" + fileName)) {
+            if (resources == null) {
+                throw new FileNotFoundException("FILE NOT FOUND IN RESOURCES");
+            }
+
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            byte[] buffer = new byte[BUFFER_SIZE];
+            StringBuilder returnStr = new StringBuilder();
+            int read = resources.read(buffer);
+
+            digest.update(fileName.getBytes(StandardCharsets.UTF_8));
+
+            while (read != -1) {
+                digest.update(buffer, 0, read);
+                read = resources.read(buffer);
+            }
+            for (byte b : digest.digest()) {
+                returnStr.append(String.format("%02x", b));
+            }
+            return returnStr.toString();
+        } catch (NoSuchAlgorithmException e) {
+            throw new IOException("SHA-256 IS NOT AVAILABLE", e);
+        }
+    }
+
+    /**
+     * Method for checking if a file with the given fingerprint was already imported
+     *
+     * @param fingerprint fingerprint of a file
+     * @return true if the file was already imported
+     */
+    public synchronized boolean contains(String fingerprint) {
+        return this.fingerprints.containsValue(fingerprint);
+    }
+
+    /**
+     * Method for recording a imported file
+     *
+     * @param fileName    name of the imported file
+     * @param fingerprint fingerprint of the imported file
+     */
+    public synchronized void record(String fileName, String fingerprint) {
+        this.fingerprints.put(fileName, fingerprint);
+    }
+
+    /**
+     * Method for recording a file that was imported outside of the data store, such as the initial data file
+     *
+     * @param fileName name of the imported file
+     * @throws IOException thrown if the file can not be read
+     */
+    public void record(String fileName) throws IOException {
+        record(fileName, fingerprint(fileName));
+    }
+
+    /**
+     * Getter for the imported files
+     *
+     * @return map of imported file names to fingerprints, in import order
+     */
+    public synchronized Map<String, String> getEntries() {
+        return Collections.unmodifiableMap(new LinkedHashMap<>(this.fingerprints));
+    }
+}
@@ -0,0 +1,92 @@
+package buildingoccupationanalyzer;
+
+import java.io.IOException;
+import java.io.Writer;
+
+/**
+ * Renders utilization results as a single line JSON document
+ * Every object carries a status, utilization is only present when the status is OK and message only when it is not
+ */
+public final class JsonUtilizationRenderer implements UtilizationRenderer {
+    /**
+     * Default constructor
+     */
+    public JsonUtilizationRenderer() { }
+
+    @Override
+    public void renderRoom(RoomUtilization result, Writer writer) throws IOException {
+        writer.write("{\"building\":" + quote(result.getBuilding()) + ",\"room\":" + quote(result.getRoom()) + ",");
+        writeStatus(result.getStatus(), result.getUtilization(), result.getMessage(), writer);
+        writer.write("}");
+    }
+
+    @Override
+    public void renderBuilding(BuildingUtilization result, Writer writer) throws IOException {
+        writer.write("{\"building\":" + quote(result.getBuilding()) + ",");
+        writeStatus(result.getStatus(), result.getUtilization(), result.getMessage(), writer);
+        writer.write(",\"rooms\":[");
+        for (int i = 0; i < result.getRooms().size(); i++) {
+            if (i > 0) {
+                writer.write(",");
+            }
+            renderRoom(result.getRooms().get(i), writer);
+        }
+        writer.write("]}");
+    }
+
+    @Override
+    public void renderCampus(CampusUtilization result, Writer writer) throws IOException {
+        writer.write("{");
+        writeStatus(result.getStatus(), result.getUtilization(), result.getMessage(), writer);
+        writer.write(",\"buildings\":[");
+        for (int i = 0; i < result.getBuildings().size(); i++) {
+            if (i > 0) {
+                writer.write(",");
+            }
+            renderBuilding(result.getBuildings().get(i), writer);
+        }
+        writer.write("]}");
+    }
+
+    /**
+     * Helper method for writing the status fields of a result
+     *
+     * @param status      status of the result
+     * @param utilization utilization of the result
+     * @param message     error message of the result
+     * @param writer      writer to write to
+     * @throws IOException thrown if the writer fails
+     */
+    private static void writeStatus(UtilizationStatus status, double utilization, String message, Writer writer) throws IOException {
+        writer.write("\"status\":" + quote(status.name()));
+        if (status == UtilizationStatus.OK) {
+            writer.write(",\"utilization\":" + utilization);
+        } else if (message != null) {
+            writer.write(",\"message\":" + quote(message));
+        }
+    }
+
+    /**
+     * Helper method for quoting a string as a JSON string
+     *
+     * @param value the string
+     * @return the quoted string, or null if the string is null
+     */
+    static String quote(String value) {
+        if (value == null) {
+            return "null";
+        }
+
+        StringBuilder returnStr = new StringBuilder("\"");
+        for (char c : value.toCharArray()) {
+            if (c == '"' || c == '\\') {
+                returnStr.append('\\').append(c);
+            } else if (c < ' ') {
+                returnStr.append(String.format("\\u%04x", (int) c));
+            } else {
+                returnStr.append(c);
+            }
+        }
+        return returnStr.append('"').toString();
+    }
+}
@@ -0,0 +1,113 @@
+package buildingoccupationanalyzer;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Latency histogram metric with power of two nanosecond buckets
+ * Recording a sample is a bucket lookup plus atomic increments, it never locks or allocates
+ */
+public final class LatencyHistogram {
+    private static final int MIN_BUCKET_SHIFT = 10; //First bucket holds everything up to 2^10ns (~1 microsecond)
+    private static final int BUCKET_COUNT = 27; //Last bucket upper bound is 2^36ns (~68 seconds), anything above is overflow
+    private static final double NANOS_IN_A_SECOND = 1e9;
+
+    private final AtomicLongArray buckets = new AtomicLongArray(BUCKET_COUNT + 1);
+    private final LongAdder count = new LongAdder();
+    private final LongAdder sum = new LongAdder();
+
+    /**
+     * Method for recording a sample
+     *
+     * @param nanos the duration in nanoseconds
+     */
+    public void record(long nanos) {
+        long value = Math.max(nanos, 0);
+        int index = Math.max(0, (Long.SIZE - Long.numberOfLeadingZeros(Math.max(value - 1, 0))) - MIN_BUCKET_SHIFT);
+
+        this.buckets.incrementAndGet(Math.min(index, BUCKET_COUNT));
+        this.count.increment();
+        this.sum.add(value);
+    }
+
+    /**
+     * Method for recording the time elapsed since a start time
+     *
+     * @param startNanos start time taken from System.nanoTime()
+     */
+    public void recordSince(long startNanos) { record(System.nanoTime() - startNanos); }
+
+    /**
+     * Getter for the number of samples
+     *
+     * @return number of samples
+     */
+    public long getCount() { return this.count.sum(); }
+
+    /**
+     * Getter for the sum of all samples
+     *
+     * @return sum in nanoseconds
+     */
+    public long getSum() { return this.sum.sum(); }
+
+    /**
+     * Getter for the number of buckets, not counting the overflow bucket
+     *
+     * @return number of buckets
+     */
+    static int getBucketCount() { return BUCKET_COUNT; }
+
+    /**
+     * Method for getting the upper bound of a bucket
+     *
+     * @param index bucket index
+     * @return upper bound in nanoseconds
+     */
+    static long getBucketUpperBound(int index) { return 1L << (index + MIN_BUCKET_SHIFT); }
+
+    /**
+     * Method for getting the number of samples in a bucket
+     *
+     * @param index bucket index, getBucketCount() is the overflow bucket
+     * @return number of samples
+     */
+    long getBucketValue(int index) { return this.buckets.get(index); }
+
+    /**
+     * Method for estimating a percentile, the estimate is the upper bound of the bucket the percentile falls in
+     *
+     * @param percentile percentile between 0 and 100
+     * @return estimated latency in nanoseconds, 0 if there are no samples
+     */
+    public long getPercentile(double percentile) {
+        long total = 0;
+        long[] snapshot = new long[BUCKET_COUNT + 1];
+
+        for (int i = 0; i <= BUCKET_COUNT; i++) {
+            snapshot[i] = this.buckets.get(i);
+            total += snapshot[i];
+        }
+        if (total == 0) {
+            return 0;
+        }
+
+        long rank = (long) Math.ceil(total * percentile / Constants.PERCENT_COVERT_NUMBER);
+        long seen = 0;
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            seen += snapshot[i];
+            if (seen >= rank) {
+                return getBucketUpperBound(i);
+            }
+        }
+        return Long.MAX_VALUE;
+    }
+
+    /**
+     * Method for converting nanoseconds to seconds
+     *
+     * @param nanos duration in nanoseconds
+     * @return duration in seconds
+     */
+    static double toSeconds(long nanos) { return nanos / NANOS_IN_A_SECOND; }
+}
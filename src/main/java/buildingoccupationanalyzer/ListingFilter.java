@@ -0,0 +1,125 @@
+package buildingoccupationanalyzer;
+
+import java.io.IOException;
+import java.io.Writer;
+
+/**
+ * Filter and page selection for the streamed building, room/area and sensor listings of the data store
+ * A listing can be limited to one building and to sensors whose id starts with a prefix (DS for door sensors, CS for
+ * ceiling sensors), and split into pages of a fixed number of entries. Page 0 selects every entry
+ */
+public final class ListingFilter {
+    private static final String ALL_BUILDINGS = "all";
+    private static final String PAGE_TOKEN = "page";
+
+    private final String building;
+    private final String sensorPrefix;
+    private final int page;
+    private final int pageSize;
+
+    /**
+     * Constructor for ListingFilter class
+     *
+     * @param incomingBuilding     building to list, null for every building
+     * @param incomingSensorPrefix prefix sensor ids must start with, null for every sensor
+     * @param incomingPage         page to list starting at 1, 0 for every entry
+     * @param incomingPageSize     number of entries per page
+     */
+    public ListingFilter(String incomingBuilding, String incomingSensorPrefix, int incomingPage, int incomingPageSize) {
+        this.building = incomingBuilding;
+        this.sensorPrefix = incomingSensorPrefix;
+        this.page = incomingPage;
+        this.pageSize = incomingPageSize;
+    }
+
+    /**
+     * Method for creating a filter that selects every entry
+     *
+     * @return the filter
+     */
+    public static ListingFilter all() { return new ListingFilter(null, null, 0, Constants.LISTING_PAGE_SIZE); }
+
+    /**
+     * Method for parsing the arguments of a listing command: [building|all] [sensor prefix] [page n]
+     *
+     * @param splitInput split user input, the command name first
+     * @return the filter
+     * @throws NumberFormatException thrown if the page is not a number
+     * @throws IllegalArgumentException thrown if the page is missing or negative
+     */
+    public static ListingFilter parse(String[] splitInput) {
+        String[] positional = new String[2];
+        int positionalCount = 0;
+        int page = 0;
+
+        for (int i = 1; i < splitInput.length; i++) {
+            if (splitInput[i].equals(PAGE_TOKEN)) {
+                if (i + 1 >= splitInput.length || Integer.parseInt(splitInput[i + 1]) < 1) {
+                    throw new IllegalArgumentException("page must be followed by a page number of at least 1");
+                }
+                page = Integer.parseInt(splitInput[++i]);
+            } else if (positionalCount < positional.length) {
+                positional[positionalCount++] = splitInput[i];
+            }
+        }
+        String building = positional[0] == null || positional[0].equals(ALL_BUILDINGS) ? null : positional[0];
+        return new ListingFilter(building, positional[1], page, Constants.LISTING_PAGE_SIZE);
+    }
+
+    /**
+     * Getter for page
+     *
+     * @return the selected page starting at 1, 0 if every entry is selected
+     */
+    public int getPage() { return this.page; }
+
+    /**
+     * Method for checking if a building is listed
+     *
+     * @param buildingName name of the building
+     * @return true if the building is listed
+     */
+    public boolean matchesBuilding(String buildingName) {
+        return this.building == null || this.building.equals(buildingName);
+    }
+
+    /**
+     * Method for checking if a sensor is listed
+     *
+     * @param sensor id of the sensor
+     * @return true if the sensor is listed
+     */
+    public boolean matchesSensor(String sensor) {
+        return this.sensorPrefix == null || sensor.startsWith(this.sensorPrefix);
+    }
+
+    /**
+     * Method for checking if the sensor prefix filter is set
+     *
+     * @return true if only some sensors are listed
+     */
+    public boolean filtersSensors() { return this.sensorPrefix != null; }
+
+    /**
+     * Method for checking if a matching entry is on the selected page
+     *
+     * @param index position of the entry among the matching entries, starting at 0
+     * @return true if the entry is written
+     */
+    public boolean isOnPage(int index) {
+        return this.page == 0 || index / this.pageSize == this.page - 1;
+    }
+
+    /**
+     * Method for writing the page footer of a paged listing, nothing is written when every entry was selected
+     *
+     * @param total  number of matching entries
+     * @param writer writer to write to
+     * @throws IOException thrown if the writer fails
+     */
+    public void writeFooter(int total, Writer writer) throws IOException {
+        if (this.page > 0) {
+            writer.write("\nPage " + this.page + " of " + Math.max(1, (total + this.pageSize - 1) / this.pageSize) + " (" + total + " entries)");
+        }
+    }
+}
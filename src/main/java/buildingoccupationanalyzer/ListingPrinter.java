@@ -0,0 +1,66 @@
+package buildingoccupationanalyzer;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.io.Writer;
+
+/**
+ * Prints the streamed listings of the data store to standard output for the db, da and ls commands
+ * The listing is written straight through a buffered writer, so nothing the size of the listing is built in memory
+ */
+public final class ListingPrinter {
+    /**
+     * Default constructor
+     */
+    private ListingPrinter() { }
+
+    /**
+     * A listing that streams the entries selected by a filter to a writer
+     */
+    @FunctionalInterface
+    public interface Listing {
+        /**
+         * Method for writing the listing
+         *
+         * @param writer writer to write to
+         * @param filter entries to write
+         * @return the number of matching entries
+         * @throws IOException thrown if the writer fails
+         */
+        int write(Writer writer, ListingFilter filter) throws IOException;
+    }
+
+    /**
+     * Method for printing a listing command, the command may be followed by [building|all] [sensor prefix] [page n]
+     *
+     * @param userInput user input to handle
+     * @param title     line printed before the listing
+     * @param trailer   text printed on the line after the listing
+     * @param listing   listing to print
+     * @return returns a integer to show if the command succeeded or not
+     */
+    public static int print(String userInput, String title, String trailer, Listing listing) {
+        ListingFilter filter;
+
+        try {
+            filter = ListingFilter.parse(userInput.split(" "));
+        } catch (NumberFormatException e) {
+            System.out.println("Invalid input, page must be a number");
+            return 1;
+        } catch (IllegalArgumentException e) {
+            System.out.println("Invalid input, " + e.getMessage());
+            return 1;
+        }
+
+        System.out.println(title);
+        PrintWriter writer = new PrintWriter(System.out);
+        try {
+            filter.writeFooter(listing.write(writer, filter), writer);
+        } catch (IOException e) {
+            Utils.handleException(e, false);
+        }
+        writer.println(trailer);
+        writer.flush();
+        return 0;
+    }
+}
@@ -0,0 +1,219 @@
+package buildingoccupationanalyzer;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Date;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Table of the live occupancy state of every room/area, updated as readings are ingested
+ * Lookups never lock. Every reading, late or not, is applied to the state of its room/area in place as the states only
+ * keep the latest readings and answer earlier times from the stored readings. Every applied reading is also fed to the
+ * sensor health monitor, which replays the recent stored readings of a sensor when a reading arrives late, and every new
+ * room state to the occupancy change tracker
+ */
+public class LiveOccupancyTable {
+    private final ReadingCursor.Source readingSource;
+    private final ConcurrentHashMap<String, RoomOccupancyState> roomStates = new ConcurrentHashMap<>();
+    private volatile Map<String, String> sensorRoomIndex = new ConcurrentHashMap<>();
+    private final SensorHealthMonitor healthMonitor = new SensorHealthMonitor();
+    private final OccupancyChangeTracker changeTracker = new OccupancyChangeTracker(this.roomStates::get);
+
+    /**
+     * Constructor for LiveOccupancyTable class
+     *
+     * @param incomingReadingSource cursors over the stored readings of a sensor in time order including readings just
+     *                              ingested
+     */
+    public LiveOccupancyTable(ReadingCursor.Source incomingReadingSource) {
+        this.readingSource = incomingReadingSource;
+    }
+
+    /**
+     * Method for rebuilding the table from a full set of locations and readings
+     *
+     * @param sensorLocationMap map of building~room keys to sensors
+     * @param sensorDataMap     map of sensors to readings
+     */
+    public void rebuild(Map<String, ArrayList<String>> sensorLocationMap, Map<String, ArrayList<Date>> sensorDataMap) {
+        Map<String, String> newIndex = new ConcurrentHashMap<>();
+
+        this.healthMonitor.clear();
+        for (Map.Entry<String, ArrayList<String>> room : sensorLocationMap.entrySet()) {
+            for (String sensor : room.getValue()) {
+                newIndex.put(sensor, room.getKey());
+                if (sensorDataMap.get(sensor) != null) {
+                    for (Date reading : sensorDataMap.get(sensor)) {
+                        this.healthMonitor.record(sensor, reading.getTime());
+                    }
+                }
+            }
+            this.roomStates.put(room.getKey(), RoomOccupancyState.build(room.getValue(), sensorDataMap::get, this.readingSource));
+            this.changeTracker.update(room.getKey());
+        }
+        this.roomStates.keySet().retainAll(sensorLocationMap.keySet());
+        this.changeTracker.retain(sensorLocationMap.keySet());
+        this.sensorRoomIndex = newIndex;
+    }
+
+    /**
+     * Method for switching to a new set of locations, only the given rooms/areas are rebuilt from their readings and the
+     * states of the other rooms/areas are kept
+     *
+     * @param sensorLocationMap map of building~room keys to sensors
+     * @param roomKeys          building~room keys of the rooms/areas whose sensors changed
+     * @param sensorDataMap     map of sensors to readings, needs the sensors of the changed rooms/areas only
+     */
+    public void update(Map<String, ArrayList<String>> sensorLocationMap, Collection<String> roomKeys, Map<String, ArrayList<Date>> sensorDataMap) {
+        Map<String, String> newIndex = new ConcurrentHashMap<>();
+
+        for (Map.Entry<String, String> entry : this.sensorRoomIndex.entrySet()) {
+            if (roomKeys.contains(entry.getValue())) {
+                this.healthMonitor.remove(entry.getKey()); //Sensor left or stays in a changed room/area
+            }
+        }
+        for (Map.Entry<String, ArrayList<String>> room : sensorLocationMap.entrySet()) {
+            for (String sensor : room.getValue()) {
+                newIndex.put(sensor, room.getKey());
+            }
+        }
+        for (String roomKey : roomKeys) {
+            ArrayList<String> sensors = sensorLocationMap.get(roomKey);
+
+            if (sensors == null) {
+                this.roomStates.remove(roomKey);
+                this.changeTracker.remove(roomKey);
+                continue;
+            }
+            for (String sensor : sensors) {
+                this.healthMonitor.remove(sensor); //Sensor may have moved here from a unchanged room/area
+                for (Date reading : sensorDataMap.getOrDefault(sensor, new ArrayList<>())) {
+                    this.healthMonitor.record(sensor, reading.getTime());
+                }
+            }
+            this.roomStates.put(roomKey, RoomOccupancyState.build(sensors, sensorDataMap::get, this.readingSource));
+            this.changeTracker.update(roomKey);
+        }
+        this.sensorRoomIndex = newIndex;
+    }
+
+    /**
+     * Method for applying a newly ingested reading, the reading has to be stored already
+     *
+     * @param sensorName sensor the reading is from
+     * @param time       time of the reading in milliseconds
+     * @return the room/area the sensor belongs to, null if the sensor is not mapped to a room/area
+     */
+    public String recordReading(String sensorName, long time) {
+        String roomKey = this.sensorRoomIndex.get(sensorName);
+
+        if (roomKey != null) {
+            this.roomStates.computeIfPresent(roomKey, (key, state) -> {
+                state.apply(sensorName, time);
+                return state;
+            });
+            this.healthMonitor.record(sensorName, time, this.readingSource);
+            this.changeTracker.update(roomKey);
+        }
+        return roomKey;
+    }
+
+    /**
+     * Method for applying a batch of newly ingested readings, the readings have to be stored already. The batch may be
+     * in any order
+     *
+     * @param newData map of sensors to new readings
+     */
+    public void recordReadings(Map<String, ArrayList<Date>> newData) {
+        Set<String> roomKeys = new HashSet<>();
+
+        for (Map.Entry<String, ArrayList<Date>> entry : newData.entrySet()) {
+            String roomKey = this.sensorRoomIndex.get(entry.getKey());
+
+            if (roomKey == null || entry.getValue().isEmpty()) {
+                continue;
+            }
+            roomKeys.add(roomKey);
+            Date latest = Collections.max(entry.getValue());
+            this.roomStates.computeIfPresent(roomKey, (key, state) -> {
+                state.apply(entry.getKey(), latest.getTime());
+                return state;
+            });
+            SensorHealth health = this.healthMonitor.getHealth(entry.getKey());
+            long earliest = Collections.min(entry.getValue()).getTime();
+            if (health != null && earliest < health.getLastReading()) {
+                this.healthMonitor.replay(entry.getKey(), earliest, this.readingSource); //Older readings were imported
+                continue;
+            }
+            for (Date reading : entry.getValue()) {
+                this.healthMonitor.record(entry.getKey(), reading.getTime());
+            }
+        }
+        for (String roomKey : roomKeys) {
+            this.changeTracker.update(roomKey);
+        }
+    }
+
+    /**
+     * Getter for health monitor
+     *
+     * @return health statistics of every sensor mapped to a room/area
+     */
+    public SensorHealthMonitor getHealthMonitor() { return this.healthMonitor; }
+
+    /**
+     * Getter for change tracker
+     *
+     * @return publisher of the occupancy changes of every room/area
+     */
+    public OccupancyChangeTracker getChangeTracker() { return this.changeTracker; }
+
+    /**
+     * Getter for the state of a room/area
+     *
+     * @param roomKey building~room key
+     * @return the rooms state, null if the room/area is unknown
+     */
+    public RoomOccupancyState getState(String roomKey) { return this.roomStates.get(roomKey); }
+
+    /**
+     * Method for checking the live occupancy of a room/area
+     *
+     * @param roomKey building~room key
+     * @param now     the current time in milliseconds
+     * @return 1 if occupied, 0 if not occupied and -1 if the room/area is unknown
+     */
+    public int getOccupancy(String roomKey, long now) {
+        RoomOccupancyState state = this.roomStates.get(roomKey);
+
+        if (state == null) {
+            return -1;
+        }
+        return state.isOccupied(now) ? 1 : 0;
+    }
+
+    /**
+     * Method for checking the live occupancy of a list of rooms/areas
+     *
+     * @param roomKeys building~room keys to check
+     * @param now      the current time in milliseconds
+     * @return Map of building~room keys to 1 if occupied or 0 if not, unknown rooms/areas are left out
+     */
+    public Map<String, Integer> getOccupancy(List<String> roomKeys, long now) {
+        Map<String, Integer> occupancy = new LinkedHashMap<>();
+
+        for (String roomKey : roomKeys) {
+            int state = getOccupancy(roomKey, now);
+            if (state != -1) {
+                occupancy.put(roomKey, state);
+            }
+        }
+        return occupancy;
+    }
+}
@@ -1,14 +1,28 @@
 package buildingoccupationanalyzer;
 
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
 import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.nio.file.Path;
+import java.nio.file.Paths;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Date;
 import java.util.HashMap;
+import java.util.List;
 
 /**
  * Main class for the program
  */
 public final class MainApplication {
+    private static final LatencyHistogram INTERFACE_READY_LATENCY = MetricsRegistry.getDefault().histogram("startup_seconds{phase=\"interfaceReady\"}", "Time from program start to the end of a startup phase");
+
     /**
      * Default constructor
      */
@@ -16,17 +30,126 @@ public final class MainApplication {
 
     /**
      * Main method for the program, the programs entry point. Initializes the program and starts up the interactive component
+     * Started with --shard port buildings (comma separated) the program runs as one shard of a sharded deployment, started with
+     * --coordinator shards (comma separated ports or host:port pairs) it answers campus wide queries from those shards.
+     * Started with --batch file (- for standard input) or --batch -e command [-e command ...] it runs the commands without
+     * the interactive interface and exits. With the WAL_DIRECTORY_PROPERTY system property set the data store is recovered
+     * from a write-ahead log in that directory and every later change is logged there. The sensor location file is
+     * watched and reloaded when it changes. With the EVENTS_PORT_PROPERTY system property set occupancy changes are
+     * pushed to subscribers on that port
      *
      * @param args command line arguments
      */
     public static void main(String[] args) {
-        DataStore dataStore = new DataStore(initializeSensorLocationMap(), initializeSensorData());
+        if (args.length > 0 && (args[0].equals("--shard") || args[0].equals("--coordinator"))) {
+            runShardedMode(args);
+            return;
+        }
+        if (args.length > 0 && args[0].equals("--batch")) {
+            System.exit(runBatchMode(args));
+        }
+
+        long startTime = System.nanoTime();
+        DataStore dataStore = new DataStore(initializeSensorLocationMap(), new HashMap<>(), Boolean.getBoolean(Constants.COMPRESSED_STORAGE_PROPERTY));
+        DataCompactor dataCompactor = new DataCompactor(dataStore, RetentionPolicy.defaultPolicy());
+
+        recoverWriteAheadLog(dataStore);
+        startLocationWatcher(dataStore);
+        startEventServer(dataStore);
+        //Sensor data is loaded in the background, the import manifest records the files so they are not imported again
+        new BackgroundDataLoader(dataStore, Arrays.asList(Constants.STARTUP_DATA_FILE_NAMES)).start(startTime);
+        dataCompactor.start(Constants.COMPACTION_INTERVAL_MINUTES);
 
         UserInterface applicationInterface = new UserInterface(dataStore);
 
+        INTERFACE_READY_LATENCY.recordSince(startTime);
         applicationInterface.displayInterface();
     }
 
+    /**
+     * Method for recovering the data store from the write-ahead log directory named by the WAL_DIRECTORY_PROPERTY system
+     * property, with the fsync policy named by WAL_FSYNC_PROPERTY (interval by default). Without the property nothing
+     * is logged
+     *
+     * @param dataStore data store to recover
+     */
+    static void recoverWriteAheadLog(DataStore dataStore) {
+        String directory = System.getProperty(Constants.WAL_DIRECTORY_PROPERTY);
+
+        if (directory == null) {
+            return;
+        }
+        try {
+            dataStore.recover(Paths.get(directory), FsyncPolicy.parse(System.getProperty(Constants.WAL_FSYNC_PROPERTY, FsyncPolicy.INTERVAL.name())));
+        } catch (IOException | IllegalArgumentException e) {
+            Utils.handleException(e, true);
+        }
+    }
+
+    /**
+     * Method for watching the sensor location file and reloading it into the data store when it changes. A watcher that
+     * can not be started is reported and the program runs with the locations it loaded
+     *
+     * @param dataStore data store the reloaded locations are swapped into
+     */
+    static void startLocationWatcher(DataStore dataStore) {
+        Path file = getLocationFile();
+
+        if (file == null) {
+            System.err.println("Sensor location file is not on disk, changes to it are not reloaded");
+            return;
+        }
+        try {
+            new SensorLocationWatcher(dataStore, file).start();
+        } catch (IOException e) {
+            Utils.handleException(e, false);
+        }
+    }
+
+    /**
+     * Method for serving occupancy change events on the port named by the EVENTS_PORT_PROPERTY system property, without
+     * the property no events are served
+     *
+     * @param dataStore data store whose occupancy changes are served
+     */
+    static void startEventServer(DataStore dataStore) {
+        String port = System.getProperty(Constants.EVENTS_PORT_PROPERTY);
+
+        if (port == null) {
+            return;
+        }
+        try {
+            OccupancyEventServer eventServer = new OccupancyEventServer(dataStore, Integer.parseInt(port));
+
+            eventServer.start();
+            System.out.println("Occupancy changes are served at http://localhost:" + eventServer.getPort() + OccupancyEventServer.EVENTS_PATH);
+        } catch (IOException | NumberFormatException e) {
+            Utils.handleException(e, false);
+        }
+    }
+
+    /**
+     * Method for finding the sensor location file on disk, the file named by the LOCATION_FILE_PROPERTY system property
+     * or else the CONFIG_FILE_NAME resource when the resources are plain files
+     *
+     * @return path of the file, null if the resource is packed in a jar
+     */
+    static Path getLocationFile() {
+        String property = System.getProperty(Constants.LOCATION_FILE_PROPERTY);
+        URL resource = MainApplication.class.getResource("/" + Constants.CONFIG_FILE_NAME);
+
+        if (property != null) {
+            return Paths.get(property);
+        } else if (resource == null || !resource.getProtocol().equals("file")) {
+            return null;
+        }
+        try {
+            return Paths.get(resource.toURI());
+        } catch (URISyntaxException e) {
+            return null;
+        }
+    }
+
     /**
      * Method for initializing a sensor data map
      *
@@ -46,7 +169,8 @@ public final class MainApplication {
     }
 
     /**
-     * Method for initializing a sensor to location map
+     * Method for initializing a sensor to location map, read from the file named by the LOCATION_FILE_PROPERTY system
+     * property when it is set and from the resources otherwise
      *
      * @return a map of sensors to locations
      */
@@ -55,11 +179,72 @@ public final class MainApplication {
         HashMap<String, ArrayList<String>> sensorLocationMap = new HashMap<>();
 
         try {
-            sensorLocationMap = configImporter.importData(Constants.CONFIG_FILE_NAME);
+            if (System.getProperty(Constants.LOCATION_FILE_PROPERTY) != null) {
+                sensorLocationMap = configImporter.importFile(Paths.get(System.getProperty(Constants.LOCATION_FILE_PROPERTY)));
+            } else {
+                sensorLocationMap = configImporter.importData(Constants.CONFIG_FILE_NAME);
+            }
         } catch (IOException e) {
             Utils.handleException(e, true);
         }
 
         return sensorLocationMap;
     }
+
+    /**
+     * Method for running the program in batch mode, the commands result lines are written to standard output
+     *
+     * @param args command line arguments
+     * @return exit code of the program, 0 if every command succeeded, 1 if a command failed and 2 on invalid arguments
+     */
+    static int runBatchMode(String[] args) {
+        try {
+            List<String> commands = new ArrayList<>();
+            if (args[1].equals("-e")) {
+                for (int i = 1; i < args.length; i += 2) {
+                    if (!args[i].equals("-e")) {
+                        throw new IllegalArgumentException(args[i]);
+                    }
+                    commands.add(args[i + 1]);
+                }
+            } else {
+                commands = BatchRunner.readCommands(args[1], new BufferedReader(new InputStreamReader(System.in, StandardCharsets.UTF_8)));
+            }
+
+            DataStore dataStore = new DataStore(initializeSensorLocationMap(), initializeSensorData());
+            dataStore.getImportManifest().record(Constants.DATA_FILE_NAME);
+            Writer output = new BufferedWriter(new OutputStreamWriter(System.out, StandardCharsets.UTF_8));
+            return new BatchRunner(dataStore, Runtime.getRuntime().availableProcessors()).run(commands, output) == 0 ? 0 : 1;
+        } catch (IndexOutOfBoundsException | IllegalArgumentException e) {
+            System.err.println("Usage: --batch <command file|-> or --batch -e <command> [-e <command> ...]");
+        } catch (IOException e) {
+            Utils.handleException(e, false);
+        }
+        return 2;
+    }
+
+    /**
+     * Method for running the program as a shard or as the coordinator of a sharded deployment
+     *
+     * @param args command line arguments
+     */
+    static void runShardedMode(String[] args) {
+        try {
+            if (args[0].equals("--shard")) {
+                ShardServer shardServer = new ShardServer(ShardServer.createShardStore(Arrays.asList(args[2].split(","))), Integer.parseInt(args[1]));
+                shardServer.start();
+                System.out.println("Shard serving " + shardServer.getDataStore().getBuildingsAsList() + " on port " + shardServer.getPort());
+                Thread.currentThread().join(); //Serve until the process is stopped
+            } else {
+                BufferedReader reader = new BufferedReader(new InputStreamReader(System.in, StandardCharsets.UTF_8));
+                new CoordinatorInterface(new ShardCoordinator(ShardCoordinator.parseShards(args[1])), reader).displayInterface();
+            }
+        } catch (IndexOutOfBoundsException | NumberFormatException e) {
+            System.err.println("Usage: --shard <port> <building,building,...> or --coordinator <port|host:port,...>");
+        } catch (IOException e) {
+            Utils.handleException(e, true);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
 }
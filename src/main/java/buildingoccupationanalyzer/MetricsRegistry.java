@@ -0,0 +1,238 @@
+package buildingoccupationanalyzer;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.lang.ref.WeakReference;
+import java.text.DecimalFormat;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.LongSupplier;
+import java.util.function.ToLongFunction;
+
+/**
+ * Registry of the programs counters, gauges and latency histograms
+ * Metrics are registered once (usually into static fields) and then recorded into without any registry lookups
+ */
+public final class MetricsRegistry {
+    private static final MetricsRegistry DEFAULT_REGISTRY = new MetricsRegistry();
+    private static final double NANOS_IN_A_MILLISECOND = 1e6;
+
+    private final Map<String, Counter> counters = new ConcurrentHashMap<>();
+    private final Map<String, LongSupplier> gauges = new ConcurrentHashMap<>();
+    private final Map<String, LatencyHistogram> histograms = new ConcurrentHashMap<>();
+    private final Map<String, String> help = new ConcurrentHashMap<>();
+
+    /**
+     * Default constructor
+     */
+    public MetricsRegistry() { }
+
+    /**
+     * Getter for the registry used by the program
+     *
+     * @return the default registry
+     */
+    public static MetricsRegistry getDefault() { return DEFAULT_REGISTRY; }
+
+    /**
+     * Method for getting or creating a counter
+     *
+     * @param name        metric name, may include a label set (name{label="value"})
+     * @param description help text for the metric
+     * @return the counter
+     */
+    public Counter counter(String name, String description) {
+        this.help.putIfAbsent(getFamily(name), description);
+        return this.counters.computeIfAbsent(name, key -> new Counter());
+    }
+
+    /**
+     * Method for registering a gauge, replacing any gauge with the same name
+     *
+     * @param name        metric name, may include a label set (name{label="value"})
+     * @param description help text for the metric
+     * @param supplier    supplier read whenever the gauge is reported
+     */
+    public void gauge(String name, String description, LongSupplier supplier) {
+        this.help.putIfAbsent(getFamily(name), description);
+        this.gauges.put(name, supplier);
+    }
+
+    /**
+     * Method for registering a gauge read from an object, replacing any gauge with the same name. The object is held
+     * weakly and the gauge is dropped once the object is collected, so per instance gauges (labelled by instance) do
+     * not keep their instances alive
+     *
+     * @param name        metric name, may include a label set (name{label="value"})
+     * @param description help text for the metric
+     * @param owner       object the gauge is read from
+     * @param value       function reading the gauge from the object
+     * @param <T>         type of the object
+     */
+    public <T> void gauge(String name, String description, T owner, ToLongFunction<T> value) {
+        this.help.putIfAbsent(getFamily(name), description);
+        this.gauges.put(name, new WeakGauge<>(owner, value));
+    }
+
+    /**
+     * Method for getting or creating a latency histogram
+     *
+     * @param name        metric name, may include a label set (name{label="value"})
+     * @param description help text for the metric
+     * @return the histogram
+     */
+    public LatencyHistogram histogram(String name, String description) {
+        this.help.putIfAbsent(getFamily(name), description);
+        return this.histograms.computeIfAbsent(name, key -> new LatencyHistogram());
+    }
+
+    /**
+     * Method for creating a human readable summary of all metrics
+     *
+     * @return summary with one metric per line
+     */
+    public String getSummary() {
+        StringBuilder returnStr = new StringBuilder();
+        DecimalFormat df = new DecimalFormat("0.000");
+
+        for (Map.Entry<String, Counter> entry : new TreeMap<>(this.counters).entrySet()) {
+            returnStr.append(entry.getKey()).append(" = ").append(entry.getValue().getValue()).append("\n");
+        }
+        for (Map.Entry<String, LongSupplier> entry : getGauges().entrySet()) {
+            returnStr.append(entry.getKey()).append(" = ").append(entry.getValue().getAsLong()).append("\n");
+        }
+        for (Map.Entry<String, LatencyHistogram> entry : new TreeMap<>(this.histograms).entrySet()) {
+            LatencyHistogram histogram = entry.getValue();
+            returnStr.append(entry.getKey()).append(" count=").append(histogram.getCount());
+            returnStr.append(" p50=").append(df.format(histogram.getPercentile(50) / NANOS_IN_A_MILLISECOND)).append("ms");
+            returnStr.append(" p90=").append(df.format(histogram.getPercentile(90) / NANOS_IN_A_MILLISECOND)).append("ms");
+            returnStr.append(" p99=").append(df.format(histogram.getPercentile(99) / NANOS_IN_A_MILLISECOND)).append("ms\n");
+        }
+        return returnStr.toString();
+    }
+
+    /**
+     * Method for writing all metrics in the Prometheus text exposition format
+     *
+     * @param writer writer to output to
+     * @throws IOException if writing fails
+     */
+    public void writePrometheus(Writer writer) throws IOException {
+        String lastFamily = null;
+
+        for (Map.Entry<String, Counter> entry : new TreeMap<>(this.counters).entrySet()) {
+            lastFamily = writeHeader(writer, entry.getKey(), "counter", lastFamily);
+            writer.write(entry.getKey() + " " + entry.getValue().getValue() + "\n");
+        }
+        for (Map.Entry<String, LongSupplier> entry : getGauges().entrySet()) {
+            lastFamily = writeHeader(writer, entry.getKey(), "gauge", lastFamily);
+            writer.write(entry.getKey() + " " + entry.getValue().getAsLong() + "\n");
+        }
+        for (Map.Entry<String, LatencyHistogram> entry : new TreeMap<>(this.histograms).entrySet()) {
+            lastFamily = writeHeader(writer, entry.getKey(), "histogram", lastFamily);
+            writeHistogram(writer, entry.getKey(), entry.getValue());
+        }
+        writer.flush();
+    }
+
+    /**
+     * Helper method for getting the gauges in name order, gauges whose object was collected are dropped first
+     *
+     * @return gauges by name
+     */
+    private TreeMap<String, LongSupplier> getGauges() {
+        this.gauges.values().removeIf(gauge -> gauge instanceof WeakGauge && ((WeakGauge<?>) gauge).isCleared());
+        return new TreeMap<>(this.gauges);
+    }
+
+    /**
+     * Helper method for writing the HELP and TYPE lines of a metric family once
+     *
+     * @param writer     writer to output to
+     * @param name       metric name
+     * @param type       Prometheus metric type
+     * @param lastFamily family of the previously written metric
+     * @return family of the metric
+     * @throws IOException if writing fails
+     */
+    private String writeHeader(Writer writer, String name, String type, String lastFamily) throws IOException {
+        String family = getFamily(name);
+
+        if (!family.equals(lastFamily)) {
+            writer.write("# HELP " + family + " " + this.help.get(family) + "\n");
+            writer.write("# TYPE " + family + " " + type + "\n");
+        }
+        return family;
+    }
+
+    /**
+     * Helper method for writing the cumulative buckets, sum and count of a histogram
+     *
+     * @param writer    writer to output to
+     * @param name      metric name
+     * @param histogram histogram to write
+     * @throws IOException if writing fails
+     */
+    private void writeHistogram(Writer writer, String name, LatencyHistogram histogram) throws IOException {
+        String family = getFamily(name);
+        String labels = name.substring(family.length()).replace("{", "").replace("}", "");
+        String labelPrefix = labels.isEmpty() ? "" : labels + ",";
+        String labelSet = labels.isEmpty() ? "" : "{" + labels + "}";
+        long cumulative = 0;
+
+        for (int i = 0; i < LatencyHistogram.getBucketCount(); i++) {
+            cumulative += histogram.getBucketValue(i);
+            writer.write(family + "_bucket{" + labelPrefix + "le=\"" + LatencyHistogram.toSeconds(LatencyHistogram.getBucketUpperBound(i)) + "\"} " + cumulative + "\n");
+        }
+        cumulative += histogram.getBucketValue(LatencyHistogram.getBucketCount());
+        writer.write(family + "_bucket{" + labelPrefix + "le=\"+Inf\"} " + cumulative + "\n");
+        writer.write(family + "_sum" + labelSet + " " + LatencyHistogram.toSeconds(histogram.getSum()) + "\n");
+        writer.write(family + "_count" + labelSet + " " + histogram.getCount() + "\n");
+    }
+
+    /**
+     * Helper method for stripping the label set from a metric name
+     *
+     * @param name metric name
+     * @return metric family name
+     */
+    private static String getFamily(String name) {
+        int labelStart = name.indexOf('{');
+        return labelStart == -1 ? name : name.substring(0, labelStart);
+    }
+
+    /**
+     * Gauge read from a weakly held object
+     *
+     * @param <T> type of the object
+     */
+    private static final class WeakGauge<T> implements LongSupplier {
+        private final WeakReference<T> owner;
+        private final ToLongFunction<T> value;
+
+        /**
+         * Constructor for WeakGauge class
+         *
+         * @param incomingOwner object the gauge is read from
+         * @param incomingValue function reading the gauge from the object
+         */
+        WeakGauge(T incomingOwner, ToLongFunction<T> incomingValue) {
+            this.owner = new WeakReference<>(incomingOwner);
+            this.value = incomingValue;
+        }
+
+        /**
+         * Method for checking if the object was collected
+         *
+         * @return true if the object was collected
+         */
+        boolean isCleared() { return this.owner.get() == null; }
+
+        @Override
+        public long getAsLong() {
+            T currentOwner = this.owner.get();
+            return currentOwner == null ? 0 : this.value.applyAsLong(currentOwner);
+        }
+    }
+}
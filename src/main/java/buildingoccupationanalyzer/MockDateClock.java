@@ -0,0 +1,62 @@
+package buildingoccupationanalyzer;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.time.ZoneId;
+
+/**
+ * Clock that reports the current time of day on a fixed date, used since data is not imported live
+ */
+public final class MockDateClock extends Clock {
+    private final LocalDate mockDate;
+    private final Clock timeOfDayClock;
+
+    /**
+     * Constructor for MockDateClock class
+     *
+     * @param incomingMockDate       the date to report
+     * @param incomingTimeOfDayClock clock providing the time of day and time zone
+     */
+    public MockDateClock(LocalDate incomingMockDate, Clock incomingTimeOfDayClock) {
+        this.mockDate = incomingMockDate;
+        this.timeOfDayClock = incomingTimeOfDayClock;
+    }
+
+    /**
+     * Method for creating the clock used by default, the system time of day on the programs mock date
+     *
+     * @return the default clock
+     */
+    public static MockDateClock defaultClock() {
+        return new MockDateClock(LocalDate.parse(Constants.CURRENT_MOCK_DATE), Clock.systemDefaultZone());
+    }
+
+    /**
+     * Getter for the time zone of the clock
+     *
+     * @return the time zone
+     */
+    @Override
+    public ZoneId getZone() { return this.timeOfDayClock.getZone(); }
+
+    /**
+     * Method for creating a copy of the clock in another time zone
+     *
+     * @param zone the time zone
+     * @return the new clock
+     */
+    @Override
+    public Clock withZone(ZoneId zone) { return new MockDateClock(this.mockDate, this.timeOfDayClock.withZone(zone)); }
+
+    /**
+     * Method for getting the current instant of the clock
+     *
+     * @return the current time of day on the mock date
+     */
+    @Override
+    public Instant instant() {
+        return this.mockDate.atTime(LocalTime.now(this.timeOfDayClock)).atZone(getZone()).toInstant();
+    }
+}
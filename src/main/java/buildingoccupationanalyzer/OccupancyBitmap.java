@@ -0,0 +1,830 @@
+package buildingoccupationanalyzer;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Immutable compressed bitmap of occupied minutes, a minute is counted from 1970-01-01T00:00 local time
+ * Minutes are split into chunks of 65536 minutes (about 45 days), each chunk with at least one occupied minute is held in
+ * the smallest of three containers: a sorted array of minutes for sparse chunks, a plain bitset for dense chunks or a
+ * list of runs for chunks made of long occupied stretches. Cardinality over a range only looks at the chunks it touches,
+ * whole chunks use their stored cardinality
+ */
+public final class OccupancyBitmap {
+    static final int CHUNK_BITS = 16;
+    static final int CHUNK_SIZE = 1 << CHUNK_BITS;
+    private static final int WORD_BITS = 64;
+    private static final int WORDS_PER_CHUNK = CHUNK_SIZE / WORD_BITS;
+    private static final int BITMAP_CONTAINER_BYTES = CHUNK_SIZE / Byte.SIZE;
+    private static final int OBJECT_HEADER_BYTES = 16;
+    private static final OccupancyBitmap EMPTY = new OccupancyBitmap(new int[0], new Container[0]);
+
+    private final int[] keys;
+    private final Container[] containers;
+    private final long cardinality;
+
+    /**
+     * Constructor for OccupancyBitmap class
+     *
+     * @param incomingKeys       chunk numbers in ascending order
+     * @param incomingContainers container of each chunk
+     */
+    private OccupancyBitmap(int[] incomingKeys, Container[] incomingContainers) {
+        long total = 0;
+
+        for (Container container : incomingContainers) {
+            total += container.cardinality();
+        }
+        this.keys = incomingKeys;
+        this.containers = incomingContainers;
+        this.cardinality = total;
+    }
+
+    /**
+     * Method for getting the empty bitmap
+     *
+     * @return bitmap without occupied minutes
+     */
+    public static OccupancyBitmap empty() { return EMPTY; }
+
+    /**
+     * Method for creating a builder
+     *
+     * @return a new builder
+     */
+    public static Builder builder() { return new Builder(); }
+
+    /**
+     * Method for checking if a minute is occupied
+     *
+     * @param minute minute counted from 1970-01-01T00:00 local time
+     * @return true if the minute is occupied
+     */
+    public boolean contains(long minute) {
+        int index = Arrays.binarySearch(this.keys, chunkOf(minute));
+        return index >= 0 && this.containers[index].contains(lowBits(minute));
+    }
+
+    /**
+     * Method for checking if no minute is occupied
+     *
+     * @return true if the bitmap is empty
+     */
+    public boolean isEmpty() { return this.keys.length == 0; }
+
+    /**
+     * Getter for cardinality
+     *
+     * @return the number of occupied minutes
+     */
+    public long getCardinality() { return this.cardinality; }
+
+    /**
+     * Method for counting the occupied minutes within a range
+     *
+     * @param startMinute start of the range, inclusive
+     * @param endMinute   end of the range, exclusive
+     * @return the number of occupied minutes within the range
+     */
+    public long getCardinality(long startMinute, long endMinute) {
+        long count = 0;
+
+        if (endMinute <= startMinute) {
+            return 0;
+        }
+        for (int i = firstIndexAtOrAfter(chunkOf(startMinute)); i < this.keys.length && this.keys[i] <= chunkOf(endMinute - 1); i++) {
+            long chunkStart = (long) this.keys[i] << CHUNK_BITS;
+            int from = (int) Math.max(0, startMinute - chunkStart);
+            int to = (int) Math.min(CHUNK_SIZE, endMinute - chunkStart);
+
+            count += from == 0 && to == CHUNK_SIZE ? this.containers[i].cardinality() : this.containers[i].rangeCardinality(from, to);
+        }
+        return count;
+    }
+
+    /**
+     * Method for getting a upper bound of the occupied minutes within a range from the stored chunk cardinalities only
+     *
+     * @param startMinute start of the range, inclusive
+     * @param endMinute   end of the range, exclusive
+     * @return at least the number of occupied minutes within the range
+     */
+    public long getCardinalityUpperBound(long startMinute, long endMinute) {
+        return getCardinalityBound(startMinute, endMinute, true);
+    }
+
+    /**
+     * Method for getting a lower bound of the occupied minutes within a range from the stored chunk cardinalities only
+     *
+     * @param startMinute start of the range, inclusive
+     * @param endMinute   end of the range, exclusive
+     * @return at most the number of occupied minutes within the range
+     */
+    public long getCardinalityLowerBound(long startMinute, long endMinute) {
+        return getCardinalityBound(startMinute, endMinute, false);
+    }
+
+    /**
+     * Helper method for bounding the occupied minutes within a range without looking inside the containers, a chunk
+     * partly within the range holds between its cardinality less the minutes outside the range and the smaller of its
+     * cardinality and the minutes inside the range
+     *
+     * @param startMinute start of the range, inclusive
+     * @param endMinute   end of the range, exclusive
+     * @param upper       true for the upper bound, false for the lower bound
+     * @return the bound
+     */
+    private long getCardinalityBound(long startMinute, long endMinute, boolean upper) {
+        long bound = 0;
+
+        if (endMinute <= startMinute) {
+            return 0;
+        }
+        for (int i = firstIndexAtOrAfter(chunkOf(startMinute)); i < this.keys.length && this.keys[i] <= chunkOf(endMinute - 1); i++) {
+            long chunkStart = (long) this.keys[i] << CHUNK_BITS;
+            long inside = Math.min(CHUNK_SIZE, endMinute - chunkStart) - Math.max(0, startMinute - chunkStart);
+            long chunkCardinality = this.containers[i].cardinality();
+
+            bound += upper ? Math.min(chunkCardinality, inside) : Math.max(0, chunkCardinality - (CHUNK_SIZE - inside));
+        }
+        return bound;
+    }
+
+    /**
+     * Getter for the first occupied minute
+     *
+     * @return the first occupied minute, -1 if the bitmap is empty
+     */
+    public long getFirstMinute() {
+        return isEmpty() ? -1 : ((long) this.keys[0] << CHUNK_BITS) + this.containers[0].first();
+    }
+
+    /**
+     * Getter for the last occupied minute
+     *
+     * @return the last occupied minute, -1 if the bitmap is empty
+     */
+    public long getLastMinute() {
+        return isEmpty() ? -1 : ((long) this.keys[this.keys.length - 1] << CHUNK_BITS) + this.containers[this.keys.length - 1].last();
+    }
+
+    /**
+     * Method for combining two bitmaps, a minute is occupied if it is occupied in either bitmap
+     *
+     * @param other bitmap to combine with
+     * @return the union of both bitmaps
+     */
+    public OccupancyBitmap or(OccupancyBitmap other) {
+        return orAll(Arrays.asList(this, other));
+    }
+
+    /**
+     * Method for intersecting two bitmaps, a minute is occupied if it is occupied in both bitmaps
+     *
+     * @param other bitmap to intersect with
+     * @return the intersection of both bitmaps
+     */
+    public OccupancyBitmap and(OccupancyBitmap other) {
+        List<Integer> keyList = new ArrayList<>();
+        List<Container> containerList = new ArrayList<>();
+        int i = 0;
+        int j = 0;
+
+        while (i < this.keys.length && j < other.keys.length) {
+            if (this.keys[i] < other.keys[j]) {
+                i++;
+            } else if (this.keys[i] > other.keys[j]) {
+                j++;
+            } else {
+                long[] words = this.containers[i].toWords();
+                long[] otherWords = other.containers[j].toWords();
+
+                for (int w = 0; w < WORDS_PER_CHUNK; w++) {
+                    words[w] &= otherWords[w];
+                }
+                Container container = fromWords(words);
+                if (container != null) {
+                    keyList.add(this.keys[i]);
+                    containerList.add(container);
+                }
+                i++;
+                j++;
+            }
+        }
+        return create(keyList, containerList);
+    }
+
+    /**
+     * Method for combining many bitmaps at once, chunks found in only one bitmap are shared instead of copied
+     *
+     * @param bitmaps bitmaps to combine
+     * @return the union of every bitmap
+     */
+    public static OccupancyBitmap orAll(Collection<OccupancyBitmap> bitmaps) {
+        TreeMap<Integer, List<Container>> chunks = new TreeMap<>();
+        List<Integer> keyList = new ArrayList<>();
+        List<Container> containerList = new ArrayList<>();
+
+        for (OccupancyBitmap bitmap : bitmaps) {
+            for (int i = 0; i < bitmap.keys.length; i++) {
+                chunks.computeIfAbsent(bitmap.keys[i], key -> new ArrayList<>()).add(bitmap.containers[i]);
+            }
+        }
+        for (Map.Entry<Integer, List<Container>> chunk : chunks.entrySet()) {
+            if (chunk.getValue().size() == 1) {
+                containerList.add(chunk.getValue().get(0));
+            } else {
+                long[] words = new long[WORDS_PER_CHUNK];
+
+                for (Container container : chunk.getValue()) {
+                    container.orInto(words);
+                }
+                containerList.add(fromWords(words));
+            }
+            keyList.add(chunk.getKey());
+        }
+        return create(keyList, containerList);
+    }
+
+    /**
+     * Method for copying a range of minutes into a plain bitset, bit i of the result is the minute startMinute + i
+     *
+     * @param startMinute start of the range, inclusive
+     * @param endMinute   end of the range, exclusive
+     * @return the bitset, one long per 64 minutes
+     */
+    public long[] toWords(long startMinute, long endMinute) {
+        long[] words = new long[(int) ((Math.max(0, endMinute - startMinute) + WORD_BITS - 1) / WORD_BITS)];
+
+        if (endMinute <= startMinute) {
+            return words;
+        }
+        for (int i = firstIndexAtOrAfter(chunkOf(startMinute)); i < this.keys.length && this.keys[i] <= chunkOf(endMinute - 1); i++) {
+            long chunkStart = (long) this.keys[i] << CHUNK_BITS;
+            long[] chunkWords = this.containers[i].toWords();
+            int from = (int) Math.max(0, startMinute - chunkStart);
+            int to = (int) Math.min(CHUNK_SIZE, endMinute - chunkStart);
+
+            for (int position = from; position < to;) {
+                int next = Math.min(to, (position / WORD_BITS + 1) * WORD_BITS);
+                long bits = chunkWords[position / WORD_BITS] >>> (position % WORD_BITS);
+                long target = chunkStart + position - startMinute;
+
+                if (bits != 0) {
+                    bits &= next - position == WORD_BITS ? -1L : (1L << (next - position)) - 1;
+                    words[(int) (target / WORD_BITS)] |= bits << (target % WORD_BITS);
+                    if (target % WORD_BITS != 0 && (target % WORD_BITS) + (next - position) > WORD_BITS) {
+                        words[(int) (target / WORD_BITS) + 1] |= bits >>> (WORD_BITS - target % WORD_BITS);
+                    }
+                }
+                position = next;
+            }
+        }
+        return words;
+    }
+
+    /**
+     * Method for grouping positions into buckets of a fixed number of positions, bucket b of the result is set if any of
+     * the positions b * factor to (b + 1) * factor - 1 is set. Used to derive coarser time resolutions from minutes
+     *
+     * @param factor number of positions per bucket
+     * @return bitmap of the occupied buckets
+     */
+    public OccupancyBitmap coarsen(int factor) {
+        Builder builder = builder();
+
+        for (int i = 0; i < this.keys.length; i++) {
+            long chunkStart = (long) this.keys[i] << CHUNK_BITS;
+            BitSet positions = BitSet.valueOf(this.containers[i].toWords());
+
+            for (int position = positions.nextSetBit(0); position >= 0;) {
+                long bucket = Math.floorDiv(chunkStart + position, factor);
+                long next = (bucket + 1) * factor - chunkStart; //Skip the rest of the bucket
+
+                builder.add(bucket);
+                position = next >= CHUNK_SIZE ? -1 : positions.nextSetBit((int) next);
+            }
+        }
+        return builder.build();
+    }
+
+    /**
+     * Method for estimating the heap memory used by the bitmap
+     *
+     * @return estimated bytes including every container
+     */
+    public long getMemoryBytes() {
+        long bytes = OBJECT_HEADER_BYTES * 2 + (long) this.keys.length * (Integer.BYTES + Integer.BYTES);
+
+        for (Container container : this.containers) {
+            bytes += OBJECT_HEADER_BYTES + container.memoryBytes();
+        }
+        return bytes;
+    }
+
+    /**
+     * Method for describing the container chosen for each chunk, used to check the container selection
+     *
+     * @return the container kinds in chunk order separated by commas
+     */
+    String getContainerKinds() {
+        StringBuilder kinds = new StringBuilder();
+
+        for (Container container : this.containers) {
+            kinds.append(kinds.length() == 0 ? "" : ",").append(container.kind());
+        }
+        return kinds.toString();
+    }
+
+    /**
+     * Helper method for creating a bitmap from lists of chunk numbers and containers
+     *
+     * @param keyList       chunk numbers in ascending order
+     * @param containerList container of each chunk
+     * @return the bitmap
+     */
+    private static OccupancyBitmap create(List<Integer> keyList, List<Container> containerList) {
+        int[] keys = new int[keyList.size()];
+
+        for (int i = 0; i < keys.length; i++) {
+            keys[i] = keyList.get(i);
+        }
+        return keys.length == 0 ? EMPTY : new OccupancyBitmap(keys, containerList.toArray(new Container[0]));
+    }
+
+    /**
+     * Helper method for finding the first chunk at or after a chunk number
+     *
+     * @param key chunk number
+     * @return index of the first chunk with a number of at least key
+     */
+    private int firstIndexAtOrAfter(int key) {
+        int index = Arrays.binarySearch(this.keys, key);
+        return index >= 0 ? index : -index - 1;
+    }
+
+    /**
+     * Helper method for getting the chunk number of a minute
+     *
+     * @param minute minute counted from 1970-01-01T00:00 local time
+     * @return the chunk number
+     */
+    private static int chunkOf(long minute) {
+        return (int) (minute >> CHUNK_BITS);
+    }
+
+    /**
+     * Helper method for getting the position of a minute within its chunk
+     *
+     * @param minute minute counted from 1970-01-01T00:00 local time
+     * @return the position within the chunk
+     */
+    private static int lowBits(long minute) {
+        return (int) (minute & (CHUNK_SIZE - 1));
+    }
+
+    /**
+     * Helper method for choosing the smallest container for a chunk
+     *
+     * @param words bitset of the chunk
+     * @return the container, null if no minute is set
+     */
+    private static Container fromWords(long[] words) {
+        int cardinality = 0;
+        int runs = 0;
+        long previousTopBit = 0;
+
+        for (long word : words) {
+            cardinality += Long.bitCount(word);
+            runs += Long.bitCount(word & ~((word << 1) | previousTopBit)); //Set bits whose predecessor is not set
+            previousTopBit = word >>> (WORD_BITS - 1);
+        }
+        if (cardinality == 0) {
+            return null;
+        }
+
+        long arrayBytes = (long) cardinality * Character.BYTES;
+        long runBytes = (long) runs * Character.BYTES * 2;
+
+        if (runBytes < arrayBytes && runBytes < BITMAP_CONTAINER_BYTES) {
+            return RunContainer.fromWords(words, runs);
+        } else if (arrayBytes < BITMAP_CONTAINER_BYTES) {
+            return ArrayContainer.fromWords(words, cardinality);
+        }
+        return new BitsetContainer(words, cardinality);
+    }
+
+    /**
+     * Helper method for setting a range of bits in a chunk bitset
+     *
+     * @param words bitset of the chunk
+     * @param from  first bit to set
+     * @param to    bit after the last bit to set
+     */
+    private static void setRange(long[] words, int from, int to) {
+        for (int bit = from; bit < to;) {
+            int word = bit / WORD_BITS;
+            int end = Math.min(to, (word + 1) * WORD_BITS);
+            int width = end - bit;
+
+            words[word] |= (width == WORD_BITS ? -1L : ((1L << width) - 1)) << (bit % WORD_BITS);
+            bit = end;
+        }
+    }
+
+    /**
+     * Helper method for counting the set bits of a chunk bitset within a range
+     *
+     * @param words bitset of the chunk
+     * @param from  first bit to count
+     * @param to    bit after the last bit to count
+     * @return number of set bits
+     */
+    private static int countRange(long[] words, int from, int to) {
+        int count = 0;
+
+        for (int bit = from; bit < to;) {
+            int word = bit / WORD_BITS;
+            int end = Math.min(to, (word + 1) * WORD_BITS);
+            int width = end - bit;
+
+            count += Long.bitCount(words[word] >>> (bit % WORD_BITS) & (width == WORD_BITS ? -1L : ((1L << width) - 1)));
+            bit = end;
+        }
+        return count;
+    }
+
+    /**
+     * Builder collecting occupied minutes in plain chunk bitsets, containers are chosen when the bitmap is built
+     */
+    public static final class Builder {
+        private final TreeMap<Integer, long[]> chunks = new TreeMap<>();
+
+        /**
+         * Constructor for Builder class
+         */
+        private Builder() {
+        }
+
+        /**
+         * Method for marking a minute as occupied
+         *
+         * @param minute minute counted from 1970-01-01T00:00 local time
+         * @return this builder
+         */
+        public Builder add(long minute) {
+            int low = lowBits(minute);
+
+            this.chunks.computeIfAbsent(chunkOf(minute), key -> new long[WORDS_PER_CHUNK])[low / WORD_BITS] |= 1L << (low % WORD_BITS);
+            return this;
+        }
+
+        /**
+         * Method for marking a range of minutes as occupied
+         *
+         * @param startMinute start of the range, inclusive
+         * @param endMinute   end of the range, exclusive
+         * @return this builder
+         */
+        public Builder addRange(long startMinute, long endMinute) {
+            for (long minute = startMinute; minute < endMinute;) {
+                long chunkStart = (long) chunkOf(minute) << CHUNK_BITS;
+                long chunkEnd = Math.min(endMinute, chunkStart + CHUNK_SIZE);
+
+                setRange(this.chunks.computeIfAbsent(chunkOf(minute), key -> new long[WORDS_PER_CHUNK]), lowBits(minute), (int) (chunkEnd - chunkStart));
+                minute = chunkEnd;
+            }
+            return this;
+        }
+
+        /**
+         * Method for building the bitmap
+         *
+         * @return the bitmap
+         */
+        public OccupancyBitmap build() {
+            List<Integer> keyList = new ArrayList<>();
+            List<Container> containerList = new ArrayList<>();
+
+            for (Map.Entry<Integer, long[]> chunk : this.chunks.entrySet()) {
+                Container container = fromWords(chunk.getValue().clone());
+                if (container != null) {
+                    keyList.add(chunk.getKey());
+                    containerList.add(container);
+                }
+            }
+            return create(keyList, containerList);
+        }
+    }
+
+    /**
+     * Occupied minutes of one chunk
+     */
+    private interface Container {
+        /**
+         * Method for counting the occupied minutes of the chunk
+         *
+         * @return number of occupied minutes
+         */
+        int cardinality();
+
+        /**
+         * Method for counting the occupied minutes of the chunk within a range
+         *
+         * @param from first position to count
+         * @param to   position after the last position to count
+         * @return number of occupied minutes within the range
+         */
+        int rangeCardinality(int from, int to);
+
+        /**
+         * Method for checking if a position is occupied
+         *
+         * @param low position within the chunk
+         * @return true if the position is occupied
+         */
+        boolean contains(int low);
+
+        /**
+         * Getter for the first occupied position
+         *
+         * @return the first occupied position
+         */
+        int first();
+
+        /**
+         * Getter for the last occupied position
+         *
+         * @return the last occupied position
+         */
+        int last();
+
+        /**
+         * Method for setting the occupied positions in a chunk bitset
+         *
+         * @param words bitset to set the positions in
+         */
+        void orInto(long[] words);
+
+        /**
+         * Method for converting the container to a new chunk bitset
+         *
+         * @return the bitset
+         */
+        default long[] toWords() {
+            long[] words = new long[WORDS_PER_CHUNK];
+            orInto(words);
+            return words;
+        }
+
+        /**
+         * Method for estimating the heap memory used by the container data
+         *
+         * @return estimated bytes
+         */
+        long memoryBytes();
+
+        /**
+         * Getter for the kind of the container
+         *
+         * @return array, bitset or run
+         */
+        String kind();
+    }
+
+    /**
+     * Sparse chunk held as sorted positions
+     */
+    private static final class ArrayContainer implements Container {
+        private final char[] values;
+
+        /**
+         * Constructor for ArrayContainer class
+         *
+         * @param incomingValues occupied positions in ascending order
+         */
+        ArrayContainer(char[] incomingValues) {
+            this.values = incomingValues;
+        }
+
+        /**
+         * Method for creating a container from a chunk bitset
+         *
+         * @param words       bitset of the chunk
+         * @param cardinality number of set bits
+         * @return the container
+         */
+        static ArrayContainer fromWords(long[] words, int cardinality) {
+            char[] values = new char[cardinality];
+            int index = 0;
+
+            for (int w = 0; w < words.length; w++) {
+                for (long word = words[w]; word != 0; word &= word - 1) {
+                    values[index++] = (char) (w * WORD_BITS + Long.numberOfTrailingZeros(word));
+                }
+            }
+            return new ArrayContainer(values);
+        }
+
+        @Override
+        public int cardinality() { return this.values.length; }
+
+        @Override
+        public int rangeCardinality(int from, int to) {
+            return lowerBound(to) - lowerBound(from);
+        }
+
+        @Override
+        public boolean contains(int low) {
+            return Arrays.binarySearch(this.values, (char) low) >= 0;
+        }
+
+        @Override
+        public int first() { return this.values[0]; }
+
+        @Override
+        public int last() { return this.values[this.values.length - 1]; }
+
+        @Override
+        public void orInto(long[] words) {
+            for (char value : this.values) {
+                words[value / WORD_BITS] |= 1L << (value % WORD_BITS);
+            }
+        }
+
+        @Override
+        public long memoryBytes() { return (long) this.values.length * Character.BYTES; }
+
+        @Override
+        public String kind() { return "array"; }
+
+        /**
+         * Helper method for finding the number of positions below a position
+         *
+         * @param position position to compare with, up to CHUNK_SIZE
+         * @return number of held positions smaller than position
+         */
+        private int lowerBound(int position) {
+            int low = 0;
+            int high = this.values.length;
+
+            while (low < high) {
+                int middle = (low + high) >>> 1;
+                if (this.values[middle] < position) {
+                    low = middle + 1;
+                } else {
+                    high = middle;
+                }
+            }
+            return low;
+        }
+    }
+
+    /**
+     * Dense chunk held as a bitset of 65536 bits
+     */
+    private static final class BitsetContainer implements Container {
+        private final long[] words;
+        private final int cardinality;
+
+        /**
+         * Constructor for BitsetContainer class
+         *
+         * @param incomingWords       bitset of the chunk
+         * @param incomingCardinality number of set bits
+         */
+        BitsetContainer(long[] incomingWords, int incomingCardinality) {
+            this.words = incomingWords;
+            this.cardinality = incomingCardinality;
+        }
+
+        @Override
+        public int cardinality() { return this.cardinality; }
+
+        @Override
+        public int rangeCardinality(int from, int to) { return countRange(this.words, from, to); }
+
+        @Override
+        public boolean contains(int low) {
+            return (this.words[low / WORD_BITS] & (1L << (low % WORD_BITS))) != 0;
+        }
+
+        @Override
+        public int first() {
+            int w = 0;
+            while (this.words[w] == 0) {
+                w++;
+            }
+            return w * WORD_BITS + Long.numberOfTrailingZeros(this.words[w]);
+        }
+
+        @Override
+        public int last() {
+            int w = this.words.length - 1;
+            while (this.words[w] == 0) {
+                w--;
+            }
+            return w * WORD_BITS + WORD_BITS - 1 - Long.numberOfLeadingZeros(this.words[w]);
+        }
+
+        @Override
+        public void orInto(long[] target) {
+            for (int w = 0; w < this.words.length; w++) {
+                target[w] |= this.words[w];
+            }
+        }
+
+        @Override
+        public long memoryBytes() { return BITMAP_CONTAINER_BYTES; }
+
+        @Override
+        public String kind() { return "bitset"; }
+    }
+
+    /**
+     * Chunk of long occupied stretches held as runs of first and last position
+     */
+    private static final class RunContainer implements Container {
+        private final char[] starts;
+        private final char[] ends;
+        private final int cardinality;
+
+        /**
+         * Constructor for RunContainer class
+         *
+         * @param incomingStarts first position of each run in ascending order
+         * @param incomingEnds   last position of each run, inclusive
+         */
+        RunContainer(char[] incomingStarts, char[] incomingEnds) {
+            int total = 0;
+
+            for (int i = 0; i < incomingStarts.length; i++) {
+                total += incomingEnds[i] - incomingStarts[i] + 1;
+            }
+            this.starts = incomingStarts;
+            this.ends = incomingEnds;
+            this.cardinality = total;
+        }
+
+        /**
+         * Method for creating a container from a chunk bitset
+         *
+         * @param words bitset of the chunk
+         * @param runs  number of runs of set bits
+         * @return the container
+         */
+        static RunContainer fromWords(long[] words, int runs) {
+            char[] starts = new char[runs];
+            char[] ends = new char[runs];
+            BitSet bits = BitSet.valueOf(words);
+
+            for (int run = 0, position = bits.nextSetBit(0); position >= 0; run++, position = bits.nextSetBit(ends[run - 1] + 1)) {
+                starts[run] = (char) position;
+                ends[run] = (char) (bits.nextClearBit(position) - 1);
+            }
+            return new RunContainer(starts, ends);
+        }
+
+        @Override
+        public int cardinality() { return this.cardinality; }
+
+        @Override
+        public int rangeCardinality(int from, int to) {
+            int count = 0;
+
+            for (int i = 0; i < this.starts.length && this.starts[i] < to; i++) {
+                count += Math.max(0, Math.min(to, this.ends[i] + 1) - Math.max(from, this.starts[i]));
+            }
+            return count;
+        }
+
+        @Override
+        public boolean contains(int low) {
+            return rangeCardinality(low, low + 1) == 1;
+        }
+
+        @Override
+        public int first() { return this.starts[0]; }
+
+        @Override
+        public int last() { return this.ends[this.ends.length - 1]; }
+
+        @Override
+        public void orInto(long[] words) {
+            for (int i = 0; i < this.starts.length; i++) {
+                setRange(words, this.starts[i], this.ends[i] + 1);
+            }
+        }
+
+        @Override
+        public long memoryBytes() { return (long) this.starts.length * Character.BYTES * 2; }
+
+        @Override
+        public String kind() { return "run"; }
+    }
+}
@@ -0,0 +1,79 @@
+package buildingoccupationanalyzer;
+
+/**
+ * Immutable change of the live occupancy of a room/area, from vacant to occupied or back. Changes are numbered in the
+ * order they were published, changes sent to a new subscription as its initial state get numbers like any other change
+ */
+public final class OccupancyChange {
+    private final long sequence;
+    private final String roomKey;
+    private final boolean occupied;
+    private final long time;
+
+    /**
+     * Constructor for OccupancyChange class
+     *
+     * @param incomingSequence number of the change
+     * @param incomingRoomKey  building~room key of the room/area
+     * @param incomingOccupied true if the room/area became occupied, false if it became vacant
+     * @param incomingTime     time the change was seen in milliseconds
+     */
+    public OccupancyChange(long incomingSequence, String incomingRoomKey, boolean incomingOccupied, long incomingTime) {
+        this.sequence = incomingSequence;
+        this.roomKey = incomingRoomKey;
+        this.occupied = incomingOccupied;
+        this.time = incomingTime;
+    }
+
+    /**
+     * Getter for sequence
+     *
+     * @return number of the change
+     */
+    public long getSequence() { return this.sequence; }
+
+    /**
+     * Getter for room key
+     *
+     * @return building~room key of the room/area
+     */
+    public String getRoomKey() { return this.roomKey; }
+
+    /**
+     * Getter for building
+     *
+     * @return name of the building of the room/area
+     */
+    public String getBuilding() { return this.roomKey.split(Constants.BUILDING_AREA_NAME_SEPARATOR)[0]; }
+
+    /**
+     * Getter for room
+     *
+     * @return name of the room/area
+     */
+    public String getRoom() { return this.roomKey.split(Constants.BUILDING_AREA_NAME_SEPARATOR)[1]; }
+
+    /**
+     * Getter for occupied
+     *
+     * @return true if the room/area became occupied, false if it became vacant
+     */
+    public boolean isOccupied() { return this.occupied; }
+
+    /**
+     * Getter for time
+     *
+     * @return time the change was seen in milliseconds
+     */
+    public long getTime() { return this.time; }
+
+    /**
+     * Method for rendering the change as a json object
+     *
+     * @return {"sequence":n,"building":"...","room":"...","occupied":true,"time":millis}
+     */
+    public String toJson() {
+        return "{\"sequence\":" + this.sequence + ",\"building\":" + JsonUtilizationRenderer.quote(getBuilding()) + ",\"room\":"
+                + JsonUtilizationRenderer.quote(getRoom()) + ",\"occupied\":" + this.occupied + ",\"time\":" + this.time + "}";
+    }
+}
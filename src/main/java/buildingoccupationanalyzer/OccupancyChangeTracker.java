@@ -0,0 +1,157 @@
+package buildingoccupationanalyzer;
+
+import java.time.Clock;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+/**
+ * Publishes changes of the live occupancy of rooms/areas to subscriptions. The live occupancy table passes every new room
+ * state as readings are applied, the state is compared with the last published occupancy of the room/area so no readings
+ * are scanned. A room/area also becomes vacant when its readings stop, sweep re-checks every room/area against the clock
+ * to publish those changes
+ */
+public final class OccupancyChangeTracker {
+    private static final Counter PUBLISHED_CHANGES = MetricsRegistry.getDefault().counter("occupancy_changes_total", "Occupancy changes published to subscriptions");
+    private static final AtomicInteger TRACKER_IDS = new AtomicInteger();
+
+    private final int trackerId = TRACKER_IDS.incrementAndGet();
+    private final Function<String, RoomOccupancyState> stateSource;
+    private final ConcurrentHashMap<String, Boolean> occupancy = new ConcurrentHashMap<>();
+    private final CopyOnWriteArrayList<OccupancySubscription> subscriptions = new CopyOnWriteArrayList<>();
+    private final AtomicLong sequence = new AtomicLong();
+    private volatile Clock clock = MockDateClock.defaultClock();
+
+    /**
+     * Constructor for OccupancyChangeTracker class
+     *
+     * @param incomingStateSource current state of a room/area by building~room key, null if the room/area is unknown
+     */
+    public OccupancyChangeTracker(Function<String, RoomOccupancyState> incomingStateSource) {
+        this.stateSource = incomingStateSource;
+        MetricsRegistry.getDefault().gauge("occupancy_subscriptions{tracker=\"" + this.trackerId + "\"}", "Open occupancy change subscriptions", this, tracker -> tracker.subscriptions.size());
+    }
+
+    /**
+     * Getter for tracker id
+     *
+     * @return id of the tracker, labels the gauge of the tracker
+     */
+    public int getTrackerId() { return this.trackerId; }
+
+    /**
+     * Setter for clock
+     *
+     * @param incomingClock clock that defines the current time occupancy is checked at
+     */
+    public void setClock(Clock incomingClock) { this.clock = incomingClock; }
+
+    /**
+     * Method for checking a room/area after its state changed, a change is published if its occupancy differs from the
+     * last published one. The state is read while the room/area is locked so concurrent readings publish in order, the
+     * first state of a room/area is recorded without publishing
+     *
+     * @param roomKey building~room key
+     */
+    public void update(String roomKey) {
+        long now = this.clock.millis();
+
+        this.occupancy.compute(roomKey, (key, previous) -> {
+            RoomOccupancyState state = this.stateSource.apply(key);
+
+            if (state == null) {
+                return null; //Room/area is no longer known
+            }
+            boolean occupied = state.isOccupied(now);
+            if (previous != null && previous != occupied) {
+                publish(new OccupancyChange(this.sequence.incrementAndGet(), key, occupied, now));
+            }
+            return occupied;
+        });
+    }
+
+    /**
+     * Method for dropping rooms/areas that are no longer known, no change is published for them
+     *
+     * @param roomKeys building~room keys of the rooms/areas to keep
+     */
+    public void retain(Collection<String> roomKeys) {
+        this.occupancy.keySet().retainAll(roomKeys);
+    }
+
+    /**
+     * Method for dropping a room/area that is no longer known, no change is published for it
+     *
+     * @param roomKey building~room key
+     */
+    public void remove(String roomKey) {
+        this.occupancy.remove(roomKey);
+    }
+
+    /**
+     * Method for re-checking every room/area against the clock, publishes the rooms/areas whose readings stopped
+     */
+    public void sweep() {
+        for (String roomKey : new ArrayList<>(this.occupancy.keySet())) {
+            update(roomKey);
+        }
+    }
+
+    /**
+     * Method for subscribing to the changes of a room/area, a building or the whole campus. The current occupancy of
+     * every selected room/area is queued first so the client starts from a known state
+     *
+     * @param buildingName building to receive changes of, null for every building
+     * @param roomName     room/area of the building to receive changes of, null for every room/area
+     * @return the subscription, closed by the caller when done
+     */
+    public OccupancySubscription subscribe(String buildingName, String roomName) {
+        OccupancySubscription subscription = new OccupancySubscription(this, buildingName, roomName);
+        long now = this.clock.millis();
+
+        this.subscriptions.add(subscription);
+        for (String roomKey : new ArrayList<>(this.occupancy.keySet())) {
+            if (subscription.matches(roomKey)) {
+                this.occupancy.computeIfPresent(roomKey, (key, occupied) -> { //Ordered with concurrent changes of the room/area
+                    subscription.offer(new OccupancyChange(this.sequence.incrementAndGet(), key, occupied, now));
+                    return occupied;
+                });
+            }
+        }
+        return subscription;
+    }
+
+    /**
+     * Method for ending a subscription
+     *
+     * @param subscription the subscription
+     */
+    void unsubscribe(OccupancySubscription subscription) {
+        this.subscriptions.remove(subscription);
+    }
+
+    /**
+     * Getter for the number of subscriptions
+     *
+     * @return number of open subscriptions
+     */
+    public int getSubscriptionCount() { return this.subscriptions.size(); }
+
+    /**
+     * Helper method for queueing a change on every matching subscription
+     *
+     * @param change the change
+     */
+    private void publish(OccupancyChange change) {
+        for (OccupancySubscription subscription : this.subscriptions) {
+            if (subscription.matches(change.getRoomKey())) {
+                subscription.offer(change);
+            }
+        }
+        PUBLISHED_CHANGES.increment();
+    }
+}
@@ -0,0 +1,44 @@
+package buildingoccupationanalyzer;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * Flight recorder event emitted around a occupancy check of a single room/area
+ */
+@Name("buildingoccupationanalyzer.OccupancyCheck")
+@Label("Occupancy Check")
+@Category({"Building Occupancy", "Analyzer"})
+@Description("Occupancy check for one room/area")
+public final class OccupancyCheckEvent extends Event {
+    @Label("Building")
+    private String building;
+
+    @Label("Room")
+    private String room;
+
+    @Label("Result")
+    @Description("1 when occupied, 0 when not occupied, -1 on error")
+    private int result;
+
+    /**
+     * Constructor for OccupancyCheckEvent class
+     *
+     * @param incomingBuilding building name
+     * @param incomingRoom     room/area name
+     */
+    public OccupancyCheckEvent(String incomingBuilding, String incomingRoom) {
+        this.building = incomingBuilding;
+        this.room = incomingRoom;
+    }
+
+    /**
+     * Setter for result
+     *
+     * @param incomingResult the occupancy check result
+     */
+    public void setResult(int incomingResult) { this.result = incomingResult; }
+}
@@ -0,0 +1,211 @@
+package buildingoccupationanalyzer;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.HttpURLConnection;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Local server pushing occupancy changes to clients as server-sent events, so signage no longer has to poll oc
+ * GET /events streams the changes of the whole campus, /events?building=b those of one building and
+ * /events?building=b&amp;room=r those of one room/area. Every stream starts with the current occupancy of the selected
+ * rooms/areas, each change is a occupancy event whose data is the json of the change and whose id is its sequence
+ * number. A dropped event tells a client that fell behind how many changes it lost, idle streams get a comment line
+ * every OCCUPANCY_HEARTBEAT_MILLIS so closed clients are noticed
+ */
+public final class OccupancyEventServer {
+    static final String EVENTS_PATH = "/events";
+
+    private final DataStore dataStore;
+    private final int requestedPort;
+    private HttpServer server;
+    private ExecutorService executor;
+    private ScheduledExecutorService sweeper;
+
+    /**
+     * Constructor for OccupancyEventServer class
+     *
+     * @param incomingDataStore data store whose occupancy changes are served
+     * @param incomingPort      port to listen on, 0 picks a free port
+     */
+    public OccupancyEventServer(DataStore incomingDataStore, int incomingPort) {
+        this.dataStore = incomingDataStore;
+        this.requestedPort = incomingPort;
+    }
+
+    /**
+     * Getter for the port the server listens on
+     *
+     * @return the port, only valid once the server is started
+     */
+    public int getPort() { return this.server.getAddress().getPort(); }
+
+    /**
+     * Method for starting to serve events on the loopback interface, rooms/areas are swept for changes every
+     * OCCUPANCY_SWEEP_MILLIS so rooms/areas whose readings stopped are reported as vacant
+     *
+     * @throws IOException thrown if the port can not be bound
+     */
+    public synchronized void start() throws IOException {
+        if (this.server != null) {
+            return;
+        }
+        this.server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), this.requestedPort), 0);
+        this.executor = Executors.newCachedThreadPool(runnable -> {
+            Thread thread = new Thread(runnable, "occupancy-events-" + getPort());
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.sweeper = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "occupancy-sweeper");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.server.createContext(EVENTS_PATH, this::handleEvents);
+        this.server.setExecutor(this.executor);
+        this.server.start();
+        this.sweeper.scheduleAtFixedRate(this::sweep, Constants.OCCUPANCY_SWEEP_MILLIS, Constants.OCCUPANCY_SWEEP_MILLIS, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Method for stopping the server, open streams are closed
+     */
+    public synchronized void stop() {
+        if (this.server == null) {
+            return;
+        }
+        this.server.stop(0);
+        this.executor.shutdownNow(); //Interrupts streams waiting for changes
+        this.sweeper.shutdownNow();
+    }
+
+    /**
+     * Helper method for sweeping the rooms/areas for changes, failures are reported and the next sweep runs as usual
+     */
+    private void sweep() {
+        try {
+            this.dataStore.getLiveOccupancy().getChangeTracker().sweep();
+        } catch (RuntimeException e) {
+            Utils.handleException(e, false);
+        }
+    }
+
+    /**
+     * Helper method for answering a events request, streams changes until the client disconnects or the server stops
+     *
+     * @param exchange the request
+     * @throws IOException thrown if the response can not be written
+     */
+    private void handleEvents(HttpExchange exchange) throws IOException {
+        Map<String, String> query = parseQuery(exchange.getRequestURI().getRawQuery());
+        String buildingName = query.get("building");
+        String roomName = query.get("room");
+
+        if (!exchange.getRequestMethod().equals("GET")) {
+            sendError(exchange, HttpURLConnection.HTTP_BAD_METHOD, "Method " + exchange.getRequestMethod() + " is not supported, use GET");
+            return;
+        } else if (buildingName == null && roomName != null) {
+            sendError(exchange, HttpURLConnection.HTTP_BAD_REQUEST, "A room/area needs a building");
+            return;
+        } else if (buildingName != null && !this.dataStore.getBuildingsAsList().contains(buildingName)) {
+            sendError(exchange, HttpURLConnection.HTTP_NOT_FOUND, "Building " + buildingName + " was not found");
+            return;
+        } else if (roomName != null && !this.dataStore.getSensorLocationMap().containsKey(buildingName + Constants.BUILDING_AREA_NAME_SEPARATOR + roomName)) {
+            sendError(exchange, HttpURLConnection.HTTP_NOT_FOUND, "Building name and Room name combination was not found");
+            return;
+        }
+        exchange.getResponseHeaders().set("Content-Type", "text/event-stream; charset=utf-8");
+        exchange.getResponseHeaders().set("Cache-Control", "no-cache");
+        exchange.sendResponseHeaders(HttpURLConnection.HTTP_OK, 0);
+        try (OutputStream body = exchange.getResponseBody();
+             OccupancySubscription subscription = this.dataStore.getLiveOccupancy().getChangeTracker().subscribe(buildingName, roomName)) {
+            stream(subscription, body);
+        } catch (IOException e) {
+            return; //Client disconnected
+        } finally {
+            exchange.close();
+        }
+    }
+
+    /**
+     * Helper method for writing the changes of a subscription as events until the thread is interrupted
+     *
+     * @param subscription the subscription
+     * @param body         stream to write events to
+     * @throws IOException thrown if the client disconnected
+     */
+    private static void stream(OccupancySubscription subscription, OutputStream body) throws IOException {
+        long reportedDrops = 0;
+
+        try {
+            while (!Thread.currentThread().isInterrupted()) {
+                OccupancyChange change = subscription.poll(Constants.OCCUPANCY_HEARTBEAT_MILLIS);
+                StringBuilder events = new StringBuilder();
+
+                if (subscription.getDroppedChanges() != reportedDrops) {
+                    events.append("event: dropped\ndata: ").append(subscription.getDroppedChanges() - reportedDrops).append("\n\n");
+                    reportedDrops = subscription.getDroppedChanges();
+                }
+                if (change == null) {
+                    events.append(": keepalive\n\n");
+                } else {
+                    events.append("id: ").append(change.getSequence()).append("\nevent: occupancy\ndata: ").append(change.toJson()).append("\n\n");
+                }
+                body.write(events.toString().getBytes(StandardCharsets.UTF_8));
+                body.flush();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt(); //Server is stopping
+        }
+    }
+
+    /**
+     * Helper method for answering a request with a error message
+     *
+     * @param exchange the request
+     * @param status   HTTP status code
+     * @param message  error message
+     * @throws IOException thrown if the response can not be written
+     */
+    private static void sendError(HttpExchange exchange, int status, String message) throws IOException {
+        byte[] body = (message + "\n").getBytes(StandardCharsets.UTF_8);
+
+        exchange.getResponseHeaders().set("Content-Type", "text/plain; charset=utf-8");
+        exchange.sendResponseHeaders(status, body.length);
+        exchange.getResponseBody().write(body);
+        exchange.close();
+    }
+
+    /**
+     * Helper method for parsing the parameters of a query string
+     *
+     * @param rawQuery the url encoded query, may be null
+     * @return map of parameter names to decoded values
+     */
+    private static Map<String, String> parseQuery(String rawQuery) {
+        Map<String, String> parameters = new HashMap<>();
+
+        if (rawQuery == null) {
+            return parameters;
+        }
+        for (String parameter : rawQuery.split("&")) {
+            String[] pair = parameter.split("=", 2);
+            if (pair.length == 2) {
+                parameters.put(URLDecoder.decode(pair[0], StandardCharsets.UTF_8), URLDecoder.decode(pair[1], StandardCharsets.UTF_8));
+            }
+        }
+        return parameters;
+    }
+}
@@ -0,0 +1,249 @@
+package buildingoccupationanalyzer;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Prefix-sum occupancy index of every room/area of a data store, answers utilization over any range of hours in
+ * constant time. Each room/area also keeps a compressed bitmap of its occupied minutes for utilization over whole days
+ * and for combining rooms/areas. Writers of the data store keep the index up to date, rooms/areas fed one reading at a
+ * time are marked stale and re-indexed on their next query
+ */
+public class OccupancyIndex {
+    private final DataStore dataStore;
+    private final DataAnalyzer dataAnalyzer;
+    private final ConcurrentHashMap<String, RoomOccupancyIndex> roomIndexes = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<String, OccupancyBitmap> roomBitmaps = new ConcurrentHashMap<>();
+    private final Set<String> staleRooms = ConcurrentHashMap.newKeySet();
+
+    /**
+     * Constructor for OccupancyIndex class
+     *
+     * @param incomingDataStore data store to index
+     */
+    public OccupancyIndex(DataStore incomingDataStore) {
+        this.dataStore = incomingDataStore;
+        this.dataAnalyzer = new DataAnalyzer(incomingDataStore);
+    }
+
+    /**
+     * Method for re-indexing every room/area, callers must hold the data stores write lock
+     */
+    public void rebuild() {
+        HashMap<String, ArrayList<String>> sensorLocationMap = this.dataStore.getSensorLocationMap();
+
+        update(sensorLocationMap.keySet());
+        this.roomIndexes.keySet().retainAll(sensorLocationMap.keySet());
+        this.roomBitmaps.keySet().retainAll(sensorLocationMap.keySet());
+    }
+
+    /**
+     * Method for re-indexing a set of rooms/areas, callers must hold the data stores write lock
+     *
+     * @param roomKeys building~room keys to re-index
+     */
+    public void update(Collection<String> roomKeys) {
+        for (String roomKey : roomKeys) {
+            ArrayList<String> sensorList = this.dataStore.getSensorLocationMap().get(roomKey);
+
+            if (sensorList == null) {
+                this.roomIndexes.remove(roomKey);
+                this.roomBitmaps.remove(roomKey);
+            } else {
+                OccupancyBitmap bitmap = buildRoomBitmap(roomKey, sensorList);
+
+                this.roomBitmaps.put(roomKey, bitmap);
+                this.roomIndexes.put(roomKey, buildRoomIndex(bitmap));
+            }
+            this.staleRooms.remove(roomKey);
+        }
+    }
+
+    /**
+     * Method for re-indexing the rooms/areas a set of sensors belong to, callers must hold the data stores write lock
+     *
+     * @param sensors sensors with new readings
+     */
+    public void updateSensors(Collection<String> sensors) {
+        ArrayList<String> roomKeys = new ArrayList<>();
+
+        for (Map.Entry<String, ArrayList<String>> room : this.dataStore.getSensorLocationMap().entrySet()) {
+            for (String sensor : room.getValue()) {
+                if (sensors.contains(sensor)) {
+                    roomKeys.add(room.getKey());
+                    break;
+                }
+            }
+        }
+        update(roomKeys);
+    }
+
+    /**
+     * Method for marking a room/area as stale so it is re-indexed on its next query
+     *
+     * @param roomKey building~room key
+     */
+    public void markStale(String roomKey) {
+        this.staleRooms.add(roomKey);
+    }
+
+    /**
+     * Method for getting the occupied minutes of a room/area between two times, both times are truncated to the hour
+     *
+     * @param roomKey building~room key
+     * @param start   start of the range, inclusive
+     * @param end     end of the range, exclusive
+     * @return occupied minutes within the range, -1 if the room/area is unknown
+     */
+    public long getOccupiedMinutes(String roomKey, LocalDateTime start, LocalDateTime end) {
+        RoomOccupancyIndex roomIndex = getRoomIndex(roomKey);
+
+        if (roomIndex == null) {
+            return -1;
+        }
+        return roomIndex.getOccupiedMinutes(start, end);
+    }
+
+    /**
+     * Method for getting the up to date index of a room/area, for callers querying many ranges of the same room/area
+     *
+     * @param roomKey building~room key
+     * @return the rooms index, null if the room/area is unknown
+     */
+    public RoomOccupancyIndex getRoomIndex(String roomKey) {
+        refreshIfStale(roomKey);
+        return this.roomIndexes.get(roomKey);
+    }
+
+    /**
+     * Method for getting the up to date bitmap of the occupied minutes of a room/area
+     *
+     * @param roomKey building~room key
+     * @return the rooms bitmap, null if the room/area is unknown
+     */
+    public OccupancyBitmap getRoomBitmap(String roomKey) {
+        refreshIfStale(roomKey);
+        return this.roomBitmaps.get(roomKey);
+    }
+
+    /**
+     * Method for combining the bitmaps of a set of rooms/areas, unknown rooms/areas are left out
+     *
+     * @param roomKeys building~room keys
+     * @param allRooms true for the minutes every room/area is occupied (AND), false for the minutes at least one
+     *                 room/area is occupied (OR)
+     * @return the combined bitmap, empty if no room/area is known
+     */
+    public OccupancyBitmap combine(Collection<String> roomKeys, boolean allRooms) {
+        List<OccupancyBitmap> bitmaps = new ArrayList<>();
+
+        for (String roomKey : roomKeys) {
+            OccupancyBitmap bitmap = getRoomBitmap(roomKey);
+            if (bitmap != null) {
+                bitmaps.add(bitmap);
+            }
+        }
+        if (!allRooms || bitmaps.isEmpty()) {
+            return OccupancyBitmap.orAll(bitmaps);
+        }
+
+        OccupancyBitmap combined = bitmaps.get(0);
+        for (int i = 1; i < bitmaps.size(); i++) {
+            combined = combined.and(bitmaps.get(i));
+        }
+        return combined;
+    }
+
+    /**
+     * Helper method for re-indexing a room/area marked stale
+     *
+     * @param roomKey building~room key
+     */
+    private void refreshIfStale(String roomKey) {
+        if (this.staleRooms.contains(roomKey)) {
+            synchronized (this.dataStore.getWriteLock()) {
+                if (this.staleRooms.contains(roomKey)) {
+                    update(Collections.singletonList(roomKey));
+                }
+            }
+        }
+    }
+
+    /**
+     * Helper method for building the bitmap of a room/area from its raw readings and the hourly aggregates of compacted
+     * days. Aggregates only keep minutes per hour, so a compacted hour is filled from its first minute on
+     *
+     * @param roomKey    building~room key
+     * @param sensorList the rooms sensors
+     * @return the rooms bitmap
+     */
+    private OccupancyBitmap buildRoomBitmap(String roomKey, ArrayList<String> sensorList) {
+        OccupancyBitmap bitmap = this.dataAnalyzer.buildOccupancyBitmap(sensorList);
+        HashMap<String, RoomDayAggregate> aggregates = this.dataStore.getHourlyAggregates().get(roomKey);
+        OccupancyBitmap.Builder compacted = OccupancyBitmap.builder();
+
+        if (aggregates == null) {
+            return bitmap;
+        }
+        for (RoomDayAggregate aggregate : aggregates.values()) { //Days that were compacted only exist as hourly aggregates
+            long dayStart = toLocalDate(aggregate.getDayKey()).toEpochDay() * Constants.TOTAL_MINUTES_IN_A_DAY;
+
+            if (bitmap.getCardinality(dayStart, dayStart + Constants.TOTAL_MINUTES_IN_A_DAY) == 0) {
+                for (int hour = 0; hour < Constants.TOTAL_HOURS_IN_A_DAY; hour++) {
+                    long hourStart = dayStart + hour * Constants.TOTAL_MINUTES_IN_HOUR;
+                    compacted.addRange(hourStart, hourStart + aggregate.getOccupiedMinutes(hour));
+                }
+            }
+        }
+        return bitmap.or(compacted.build());
+    }
+
+    /**
+     * Helper method for indexing a room/area from the bitmap of its occupied minutes
+     *
+     * @param bitmap the rooms bitmap
+     * @return the rooms index
+     */
+    private static RoomOccupancyIndex buildRoomIndex(OccupancyBitmap bitmap) {
+        HashMap<LocalDate, int[]> occupiedMinutesPerDay = new HashMap<>();
+
+        if (bitmap.isEmpty()) {
+            return RoomOccupancyIndex.build(occupiedMinutesPerDay);
+        }
+        for (long day = Math.floorDiv(bitmap.getFirstMinute(), Constants.TOTAL_MINUTES_IN_A_DAY); day <= Math.floorDiv(bitmap.getLastMinute(), Constants.TOTAL_MINUTES_IN_A_DAY); day++) {
+            long dayStart = day * Constants.TOTAL_MINUTES_IN_A_DAY;
+            int[] hours = new int[Constants.TOTAL_HOURS_IN_A_DAY];
+
+            if (bitmap.getCardinality(dayStart, dayStart + Constants.TOTAL_MINUTES_IN_A_DAY) == 0) {
+                continue;
+            }
+            for (int hour = 0; hour < hours.length; hour++) {
+                long hourStart = dayStart + hour * Constants.TOTAL_MINUTES_IN_HOUR;
+                hours[hour] = (int) bitmap.getCardinality(hourStart, hourStart + Constants.TOTAL_MINUTES_IN_HOUR);
+            }
+            occupiedMinutesPerDay.put(LocalDate.ofEpochDay(day), hours);
+        }
+        return RoomOccupancyIndex.build(occupiedMinutesPerDay);
+    }
+
+    /**
+     * Helper method for converting a day key back to a date
+     *
+     * @param dayKey day key (see Utils.getDayKey)
+     * @return the date
+     */
+    @SuppressWarnings("checkstyle:MagicNumber")
+    private static LocalDate toLocalDate(String dayKey) {
+        String[] parts = dayKey.split("~");
+
+        return LocalDate.of(Integer.parseInt(parts[2]) + 1900, Integer.parseInt(parts[1]) + 1, Integer.parseInt(parts[0]));
+    }
+}
@@ -0,0 +1,63 @@
+package buildingoccupationanalyzer;
+
+import java.time.LocalDateTime;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Immutable campus wide occupancy at a point in time
+ */
+public final class OccupancySnapshot {
+    private final LocalDateTime time;
+    private final Map<String, Integer> occupancy;
+
+    /**
+     * Constructor for OccupancySnapshot class
+     *
+     * @param incomingTime      time the snapshot was taken at
+     * @param incomingOccupancy map of building~room keys to 1 if occupied or 0 if not
+     */
+    public OccupancySnapshot(LocalDateTime incomingTime, Map<String, Integer> incomingOccupancy) {
+        this.time = incomingTime;
+        this.occupancy = Collections.unmodifiableMap(new LinkedHashMap<>(incomingOccupancy));
+    }
+
+    /**
+     * Getter for time
+     *
+     * @return time the snapshot was taken at
+     */
+    public LocalDateTime getTime() { return this.time; }
+
+    /**
+     * Getter for occupancy
+     *
+     * @return unmodifiable map of building~room keys to 1 if occupied or 0 if not
+     */
+    public Map<String, Integer> getOccupancy() { return this.occupancy; }
+
+    /**
+     * Method for counting the occupied rooms/areas
+     *
+     * @return number of occupied rooms/areas
+     */
+    public int getOccupiedCount() {
+        int count = 0;
+
+        for (int state : this.occupancy.values()) {
+            count += state == 1 ? 1 : 0;
+        }
+        return count;
+    }
+
+    /**
+     * Method for formatting the snapshot for output
+     *
+     * @return one line summary of the snapshot
+     */
+    @Override
+    public String toString() {
+        return this.time + " occupied " + getOccupiedCount() + "/" + this.occupancy.size();
+    }
+}
@@ -0,0 +1,85 @@
+package buildingoccupationanalyzer;
+
+import java.io.Closeable;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Interest of a client in the occupancy changes of one room/area, one building or the whole campus. Matching changes are
+ * queued until the client polls them, a client that falls more than OCCUPANCY_SUBSCRIPTION_QUEUE_CHANGES behind loses
+ * its oldest changes so a slow client never holds up ingestion
+ */
+public final class OccupancySubscription implements Closeable {
+    private final OccupancyChangeTracker tracker;
+    private final String buildingName;
+    private final String roomName;
+    private final LinkedBlockingQueue<OccupancyChange> queue = new LinkedBlockingQueue<>(Constants.OCCUPANCY_SUBSCRIPTION_QUEUE_CHANGES);
+    private final AtomicLong droppedChanges = new AtomicLong();
+
+    /**
+     * Constructor for OccupancySubscription class
+     *
+     * @param incomingTracker      tracker publishing the changes
+     * @param incomingBuildingName building to receive changes of, null for every building
+     * @param incomingRoomName     room/area of the building to receive changes of, null for every room/area
+     */
+    OccupancySubscription(OccupancyChangeTracker incomingTracker, String incomingBuildingName, String incomingRoomName) {
+        this.tracker = incomingTracker;
+        this.buildingName = incomingBuildingName;
+        this.roomName = incomingRoomName;
+    }
+
+    /**
+     * Method for checking if the subscription wants the changes of a room/area
+     *
+     * @param roomKey building~room key
+     * @return true if the room/area is selected
+     */
+    public boolean matches(String roomKey) {
+        if (this.buildingName == null) {
+            return true;
+        }
+        String[] names = roomKey.split(Constants.BUILDING_AREA_NAME_SEPARATOR);
+        return names[0].equals(this.buildingName) && (this.roomName == null || names[1].equals(this.roomName));
+    }
+
+    /**
+     * Method for queueing a change, the oldest queued change is dropped if the queue is full
+     *
+     * @param change the change
+     */
+    void offer(OccupancyChange change) {
+        while (!this.queue.offer(change)) {
+            if (this.queue.poll() != null) {
+                this.droppedChanges.incrementAndGet();
+            }
+        }
+    }
+
+    /**
+     * Method for waiting for the next change
+     *
+     * @param timeoutMillis time to wait in milliseconds
+     * @return the next change, null if none arrived in time
+     * @throws InterruptedException thrown if the thread is interrupted while waiting
+     */
+    public OccupancyChange poll(long timeoutMillis) throws InterruptedException {
+        return this.queue.poll(timeoutMillis, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Getter for dropped changes
+     *
+     * @return number of changes dropped because the client fell behind
+     */
+    public long getDroppedChanges() { return this.droppedChanges.get(); }
+
+    /**
+     * Method for ending the subscription, no further changes are queued
+     */
+    @Override
+    public void close() {
+        this.tracker.unsubscribe(this);
+    }
+}
@@ -0,0 +1,44 @@
+package buildingoccupationanalyzer;
+
+/**
+ * Immutable set of time bounds used for occupancy checks, computed once and shared by every room checked at the same time
+ */
+public final class OccupancyWindow {
+    private final long lowerBound;
+    private final long upperBound;
+    private final long currentTime;
+
+    /**
+     * Constructor for OccupancyWindow class
+     *
+     * @param incomingLowerBound  earliest time (exclusive) a ceiling sensor reading counts as current
+     * @param incomingUpperBound  latest time (exclusive) a ceiling sensor reading counts as current
+     * @param incomingCurrentTime the time being checked against door sensor intervals
+     */
+    public OccupancyWindow(long incomingLowerBound, long incomingUpperBound, long incomingCurrentTime) {
+        this.lowerBound = incomingLowerBound;
+        this.upperBound = incomingUpperBound;
+        this.currentTime = incomingCurrentTime;
+    }
+
+    /**
+     * Getter for lower bound
+     *
+     * @return lower bound in milliseconds
+     */
+    public long getLowerBound() { return this.lowerBound; }
+
+    /**
+     * Getter for upper bound
+     *
+     * @return upper bound in milliseconds
+     */
+    public long getUpperBound() { return this.upperBound; }
+
+    /**
+     * Getter for current time
+     *
+     * @return current time in milliseconds
+     */
+    public long getCurrentTime() { return this.currentTime; }
+}
@@ -0,0 +1,163 @@
+package buildingoccupationanalyzer;
+
+/**
+ * Immutable compressed block of up to READING_BLOCK_SIZE reading timestamps of one sensor, in their stored order
+ * The header keeps the first timestamp and the smallest and largest timestamp of the block so cursors can skip blocks
+ * outside a query window without decoding them. The differences between consecutive timestamps are zigzag encoded (so
+ * out of order readings still encode), reduced by the smallest encoded difference and bit-packed with the width of the
+ * largest remaining value. Readings taken at a fixed interval therefore pack into zero bits per reading
+ */
+public final class ReadingBlock {
+    private static final int BITS_PER_WORD = 64;
+    private static final int HEADER_BYTES = 48;
+
+    private final long first;
+    private final long min;
+    private final long max;
+    private final int size;
+    private final long deltaBase;
+    private final int bitWidth;
+    private final long[] packed;
+
+    /**
+     * Constructor for ReadingBlock class, encodes a run of timestamps
+     *
+     * @param timestamps timestamps in milliseconds
+     * @param from       index of the first timestamp to encode
+     * @param count      number of timestamps to encode, at least 1
+     */
+    private ReadingBlock(long[] timestamps, int from, int count) {
+        long smallest = timestamps[from];
+        long largest = timestamps[from];
+        long smallestDelta = count == 1 ? 0 : -1L; //Unsigned maximum
+        long largestDelta = 0;
+
+        for (int i = from + 1; i < from + count; i++) {
+            long zigzag = zigzag(timestamps[i] - timestamps[i - 1]);
+
+            smallest = Math.min(smallest, timestamps[i]);
+            largest = Math.max(largest, timestamps[i]);
+            smallestDelta = Long.compareUnsigned(zigzag, smallestDelta) < 0 ? zigzag : smallestDelta;
+            largestDelta = Long.compareUnsigned(zigzag, largestDelta) > 0 ? zigzag : largestDelta;
+        }
+
+        this.first = timestamps[from];
+        this.min = smallest;
+        this.max = largest;
+        this.size = count;
+        this.deltaBase = smallestDelta;
+        this.bitWidth = BITS_PER_WORD - Long.numberOfLeadingZeros(largestDelta - smallestDelta);
+        this.packed = new long[(int) (((long) (count - 1) * this.bitWidth + BITS_PER_WORD - 1) / BITS_PER_WORD)];
+
+        for (int i = 1; i < count && this.bitWidth > 0; i++) {
+            long value = zigzag(timestamps[from + i] - timestamps[from + i - 1]) - smallestDelta;
+            long bit = (long) (i - 1) * this.bitWidth;
+            int word = (int) (bit / BITS_PER_WORD);
+            int shift = (int) (bit % BITS_PER_WORD);
+
+            this.packed[word] |= value << shift;
+            if (shift + this.bitWidth > BITS_PER_WORD) {
+                this.packed[word + 1] |= value >>> (BITS_PER_WORD - shift);
+            }
+        }
+    }
+
+    /**
+     * Method for encoding a run of timestamps
+     *
+     * @param timestamps timestamps in milliseconds
+     * @param from       index of the first timestamp to encode
+     * @param count      number of timestamps to encode, at least 1
+     * @return the encoded block
+     */
+    public static ReadingBlock encode(long[] timestamps, int from, int count) {
+        return new ReadingBlock(timestamps, from, count);
+    }
+
+    /**
+     * Method for decoding the block
+     *
+     * @param target array to decode into, must have room for size() timestamps after offset
+     * @param offset index of the first decoded timestamp in the target
+     */
+    public void decode(long[] target, int offset) {
+        long mask = this.bitWidth == BITS_PER_WORD ? -1L : (1L << this.bitWidth) - 1;
+        long current = this.first;
+
+        target[offset] = current;
+        for (int i = 1; i < this.size; i++) {
+            long value = 0;
+
+            if (this.bitWidth > 0) {
+                long bit = (long) (i - 1) * this.bitWidth;
+                int word = (int) (bit / BITS_PER_WORD);
+                int shift = (int) (bit % BITS_PER_WORD);
+
+                value = this.packed[word] >>> shift;
+                if (shift + this.bitWidth > BITS_PER_WORD) {
+                    value |= this.packed[word + 1] << (BITS_PER_WORD - shift);
+                }
+                value &= mask;
+            }
+            current += unzigzag(value + this.deltaBase);
+            target[offset + i] = current;
+        }
+    }
+
+    /**
+     * Getter for min
+     *
+     * @return smallest timestamp of the block
+     */
+    public long getMin() { return this.min; }
+
+    /**
+     * Getter for max
+     *
+     * @return largest timestamp of the block
+     */
+    public long getMax() { return this.max; }
+
+    /**
+     * Getter for size
+     *
+     * @return number of timestamps in the block
+     */
+    public int size() { return this.size; }
+
+    /**
+     * Getter for bitWidth
+     *
+     * @return bits used per packed difference
+     */
+    public int getBitWidth() { return this.bitWidth; }
+
+    /**
+     * Method for estimating the heap memory used by the block
+     *
+     * @return estimated bytes including the object header and the packed array
+     */
+    public long getMemoryBytes() {
+        return HEADER_BYTES + Long.BYTES * 2 + (long) this.packed.length * Long.BYTES;
+    }
+
+    /**
+     * Helper method for zigzag encoding a signed difference so small negative values stay small
+     *
+     * @param value signed value
+     * @return zigzag encoded value
+     */
+    private static long zigzag(long value) {
+        return (value << 1) ^ (value >> (BITS_PER_WORD - 1));
+    }
+
+    /**
+     * Helper method for reversing zigzag encoding
+     *
+     * @param value zigzag encoded value
+     * @return signed value
+     */
+    private static long unzigzag(long value) {
+        return (value >>> 1) ^ -(value & 1);
+    }
+}
@@ -0,0 +1,148 @@
+package buildingoccupationanalyzer;
+
+import java.util.Date;
+import java.util.List;
+
+/**
+ * Forward-only cursor over the readings of one sensor that fall within a query window
+ * Readings are returned in their stored order, cursors over compressed readings skip whole blocks outside the window
+ */
+public interface ReadingCursor {
+    /**
+     * Method for moving to the next reading within the window
+     *
+     * @return true if there is a reading, false once the cursor is exhausted
+     */
+    boolean next();
+
+    /**
+     * Method for getting the current reading
+     *
+     * @return the timestamp of the current reading in milliseconds
+     */
+    long getMillis();
+
+    /**
+     * Method for creating a cursor over a list of readings
+     *
+     * @param readings    readings to walk, may be null
+     * @param startMillis start of the window, inclusive
+     * @param endMillis   end of the window, exclusive
+     * @return the cursor
+     */
+    static ReadingCursor over(List<Date> readings, long startMillis, long endMillis) {
+        return new ReadingCursor() {
+            private int index = -1;
+            private long current;
+
+            @Override
+            public boolean next() {
+                while (readings != null && ++this.index < readings.size()) {
+                    this.current = readings.get(this.index).getTime();
+                    if (this.current >= startMillis && this.current < endMillis) {
+                        return true;
+                    }
+                }
+                return false;
+            }
+
+            @Override
+            public long getMillis() { return this.current; }
+        };
+    }
+
+    /**
+     * Method for creating a cursor over a list of readings in time order, the first reading within the window is found
+     * with a binary search and the cursor stops at the first reading past it
+     *
+     * @param readings    readings to walk in time order, may be null
+     * @param startMillis start of the window, inclusive
+     * @param endMillis   end of the window, exclusive
+     * @return the cursor
+     */
+    static ReadingCursor overSorted(List<Date> readings, long startMillis, long endMillis) {
+        int low = 0;
+        int high = readings == null ? 0 : readings.size();
+
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (readings.get(middle).getTime() < startMillis) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+
+        int first = low;
+        return new ReadingCursor() {
+            private int index = first - 1;
+            private long current;
+
+            @Override
+            public boolean next() {
+                if (readings == null || ++this.index >= readings.size() || readings.get(this.index).getTime() >= endMillis) {
+                    return false;
+                }
+                this.current = readings.get(this.index).getTime();
+                return true;
+            }
+
+            @Override
+            public long getMillis() { return this.current; }
+        };
+    }
+
+    /**
+     * Method for merging two cursors over readings in time order into one, a reading found by both is returned once
+     *
+     * @param first  first cursor
+     * @param second second cursor
+     * @return cursor over the readings of both in time order
+     */
+    static ReadingCursor merge(ReadingCursor first, ReadingCursor second) {
+        return new ReadingCursor() {
+            private boolean firstValid = first.next();
+            private boolean secondValid = second.next();
+            private long current = Long.MIN_VALUE;
+            private boolean started;
+
+            @Override
+            public boolean next() {
+                while (this.firstValid || this.secondValid) {
+                    boolean takeFirst = !this.secondValid || (this.firstValid && first.getMillis() <= second.getMillis());
+                    long next = takeFirst ? first.getMillis() : second.getMillis();
+
+                    if (takeFirst) {
+                        this.firstValid = first.next();
+                    } else {
+                        this.secondValid = second.next();
+                    }
+                    if (!this.started || next != this.current) { //Duplicate readings are returned once
+                        this.started = true;
+                        this.current = next;
+                        return true;
+                    }
+                }
+                return false;
+            }
+
+            @Override
+            public long getMillis() { return this.current; }
+        };
+    }
+
+    /**
+     * Source of cursors over the stored readings of any sensor, such as DataStore.getReadingCursor
+     */
+    interface Source {
+        /**
+         * Method for walking the readings of a sensor within a window
+         *
+         * @param sensorName  name of the sensor
+         * @param startMillis start of the window, inclusive
+         * @param endMillis   end of the window, exclusive
+         * @return cursor over the readings within the window
+         */
+        ReadingCursor open(String sensorName, long startMillis, long endMillis);
+    }
+}
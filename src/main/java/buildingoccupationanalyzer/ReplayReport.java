@@ -0,0 +1,70 @@
+package buildingoccupationanalyzer;
+
+import java.text.DecimalFormat;
+
+/**
+ * Immutable summary of a replay run
+ */
+public final class ReplayReport {
+    private static final double NANOS_IN_A_SECOND = 1e9;
+    private static final double NANOS_IN_A_MILLISECOND = 1e6;
+
+    private final long steps;
+    private final long elapsedNanos;
+    private final long simulationNanos;
+
+    /**
+     * Constructor for ReplayReport class
+     *
+     * @param incomingSteps           number of simulated time steps
+     * @param incomingElapsedNanos    wall clock time the replay took in nanoseconds
+     * @param incomingSimulationNanos time spent checking occupancy in nanoseconds, leaving out throttling and listeners
+     */
+    public ReplayReport(long incomingSteps, long incomingElapsedNanos, long incomingSimulationNanos) {
+        this.steps = incomingSteps;
+        this.elapsedNanos = incomingElapsedNanos;
+        this.simulationNanos = incomingSimulationNanos;
+    }
+
+    /**
+     * Getter for steps
+     *
+     * @return number of simulated time steps
+     */
+    public long getSteps() { return this.steps; }
+
+    /**
+     * Getter for elapsed nanos
+     *
+     * @return wall clock time the replay took in nanoseconds
+     */
+    public long getElapsedNanos() { return this.elapsedNanos; }
+
+    /**
+     * Getter for simulation nanos
+     *
+     * @return time spent checking occupancy in nanoseconds, leaving out throttling and listeners
+     */
+    public long getSimulationNanos() { return this.simulationNanos; }
+
+    /**
+     * Method for getting the replay throughput
+     *
+     * @return steps per second of simulation time
+     */
+    public double getStepsPerSecond() {
+        return this.simulationNanos == 0 ? 0.0 : this.steps * NANOS_IN_A_SECOND / this.simulationNanos;
+    }
+
+    /**
+     * Method for formatting the report for output
+     *
+     * @return human readable report
+     */
+    @Override
+    public String toString() {
+        DecimalFormat df = new DecimalFormat("0.00");
+        return "Replayed " + this.steps + " steps in " + df.format(this.elapsedNanos / NANOS_IN_A_MILLISECOND) + " ms, "
+                + df.format(this.simulationNanos / NANOS_IN_A_MILLISECOND) + " ms simulating (" + df.format(getStepsPerSecond()) + " steps/second)";
+    }
+}
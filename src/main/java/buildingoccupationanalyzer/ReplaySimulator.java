@@ -0,0 +1,72 @@
+package buildingoccupationanalyzer;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Consumer;
+
+/**
+ * Class for replaying imported data by stepping a simulated clock through it and checking campus wide occupancy at every step
+ */
+public class ReplaySimulator {
+    private static final double NANOS_IN_A_SECOND = 1e9;
+
+    private final SimulatedClock clock;
+    private final DataAnalyzer dataAnalyzer;
+
+    /**
+     * Constructor for ReplaySimulator class
+     *
+     * @param incomingDataStore data store holding the data to replay
+     */
+    public ReplaySimulator(DataStore incomingDataStore) {
+        this.clock = new SimulatedClock(LocalDate.parse(Constants.CURRENT_MOCK_DATE).atStartOfDay(ZoneId.systemDefault()).toInstant(), ZoneId.systemDefault());
+        this.dataAnalyzer = new DataAnalyzer(incomingDataStore, this.clock);
+    }
+
+    /**
+     * Getter for the clock driving the replay
+     *
+     * @return the simulated clock
+     */
+    public SimulatedClock getClock() { return this.clock; }
+
+    /**
+     * Method for replaying a range of days
+     *
+     * @param startDate   first day to replay
+     * @param endDate     last day to replay (inclusive)
+     * @param step        simulated time between snapshots
+     * @param speed       simulated seconds per wall clock second, 0 or less to replay as fast as possible
+     * @param listener    receives a snapshot at every step
+     * @return report with the number of steps and the replay throughput, timed over the occupancy checks only so slow
+     *         listeners and throttling do not lower it
+     */
+    public ReplayReport replay(LocalDate startDate, LocalDate endDate, Duration step, double speed, Consumer<OccupancySnapshot> listener) {
+        if (step.isZero() || step.isNegative()) {
+            throw new IllegalArgumentException("Replay step must be positive");
+        }
+        LocalDateTime end = endDate.plusDays(1).atStartOfDay();
+        long startTime = System.nanoTime();
+        long simulationNanos = 0;
+        long steps = 0;
+
+        for (LocalDateTime time = startDate.atStartOfDay(); time.isBefore(end); time = time.plus(step)) {
+            if (speed > 0) { //Wait until the wall clock catches up with the simulated time
+                long due = startTime + (long) (steps * step.getSeconds() * NANOS_IN_A_SECOND / speed);
+                while (System.nanoTime() < due) {
+                    LockSupport.parkNanos(due - System.nanoTime());
+                }
+            }
+            long stepStart = System.nanoTime();
+            this.clock.setInstant(time.atZone(this.clock.getZone()).toInstant());
+            OccupancySnapshot snapshot = new OccupancySnapshot(time, this.dataAnalyzer.checkOccupancyAll());
+            simulationNanos += System.nanoTime() - stepStart;
+            listener.accept(snapshot);
+            steps++;
+        }
+        return new ReplayReport(steps, System.nanoTime() - startTime, simulationNanos);
+    }
+}
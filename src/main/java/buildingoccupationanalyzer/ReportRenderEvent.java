@@ -0,0 +1,38 @@
+package buildingoccupationanalyzer;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * Flight recorder event emitted around writing report output to the console
+ */
+@Name("buildingoccupationanalyzer.ReportRender")
+@Label("Report Render")
+@Category({"Building Occupancy", "Reporting"})
+@Description("Console output of a report line")
+public final class ReportRenderEvent extends Event {
+    @Label("Report")
+    private String report;
+
+    @Label("Building")
+    private String building;
+
+    @Label("Room")
+    private String room;
+
+    /**
+     * Constructor for ReportRenderEvent class
+     *
+     * @param incomingReport   name of the report being rendered
+     * @param incomingBuilding building name, null for campus wide output
+     * @param incomingRoom     room/area name, null for building or campus wide output
+     */
+    public ReportRenderEvent(String incomingReport, String incomingBuilding, String incomingRoom) {
+        this.report = incomingReport;
+        this.building = incomingBuilding;
+        this.room = incomingRoom;
+    }
+}
@@ -0,0 +1,90 @@
+package buildingoccupationanalyzer;
+
+import java.text.ParseException;
+import java.text.SimpleDateFormat;
+import java.util.Calendar;
+
+/**
+ * Immutable configuration describing how long sensor data is kept
+ * Raw readings are kept for the raw window, older days are kept as hourly aggregates until the hard horizon and dropped afterwards
+ */
+public final class RetentionPolicy {
+    private final int rawRetentionDays;
+    private final int aggregateRetentionDays;
+    private final String referenceDate;
+
+    /**
+     * Constructor for RetentionPolicy class
+     *
+     * @param incomingRawRetentionDays       number of days (including the reference day) to keep raw readings for
+     * @param incomingAggregateRetentionDays number of days (including the reference day) to keep any data for
+     * @param incomingReferenceDate          the current day in the form yyyy-MM-dd
+     */
+    public RetentionPolicy(int incomingRawRetentionDays, int incomingAggregateRetentionDays, String incomingReferenceDate) {
+        if (incomingRawRetentionDays < 1) {
+            throw new IllegalArgumentException("Raw retention must be at least 1 day");
+        }
+        if (incomingAggregateRetentionDays < incomingRawRetentionDays) {
+            throw new IllegalArgumentException("Aggregate retention must not be shorter than raw retention");
+        }
+        this.rawRetentionDays = incomingRawRetentionDays;
+        this.aggregateRetentionDays = incomingAggregateRetentionDays;
+        this.referenceDate = incomingReferenceDate;
+    }
+
+    /**
+     * Method for creating the default retention policy from the program constants
+     *
+     * @return the default policy
+     */
+    public static RetentionPolicy defaultPolicy() {
+        return new RetentionPolicy(Constants.RAW_RETENTION_DAYS, Constants.AGGREGATE_RETENTION_DAYS, Constants.CURRENT_MOCK_DATE);
+    }
+
+    /**
+     * Getter for raw retention days
+     *
+     * @return raw retention days
+     */
+    public int getRawRetentionDays() { return this.rawRetentionDays; }
+
+    /**
+     * Getter for aggregate retention days
+     *
+     * @return aggregate retention days
+     */
+    public int getAggregateRetentionDays() { return this.aggregateRetentionDays; }
+
+    /**
+     * Method for getting the time before which readings are no longer kept raw
+     *
+     * @return cutoff in milliseconds
+     */
+    public long getRawCutoff() { return getCutoff(this.rawRetentionDays); }
+
+    /**
+     * Method for getting the time before which no data is kept
+     *
+     * @return cutoff in milliseconds
+     */
+    public long getHardCutoff() { return getCutoff(this.aggregateRetentionDays); }
+
+    /**
+     * Helper method for getting the start of the oldest day within a window ending at the reference day
+     *
+     * @param days number of days in the window
+     * @return cutoff in milliseconds
+     */
+    private long getCutoff(int days) {
+        SimpleDateFormat dateFormat = new SimpleDateFormat("yyyy-MM-dd");
+        Calendar cal = Calendar.getInstance();
+
+        try {
+            cal.setTime(dateFormat.parse(this.referenceDate));
+        } catch (ParseException e) {
+            throw new IllegalStateException("Invalid retention reference date " + this.referenceDate, e);
+        }
+        cal.add(Calendar.DATE, -(days - 1));
+        return cal.getTimeInMillis();
+    }
+}
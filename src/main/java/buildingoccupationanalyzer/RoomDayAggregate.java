@@ -0,0 +1,76 @@
+package buildingoccupationanalyzer;
+
+import java.util.Arrays;
+
+/**
+ * Immutable per-room per-day summary of occupied minutes, one bucket per hour, used once raw readings are compacted
+ */
+public final class RoomDayAggregate {
+    private final String dayKey;
+    private final long dayStart;
+    private final int[] occupiedMinutesPerHour;
+
+    /**
+     * Constructor for RoomDayAggregate class
+     *
+     * @param incomingDayKey                 day key of the aggregated day (see Utils.getDayKey)
+     * @param incomingDayStart               start of the aggregated day in milliseconds
+     * @param incomingOccupiedMinutesPerHour occupied minutes for each hour of the day
+     */
+    public RoomDayAggregate(String incomingDayKey, long incomingDayStart, int[] incomingOccupiedMinutesPerHour) {
+        this.dayKey = incomingDayKey;
+        this.dayStart = incomingDayStart;
+        this.occupiedMinutesPerHour = Arrays.copyOf(incomingOccupiedMinutesPerHour, Constants.TOTAL_HOURS_IN_A_DAY);
+    }
+
+    /**
+     * Getter for day key
+     *
+     * @return the day key
+     */
+    public String getDayKey() { return this.dayKey; }
+
+    /**
+     * Getter for day start
+     *
+     * @return start of the day in milliseconds
+     */
+    public long getDayStart() { return this.dayStart; }
+
+    /**
+     * Getter for the occupied minutes within a hour
+     *
+     * @param hour hour of the day (0-23)
+     * @return occupied minutes within the hour
+     */
+    public int getOccupiedMinutes(int hour) { return this.occupiedMinutesPerHour[hour]; }
+
+    /**
+     * Method for getting the total occupied minutes of the day
+     *
+     * @return total occupied minutes
+     */
+    public int getOccupiedMinutes() {
+        int total = 0;
+
+        for (int minutes : this.occupiedMinutesPerHour) {
+            total += minutes;
+        }
+        return total;
+    }
+
+    /**
+     * Method for merging this aggregate with another aggregate of the same day, keeping the larger count per hour
+     *
+     * @param other aggregate to merge with
+     * @return a new merged aggregate
+     */
+    public RoomDayAggregate merge(RoomDayAggregate other) {
+        int[] merged = new int[Constants.TOTAL_HOURS_IN_A_DAY];
+
+        for (int i = 0; i < merged.length; i++) {
+            merged[i] = Math.max(this.occupiedMinutesPerHour[i], other.getOccupiedMinutes(i));
+        }
+        return new RoomDayAggregate(this.dayKey, this.dayStart, merged);
+    }
+}
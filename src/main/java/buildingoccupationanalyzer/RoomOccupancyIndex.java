@@ -0,0 +1,109 @@
+package buildingoccupationanalyzer;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Immutable cumulative occupied-minute index of a single room/area with one slot per hour
+ * The occupied minutes between any two hours are the difference of two slots, so range queries cost two lookups
+ */
+public final class RoomOccupancyIndex {
+    private final long firstEpochDay;
+    private final long[] cumulativeMinutes;
+
+    /**
+     * Constructor for RoomOccupancyIndex class
+     *
+     * @param incomingFirstEpochDay     epoch day of the first indexed day
+     * @param incomingCumulativeMinutes occupied minutes before each hour slot, one more slot than indexed hours
+     */
+    private RoomOccupancyIndex(long incomingFirstEpochDay, long[] incomingCumulativeMinutes) {
+        this.firstEpochDay = incomingFirstEpochDay;
+        this.cumulativeMinutes = incomingCumulativeMinutes;
+    }
+
+    /**
+     * Method for building a index from the occupied minutes of each hour of each day
+     *
+     * @param occupiedMinutesPerDay map of days to occupied minutes for each hour of the day
+     * @return the new index
+     */
+    public static RoomOccupancyIndex build(Map<LocalDate, int[]> occupiedMinutesPerDay) {
+        TreeMap<LocalDate, int[]> sortedDays = new TreeMap<>(occupiedMinutesPerDay);
+
+        if (sortedDays.isEmpty()) {
+            return new RoomOccupancyIndex(0, new long[1]);
+        }
+
+        long firstDay = sortedDays.firstKey().toEpochDay();
+        int dayCount = (int) (sortedDays.lastKey().toEpochDay() - firstDay + 1);
+        long[] hourMinutes = new long[dayCount * Constants.TOTAL_HOURS_IN_A_DAY];
+        long[] cumulative = new long[hourMinutes.length + 1];
+
+        for (Map.Entry<LocalDate, int[]> day : sortedDays.entrySet()) {
+            int offset = (int) (day.getKey().toEpochDay() - firstDay) * Constants.TOTAL_HOURS_IN_A_DAY;
+            for (int hour = 0; hour < Constants.TOTAL_HOURS_IN_A_DAY; hour++) {
+                hourMinutes[offset + hour] = day.getValue()[hour];
+            }
+        }
+        for (int i = 0; i < hourMinutes.length; i++) {
+            cumulative[i + 1] = cumulative[i] + hourMinutes[i];
+        }
+        return new RoomOccupancyIndex(firstDay, cumulative);
+    }
+
+    /**
+     * Method for getting the occupied minutes between two times, both times are truncated to the hour
+     *
+     * @param start start of the range, inclusive
+     * @param end   end of the range, exclusive
+     * @return occupied minutes within the range
+     */
+    public long getOccupiedMinutes(LocalDateTime start, LocalDateTime end) {
+        return this.cumulativeMinutes[getSlot(end)] - this.cumulativeMinutes[getSlot(start)];
+    }
+
+    /**
+     * Method for getting the occupied minutes between two hours counted from the epoch, for callers
+     * walking many consecutive ranges without creating date objects
+     *
+     * @param startEpochHour start of the range, inclusive
+     * @param endEpochHour   end of the range, exclusive
+     * @return occupied minutes within the range
+     */
+    public long getOccupiedMinutes(long startEpochHour, long endEpochHour) {
+        return this.cumulativeMinutes[getSlot(endEpochHour)] - this.cumulativeMinutes[getSlot(startEpochHour)];
+    }
+
+    /**
+     * Getter for the total occupied minutes held in the index
+     *
+     * @return total occupied minutes
+     */
+    public long getTotalOccupiedMinutes() { return this.cumulativeMinutes[this.cumulativeMinutes.length - 1]; }
+
+    /**
+     * Helper method for mapping a time to its slot, times outside the indexed days are clamped to the first or last slot
+     *
+     * @param time time to map
+     * @return slot index
+     */
+    private int getSlot(LocalDateTime time) {
+        return getSlot(time.toLocalDate().toEpochDay() * Constants.TOTAL_HOURS_IN_A_DAY + time.getHour());
+    }
+
+    /**
+     * Helper method for mapping a hour counted from the epoch to its slot, hours outside the indexed days are clamped to
+     * the first or last slot
+     *
+     * @param epochHour hour to map
+     * @return slot index
+     */
+    private int getSlot(long epochHour) {
+        long slot = epochHour - this.firstEpochDay * Constants.TOTAL_HOURS_IN_A_DAY;
+
+        return (int) Math.max(0, Math.min(slot, this.cumulativeMinutes.length - 1));
+    }
+}
@@ -0,0 +1,99 @@
+package buildingoccupationanalyzer;
+
+import java.util.Date;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Live occupancy state of a room/area, answers the same rules as DataAnalyzer.checkOccupancy for any current time
+ * Only the latest ceiling and door reading of the room/area are kept. A time at or after the latest readings, which is
+ * where the clock of a live deployment sits, is answered from them alone: the latest ceiling reading decides if a
+ * ceiling reading falls within the reading window and no door interval can end after the latest door reading. Earlier
+ * times are answered from the stored readings exactly as checkOccupancy answers them, so late readings never change
+ * the state beyond the latest readings. Lookups never lock, a state is only changed by one thread at a time
+ */
+public final class RoomOccupancyState {
+    private final List<String> sensors;
+    private final ReadingCursor.Source readingSource;
+    private volatile long lastCeilingReading = -1;
+    private volatile long lastDoorReading = -1;
+
+    /**
+     * Constructor for RoomOccupancyState class
+     *
+     * @param incomingSensors       the sensors of the room/area in sensor list order
+     * @param incomingReadingSource stored readings of the sensors including readings just ingested
+     */
+    private RoomOccupancyState(List<String> incomingSensors, ReadingCursor.Source incomingReadingSource) {
+        this.sensors = incomingSensors;
+        this.readingSource = incomingReadingSource;
+    }
+
+    /**
+     * Method for building the state of a room/area from the latest readings of its sensors
+     *
+     * @param sensors       the sensors of the room/area in sensor list order
+     * @param readings      readings of a sensor in time order, null if the sensor has no readings
+     * @param readingSource stored readings of the sensors, used for times before the latest readings
+     * @return the state
+     */
+    public static RoomOccupancyState build(List<String> sensors, Function<String, ? extends List<Date>> readings, ReadingCursor.Source readingSource) {
+        RoomOccupancyState state = new RoomOccupancyState(sensors, readingSource);
+
+        for (String sensor : sensors) {
+            List<Date> sensorReadings = readings.apply(sensor);
+
+            if (sensorReadings != null && !sensorReadings.isEmpty()) {
+                state.apply(sensor, sensorReadings.get(sensorReadings.size() - 1).getTime());
+            }
+        }
+        return state;
+    }
+
+    /**
+     * Getter for last ceiling reading
+     *
+     * @return time of the latest ceiling sensor reading, -1 if there is none
+     */
+    public long getLastCeilingReading() { return this.lastCeilingReading; }
+
+    /**
+     * Getter for last door reading
+     *
+     * @return time of the latest door sensor reading, -1 if there is none
+     */
+    public long getLastDoorReading() { return this.lastDoorReading; }
+
+    /**
+     * Method for applying a new reading in place, the reading has to be stored already. Late readings only have to be
+     * stored as times before the latest readings are answered from the stored readings
+     *
+     * @param sensorName name of the sensor the reading is from
+     * @param time       time of the reading in milliseconds
+     */
+    public void apply(String sensorName, long time) {
+        if (sensorName.contains(Constants.DOOR_SENSOR_ID)) {
+            this.lastDoorReading = Math.max(this.lastDoorReading, time);
+        } else {
+            this.lastCeilingReading = Math.max(this.lastCeilingReading, time);
+        }
+    }
+
+    /**
+     * Method for checking if the state shows the room as occupied, uses the same rules as DataAnalyzer.checkOccupancy
+     *
+     * @param now the current time in milliseconds
+     * @return true if the room is occupied
+     */
+    public boolean isOccupied(long now) {
+        long readingWindow = (long) Constants.TIME_BETWEEN_READINGS * Constants.TOTAL_MILLISECONDS_IN_A_MINUTE;
+        long ceilingReading = this.lastCeilingReading;
+
+        if (ceilingReading != -1 && ceilingReading > now - readingWindow && ceilingReading < now + readingWindow) {
+            return true;
+        } else if (ceilingReading < now + readingWindow && now >= this.lastDoorReading) {
+            return false; //No ceiling reading within the window and every door interval ended
+        }
+        return DataAnalyzer.evaluateOccupancy(this.sensors, new OccupancyWindow(now - readingWindow, now + readingWindow, now), this.readingSource) == 1;
+    }
+}
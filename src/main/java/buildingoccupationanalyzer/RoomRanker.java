@@ -0,0 +1,112 @@
+package buildingoccupationanalyzer;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+
+/**
+ * Ranking of the K most or least utilized rooms/areas over the past days. Every room/area is first bounded from the
+ * chunk cardinalities of its occupancy bitmap, rooms/areas are then counted exactly in order of their most favourable
+ * bound while a heap of at most K entries keeps the best so far, and the scan stops once no remaining bound can beat the
+ * worst entry of a full heap
+ */
+public final class RoomRanker {
+    private final DataStore dataStore;
+
+    /**
+     * Constructor for RoomRanker class
+     *
+     * @param incomingDataStore data store whose occupancy index is ranked
+     */
+    public RoomRanker(DataStore incomingDataStore) {
+        this.dataStore = incomingDataStore;
+    }
+
+    /**
+     * Method for ranking the rooms/areas of a building or the campus by utilization
+     *
+     * @param buildingName Building to rank, null for every room/area of the campus
+     * @param numberOfDays Number of days to rank over
+     * @param k            Number of rooms/areas to return
+     * @param mostUtilized true for the most utilized rooms/areas, false for the least utilized
+     * @return the ranking, best ranked first
+     */
+    public RoomRanking rank(String buildingName, int numberOfDays, int k, boolean mostUtilized) {
+        List<Candidate> candidates = new ArrayList<>();
+        long endMinute = (LocalDate.parse(Constants.CURRENT_MOCK_DATE).toEpochDay() + 1) * Constants.TOTAL_MINUTES_IN_A_DAY;
+        long startMinute = endMinute - (long) numberOfDays * Constants.TOTAL_MINUTES_IN_A_DAY;
+
+        if (numberOfDays <= 0) {
+            return RoomRanking.error(UtilizationStatus.INVALID_ARGUMENT, "Number of days must be positive");
+        } else if (k <= 0) {
+            return RoomRanking.error(UtilizationStatus.INVALID_ARGUMENT, "Number of rooms/areas must be positive");
+        }
+        for (String roomKey : this.dataStore.getSensorLocationMap().keySet()) {
+            if (buildingName == null || roomKey.split(Constants.BUILDING_AREA_NAME_SEPARATOR)[0].equals(buildingName)) {
+                OccupancyBitmap bitmap = this.dataStore.getOccupancyIndex().getRoomBitmap(roomKey);
+                candidates.add(new Candidate(roomKey, bitmap == null ? OccupancyBitmap.empty() : bitmap, startMinute, endMinute, mostUtilized));
+            }
+        }
+        if (candidates.isEmpty()) {
+            return RoomRanking.error(UtilizationStatus.NOT_FOUND, "Building " + buildingName + " was not found");
+        }
+
+        Comparator<Candidate> better = Comparator.comparingLong((Candidate candidate) -> mostUtilized ? -candidate.occupied : candidate.occupied)
+                .thenComparing(candidate -> candidate.roomKey);
+        PriorityQueue<Candidate> heap = new PriorityQueue<>(k + 1, better.reversed()); //Worst of the best K at the head
+        int evaluated = 0;
+
+        candidates.sort(Comparator.comparingLong((Candidate candidate) -> mostUtilized ? -candidate.bound : candidate.bound)
+                .thenComparing(candidate -> candidate.roomKey));
+        for (Candidate candidate : candidates) {
+            if (heap.size() == k && (mostUtilized ? candidate.bound < heap.peek().occupied : candidate.bound > heap.peek().occupied)) {
+                break; //Every remaining room/area has a bound at least as unfavourable
+            }
+            candidate.occupied = candidate.bitmap.getCardinality(startMinute, endMinute);
+            evaluated++;
+            heap.add(candidate);
+            if (heap.size() > k) {
+                heap.poll();
+            }
+        }
+
+        List<Candidate> ranked = new ArrayList<>(heap);
+        List<RoomUtilization> rooms = new ArrayList<>();
+        double totalMinutes = endMinute - startMinute;
+
+        Collections.sort(ranked, better);
+        for (Candidate candidate : ranked) {
+            String[] names = candidate.roomKey.split(Constants.BUILDING_AREA_NAME_SEPARATOR);
+            rooms.add(RoomUtilization.ok(names[0], names[1], (candidate.occupied / totalMinutes) * Constants.PERCENT_COVERT_NUMBER));
+        }
+        return RoomRanking.ok(rooms, evaluated);
+    }
+
+    /**
+     * Room/area considered for the ranking with the bound used to order and prune it
+     */
+    private static final class Candidate {
+        private final String roomKey;
+        private final OccupancyBitmap bitmap;
+        private final long bound;
+        private long occupied;
+
+        /**
+         * Constructor for Candidate class
+         *
+         * @param incomingRoomKey building~room key
+         * @param incomingBitmap  occupied minutes of the room/area
+         * @param startMinute     start of the ranked range, inclusive
+         * @param endMinute       end of the ranked range, exclusive
+         * @param mostUtilized    true to bound from above, false to bound from below
+         */
+        Candidate(String incomingRoomKey, OccupancyBitmap incomingBitmap, long startMinute, long endMinute, boolean mostUtilized) {
+            this.roomKey = incomingRoomKey;
+            this.bitmap = incomingBitmap;
+            this.bound = mostUtilized ? incomingBitmap.getCardinalityUpperBound(startMinute, endMinute) : incomingBitmap.getCardinalityLowerBound(startMinute, endMinute);
+        }
+    }
+}
@@ -0,0 +1,86 @@
+package buildingoccupationanalyzer;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Immutable result of a ranking of the most or least utilized rooms/areas, best ranked first
+ */
+public final class RoomRanking {
+    private final List<RoomUtilization> rooms;
+    private final int evaluatedRooms;
+    private final UtilizationStatus status;
+    private final String message;
+
+    /**
+     * Constructor for RoomRanking class
+     *
+     * @param incomingRooms          ranked rooms/areas, best ranked first
+     * @param incomingEvaluatedRooms number of rooms/areas whose occupied minutes were counted exactly
+     * @param incomingStatus         status of the result
+     * @param incomingMessage        error message, null when the status is OK
+     */
+    private RoomRanking(List<RoomUtilization> incomingRooms, int incomingEvaluatedRooms, UtilizationStatus incomingStatus, String incomingMessage) {
+        this.rooms = Collections.unmodifiableList(incomingRooms);
+        this.evaluatedRooms = incomingEvaluatedRooms;
+        this.status = incomingStatus;
+        this.message = incomingMessage;
+    }
+
+    /**
+     * Method for creating a successful result
+     *
+     * @param rooms          ranked rooms/areas, best ranked first
+     * @param evaluatedRooms number of rooms/areas whose occupied minutes were counted exactly
+     * @return the result
+     */
+    public static RoomRanking ok(List<RoomUtilization> rooms, int evaluatedRooms) {
+        return new RoomRanking(rooms, evaluatedRooms, UtilizationStatus.OK, null);
+    }
+
+    /**
+     * Method for creating a failed result
+     *
+     * @param status  reason the ranking could not be computed
+     * @param message error message
+     * @return the result
+     */
+    public static RoomRanking error(UtilizationStatus status, String message) {
+        return new RoomRanking(Collections.emptyList(), 0, status, message);
+    }
+
+    /**
+     * Getter for rooms
+     *
+     * @return ranked rooms/areas, best ranked first, empty if the ranking failed
+     */
+    public List<RoomUtilization> getRooms() { return this.rooms; }
+
+    /**
+     * Getter for evaluated rooms
+     *
+     * @return number of rooms/areas whose occupied minutes were counted exactly, the rest were pruned by their bounds
+     */
+    public int getEvaluatedRooms() { return this.evaluatedRooms; }
+
+    /**
+     * Getter for status
+     *
+     * @return status of the result
+     */
+    public UtilizationStatus getStatus() { return this.status; }
+
+    /**
+     * Getter for message
+     *
+     * @return error message, null when the status is OK
+     */
+    public String getMessage() { return this.message; }
+
+    /**
+     * Method for checking if the ranking was computed
+     *
+     * @return true if the status is OK
+     */
+    public boolean isOk() { return this.status == UtilizationStatus.OK; }
+}
@@ -0,0 +1,96 @@
+package buildingoccupationanalyzer;
+
+/**
+ * Immutable utilization result of a single room/area
+ */
+public final class RoomUtilization {
+    private final String building;
+    private final String room;
+    private final double utilization;
+    private final UtilizationStatus status;
+    private final String message;
+
+    /**
+     * Constructor for RoomUtilization class
+     *
+     * @param incomingBuilding    building name
+     * @param incomingRoom        room/area name
+     * @param incomingUtilization utilization as a percentage, only meaningful when the status is OK
+     * @param incomingStatus      status of the result
+     * @param incomingMessage     error message, null when the status is OK
+     */
+    private RoomUtilization(String incomingBuilding, String incomingRoom, double incomingUtilization, UtilizationStatus incomingStatus, String incomingMessage) {
+        this.building = incomingBuilding;
+        this.room = incomingRoom;
+        this.utilization = incomingUtilization;
+        this.status = incomingStatus;
+        this.message = incomingMessage;
+    }
+
+    /**
+     * Method for creating a successful result
+     *
+     * @param building    building name
+     * @param room        room/area name
+     * @param utilization utilization as a percentage
+     * @return the result
+     */
+    public static RoomUtilization ok(String building, String room, double utilization) {
+        return new RoomUtilization(building, room, utilization, UtilizationStatus.OK, null);
+    }
+
+    /**
+     * Method for creating a failed result
+     *
+     * @param building building name
+     * @param room     room/area name
+     * @param status   reason the utilization could not be computed
+     * @param message  error message, may be null if the error was already reported
+     * @return the result
+     */
+    public static RoomUtilization error(String building, String room, UtilizationStatus status, String message) {
+        return new RoomUtilization(building, room, Constants.ERROR_DOUBLE_VALUE, status, message);
+    }
+
+    /**
+     * Getter for building
+     *
+     * @return building name
+     */
+    public String getBuilding() { return this.building; }
+
+    /**
+     * Getter for room
+     *
+     * @return room/area name
+     */
+    public String getRoom() { return this.room; }
+
+    /**
+     * Getter for utilization
+     *
+     * @return utilization as a percentage, only meaningful when the status is OK
+     */
+    public double getUtilization() { return this.utilization; }
+
+    /**
+     * Getter for status
+     *
+     * @return status of the result
+     */
+    public UtilizationStatus getStatus() { return this.status; }
+
+    /**
+     * Getter for message
+     *
+     * @return error message, null when the status is OK
+     */
+    public String getMessage() { return this.message; }
+
+    /**
+     * Method for checking if the utilization was computed
+     *
+     * @return true if the status is OK
+     */
+    public boolean isOk() { return this.status == UtilizationStatus.OK; }
+}
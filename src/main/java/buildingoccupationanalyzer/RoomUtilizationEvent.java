@@ -0,0 +1,48 @@
+package buildingoccupationanalyzer;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * Flight recorder event emitted around the utilization computation of a single room/area
+ */
+@Name("buildingoccupationanalyzer.RoomUtilization")
+@Label("Room Utilization")
+@Category({"Building Occupancy", "Analyzer"})
+@Description("Utilization computation for one room/area")
+public final class RoomUtilizationEvent extends Event {
+    @Label("Building")
+    private String building;
+
+    @Label("Room")
+    private String room;
+
+    @Label("Day Count")
+    private int dayCount;
+
+    @Label("Utilization Percentage")
+    private double utilization;
+
+    /**
+     * Constructor for RoomUtilizationEvent class
+     *
+     * @param incomingBuilding building name
+     * @param incomingRoom     room/area name
+     * @param incomingDayCount number of days the utilization is computed over
+     */
+    public RoomUtilizationEvent(String incomingBuilding, String incomingRoom, int incomingDayCount) {
+        this.building = incomingBuilding;
+        this.room = incomingRoom;
+        this.dayCount = incomingDayCount;
+    }
+
+    /**
+     * Setter for utilization
+     *
+     * @param incomingUtilization the computed utilization
+     */
+    public void setUtilization(double incomingUtilization) { this.utilization = incomingUtilization; }
+}
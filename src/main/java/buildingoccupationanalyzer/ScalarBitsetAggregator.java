@@ -0,0 +1,67 @@
+package buildingoccupationanalyzer;
+
+import java.util.List;
+
+/**
+ * Bitset aggregation one word of one bitset at a time, per-bit counts visit every set bit of every bitset
+ */
+public final class ScalarBitsetAggregator implements BitsetAggregator {
+    static final String NAME = "scalar";
+    private static final int WORD_BITS = 64;
+
+    @Override
+    public long[] or(List<long[]> bitsets) {
+        long[] result = bitsets.get(0).clone();
+
+        for (int b = 1; b < bitsets.size(); b++) {
+            long[] bitset = bitsets.get(b);
+            for (int w = 0; w < result.length; w++) {
+                result[w] |= bitset[w];
+            }
+        }
+        return result;
+    }
+
+    @Override
+    public long[] and(List<long[]> bitsets) {
+        long[] result = bitsets.get(0).clone();
+
+        for (int b = 1; b < bitsets.size(); b++) {
+            long[] bitset = bitsets.get(b);
+            for (int w = 0; w < result.length; w++) {
+                result[w] &= bitset[w];
+            }
+        }
+        return result;
+    }
+
+    @Override
+    public long popcount(long[] bitset) {
+        long count = 0;
+
+        for (long word : bitset) {
+            count += Long.bitCount(word);
+        }
+        return count;
+    }
+
+    @Override
+    public int[] countPerBit(List<long[]> bitsets, int bits) {
+        int[] counts = new int[bits];
+
+        for (long[] bitset : bitsets) {
+            for (int w = 0; w < bitset.length; w++) {
+                for (long word = bitset[w]; word != 0; word &= word - 1) {
+                    int bit = w * WORD_BITS + Long.numberOfTrailingZeros(word);
+                    if (bit < bits) {
+                        counts[bit]++;
+                    }
+                }
+            }
+        }
+        return counts;
+    }
+
+    @Override
+    public String getName() { return NAME; }
+}
@@ -0,0 +1,41 @@
+package buildingoccupationanalyzer;
+
+/**
+ * Kind of faulty behaviour flagged by the sensor health monitor
+ */
+public enum SensorAnomaly {
+    /**
+     * A ceiling sensor reported without a break for longer than SENSOR_STUCK_HOURS
+     */
+    STUCK("stuck, reporting without a break"),
+    /**
+     * The sensor has no reading within the past SENSOR_SILENT_HOURS
+     */
+    SILENT("silent, no recent readings"),
+    /**
+     * A door sensor has a start and end pair further apart than SENSOR_MAX_DOOR_INTERVAL_HOURS, a reading is missing
+     */
+    UNPAIRED("unpaired, door readings do not pair into start and end"),
+    /**
+     * The sensor reported more than SENSOR_CHATTER_READINGS_PER_MINUTE readings within a minute
+     */
+    CHATTERING("chattering, too many readings per minute");
+
+    private final String description;
+
+    /**
+     * Constructor for SensorAnomaly enum
+     *
+     * @param incomingDescription description shown to the admin
+     */
+    SensorAnomaly(String incomingDescription) {
+        this.description = incomingDescription;
+    }
+
+    /**
+     * Getter for description
+     *
+     * @return description shown to the admin
+     */
+    public String getDescription() { return this.description; }
+}
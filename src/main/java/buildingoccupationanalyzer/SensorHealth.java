@@ -0,0 +1,183 @@
+package buildingoccupationanalyzer;
+
+import java.util.EnumSet;
+
+/**
+ * Running health statistics of a single sensor, updated one reading at a time in constant space
+ * Readings are expected in time order, a reading older than the latest one is only counted as late. The health monitor
+ * replays the stored readings from a earlier copy of the statistics when a late reading arrives
+ */
+public final class SensorHealth {
+    private static final long MILLIS_IN_HOUR = (long) Constants.TOTAL_MINUTES_IN_HOUR * Constants.TOTAL_MILLISECONDS_IN_A_MINUTE;
+
+    private final boolean doorSensor;
+    private long readings;
+    private long lateReadings;
+    private long lastReading = -1;
+    private long streakStart = -1;
+    private long longestStreak;
+    private long currentMinute = -1;
+    private int readingsInMinute;
+    private long chatteringMinutes;
+    private long doorOpenSince = -1;
+    private long unpairedIntervals;
+
+    /**
+     * Constructor for SensorHealth class
+     *
+     * @param sensorName name of the sensor, door sensors are paired into start and end readings
+     */
+    public SensorHealth(String sensorName) {
+        this.doorSensor = sensorName.contains(Constants.DOOR_SENSOR_ID);
+    }
+
+    /**
+     * Constructor for copying the statistics of a sensor, the late readings are not copied
+     *
+     * @param source statistics to copy
+     */
+    private SensorHealth(SensorHealth source) {
+        this.doorSensor = source.doorSensor;
+        this.readings = source.readings;
+        this.lastReading = source.lastReading;
+        this.streakStart = source.streakStart;
+        this.longestStreak = source.longestStreak;
+        this.currentMinute = source.currentMinute;
+        this.readingsInMinute = source.readingsInMinute;
+        this.chatteringMinutes = source.chatteringMinutes;
+        this.doorOpenSince = source.doorOpenSince;
+        this.unpairedIntervals = source.unpairedIntervals;
+    }
+
+    /**
+     * Method for copying the statistics, used by the health monitor to keep checkpoints it can replay late readings from
+     *
+     * @return a copy of the statistics without the late readings
+     */
+    synchronized SensorHealth copy() {
+        return new SensorHealth(this);
+    }
+
+    /**
+     * Method for applying a reading to the statistics, duplicates of the latest reading are ignored
+     *
+     * @param time time of the reading in milliseconds
+     */
+    public synchronized void record(long time) {
+        if (time <= this.lastReading) {
+            if (time < this.lastReading) {
+                this.lateReadings++;
+            }
+            return;
+        }
+
+        long minute = Math.floorDiv(time, Constants.TOTAL_MILLISECONDS_IN_A_MINUTE);
+        if (minute != this.currentMinute) {
+            this.currentMinute = minute;
+            this.readingsInMinute = 0;
+        }
+        if (++this.readingsInMinute == Constants.SENSOR_CHATTER_READINGS_PER_MINUTE + 1) { //Count each minute once
+            this.chatteringMinutes++;
+        }
+        if (this.doorSensor) {
+            recordDoorReading(time);
+        } else if (this.lastReading == -1 || time - this.lastReading > (long) Constants.SENSOR_STUCK_GAP_MINUTES * Constants.TOTAL_MILLISECONDS_IN_A_MINUTE) {
+            this.streakStart = time;
+        } else {
+            this.longestStreak = Math.max(this.longestStreak, time - this.streakStart);
+        }
+        this.lastReading = time;
+        this.readings++;
+    }
+
+    /**
+     * Helper method for pairing door readings into start and end, like the analyzer the readings alternate
+     *
+     * @param time time of the reading in milliseconds
+     */
+    private void recordDoorReading(long time) {
+        if (this.doorOpenSince == -1) {
+            this.doorOpenSince = time;
+            return;
+        }
+        if (time - this.doorOpenSince > Constants.SENSOR_MAX_DOOR_INTERVAL_HOURS * MILLIS_IN_HOUR) {
+            this.unpairedIntervals++;
+        }
+        this.doorOpenSince = -1;
+    }
+
+    /**
+     * Method for adding readings that arrived late, used when the statistics are built again from the stored readings
+     *
+     * @param count number of late readings
+     */
+    synchronized void addLateReadings(long count) {
+        this.lateReadings += count;
+    }
+
+    /**
+     * Method for listing the anomalies of the sensor
+     *
+     * @param now the current time in milliseconds
+     * @return the anomalies, empty if the sensor is healthy
+     */
+    public synchronized EnumSet<SensorAnomaly> getAnomalies(long now) {
+        EnumSet<SensorAnomaly> anomalies = EnumSet.noneOf(SensorAnomaly.class);
+
+        if (this.longestStreak >= Constants.SENSOR_STUCK_HOURS * MILLIS_IN_HOUR) {
+            anomalies.add(SensorAnomaly.STUCK);
+        }
+        if (this.lastReading == -1 || now - this.lastReading > Constants.SENSOR_SILENT_HOURS * MILLIS_IN_HOUR) {
+            anomalies.add(SensorAnomaly.SILENT);
+        }
+        if (this.unpairedIntervals > 0 || (this.doorOpenSince != -1 && now - this.doorOpenSince > Constants.SENSOR_MAX_DOOR_INTERVAL_HOURS * MILLIS_IN_HOUR)) {
+            anomalies.add(SensorAnomaly.UNPAIRED);
+        }
+        if (this.chatteringMinutes > 0) {
+            anomalies.add(SensorAnomaly.CHATTERING);
+        }
+        return anomalies;
+    }
+
+    /**
+     * Getter for readings
+     *
+     * @return number of readings applied in time order
+     */
+    public synchronized long getReadings() { return this.readings; }
+
+    /**
+     * Getter for late readings
+     *
+     * @return number of readings older than the latest reading at the time they arrived
+     */
+    public synchronized long getLateReadings() { return this.lateReadings; }
+
+    /**
+     * Getter for last reading
+     *
+     * @return time of the latest reading, -1 if there is none
+     */
+    public synchronized long getLastReading() { return this.lastReading; }
+
+    /**
+     * Getter for longest streak
+     *
+     * @return longest time in milliseconds a ceiling sensor reported without a break
+     */
+    public synchronized long getLongestStreak() { return this.longestStreak; }
+
+    /**
+     * Getter for chattering minutes
+     *
+     * @return number of minutes with more than SENSOR_CHATTER_READINGS_PER_MINUTE readings
+     */
+    public synchronized long getChatteringMinutes() { return this.chatteringMinutes; }
+
+    /**
+     * Getter for unpaired intervals
+     *
+     * @return number of door start and end pairs further apart than SENSOR_MAX_DOOR_INTERVAL_HOURS
+     */
+    public synchronized long getUnpairedIntervals() { return this.unpairedIntervals; }
+}
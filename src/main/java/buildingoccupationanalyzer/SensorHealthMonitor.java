@@ -0,0 +1,160 @@
+package buildingoccupationanalyzer;
+
+import java.util.ArrayDeque;
+import java.util.Collection;
+import java.util.EnumSet;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Health statistics of every sensor, fed by the live occupancy table in the same pass that applies readings to the
+ * room/area states so no extra scan of the sensor data is needed. A copy of the statistics of a sensor is kept each time
+ * its readings enter a new hour, up to SENSOR_HEALTH_CHECKPOINTS copies, so a late reading only replays the stored
+ * readings after the last copy before it. Only readings older than every copy replay the whole sensor
+ */
+public final class SensorHealthMonitor {
+    private static final long CHECKPOINT_INTERVAL = (long) Constants.TOTAL_MINUTES_IN_HOUR * Constants.TOTAL_MILLISECONDS_IN_A_MINUTE;
+
+    private final ConcurrentHashMap<String, SensorHealth> sensorHealth = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<String, ArrayDeque<SensorHealth>> checkpoints = new ConcurrentHashMap<>();
+
+    /**
+     * Method for applying a reading of a sensor
+     *
+     * @param sensorName sensor the reading is from
+     * @param time       time of the reading in milliseconds
+     */
+    public void record(String sensorName, long time) {
+        this.sensorHealth.compute(sensorName, (key, health) -> apply(key, health == null ? new SensorHealth(key) : health, time));
+    }
+
+    /**
+     * Method for applying a newly ingested reading of a sensor, the reading has to be stored already. If the reading is
+     * older than the latest reading of the sensor the stored readings after the last checkpoint before it are replayed,
+     * and the reading is counted as late
+     *
+     * @param sensorName     sensor the reading is from
+     * @param time           time of the reading in milliseconds
+     * @param storedReadings cursors over the stored readings of a sensor in time order
+     */
+    public void record(String sensorName, long time, ReadingCursor.Source storedReadings) {
+        this.sensorHealth.compute(sensorName, (key, health) -> {
+            if (health == null || time >= health.getLastReading()) {
+                return apply(key, health == null ? new SensorHealth(key) : health, time);
+            }
+            return replay(key, time, health.getLateReadings() + 1, storedReadings);
+        });
+    }
+
+    /**
+     * Method for replaying the stored readings of a sensor after readings older than its latest reading were stored.
+     * The late readings counted so far are kept
+     *
+     * @param sensorName     name of the sensor
+     * @param earliest       time of the earliest reading that was stored
+     * @param storedReadings cursors over the stored readings of a sensor in time order
+     */
+    public void replay(String sensorName, long earliest, ReadingCursor.Source storedReadings) {
+        this.sensorHealth.compute(sensorName, (key, health) -> replay(key, earliest, health == null ? 0 : health.getLateReadings(), storedReadings));
+    }
+
+    /**
+     * Helper method for applying a reading in time order, a checkpoint is kept first if the reading is the first of a
+     * new hour. Only called while the sensor is locked by the statistics map
+     *
+     * @param sensorName name of the sensor
+     * @param health     statistics of the sensor
+     * @param time       time of the reading in milliseconds
+     * @return the statistics
+     */
+    private SensorHealth apply(String sensorName, SensorHealth health, long time) {
+        long lastReading = health.getLastReading();
+
+        if (lastReading != -1 && Math.floorDiv(time, CHECKPOINT_INTERVAL) > Math.floorDiv(lastReading, CHECKPOINT_INTERVAL)) {
+            ArrayDeque<SensorHealth> sensorCheckpoints = this.checkpoints.computeIfAbsent(sensorName, key -> new ArrayDeque<>());
+
+            sensorCheckpoints.addLast(health.copy());
+            if (sensorCheckpoints.size() > Constants.SENSOR_HEALTH_CHECKPOINTS) {
+                sensorCheckpoints.removeFirst();
+            }
+        }
+        health.record(time);
+        return health;
+    }
+
+    /**
+     * Helper method for building the statistics of a sensor again from the last checkpoint before a time, or from
+     * scratch if there is none. Checkpoints at or after the time no longer hold and are dropped. Only called while the
+     * sensor is locked by the statistics map
+     *
+     * @param sensorName     name of the sensor
+     * @param earliest       time of the earliest reading to replay
+     * @param lateReadings   number of late readings of the sensor
+     * @param storedReadings cursors over the stored readings of a sensor in time order
+     * @return the statistics
+     */
+    private SensorHealth replay(String sensorName, long earliest, long lateReadings, ReadingCursor.Source storedReadings) {
+        ArrayDeque<SensorHealth> sensorCheckpoints = this.checkpoints.computeIfAbsent(sensorName, key -> new ArrayDeque<>());
+
+        while (!sensorCheckpoints.isEmpty() && sensorCheckpoints.peekLast().getLastReading() >= earliest) {
+            sensorCheckpoints.removeLast();
+        }
+
+        SensorHealth replayed = sensorCheckpoints.isEmpty() ? new SensorHealth(sensorName) : sensorCheckpoints.peekLast().copy();
+        ReadingCursor readings = storedReadings.open(sensorName, replayed.getLastReading() == -1 ? Long.MIN_VALUE : replayed.getLastReading() + 1, Long.MAX_VALUE);
+
+        while (readings.next()) {
+            apply(sensorName, replayed, readings.getMillis());
+        }
+        replayed.addLateReadings(lateReadings);
+        return replayed;
+    }
+
+    /**
+     * Method for dropping the statistics of every sensor, used before the readings are applied again from scratch
+     */
+    public void clear() {
+        this.sensorHealth.clear();
+        this.checkpoints.clear();
+    }
+
+    /**
+     * Method for dropping the statistics of a sensor, used before its readings are applied again
+     *
+     * @param sensorName name of the sensor
+     */
+    public void remove(String sensorName) {
+        this.sensorHealth.remove(sensorName);
+        this.checkpoints.remove(sensorName);
+    }
+
+    /**
+     * Getter for the statistics of a sensor
+     *
+     * @param sensorName name of the sensor
+     * @return the sensors statistics, null if no reading of the sensor was applied
+     */
+    public SensorHealth getHealth(String sensorName) { return this.sensorHealth.get(sensorName); }
+
+    /**
+     * Method for listing the anomalies of a set of sensors, sensors without any reading are silent
+     *
+     * @param sensors names of the sensors to check
+     * @param now     the current time in milliseconds
+     * @return map of sensor names in name order to their anomalies, healthy sensors are left out
+     */
+    public Map<String, EnumSet<SensorAnomaly>> findAnomalies(Collection<String> sensors, long now) {
+        Map<String, EnumSet<SensorAnomaly>> anomalies = new TreeMap<>();
+
+        for (String sensor : sensors) {
+            SensorHealth health = this.sensorHealth.get(sensor);
+            EnumSet<SensorAnomaly> sensorAnomalies = health == null ? EnumSet.of(SensorAnomaly.SILENT) : health.getAnomalies(now);
+
+            if (!sensorAnomalies.isEmpty()) {
+                anomalies.put(sensor, sensorAnomalies);
+            }
+        }
+        return anomalies;
+    }
+}
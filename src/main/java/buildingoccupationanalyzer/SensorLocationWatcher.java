@@ -0,0 +1,130 @@
+package buildingoccupationanalyzer;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.FileSystems;
+import java.nio.file.Path;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.util.Set;
+
+/**
+ * Watches the sensor location file on disk and swaps the reloaded locations into a data store when the file changes,
+ * without restarting or re-importing sensor data. Bursts of change events, as editors write a file in several steps,
+ * are coalesced into one reload. A file that can not be parsed is reported and the current locations are kept
+ */
+public final class SensorLocationWatcher implements Closeable {
+    private static final Counter RELOADS = MetricsRegistry.getDefault().counter("location_reloads_total", "Reloads of the sensor location file");
+    private static final Counter RELOAD_FAILURES = MetricsRegistry.getDefault().counter("location_reload_failures_total", "Reloads of the sensor location file that failed to parse");
+
+    private final DataStore dataStore;
+    private final Path file;
+    private final CSVSensorLocationFileImporter importer = new CSVSensorLocationFileImporter();
+    private WatchService watchService;
+
+    /**
+     * Constructor for SensorLocationWatcher class
+     *
+     * @param incomingDataStore data store the reloaded locations are swapped into
+     * @param incomingFile      sensor location file to watch
+     */
+    public SensorLocationWatcher(DataStore incomingDataStore, Path incomingFile) {
+        this.dataStore = incomingDataStore;
+        this.file = incomingFile.toAbsolutePath();
+    }
+
+    /**
+     * Method for starting to watch the file on a daemon thread
+     *
+     * @throws IOException if the directory of the file can not be watched
+     */
+    public synchronized void start() throws IOException {
+        this.watchService = FileSystems.getDefault().newWatchService();
+        this.file.getParent().register(this.watchService, StandardWatchEventKinds.ENTRY_CREATE, StandardWatchEventKinds.ENTRY_MODIFY);
+
+        Thread thread = new Thread(() -> watch(this.watchService), "location-watcher");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    /**
+     * Method for reloading the file and swapping the locations into the data store
+     *
+     * @return building~room keys of the rooms/areas that changed, null if the file could not be reloaded
+     */
+    public Set<String> reload() {
+        try {
+            Set<String> changedRooms = this.dataStore.reloadSensorLocationMap(this.importer.importFile(this.file));
+
+            RELOADS.increment();
+            return changedRooms;
+        } catch (IOException e) {
+            RELOAD_FAILURES.increment();
+            System.err.println("Sensor location file " + this.file + " could not be reloaded, keeping the current locations: " + e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * Method for stopping to watch the file
+     *
+     * @throws IOException if the watch service can not be closed
+     */
+    @Override
+    public synchronized void close() throws IOException {
+        if (this.watchService != null) {
+            this.watchService.close();
+        }
+    }
+
+    /**
+     * Helper method for waiting for changes of the file until the watch service is closed
+     *
+     * @param service watch service of the directory of the file
+     */
+    private void watch(WatchService service) {
+        try {
+            while (true) {
+                WatchKey key = service.take();
+                boolean changed = isFileEvent(key);
+
+                while (changed) { //Wait until the file has been quiet for the debounce time
+                    Thread.sleep(Constants.LOCATION_RELOAD_DEBOUNCE_MILLIS);
+                    WatchKey next = service.poll();
+                    if (next == null) {
+                        break;
+                    }
+                    isFileEvent(next);
+                }
+                if (changed) {
+                    reload();
+                }
+            }
+        } catch (ClosedWatchServiceException e) {
+            return; //Closed by close
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Helper method for checking if a watch key holds a event for the watched file, the key is reset
+     *
+     * @param key signalled watch key
+     * @return true if one of its events is for the watched file
+     */
+    private boolean isFileEvent(WatchKey key) {
+        boolean fileEvent = false;
+
+        for (WatchEvent<?> event : key.pollEvents()) {
+            if (event.kind() == StandardWatchEventKinds.OVERFLOW || this.file.getFileName().equals(event.context())) {
+                fileEvent = true;
+            }
+        }
+        key.reset();
+        return fileEvent;
+    }
+}
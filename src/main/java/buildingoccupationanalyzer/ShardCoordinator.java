@@ -0,0 +1,192 @@
+package buildingoccupationanalyzer;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Coordinator of a sharded deployment, answers campus wide queries by scattering a request to every shard in parallel
+ * and combining the per-building results
+ */
+public class ShardCoordinator {
+    private static final int SHARD_TIMEOUT_MILLISECONDS = 10000;
+
+    private final List<InetSocketAddress> shards;
+    private final ExecutorService executor;
+
+    /**
+     * Constructor for ShardCoordinator class
+     *
+     * @param incomingShards addresses of the shards
+     */
+    public ShardCoordinator(List<InetSocketAddress> incomingShards) {
+        this.shards = new ArrayList<>(incomingShards);
+        this.executor = Executors.newFixedThreadPool(Math.max(1, incomingShards.size()), runnable -> {
+            Thread thread = new Thread(runnable, "shard-coordinator");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Method for parsing a comma separated list of shard addresses, each given as host:port or as a port on the loopback interface
+     *
+     * @param shardList the shard list
+     * @return list of shard addresses
+     * @throws NumberFormatException thrown if a port is not a number
+     */
+    public static List<InetSocketAddress> parseShards(String shardList) {
+        List<InetSocketAddress> addresses = new ArrayList<>();
+
+        for (String shard : shardList.split(",")) {
+            if (shard.contains(":")) {
+                addresses.add(new InetSocketAddress(shard.split(":")[0], Integer.parseInt(shard.split(":")[1])));
+            } else {
+                addresses.add(new InetSocketAddress("localhost", Integer.parseInt(shard)));
+            }
+        }
+        return addresses;
+    }
+
+    /**
+     * Getter for shards
+     *
+     * @return addresses of the shards
+     */
+    public List<InetSocketAddress> getShards() { return this.shards; }
+
+    /**
+     * Method for computing the utilization of the campus across every shard, built from the room/area results of each
+     * shard the same way DataAnalyzer.analyzeCampus builds it
+     *
+     * @param numberOfDays Number of days to perform the calculation on
+     * @return the campus result, with the SHARD_ERROR status if a shard can not be reached or fails the request
+     */
+    public CampusUtilization analyzeCampus(int numberOfDays) {
+        List<BuildingUtilization> buildings = new ArrayList<>();
+        List<List<String[]>> shardResults;
+
+        if (numberOfDays == 0) {
+            return CampusUtilization.error(buildings, UtilizationStatus.INVALID_ARGUMENT, "Error, days must not be 0");
+        }
+        try {
+            shardResults = scatter(ShardServer.UTILIZATION_REQUEST + " " + numberOfDays);
+        } catch (IOException e) {
+            return CampusUtilization.error(buildings, UtilizationStatus.SHARD_ERROR, "Error occurred while querying shards: " + e.getMessage());
+        }
+        for (List<String[]> shardResult : shardResults) {
+            List<RoomUtilization> rooms = new ArrayList<>();
+
+            for (String[] result : shardResult) {
+                if (result[0].equals(ShardServer.ROOM_RESULT)) {
+                    rooms.add(RoomUtilization.ok(result[1], result[2], Double.parseDouble(result[3])));
+                } else if (result[0].equals(ShardServer.BUILDING_RESULT)) {
+                    buildings.add(BuildingUtilization.ok(result[1], rooms)); //Same average of the rooms/areas the shard sent
+                    rooms = new ArrayList<>();
+                }
+            }
+        }
+        return CampusUtilization.ok(buildings);
+    }
+
+    /**
+     * Checks if every room/area on campus is currently occupied
+     *
+     * @return Map of building~room keys to 1 if the room is occupied or 0 if not
+     * @throws IOException thrown if a shard can not be reached or fails the request
+     */
+    public Map<String, Integer> checkOccupancyAll() throws IOException {
+        Map<String, Integer> occupancy = new LinkedHashMap<>();
+
+        for (List<String[]> shardResult : scatter(ShardServer.OCCUPANCY_REQUEST)) {
+            for (String[] result : shardResult) {
+                occupancy.put(result[1], Integer.parseInt(result[2]));
+            }
+        }
+        return occupancy;
+    }
+
+    /**
+     * Method for stopping the coordinators worker threads
+     */
+    public void shutdown() {
+        this.executor.shutdownNow();
+    }
+
+    /**
+     * Helper method for sending a request to every shard in parallel and gathering the results in shard order
+     *
+     * @param request the request line
+     * @return list of result lines split into fields, one list per shard
+     * @throws IOException thrown if a shard can not be reached or fails the request
+     */
+    private List<List<String[]>> scatter(String request) throws IOException {
+        List<Future<List<String[]>>> futures = new ArrayList<>();
+        List<List<String[]>> results = new ArrayList<>();
+
+        for (InetSocketAddress shard : this.shards) {
+            futures.add(this.executor.submit(() -> send(shard, request)));
+        }
+        for (int i = 0; i < futures.size(); i++) {
+            try {
+                results.add(futures.get(i).get());
+            } catch (ExecutionException e) {
+                throw new IOException("Shard " + this.shards.get(i) + " failed: " + e.getCause().getMessage(), e.getCause());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IOException("Interrupted while waiting for shard " + this.shards.get(i), e);
+            }
+        }
+        return results;
+    }
+
+    /**
+     * Helper method for sending a request to one shard
+     *
+     * @param shard   address of the shard
+     * @param request the request line
+     * @return result lines split into fields
+     * @throws IOException thrown if the shard can not be reached or fails the request
+     */
+    private static List<String[]> send(InetSocketAddress shard, String request) throws IOException {
+        List<String[]> results = new ArrayList<>();
+
+        try (Socket socket = new Socket()) {
+            socket.connect(shard, SHARD_TIMEOUT_MILLISECONDS);
+            socket.setSoTimeout(SHARD_TIMEOUT_MILLISECONDS);
+
+            Writer writer = new OutputStreamWriter(socket.getOutputStream(), StandardCharsets.UTF_8);
+            BufferedReader reader = new BufferedReader(new InputStreamReader(socket.getInputStream(), StandardCharsets.UTF_8));
+
+            writer.write(request + "\n");
+            writer.flush();
+
+            String line = reader.readLine();
+            while (line != null && !line.equals(ShardServer.END_RESULT)) {
+                String[] fields = line.split(ShardServer.FIELD_SEPARATOR);
+                if (fields[0].equals(ShardServer.ERROR_RESULT)) {
+                    throw new IOException(fields.length > 1 ? fields[1] : "unknown error");
+                }
+                results.add(fields);
+                line = reader.readLine();
+            }
+            if (line == null) {
+                throw new IOException("connection closed before the result was complete");
+            }
+        }
+        return results;
+    }
+}
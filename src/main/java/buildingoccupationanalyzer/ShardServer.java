@@ -0,0 +1,212 @@
+package buildingoccupationanalyzer;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Server for one shard of a sharded deployment, owns the data of a subset of buildings and answers per-building
+ * requests from a ShardCoordinator over a loopback socket
+ * The protocol is one request line per connection, answered with tab separated result lines and a END line:
+ * UTILIZATION days answers ROOM building room utilization lines followed by a BUILDING building utilization line per
+ * building, OCCUPANCY answers ROOM building~room state lines. Failed requests are answered with a ERROR message line
+ */
+public class ShardServer {
+    static final String UTILIZATION_REQUEST = "UTILIZATION";
+    static final String OCCUPANCY_REQUEST = "OCCUPANCY";
+    static final String ROOM_RESULT = "ROOM";
+    static final String BUILDING_RESULT = "BUILDING";
+    static final String ERROR_RESULT = "ERROR";
+    static final String END_RESULT = "END";
+    static final String FIELD_SEPARATOR = "\t";
+
+    private final DataStore dataStore;
+    private final DataAnalyzer dataAnalyzer;
+    private final int requestedPort;
+    private ServerSocket serverSocket;
+    private ExecutorService executor;
+
+    /**
+     * Constructor for ShardServer class
+     *
+     * @param incomingDataStore data store holding the shards buildings
+     * @param incomingPort      port to listen on, 0 picks a free port
+     */
+    public ShardServer(DataStore incomingDataStore, int incomingPort) {
+        this.dataStore = incomingDataStore;
+        this.dataAnalyzer = new DataAnalyzer(incomingDataStore);
+        this.requestedPort = incomingPort;
+    }
+
+    /**
+     * Method for creating a data store holding only the given buildings of the initial data, readings of sensors in
+     * other buildings are skipped while the data file is read
+     *
+     * @param buildings names of the buildings the shard owns
+     * @return the shards data store
+     */
+    public static DataStore createShardStore(Collection<String> buildings) {
+        HashMap<String, ArrayList<String>> sensorLocationMap = new HashMap<>();
+        HashMap<String, ArrayList<Date>> sensorDataMap = new HashMap<>();
+        Set<String> sensors = new HashSet<>();
+
+        for (Map.Entry<String, ArrayList<String>> room : MainApplication.initializeSensorLocationMap().entrySet()) {
+            if (buildings.contains(room.getKey().split(Constants.BUILDING_AREA_NAME_SEPARATOR)[0])) {
+                sensorLocationMap.put(room.getKey(), room.getValue());
+                sensors.addAll(room.getValue());
+            }
+        }
+        try {
+            sensorDataMap = new CSVSensorDataImporter().importData(Constants.DATA_FILE_NAME, sensors::contains);
+        } catch (IOException e) {
+            Utils.handleException(e, true);
+        }
+        return new DataStore(sensorLocationMap, sensorDataMap);
+    }
+
+    /**
+     * Getter for data store
+     *
+     * @return the shards data store
+     */
+    public DataStore getDataStore() { return this.dataStore; }
+
+    /**
+     * Getter for the port the shard listens on
+     *
+     * @return the port, only valid once the shard is started
+     */
+    public int getPort() { return this.serverSocket.getLocalPort(); }
+
+    /**
+     * Method for starting to accept requests on the loopback interface
+     *
+     * @throws IOException thrown if the port can not be bound
+     */
+    public synchronized void start() throws IOException {
+        if (this.serverSocket != null) {
+            return;
+        }
+        this.serverSocket = new ServerSocket(this.requestedPort, 0, InetAddress.getLoopbackAddress());
+        this.executor = Executors.newCachedThreadPool(runnable -> {
+            Thread thread = new Thread(runnable, "shard-server-" + getPort());
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.executor.execute(this::acceptLoop);
+    }
+
+    /**
+     * Method for stopping the shard
+     */
+    public synchronized void stop() {
+        if (this.serverSocket == null) {
+            return;
+        }
+        try {
+            this.serverSocket.close();
+        } catch (IOException e) {
+            Utils.handleException(e, false);
+        }
+        this.executor.shutdownNow();
+    }
+
+    /**
+     * Helper method for accepting connections until the shard is stopped
+     */
+    private void acceptLoop() {
+        while (!this.serverSocket.isClosed()) {
+            try {
+                Socket socket = this.serverSocket.accept();
+                this.executor.execute(() -> handleConnection(socket));
+            } catch (IOException e) {
+                if (!this.serverSocket.isClosed()) {
+                    Utils.handleException(e, false);
+                }
+            }
+        }
+    }
+
+    /**
+     * Helper method for answering the request of one connection
+     *
+     * @param socket the connection
+     */
+    private void handleConnection(Socket socket) {
+        try (Socket connection = socket;
+             BufferedReader reader = new BufferedReader(new InputStreamReader(connection.getInputStream(), StandardCharsets.UTF_8));
+             Writer writer = new BufferedWriter(new OutputStreamWriter(connection.getOutputStream(), StandardCharsets.UTF_8))) {
+            String request = reader.readLine();
+
+            if (request != null) {
+                handleRequest(request, writer);
+            }
+            writer.write(END_RESULT + "\n");
+        } catch (IOException e) {
+            Utils.handleException(e, false);
+        }
+    }
+
+    /**
+     * Method for answering a request line
+     *
+     * @param request the request line
+     * @param writer  writer to write result lines to
+     * @throws IOException thrown if the result can not be written
+     */
+    void handleRequest(String request, Writer writer) throws IOException {
+        String[] splitRequest = request.split(" ");
+
+        if (splitRequest[0].equals(UTILIZATION_REQUEST)) {
+            try {
+                writeUtilization(Integer.parseInt(splitRequest[1]), writer);
+            } catch (IndexOutOfBoundsException | NumberFormatException e) {
+                writer.write(ERROR_RESULT + FIELD_SEPARATOR + "missing or invalid number of days\n");
+            }
+        } else if (splitRequest[0].equals(OCCUPANCY_REQUEST)) {
+            for (Map.Entry<String, Integer> room : this.dataAnalyzer.checkOccupancyAll().entrySet()) {
+                writer.write(ROOM_RESULT + FIELD_SEPARATOR + room.getKey() + FIELD_SEPARATOR + room.getValue() + "\n");
+            }
+        } else {
+            writer.write(ERROR_RESULT + FIELD_SEPARATOR + "unknown request " + splitRequest[0] + "\n");
+        }
+    }
+
+    /**
+     * Helper method for writing the utilization of every room/area and building of the shard
+     *
+     * @param numberOfDays number of days to perform the calculation on
+     * @param writer       writer to write result lines to
+     * @throws IOException thrown if the result can not be written
+     */
+    private void writeUtilization(int numberOfDays, Writer writer) throws IOException {
+        CampusUtilization result = this.dataAnalyzer.analyzeCampus(numberOfDays);
+
+        if (!result.isOk()) {
+            writer.write(ERROR_RESULT + FIELD_SEPARATOR + result.getMessage() + "\n");
+            return;
+        }
+        for (BuildingUtilization building : result.getBuildings()) {
+            for (RoomUtilization room : building.getRooms()) {
+                writer.write(ROOM_RESULT + FIELD_SEPARATOR + room.getBuilding() + FIELD_SEPARATOR + room.getRoom() + FIELD_SEPARATOR + room.getUtilization() + "\n");
+            }
+            writer.write(BUILDING_RESULT + FIELD_SEPARATOR + building.getBuilding() + FIELD_SEPARATOR + building.getUtilization() + "\n");
+        }
+    }
+}
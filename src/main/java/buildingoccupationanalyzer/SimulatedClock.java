@@ -0,0 +1,64 @@
+package buildingoccupationanalyzer;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+
+/**
+ * Clock whose time only moves when it is set or advanced, used to replay historical data
+ */
+public final class SimulatedClock extends Clock {
+    private final ZoneId zone;
+    private volatile Instant currentInstant;
+
+    /**
+     * Constructor for SimulatedClock class
+     *
+     * @param incomingInstant the initial time
+     * @param incomingZone    the time zone
+     */
+    public SimulatedClock(Instant incomingInstant, ZoneId incomingZone) {
+        this.currentInstant = incomingInstant;
+        this.zone = incomingZone;
+    }
+
+    /**
+     * Getter for the time zone of the clock
+     *
+     * @return the time zone
+     */
+    @Override
+    public ZoneId getZone() { return this.zone; }
+
+    /**
+     * Method for creating a copy of the clock in another time zone, the copy does not follow changes to this clock
+     *
+     * @param incomingZone the time zone
+     * @return the new clock
+     */
+    @Override
+    public Clock withZone(ZoneId incomingZone) { return new SimulatedClock(this.currentInstant, incomingZone); }
+
+    /**
+     * Method for getting the current instant of the clock
+     *
+     * @return the simulated time
+     */
+    @Override
+    public Instant instant() { return this.currentInstant; }
+
+    /**
+     * Method for setting the simulated time
+     *
+     * @param incomingInstant the new time
+     */
+    public void setInstant(Instant incomingInstant) { this.currentInstant = incomingInstant; }
+
+    /**
+     * Method for moving the simulated time forward
+     *
+     * @param duration amount of time to move forward
+     */
+    public void advance(Duration duration) { this.currentInstant = this.currentInstant.plus(duration); }
+}
@@ -0,0 +1,59 @@
+package buildingoccupationanalyzer;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Immutable batch of buffered readings flushed from a write buffer, sorted per sensor
+ */
+public final class SortedRun {
+    private final Map<String, ArrayList<Date>> readings;
+    private final int size;
+
+    /**
+     * Constructor for SortedRun class, sorts the readings of each sensor
+     *
+     * @param incomingReadings map of sensors to readings in any order, the lists are taken over by the run
+     */
+    public SortedRun(HashMap<String, ArrayList<Date>> incomingReadings) {
+        int count = 0;
+
+        for (ArrayList<Date> sensorReadings : incomingReadings.values()) {
+            sensorReadings.sort(null);
+            count += sensorReadings.size();
+        }
+        this.readings = incomingReadings;
+        this.size = count;
+    }
+
+    /**
+     * Getter for the readings of a sensor
+     *
+     * @param sensorName name of the sensor
+     * @return the sensors readings in time order, null if the run holds none
+     */
+    public List<Date> getReadings(String sensorName) {
+        ArrayList<Date> sensorReadings = this.readings.get(sensorName);
+
+        return sensorReadings == null ? null : Collections.unmodifiableList(sensorReadings);
+    }
+
+    /**
+     * Getter for the sensors with readings in the run
+     *
+     * @return set of sensor names
+     */
+    public Set<String> getSensors() { return Collections.unmodifiableSet(this.readings.keySet()); }
+
+    /**
+     * Getter for the number of readings in the run
+     *
+     * @return number of readings
+     */
+    public int size() { return this.size; }
+}
@@ -0,0 +1,50 @@
+package buildingoccupationanalyzer;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.text.DecimalFormat;
+
+/**
+ * Renders utilization results as the human readable report lines printed by the terminal interfaces
+ * Only successful results are rendered, a failed building or campus renders the rooms/areas computed before the failure
+ */
+public final class TerminalUtilizationRenderer implements UtilizationRenderer {
+    private final DecimalFormat df = new DecimalFormat("0.00");
+
+    /**
+     * Default constructor
+     */
+    public TerminalUtilizationRenderer() { }
+
+    @Override
+    public void renderRoom(RoomUtilization result, Writer writer) throws IOException {
+        if (result.isOk()) {
+            writer.write("Utilization of room/area " + result.getRoom() + " in building " + result.getBuilding() + " is " + this.df.format(result.getUtilization()) + "%" + System.lineSeparator());
+        }
+    }
+
+    @Override
+    public void renderBuilding(BuildingUtilization result, Writer writer) throws IOException {
+        for (RoomUtilization room : result.getRooms()) {
+            if (room.isOk()) {
+                ReportRenderEvent renderEvent = new ReportRenderEvent("roomUtilization", room.getBuilding(), room.getRoom());
+                renderEvent.begin();
+                writer.write("Overall utilization for room/area " + room.getRoom() + " in building " + room.getBuilding() + " is: " + this.df.format(room.getUtilization()) + "%" + System.lineSeparator());
+                renderEvent.commit();
+            }
+        }
+    }
+
+    @Override
+    public void renderCampus(CampusUtilization result, Writer writer) throws IOException {
+        for (BuildingUtilization building : result.getBuildings()) {
+            renderBuilding(building, writer);
+            if (building.isOk()) {
+                ReportRenderEvent renderEvent = new ReportRenderEvent("buildingUtilization", building.getBuilding(), null);
+                renderEvent.begin();
+                writer.write("Overall utilization for building " + building.getBuilding() + " is: " + this.df.format(building.getUtilization()) + "%\n" + System.lineSeparator());
+                renderEvent.commit();
+            }
+        }
+    }
+}
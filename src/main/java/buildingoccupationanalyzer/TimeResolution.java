@@ -0,0 +1,147 @@
+package buildingoccupationanalyzer;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+
+/**
+ * Bucket size the occupancy of a room/area is analyzed at, a bucket is occupied if a ceiling sensor reads within it or
+ * a door interval covers part of it. Buckets are counted from 1970-01-01T00:00 local time and must divide a day evenly,
+ * at MINUTE a bucket number is the same as Utils.getLocalMinute
+ */
+public final class TimeResolution {
+    public static final TimeResolution SECOND = new TimeResolution(1);
+    public static final TimeResolution TEN_SECONDS = new TimeResolution(10);
+    public static final TimeResolution MINUTE = new TimeResolution(60);
+    public static final TimeResolution FIFTEEN_MINUTES = new TimeResolution(900);
+    public static final TimeResolution HOUR = new TimeResolution(3600);
+
+    private static final int SECONDS_IN_A_MINUTE = 60;
+    private static final int SECONDS_IN_A_DAY = Constants.TOTAL_MINUTES_IN_A_DAY * SECONDS_IN_A_MINUTE;
+    private static final int MILLIS_IN_A_SECOND = 1000;
+
+    private final int bucketSeconds;
+
+    /**
+     * Constructor for TimeResolution class
+     *
+     * @param incomingBucketSeconds length of a bucket in seconds
+     */
+    private TimeResolution(int incomingBucketSeconds) {
+        this.bucketSeconds = incomingBucketSeconds;
+    }
+
+    /**
+     * Method for getting the resolution of a bucket length
+     *
+     * @param seconds length of a bucket in seconds, must divide a day evenly
+     * @return the resolution
+     * @throws IllegalArgumentException if the length does not divide a day evenly
+     */
+    public static TimeResolution ofSeconds(int seconds) {
+        if (seconds <= 0 || SECONDS_IN_A_DAY % seconds != 0) {
+            throw new IllegalArgumentException("bucket of " + seconds + " seconds does not divide a day evenly");
+        }
+        return seconds == SECONDS_IN_A_MINUTE ? MINUTE : new TimeResolution(seconds);
+    }
+
+    /**
+     * Method for parsing a resolution given as a number followed by s, m or h (10s, 1m, 15m)
+     *
+     * @param value the resolution
+     * @return the resolution
+     * @throws IllegalArgumentException if the value is not a valid resolution
+     */
+    public static TimeResolution parse(String value) {
+        int unit;
+
+        if (value.endsWith("s")) {
+            unit = 1;
+        } else if (value.endsWith("m")) {
+            unit = SECONDS_IN_A_MINUTE;
+        } else if (value.endsWith("h")) {
+            unit = SECONDS_IN_A_MINUTE * Constants.TOTAL_MINUTES_IN_HOUR;
+        } else {
+            throw new IllegalArgumentException("unknown resolution " + value + ", expected a number followed by s, m or h");
+        }
+        try {
+            return ofSeconds(Math.multiplyExact(Integer.parseInt(value.substring(0, value.length() - 1)), unit));
+        } catch (ArithmeticException | NumberFormatException e) {
+            throw new IllegalArgumentException("unknown resolution " + value + ", expected a number followed by s, m or h");
+        }
+    }
+
+    /**
+     * Getter for bucket seconds
+     *
+     * @return length of a bucket in seconds
+     */
+    public int getBucketSeconds() { return this.bucketSeconds; }
+
+    /**
+     * Getter for bucket millis
+     *
+     * @return length of a bucket in milliseconds
+     */
+    public long getBucketMillis() { return (long) this.bucketSeconds * MILLIS_IN_A_SECOND; }
+
+    /**
+     * Getter for buckets per day
+     *
+     * @return number of buckets in a day
+     */
+    public int getBucketsPerDay() { return SECONDS_IN_A_DAY / this.bucketSeconds; }
+
+    /**
+     * Method for checking if this is the one minute resolution the occupancy index is kept at
+     *
+     * @return true if a bucket is one minute
+     */
+    public boolean isMinute() { return this.bucketSeconds == SECONDS_IN_A_MINUTE; }
+
+    /**
+     * Method for checking if a bucket is made of whole minutes, such buckets can be derived from the occupancy index
+     *
+     * @return true if a bucket is a whole number of minutes
+     */
+    public boolean isWholeMinutes() { return this.bucketSeconds % SECONDS_IN_A_MINUTE == 0; }
+
+    /**
+     * Method for getting the bucket a time falls in
+     *
+     * @param millis time in milliseconds since the epoch
+     * @return bucket number counted from 1970-01-01T00:00 local time
+     */
+    public long getBucket(long millis) {
+        LocalDateTime time = LocalDateTime.ofInstant(Instant.ofEpochMilli(millis), ZoneId.systemDefault());
+
+        return time.toLocalDate().toEpochDay() * getBucketsPerDay() + time.toLocalTime().toSecondOfDay() / this.bucketSeconds;
+    }
+
+    /**
+     * Method for getting the first bucket of a day
+     *
+     * @param day the day
+     * @return bucket number of the start of the day
+     */
+    public long getDayStart(LocalDate day) {
+        return day.toEpochDay() * getBucketsPerDay();
+    }
+
+    @Override
+    public boolean equals(Object other) {
+        return other instanceof TimeResolution && ((TimeResolution) other).bucketSeconds == this.bucketSeconds;
+    }
+
+    @Override
+    public int hashCode() { return this.bucketSeconds; }
+
+    @Override
+    public String toString() {
+        if (this.bucketSeconds % (SECONDS_IN_A_MINUTE * Constants.TOTAL_MINUTES_IN_HOUR) == 0) {
+            return this.bucketSeconds / (SECONDS_IN_A_MINUTE * Constants.TOTAL_MINUTES_IN_HOUR) + "h";
+        }
+        return this.bucketSeconds % SECONDS_IN_A_MINUTE == 0 ? this.bucketSeconds / SECONDS_IN_A_MINUTE + "m" : this.bucketSeconds + "s";
+    }
+}
@@ -3,6 +3,7 @@ package buildingoccupationanalyzer;
 import java.io.BufferedReader;
 import java.io.IOException;
 import java.io.InputStreamReader;
+import java.util.Map;
 
 /**
  * Class for user interface, implements abstract TerminalInterface class
@@ -59,12 +60,19 @@ public class UserInterface implements TerminalInterface {
         String userInput = "";
 
         System.out.println("\nWelcome to the building occupation analyzer");
+        if (this.dataStore.getDataLoader() != null && !this.dataStore.getDataLoader().isLoaded()) {
+            System.out.println("Sensor data is loading in the background (" + this.dataStore.getDataLoader().getProgress()
+                    + "), buildings and rooms/areas can be listed right away");
+        }
 
         while (true) {
             try {
                 System.out.println("\n\nPlease enter (l) to login as a administrator, "
-                        + "(db) to display all buildings, (da) to display all rooms and areas, "
-                        + "(oc) followed by a building and room/area to check if the room/area is occupied (oc Reynolds 003), or (q)uit to exit the program\n\n");
+                        + "(db) to display all buildings, (da) optionally followed by a building to display all rooms and areas (da Reynolds), "
+                        + "listings can be followed by page and a page number to show one page at a time (db page 2), "
+                        + "(oc) followed by a building and room/area to check if the room/area is occupied (oc Reynolds 003), "
+                        + "(oc all) optionally followed by a building to check every room/area at once (oc all Reynolds), "
+                        + "(live) optionally followed by a building to show the live occupancy kept up to date as readings arrive (live Reynolds), or (q)uit to exit the program\n\n");
                 System.out.print(">");
 
                 userInput = reader.readLine();
@@ -87,6 +95,9 @@ public class UserInterface implements TerminalInterface {
         if (userInput == null) {
             return;
         }
+        if (userInput.split(" ")[0].equals("oc") || userInput.split(" ")[0].equals("live")) {
+            BackgroundDataLoader.awaitData(this.dataStore);
+        }
         if (userInput.equals("l")) {
             System.out.println("Please enter the admin password (Hint, password123)...");
             System.out.print(">");
@@ -100,12 +111,15 @@ public class UserInterface implements TerminalInterface {
             } else {
                 System.out.println("INVALID PASSWORD");
             }
-        } else if (userInput.equals("db")) {
-            System.out.println("Buildings:");
-            System.out.println(dataStore.getBuildings().toString() + "\n");
-        } else if (userInput.equals("da")) {
-            System.out.println("Rooms/Areas:");
-            System.out.println(dataStore.getAreas().toString() + "\n");
+        } else if (userInput.split(" ")[0].equals("db")) {
+            ListingPrinter.print(userInput, "Buildings:", "\n", this.dataStore::writeBuildings);
+        } else if (userInput.split(" ")[0].equals("da")) {
+            ListingPrinter.print(userInput, "Rooms/Areas:", "\n", this.dataStore::writeAreas);
+        } else if (userInput.split(" ")[0].equals("oc") && userInput.split(" ").length > 1 && userInput.split(" ")[1].equals("all")) {
+            handleOccupancyAll(userInput);
+        } else if (userInput.split(" ")[0].equals("live")) {
+            String[] splitInput = userInput.split(" ");
+            printOccupancy(this.dataAnalyzer.getLiveOccupancyAll(splitInput.length > 1 ? splitInput[1] : null));
         } else if (userInput.split(" ")[0].equals("oc")) {
             try {
                 int response = this.dataAnalyzer.checkOccupancy(userInput.split(" ")[1], userInput.split(" ")[2]);
@@ -127,4 +141,37 @@ public class UserInterface implements TerminalInterface {
             System.out.println("Invalid input");
         }
     }
+
+    /**
+     * Method for handling the oc all command
+     *
+     * @param userInput user input to handle
+     */
+    void handleOccupancyAll(String userInput) {
+        String[] splitInput = userInput.split(" ");
+        Map<String, Integer> occupancy;
+
+        if (splitInput.length > 2) {
+            occupancy = this.dataAnalyzer.checkOccupancyForBuilding(splitInput[2]);
+        } else {
+            occupancy = this.dataAnalyzer.checkOccupancyAll();
+        }
+        printOccupancy(occupancy);
+    }
+
+    /**
+     * Helper method for printing a map of rooms/areas to occupancy states
+     *
+     * @param occupancy Map of building~room keys to 1 if the room is occupied or 0 if not
+     */
+    private void printOccupancy(Map<String, Integer> occupancy) {
+        if (occupancy.isEmpty()) {
+            System.out.println("No rooms/areas found");
+            return;
+        }
+        for (Map.Entry<String, Integer> entry : occupancy.entrySet()) {
+            String[] location = entry.getKey().split(Constants.BUILDING_AREA_NAME_SEPARATOR);
+            System.out.println(location[0] + " " + location[1] + ": " + (entry.getValue() == 1 ? "occupied" : "not occupied"));
+        }
+    }
 }
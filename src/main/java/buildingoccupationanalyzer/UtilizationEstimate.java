@@ -0,0 +1,90 @@
+package buildingoccupationanalyzer;
+
+/**
+ * Immutable approximate utilization result, a utilization with the half-width of its 95% confidence interval. The
+ * analyzer answers approximate queries by counting the occupancy bitmaps exactly, so the interval has a width of 0
+ */
+public final class UtilizationEstimate {
+    private final double utilization;
+    private final double margin;
+    private final UtilizationStatus status;
+    private final String message;
+
+    /**
+     * Constructor for UtilizationEstimate class
+     *
+     * @param incomingUtilization utilization as a percentage, only meaningful when the status is OK
+     * @param incomingMargin      half-width of the 95% confidence interval in percentage points
+     * @param incomingStatus      status of the result
+     * @param incomingMessage     error message, null when the status is OK
+     */
+    private UtilizationEstimate(double incomingUtilization, double incomingMargin, UtilizationStatus incomingStatus, String incomingMessage) {
+        this.utilization = incomingUtilization;
+        this.margin = incomingMargin;
+        this.status = incomingStatus;
+        this.message = incomingMessage;
+    }
+
+    /**
+     * Method for creating a exact result
+     *
+     * @param utilization utilization as a percentage
+     * @return the result
+     */
+    public static UtilizationEstimate exact(double utilization) {
+        return new UtilizationEstimate(utilization, 0.0, UtilizationStatus.OK, null);
+    }
+
+    /**
+     * Method for creating a failed result
+     *
+     * @param status  reason the utilization could not be estimated
+     * @param message error message
+     * @return the result
+     */
+    public static UtilizationEstimate error(UtilizationStatus status, String message) {
+        return new UtilizationEstimate(Constants.ERROR_DOUBLE_VALUE, 0.0, status, message);
+    }
+
+    /**
+     * Getter for utilization
+     *
+     * @return utilization as a percentage, only meaningful when the status is OK
+     */
+    public double getUtilization() { return this.utilization; }
+
+    /**
+     * Getter for margin
+     *
+     * @return half-width of the 95% confidence interval in percentage points, 0 for exact results
+     */
+    public double getMargin() { return this.margin; }
+
+    /**
+     * Getter for status
+     *
+     * @return status of the result
+     */
+    public UtilizationStatus getStatus() { return this.status; }
+
+    /**
+     * Getter for message
+     *
+     * @return error message, null when the status is OK
+     */
+    public String getMessage() { return this.message; }
+
+    /**
+     * Method for checking if the utilization was computed
+     *
+     * @return true if the status is OK
+     */
+    public boolean isOk() { return this.status == UtilizationStatus.OK; }
+
+    /**
+     * Method for checking if the utilization was counted exactly
+     *
+     * @return true if the result is OK and its interval has a width of 0
+     */
+    public boolean isExact() { return isOk() && this.margin == 0.0; }
+}
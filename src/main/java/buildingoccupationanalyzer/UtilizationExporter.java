@@ -0,0 +1,325 @@
+package buildingoccupationanalyzer;
+
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Exports a per-room/area utilization table with one row per room/area and day (or hour) of a date range, as CSV or as
+ * a compact binary columnar file for BI tools
+ * Rows are streamed room/area by room/area from the occupancy index, each cell costs two prefix-sum lookups, so only the
+ * labels of the periods and one block of binary rows are held in memory, never the whole table
+ *
+ * The binary file is big endian: the magic BOUX, a short format version, the period length in minutes as a int and the
+ * start of the first period in minutes since 1970-01-01T00:00 local time as a long. Then follow blocks of up to EXPORT_BLOCK_ROWS rows, each
+ * starting with its row count as a int (0 ends the file), a dictionary of the block's rooms/areas (a int count followed by
+ * building and room/area as modified UTF-8 strings) and then one column after another: room/area dictionary ids as
+ * shorts, period numbers since the first period as ints, occupied minutes as shorts and utilization percentages as floats
+ */
+public class UtilizationExporter {
+    static final byte[] BINARY_MAGIC = "BOUX".getBytes(StandardCharsets.US_ASCII);
+    static final short BINARY_VERSION = 1;
+    static final String CSV_HEADER = "building,room,period_start,occupied_minutes,utilization";
+
+    /**
+     * Length of one exported period
+     */
+    public enum Granularity {
+        DAY(Constants.TOTAL_MINUTES_IN_A_DAY),
+        HOUR(Constants.TOTAL_MINUTES_IN_HOUR);
+
+        private final int minutes;
+
+        /**
+         * Constructor for Granularity enum
+         *
+         * @param incomingMinutes length of the period in minutes
+         */
+        Granularity(int incomingMinutes) {
+            this.minutes = incomingMinutes;
+        }
+
+        /**
+         * Getter for minutes
+         *
+         * @return length of the period in minutes
+         */
+        public int getMinutes() { return this.minutes; }
+
+        /**
+         * Getter for hours
+         *
+         * @return length of the period in whole hours
+         */
+        public int getHours() { return this.minutes / Constants.TOTAL_MINUTES_IN_HOUR; }
+    }
+
+    private final DataStore dataStore;
+    private final int blockRows;
+
+    /**
+     * Constructor for UtilizationExporter class
+     *
+     * @param incomingDataStore data store to export
+     */
+    public UtilizationExporter(DataStore incomingDataStore) {
+        this(incomingDataStore, Constants.EXPORT_BLOCK_ROWS);
+    }
+
+    /**
+     * Constructor for UtilizationExporter class with a custom binary block size
+     *
+     * @param incomingDataStore data store to export
+     * @param incomingBlockRows maximum number of rows per binary block
+     */
+    UtilizationExporter(DataStore incomingDataStore, int incomingBlockRows) {
+        this.dataStore = incomingDataStore;
+        this.blockRows = incomingBlockRows;
+    }
+
+    /**
+     * Method for exporting the table as CSV with the header building,room,period_start,occupied_minutes,utilization
+     *
+     * @param start       first day to export
+     * @param end         last day to export, inclusive
+     * @param granularity length of each row's period
+     * @param writer      writer to write to, should be buffered
+     * @return the number of exported rows
+     * @throws IOException thrown if the writer fails
+     */
+    public long exportCsv(LocalDate start, LocalDate end, Granularity granularity, Writer writer) throws IOException {
+        String[] periodLabels = new String[getPeriodCount(start, end, granularity)];
+        LocalDateTime firstPeriod = start.atStartOfDay();
+        long firstEpochHour = start.toEpochDay() * Constants.TOTAL_HOURS_IN_A_DAY;
+        long rows = 0;
+
+        for (int i = 0; i < periodLabels.length; i++) {
+            periodLabels[i] = "," + firstPeriod.plusMinutes((long) i * granularity.getMinutes()) + ",";
+        }
+
+        writer.write(CSV_HEADER + "\n");
+        for (String roomKey : getRoomKeys()) {
+            RoomOccupancyIndex roomIndex = this.dataStore.getOccupancyIndex().getRoomIndex(roomKey);
+            String[] location = roomKey.split(Constants.BUILDING_AREA_NAME_SEPARATOR);
+            String roomLabel = CsvUtilizationRenderer.escape(location[0]) + "," + CsvUtilizationRenderer.escape(location[1]);
+
+            if (roomIndex == null) {
+                continue;
+            }
+            for (int i = 0; i < periodLabels.length; i++) {
+                long minutes = getOccupiedMinutes(roomIndex, firstEpochHour, i, granularity);
+
+                writer.write(roomLabel);
+                writer.write(periodLabels[i]);
+                writer.write(Long.toString(minutes));
+                writer.write(",");
+                writer.write(Double.toString(toUtilization(minutes, granularity)));
+                writer.write("\n");
+                rows++;
+            }
+        }
+        writer.flush();
+        return rows;
+    }
+
+    /**
+     * Method for exporting the table as a binary columnar file, see the class description for the layout
+     *
+     * @param start       first day to export
+     * @param end         last day to export, inclusive
+     * @param granularity length of each row's period
+     * @param output      stream to write to, should be buffered
+     * @return the number of exported rows
+     * @throws IOException thrown if the stream fails
+     */
+    public long exportBinary(LocalDate start, LocalDate end, Granularity granularity, OutputStream output) throws IOException {
+        DataOutputStream dataOutput = new DataOutputStream(output);
+        int periodCount = getPeriodCount(start, end, granularity);
+        long firstEpochHour = start.toEpochDay() * Constants.TOTAL_HOURS_IN_A_DAY;
+        ColumnBlock block = new ColumnBlock(this.blockRows);
+        long rows = 0;
+
+        dataOutput.write(BINARY_MAGIC);
+        dataOutput.writeShort(BINARY_VERSION);
+        dataOutput.writeInt(granularity.getMinutes());
+        dataOutput.writeLong(firstEpochHour * Constants.TOTAL_MINUTES_IN_HOUR);
+
+        for (String roomKey : getRoomKeys()) {
+            RoomOccupancyIndex roomIndex = this.dataStore.getOccupancyIndex().getRoomIndex(roomKey);
+
+            if (roomIndex == null) {
+                continue;
+            }
+            for (int i = 0; i < periodCount; i++) {
+                long minutes = getOccupiedMinutes(roomIndex, firstEpochHour, i, granularity);
+
+                if (block.isFull()) {
+                    block.write(dataOutput);
+                }
+                block.add(roomKey, i, (short) minutes, (float) toUtilization(minutes, granularity));
+                rows++;
+            }
+        }
+        if (block.size() > 0) {
+            block.write(dataOutput);
+        }
+        dataOutput.writeInt(0);
+        dataOutput.flush();
+        return rows;
+    }
+
+    /**
+     * Helper method for listing the building~room keys of every room/area, building by building
+     *
+     * @return the room/area keys
+     */
+    private List<String> getRoomKeys() {
+        List<String> roomKeys = new ArrayList<>();
+
+        for (String building : this.dataStore.getBuildingsAsList()) {
+            for (String area : this.dataStore.getAreasAsList(building)) {
+                roomKeys.add(building + Constants.BUILDING_AREA_NAME_SEPARATOR + area);
+            }
+        }
+        return roomKeys;
+    }
+
+    /**
+     * Helper method for counting the periods between two days
+     *
+     * @param start       first day
+     * @param end         last day, inclusive
+     * @param granularity length of a period
+     * @return the number of periods, 0 if end is before start
+     */
+    private static int getPeriodCount(LocalDate start, LocalDate end, Granularity granularity) {
+        long days = Math.max(0, end.toEpochDay() - start.toEpochDay() + 1);
+        return (int) (days * Constants.TOTAL_MINUTES_IN_A_DAY / granularity.getMinutes());
+    }
+
+    /**
+     * Helper method for looking up the occupied minutes of one period of a room/area
+     *
+     * @param roomIndex      index of the room/area
+     * @param firstEpochHour start of the first period in hours counted from the epoch
+     * @param period         number of the period
+     * @param granularity    length of a period
+     * @return occupied minutes within the period
+     */
+    private static long getOccupiedMinutes(RoomOccupancyIndex roomIndex, long firstEpochHour, int period, Granularity granularity) {
+        long periodStart = firstEpochHour + (long) period * granularity.getHours();
+        return roomIndex.getOccupiedMinutes(periodStart, periodStart + granularity.getHours());
+    }
+
+    /**
+     * Helper method for converting occupied minutes to a utilization percentage
+     *
+     * @param minutes     occupied minutes
+     * @param granularity length of the period
+     * @return the utilization percentage
+     */
+    private static double toUtilization(long minutes, Granularity granularity) {
+        return minutes / (double) granularity.getMinutes() * Constants.PERCENT_COVERT_NUMBER;
+    }
+
+    /**
+     * One block of binary export rows, held column by column in primitive arrays
+     */
+    private static final class ColumnBlock {
+        private final Map<String, Short> roomIds = new HashMap<>();
+        private final List<String> rooms = new ArrayList<>();
+        private final short[] roomColumn;
+        private final int[] periodColumn;
+        private final short[] minutesColumn;
+        private final float[] utilizationColumn;
+        private int size;
+
+        /**
+         * Constructor for ColumnBlock class
+         *
+         * @param capacity maximum number of rows in the block
+         */
+        ColumnBlock(int capacity) {
+            this.roomColumn = new short[capacity];
+            this.periodColumn = new int[capacity];
+            this.minutesColumn = new short[capacity];
+            this.utilizationColumn = new float[capacity];
+        }
+
+        /**
+         * Getter for size
+         *
+         * @return number of rows in the block
+         */
+        int size() { return this.size; }
+
+        /**
+         * Method for checking if the block is full
+         *
+         * @return true if no more rows fit
+         */
+        boolean isFull() { return this.size == this.roomColumn.length; }
+
+        /**
+         * Method for adding a row
+         *
+         * @param roomKey     building~room key of the row
+         * @param period      period number of the row
+         * @param minutes     occupied minutes of the row
+         * @param utilization utilization percentage of the row
+         */
+        void add(String roomKey, int period, short minutes, float utilization) {
+            Short roomId = this.roomIds.get(roomKey);
+
+            if (roomId == null) {
+                roomId = (short) this.rooms.size();
+                this.roomIds.put(roomKey, roomId);
+                this.rooms.add(roomKey);
+            }
+            this.roomColumn[this.size] = roomId;
+            this.periodColumn[this.size] = period;
+            this.minutesColumn[this.size] = minutes;
+            this.utilizationColumn[this.size] = utilization;
+            this.size++;
+        }
+
+        /**
+         * Method for writing the block and emptying it
+         *
+         * @param output stream to write to
+         * @throws IOException thrown if the stream fails
+         */
+        void write(DataOutputStream output) throws IOException {
+            output.writeInt(this.size);
+            output.writeInt(this.rooms.size());
+            for (String roomKey : this.rooms) {
+                String[] location = roomKey.split(Constants.BUILDING_AREA_NAME_SEPARATOR);
+                output.writeUTF(location[0]);
+                output.writeUTF(location[1]);
+            }
+            for (int i = 0; i < this.size; i++) {
+                output.writeShort(this.roomColumn[i]);
+            }
+            for (int i = 0; i < this.size; i++) {
+                output.writeInt(this.periodColumn[i]);
+            }
+            for (int i = 0; i < this.size; i++) {
+                output.writeShort(this.minutesColumn[i]);
+            }
+            for (int i = 0; i < this.size; i++) {
+                output.writeFloat(this.utilizationColumn[i]);
+            }
+            this.roomIds.clear();
+            this.rooms.clear();
+            this.size = 0;
+        }
+    }
+}
@@ -0,0 +1,56 @@
+package buildingoccupationanalyzer;
+
+import java.io.IOException;
+import java.io.Writer;
+
+/**
+ * Generic interface for rendering utilization results
+ */
+public interface UtilizationRenderer {
+    /**
+     * Method for rendering the result of a single room/area
+     *
+     * @param result the result to render
+     * @param writer writer to render to
+     * @throws IOException thrown if the writer fails
+     */
+    void renderRoom(RoomUtilization result, Writer writer) throws IOException;
+
+    /**
+     * Method for rendering the result of a building and its rooms/areas
+     *
+     * @param result the result to render
+     * @param writer writer to render to
+     * @throws IOException thrown if the writer fails
+     */
+    void renderBuilding(BuildingUtilization result, Writer writer) throws IOException;
+
+    /**
+     * Method for rendering the result of the campus, its buildings and their rooms/areas
+     *
+     * @param result the result to render
+     * @param writer writer to render to
+     * @throws IOException thrown if the writer fails
+     */
+    void renderCampus(CampusUtilization result, Writer writer) throws IOException;
+
+    /**
+     * Method for getting a renderer by name
+     *
+     * @param format terminal, json or csv
+     * @return the renderer
+     * @throws IllegalArgumentException thrown if the format is unknown
+     */
+    static UtilizationRenderer forFormat(String format) {
+        switch (format) {
+            case "terminal":
+                return new TerminalUtilizationRenderer();
+            case "json":
+                return new JsonUtilizationRenderer();
+            case "csv":
+                return new CsvUtilizationRenderer();
+            default:
+                throw new IllegalArgumentException("unknown format " + format + ", expected terminal, json or csv");
+        }
+    }
+}
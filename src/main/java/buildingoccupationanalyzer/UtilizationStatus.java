@@ -0,0 +1,23 @@
+package buildingoccupationanalyzer;
+
+/**
+ * Status of a utilization result
+ */
+public enum UtilizationStatus {
+    /**
+     * The utilization was computed
+     */
+    OK,
+    /**
+     * The building or room/area was not found
+     */
+    NOT_FOUND,
+    /**
+     * The number of days or time range was not valid
+     */
+    INVALID_ARGUMENT,
+    /**
+     * A shard of a sharded deployment could not be reached or failed the request
+     */
+    SHARD_ERROR
+}
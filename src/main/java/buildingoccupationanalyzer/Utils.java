@@ -1,5 +1,11 @@
 package buildingoccupationanalyzer;
 
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.Date;
+
 /**
  * Class for defining reusable utility methods
  */
@@ -27,5 +33,45 @@ public final class Utils {
             System.exit(0);
         }
     }
-}
 
+    /**
+     * Utility method for creating the key used to group readings by day
+     *
+     * @param date a date within the day
+     * @return the day key in the form day~month~year
+     */
+    public static String getDayKey(Date date) {
+        return date.getDate() + "~" + date.getMonth() + "~" + date.getYear();
+    }
+
+    /**
+     * Utility method for converting a time to minutes counted from 1970-01-01T00:00 local time, the minute numbering of
+     * occupancy bitmaps
+     *
+     * @param millis time in milliseconds since the epoch
+     * @return the local minute
+     */
+    public static long getLocalMinute(long millis) {
+        LocalDateTime time = LocalDateTime.ofInstant(Instant.ofEpochMilli(millis), ZoneId.systemDefault());
+
+        return time.toLocalDate().toEpochDay() * Constants.TOTAL_MINUTES_IN_A_DAY + time.getHour() * Constants.TOTAL_MINUTES_IN_HOUR + time.getMinute();
+    }
+
+    /**
+     * Utility method for parsing one end of a time range, given either as a date (2020-02-08) or a date and time
+     * (2020-02-08T09:00). A date given as the end of a range includes that whole day
+     *
+     * @param value the date or date and time
+     * @param isEnd if the value is the end of the range
+     * @return the parsed time
+     * @throws java.time.format.DateTimeParseException if the value is not a valid date or date and time
+     */
+    public static LocalDateTime parseRangeBound(String value, boolean isEnd) {
+        if (value.contains("T")) {
+            return LocalDateTime.parse(value);
+        }
+
+        LocalDate date = LocalDate.parse(value);
+        return isEnd ? date.plusDays(1).atStartOfDay() : date.atStartOfDay();
+    }
+}
@@ -0,0 +1,640 @@
+package buildingoccupationanalyzer;
+
+import java.io.BufferedInputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Collection;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.CRC32;
+
+/**
+ * Append-only log of data store mutations: added readings, removed sensors and imported files. Each record is framed by
+ * its length and CRC32 so a torn write at the end of the log is detected and cut off on recovery
+ * Writers append under a short lock and then commit: the first committing writer becomes the leader, writes every
+ * record appended so far with one write and at most one force, while later writers queue up behind it and are
+ * released together once their records are covered (group commit). A failed write is cut off the log and its records
+ * are written again by the next commit, if the log can not be cut back every later commit fails. Under the interval
+ * policy a background thread forces written records every WAL_FSYNC_INTERVAL_MILLIS, so a idle log is not left
+ * unforced. Snapshots use the same record format and also hold the hourly aggregates of compacted days, which exist
+ * nowhere else once their raw readings are dropped
+ */
+public final class WriteAheadLog implements Closeable {
+    static final byte READINGS = 1;
+    static final byte REMOVE_SENSOR = 2;
+    static final byte IMPORT = 3;
+    static final byte AGGREGATE = 4;
+
+    private static final Counter COMMITTED_RECORDS = MetricsRegistry.getDefault().counter("wal_records_committed_total", "Records committed to the write-ahead log");
+    private static final Counter GROUP_COMMITS = MetricsRegistry.getDefault().counter("wal_group_commits_total", "Writes of a group of records to the write-ahead log");
+    private static final Counter FSYNCS = MetricsRegistry.getDefault().counter("wal_fsyncs_total", "Forces of the write-ahead log to disk");
+    private static final int FRAME_HEADER_BYTES = Integer.BYTES * 2;
+    private static final int RECORD_HEADER_BYTES = 64;
+
+    private final FileChannel channel;
+    private final FsyncPolicy fsyncPolicy;
+    private final long fsyncIntervalNanos;
+    private final Object lock = new Object();
+    private ByteArrayOutputStream pending = new ByteArrayOutputStream();
+    private long appendedSequence;
+    private long committedSequence;
+    private boolean writing;
+    private boolean unforced;
+    private IOException failure;
+    private volatile long lastFsync = System.nanoTime();
+    private final ScheduledExecutorService forcer;
+
+    /**
+     * Constructor for WriteAheadLog class
+     *
+     * @param incomingChannel     channel positioned at the end of the valid records
+     * @param incomingFsyncPolicy when commits are forced to disk
+     */
+    private WriteAheadLog(FileChannel incomingChannel, FsyncPolicy incomingFsyncPolicy) {
+        this.channel = incomingChannel;
+        this.fsyncPolicy = incomingFsyncPolicy;
+        this.fsyncIntervalNanos = TimeUnit.MILLISECONDS.toNanos(Constants.WAL_FSYNC_INTERVAL_MILLIS);
+        if (incomingFsyncPolicy != FsyncPolicy.INTERVAL) {
+            this.forcer = null;
+            return;
+        }
+        this.forcer = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "wal-forcer");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.forcer.scheduleAtFixedRate(this::forceWritten, Constants.WAL_FSYNC_INTERVAL_MILLIS, Constants.WAL_FSYNC_INTERVAL_MILLIS, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Method for opening a log for appending, the records already in the log are replayed first and a torn or corrupt
+     * tail is cut off
+     *
+     * @param path        log file, created if missing
+     * @param fsyncPolicy when commits are forced to disk
+     * @param handler     handler the existing records are replayed to
+     * @return the open log
+     * @throws IOException if the log could not be read or opened
+     */
+    public static WriteAheadLog open(Path path, FsyncPolicy fsyncPolicy, RecordHandler handler) throws IOException {
+        return open(FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE), fsyncPolicy, handler);
+    }
+
+    /**
+     * Method for opening a log on a channel, the records already in the log are replayed first and a torn or corrupt tail
+     * is cut off
+     *
+     * @param channel     readable and writable channel of the log file, closed if the log can not be opened
+     * @param fsyncPolicy when commits are forced to disk
+     * @param handler     handler the existing records are replayed to
+     * @return the open log
+     * @throws IOException if the log could not be read
+     */
+    static WriteAheadLog open(FileChannel channel, FsyncPolicy fsyncPolicy, RecordHandler handler) throws IOException {
+        try {
+            long validBytes = replay(Channels.newInputStream(channel.position(0)), handler);
+
+            channel.truncate(validBytes);
+            channel.position(validBytes);
+        } catch (IOException e) {
+            channel.close();
+            throw e;
+        }
+        return new WriteAheadLog(channel, fsyncPolicy);
+    }
+
+    /**
+     * Method for replaying the records of a log or snapshot file
+     *
+     * @param path    file to replay
+     * @param handler handler the records are replayed to
+     * @return number of bytes of valid records
+     * @throws IOException if the file could not be read
+     */
+    public static long replay(Path path, RecordHandler handler) throws IOException {
+        try (InputStream input = Files.newInputStream(path)) {
+            return replay(input, handler);
+        }
+    }
+
+    /**
+     * Helper method for replaying records until the end of the stream or the first torn or corrupt record
+     *
+     * @param input   stream of records, not closed
+     * @param handler handler the records are replayed to
+     * @return number of bytes of valid records
+     * @throws IOException if the stream could not be read
+     */
+    private static long replay(InputStream input, RecordHandler handler) throws IOException {
+        DataInputStream dataInput = new DataInputStream(new BufferedInputStream(input));
+        CRC32 crc = new CRC32();
+        long validBytes = 0;
+
+        while (true) {
+            byte[] payload;
+            try {
+                int length = dataInput.readInt();
+                int checksum = dataInput.readInt();
+
+                if (length <= 0 || length > Constants.WAL_MAX_RECORD_BYTES) {
+                    return validBytes;
+                }
+                payload = new byte[length];
+                dataInput.readFully(payload);
+                crc.reset();
+                crc.update(payload);
+                if ((int) crc.getValue() != checksum) {
+                    return validBytes;
+                }
+            } catch (EOFException e) {
+                return validBytes; //End of the log or a torn last record
+            }
+            apply(payload, handler);
+            validBytes += FRAME_HEADER_BYTES + payload.length;
+        }
+    }
+
+    /**
+     * Helper method for decoding a record and passing it to a handler
+     *
+     * @param payload record without its frame
+     * @param handler handler to pass the record to
+     * @throws IOException if the record is malformed
+     */
+    private static void apply(byte[] payload, RecordHandler handler) throws IOException {
+        DataInputStream record = new DataInputStream(new ByteArrayInputStream(payload));
+        byte type = record.readByte();
+
+        if (type == READINGS) {
+            String sensor = record.readUTF();
+            long[] times = new long[record.readInt()];
+
+            for (int i = 0; i < times.length; i++) {
+                times[i] = record.readLong();
+            }
+            handler.readings(sensor, times);
+        } else if (type == REMOVE_SENSOR) {
+            handler.removeSensor(record.readUTF());
+        } else if (type == IMPORT) {
+            handler.imported(record.readUTF(), record.readUTF());
+        } else if (type == AGGREGATE) {
+            String roomKey = record.readUTF();
+            String dayKey = record.readUTF();
+            long dayStart = record.readLong();
+            int[] occupiedMinutes = new int[Constants.TOTAL_HOURS_IN_A_DAY];
+
+            for (int hour = 0; hour < occupiedMinutes.length; hour++) {
+                occupiedMinutes[hour] = record.readInt();
+            }
+            handler.aggregate(roomKey, new RoomDayAggregate(dayKey, dayStart, occupiedMinutes));
+        } else {
+            throw new IOException("Unknown write-ahead log record type " + type);
+        }
+    }
+
+    /**
+     * Method for appending the added readings of a sensor, the record is durable once committed
+     *
+     * @param sensorName sensor the readings are from
+     * @param readings   the readings
+     * @return sequence number to commit
+     */
+    public long appendReadings(String sensorName, List<Date> readings) {
+        return append(encodeReadings(sensorName, readings));
+    }
+
+    /**
+     * Method for appending a single added reading, the record is durable once committed
+     *
+     * @param sensorName sensor the reading is from
+     * @param reading    time of the reading in milliseconds
+     * @return sequence number to commit
+     */
+    public long appendReading(String sensorName, long reading) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        DataOutputStream record = new DataOutputStream(bytes);
+
+        try {
+            record.writeByte(READINGS);
+            record.writeUTF(sensorName);
+            record.writeInt(1);
+            record.writeLong(reading);
+        } catch (IOException e) {
+            throw new IllegalStateException(e); //Writes to memory do not fail
+        }
+        return append(bytes.toByteArray());
+    }
+
+    /**
+     * Method for appending the removal of a sensor, the record is durable once committed
+     *
+     * @param sensorName removed sensor
+     * @return sequence number to commit
+     */
+    public long appendRemoveSensor(String sensorName) {
+        return append(encode(REMOVE_SENSOR, sensorName, null));
+    }
+
+    /**
+     * Method for appending a imported file, the record is durable once committed
+     *
+     * @param fileName    name of the imported file
+     * @param fingerprint fingerprint of the file contents
+     * @return sequence number to commit
+     */
+    public long appendImport(String fileName, String fingerprint) {
+        return append(encode(IMPORT, fileName, fingerprint));
+    }
+
+    /**
+     * Method for waiting until a record and every record before it are written, and forced to disk if the policy asks
+     * for it. Writers waiting at the same time share one write and one force. If the write fails the log is cut back to
+     * where the write started and the records are kept for the next commit
+     *
+     * @param sequence sequence number returned by a append method
+     * @throws IOException if the log could not be written, or failed earlier and could not be cut back
+     */
+    public void commit(long sequence) throws IOException {
+        byte[] batch;
+        long batchEnd;
+        long batchStart;
+
+        synchronized (this.lock) {
+            while (this.committedSequence < sequence && this.writing && this.failure == null) {
+                try {
+                    this.lock.wait();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new IOException("Interrupted while waiting for a write-ahead log commit", e);
+                }
+            }
+            if (this.committedSequence >= sequence) {
+                return;
+            } else if (this.failure != null) {
+                throw new IOException("Write-ahead log failed and no longer accepts commits", this.failure);
+            }
+            this.writing = true; //This writer leads the next group
+            batch = this.pending.toByteArray();
+            batchEnd = this.appendedSequence;
+            batchStart = this.channel.position();
+            this.pending = new ByteArrayOutputStream();
+        }
+
+        IOException writeFailure = null;
+        try {
+            ByteBuffer buffer = ByteBuffer.wrap(batch);
+            while (buffer.hasRemaining()) {
+                this.channel.write(buffer);
+            }
+            forceIfDue();
+        } catch (IOException e) {
+            writeFailure = e;
+            rollBack(batch, batchStart, e);
+        } finally {
+            synchronized (this.lock) {
+                this.writing = false;
+                if (writeFailure == null) {
+                    COMMITTED_RECORDS.add(batchEnd - this.committedSequence);
+                    GROUP_COMMITS.increment();
+                    this.committedSequence = batchEnd;
+                    this.unforced = this.fsyncPolicy == FsyncPolicy.INTERVAL;
+                }
+                this.lock.notifyAll();
+            }
+        }
+        if (writeFailure != null) {
+            throw writeFailure;
+        }
+    }
+
+    /**
+     * Helper method for undoing a failed write, the log is cut back to where the write started so no torn frame is left
+     * before later records, and the records go back in front of the records appended since. If the log can not be cut
+     * back it is marked failed
+     *
+     * @param batch      the records of the failed write
+     * @param batchStart position the write started at
+     * @param cause      the failure of the write
+     */
+    private void rollBack(byte[] batch, long batchStart, IOException cause) {
+        synchronized (this.lock) {
+            try {
+                this.channel.truncate(batchStart);
+                this.channel.position(batchStart);
+            } catch (IOException e) {
+                cause.addSuppressed(e);
+                this.failure = cause;
+                return;
+            }
+            ByteArrayOutputStream requeued = new ByteArrayOutputStream(batch.length + this.pending.size());
+            requeued.write(batch, 0, batch.length);
+            requeued.write(this.pending.toByteArray(), 0, this.pending.size());
+            this.pending = requeued;
+        }
+    }
+
+    /**
+     * Method for emptying the log once a snapshot holds every record appended so far. Records appended but not yet
+     * committed are dropped and count as committed, a failed log accepts commits again
+     *
+     * @throws IOException if the log could not be truncated
+     */
+    public void reset() throws IOException {
+        synchronized (this.lock) {
+            while (this.writing) {
+                try {
+                    this.lock.wait();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new IOException("Interrupted while waiting to reset the write-ahead log", e);
+                }
+            }
+            this.channel.truncate(0);
+            this.channel.position(0);
+            this.channel.force(true);
+            this.pending = new ByteArrayOutputStream();
+            this.committedSequence = this.appendedSequence;
+            this.unforced = false;
+            this.failure = null;
+            this.lock.notifyAll();
+        }
+    }
+
+    /**
+     * Getter for size
+     *
+     * @return bytes of records written to the log file
+     * @throws IOException if the size could not be read
+     */
+    public long size() throws IOException { return this.channel.size(); }
+
+    /**
+     * Getter for fsync policy
+     *
+     * @return when commits are forced to disk
+     */
+    public FsyncPolicy getFsyncPolicy() { return this.fsyncPolicy; }
+
+    /**
+     * Method for committing every appended record, forcing the log to disk and closing it
+     *
+     * @throws IOException if the log could not be written or closed
+     */
+    @Override
+    public void close() throws IOException {
+        long sequence;
+
+        synchronized (this.lock) {
+            sequence = this.appendedSequence;
+        }
+        if (this.forcer != null) {
+            this.forcer.shutdown(); //Not interrupted, a interrupted force closes the channel
+            try {
+                this.forcer.awaitTermination(Constants.WAL_FSYNC_INTERVAL_MILLIS, TimeUnit.MILLISECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        try {
+            commit(sequence);
+            this.channel.force(true);
+        } finally {
+            this.channel.close();
+        }
+    }
+
+    /**
+     * Method for writing a snapshot, the records are written to a temporary file that is forced to disk and then moved
+     * over the snapshot so a crash leaves either the old or the new snapshot. Removed sensors are written first so
+     * replaying the snapshot keeps the readings of a sensor that was removed and then read again
+     *
+     * @param path           snapshot file
+     * @param removedSensors sensors removed from the data store
+     * @param sensorData     readings of every sensor
+     * @param aggregates     map of building~room keys to the hourly aggregates of their compacted days
+     * @param imports        map of imported file names to fingerprints
+     * @throws IOException if the snapshot could not be written
+     */
+    public static void writeSnapshot(Path path, Collection<String> removedSensors, Map<String, ? extends List<Date>> sensorData,
+                                     Map<String, ? extends Map<String, RoomDayAggregate>> aggregates, Map<String, String> imports) throws IOException {
+        Path temporary = path.resolveSibling(path.getFileName() + ".tmp");
+
+        try (FileChannel channel = FileChannel.open(temporary, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            ByteArrayOutputStream frames = new ByteArrayOutputStream();
+
+            for (String sensor : removedSensors) {
+                writeFrame(frames, encode(REMOVE_SENSOR, sensor, null));
+            }
+            for (Map.Entry<String, ? extends List<Date>> sensor : sensorData.entrySet()) {
+                writeFrame(frames, encodeReadings(sensor.getKey(), sensor.getValue()));
+            }
+            for (Map.Entry<String, ? extends Map<String, RoomDayAggregate>> room : aggregates.entrySet()) {
+                for (RoomDayAggregate aggregate : room.getValue().values()) {
+                    writeFrame(frames, encodeAggregate(room.getKey(), aggregate));
+                }
+            }
+            for (Map.Entry<String, String> entry : imports.entrySet()) {
+                writeFrame(frames, encode(IMPORT, entry.getKey(), entry.getValue()));
+            }
+            ByteBuffer buffer = ByteBuffer.wrap(frames.toByteArray());
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+            channel.force(true);
+        }
+        Files.move(temporary, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    /**
+     * Helper method for framing a record and adding it to the records waiting for the next commit
+     *
+     * @param payload the record
+     * @return sequence number of the record
+     */
+    private long append(byte[] payload) {
+        synchronized (this.lock) {
+            writeFrame(this.pending, payload);
+            return ++this.appendedSequence;
+        }
+    }
+
+    /**
+     * Helper method for forcing the log to disk when the policy asks for it
+     *
+     * @throws IOException if the log could not be forced
+     */
+    private void forceIfDue() throws IOException {
+        long now = System.nanoTime();
+
+        if (this.fsyncPolicy == FsyncPolicy.ALWAYS || (this.fsyncPolicy == FsyncPolicy.INTERVAL && now - this.lastFsync >= this.fsyncIntervalNanos)) {
+            this.channel.force(false);
+            this.lastFsync = now;
+            FSYNCS.increment();
+        }
+    }
+
+    /**
+     * Helper method for forcing records written since the last force, run every WAL_FSYNC_INTERVAL_MILLIS under the
+     * interval policy. If the force fails the written records may be lost, so the log is marked failed
+     */
+    private void forceWritten() {
+        synchronized (this.lock) {
+            if (!this.unforced || this.failure != null) {
+                return;
+            }
+            this.unforced = false; //Commits written during the force are forced by the next run
+        }
+        try {
+            this.channel.force(false);
+            this.lastFsync = System.nanoTime();
+            FSYNCS.increment();
+        } catch (IOException e) {
+            synchronized (this.lock) {
+                this.failure = e;
+                this.lock.notifyAll();
+            }
+            Utils.handleException(e, false);
+        }
+    }
+
+    /**
+     * Helper method for writing a record with its length and checksum
+     *
+     * @param output  stream to write to
+     * @param payload the record
+     */
+    private static void writeFrame(ByteArrayOutputStream output, byte[] payload) {
+        CRC32 crc = new CRC32();
+        crc.update(payload);
+        ByteBuffer header = ByteBuffer.allocate(FRAME_HEADER_BYTES).putInt(payload.length).putInt((int) crc.getValue());
+
+        output.write(header.array(), 0, FRAME_HEADER_BYTES);
+        output.write(payload, 0, payload.length);
+    }
+
+    /**
+     * Helper method for encoding the readings of a sensor
+     *
+     * @param sensorName sensor the readings are from
+     * @param readings   the readings
+     * @return the record
+     */
+    private static byte[] encodeReadings(String sensorName, List<Date> readings) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(Long.BYTES * readings.size() + RECORD_HEADER_BYTES);
+        DataOutputStream record = new DataOutputStream(bytes);
+
+        try {
+            record.writeByte(READINGS);
+            record.writeUTF(sensorName);
+            record.writeInt(readings.size());
+            for (Date reading : readings) {
+                record.writeLong(reading.getTime());
+            }
+        } catch (IOException e) {
+            throw new IllegalStateException(e); //Writes to memory do not fail
+        }
+        return bytes.toByteArray();
+    }
+
+    /**
+     * Helper method for encoding the hourly aggregate of a compacted day of a room/area
+     *
+     * @param roomKey   building~room key
+     * @param aggregate the aggregate
+     * @return the record
+     */
+    private static byte[] encodeAggregate(String roomKey, RoomDayAggregate aggregate) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(RECORD_HEADER_BYTES + Integer.BYTES * Constants.TOTAL_HOURS_IN_A_DAY);
+        DataOutputStream record = new DataOutputStream(bytes);
+
+        try {
+            record.writeByte(AGGREGATE);
+            record.writeUTF(roomKey);
+            record.writeUTF(aggregate.getDayKey());
+            record.writeLong(aggregate.getDayStart());
+            for (int hour = 0; hour < Constants.TOTAL_HOURS_IN_A_DAY; hour++) {
+                record.writeInt(aggregate.getOccupiedMinutes(hour));
+            }
+        } catch (IOException e) {
+            throw new IllegalStateException(e); //Writes to memory do not fail
+        }
+        return bytes.toByteArray();
+    }
+
+    /**
+     * Helper method for encoding a record of one or two strings
+     *
+     * @param type   record type
+     * @param first  first string
+     * @param second second string, null for records with one string
+     * @return the record
+     */
+    private static byte[] encode(byte type, String first, String second) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        DataOutputStream record = new DataOutputStream(bytes);
+
+        try {
+            record.writeByte(type);
+            record.writeUTF(first);
+            if (second != null) {
+                record.writeUTF(second);
+            }
+        } catch (IOException e) {
+            throw new IllegalStateException(e); //Writes to memory do not fail
+        }
+        return bytes.toByteArray();
+    }
+
+    /**
+     * Receiver of the records of a replayed log or snapshot
+     */
+    public interface RecordHandler {
+        /**
+         * Method for receiving added readings
+         *
+         * @param sensorName sensor the readings are from
+         * @param readings   times of the readings in milliseconds
+         */
+        void readings(String sensorName, long[] readings);
+
+        /**
+         * Method for receiving a removed sensor
+         *
+         * @param sensorName removed sensor
+         */
+        void removeSensor(String sensorName);
+
+        /**
+         * Method for receiving a imported file
+         *
+         * @param fileName    name of the imported file
+         * @param fingerprint fingerprint of the file contents
+         */
+        void imported(String fileName, String fingerprint);
+
+        /**
+         * Method for receiving the hourly aggregate of a compacted day, only written to snapshots
+         *
+         * @param roomKey   building~room key
+         * @param aggregate the aggregate
+         */
+        void aggregate(String roomKey, RoomDayAggregate aggregate);
+    }
+}
@@ -0,0 +1,154 @@
+package buildingoccupationanalyzer;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+
+/**
+ * Log-structured write buffer for readings that arrive one at a time, possibly late or out of order
+ * Readings are appended to a small mutable memtable which is flushed into a immutable sorted run once full, runs are
+ * later merged into the data stores sorted readings by a background compaction. Appending never sorts or copies
+ * stored readings so ingestion cost does not grow with history
+ */
+public class WriteBuffer {
+    private final int flushThreshold;
+    private final Object lock = new Object();
+    private HashMap<String, ArrayList<Date>> memtable = new HashMap<>();
+    private int memtableSize;
+    private volatile List<SortedRun> runs = Collections.emptyList();
+
+    /**
+     * Constructor for WriteBuffer class
+     *
+     * @param incomingFlushThreshold number of readings the memtable holds before it is flushed into a sorted run
+     */
+    public WriteBuffer(int incomingFlushThreshold) {
+        if (incomingFlushThreshold < 1) {
+            throw new IllegalArgumentException("flush threshold must be at least 1");
+        }
+        this.flushThreshold = incomingFlushThreshold;
+    }
+
+    /**
+     * Method for buffering a reading, flushes the memtable when it is full
+     *
+     * @param sensorName sensor the reading is from
+     * @param reading    time of the reading
+     * @return the number of sorted runs waiting to be compacted
+     */
+    public int add(String sensorName, Date reading) {
+        synchronized (this.lock) {
+            this.memtable.computeIfAbsent(sensorName, key -> new ArrayList<>()).add(reading);
+            this.memtableSize++;
+            if (this.memtableSize >= this.flushThreshold) {
+                flush();
+            }
+            return this.runs.size();
+        }
+    }
+
+    /**
+     * Method for flushing the memtable into a new sorted run
+     */
+    public void flush() {
+        synchronized (this.lock) {
+            if (this.memtableSize == 0) {
+                return;
+            }
+
+            List<SortedRun> updatedRuns = new ArrayList<>(this.runs);
+            updatedRuns.add(new SortedRun(this.memtable));
+            this.runs = Collections.unmodifiableList(updatedRuns);
+            this.memtable = new HashMap<>();
+            this.memtableSize = 0;
+        }
+    }
+
+    /**
+     * Getter for the sorted runs waiting to be compacted, oldest first
+     *
+     * @return list of sorted runs
+     */
+    public List<SortedRun> getRuns() { return this.runs; }
+
+    /**
+     * Method for removing runs once they have been compacted
+     *
+     * @param compactedRuns runs to remove
+     */
+    public void removeRuns(List<SortedRun> compactedRuns) {
+        synchronized (this.lock) {
+            List<SortedRun> updatedRuns = new ArrayList<>(this.runs);
+            updatedRuns.removeAll(compactedRuns);
+            this.runs = Collections.unmodifiableList(updatedRuns);
+        }
+    }
+
+    /**
+     * Method for dropping every buffered reading of a sensor
+     *
+     * @param sensorName name of the sensor
+     */
+    public void remove(String sensorName) {
+        synchronized (this.lock) {
+            flush();
+
+            List<SortedRun> updatedRuns = new ArrayList<>();
+            for (SortedRun run : this.runs) {
+                HashMap<String, ArrayList<Date>> kept = new HashMap<>();
+                for (String sensor : run.getSensors()) {
+                    if (!sensor.equals(sensorName)) {
+                        kept.put(sensor, new ArrayList<>(run.getReadings(sensor)));
+                    }
+                }
+                updatedRuns.add(new SortedRun(kept));
+            }
+            this.runs = Collections.unmodifiableList(updatedRuns);
+        }
+    }
+
+    /**
+     * Method for getting the buffered readings of a sensor from the memtable and every run
+     *
+     * @param sensorName name of the sensor
+     * @return the buffered readings in no particular order, null if none are buffered
+     */
+    public ArrayList<Date> getPending(String sensorName) {
+        ArrayList<Date> pending = null;
+
+        synchronized (this.lock) {
+            if (this.memtable.get(sensorName) != null) {
+                pending = new ArrayList<>(this.memtable.get(sensorName));
+            }
+        }
+        for (SortedRun run : this.runs) {
+            List<Date> runReadings = run.getReadings(sensorName);
+            if (runReadings != null) {
+                if (pending == null) {
+                    pending = new ArrayList<>();
+                }
+                pending.addAll(runReadings);
+            }
+        }
+        return pending;
+    }
+
+    /**
+     * Method for counting the buffered readings
+     *
+     * @return number of readings in the memtable and every run
+     */
+    public int size() {
+        int count;
+
+        synchronized (this.lock) {
+            count = this.memtableSize;
+        }
+        for (SortedRun run : this.runs) {
+            count += run.size();
+        }
+        return count;
+    }
+}
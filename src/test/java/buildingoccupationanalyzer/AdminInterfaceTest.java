@@ -8,12 +8,20 @@ import org.junit.Before;
 import org.junit.After;
 
 import java.io.BufferedReader;
+import java.io.File;
 import java.io.IOException;
 import java.io.InputStreamReader;
 import java.io.PrintStream;
 import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.Date;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
 import static org.junit.Assert.fail;
 
 /**
@@ -153,6 +161,49 @@ public class AdminInterfaceTest {
 
     }
 
+    /**
+     * Tests the handleAdminInput method for a overall utilization call in the terminal format matches the default output
+     */
+    @Test
+    public void testOverallUtilizationTerminalFormat() {
+        try {
+            assertEquals(0, adminInterface.handleAdminInput("uta 1"));
+            String defaultOutput = outContent.toString();
+            outContent.reset();
+            assertEquals(0, adminInterface.handleAdminInput("uta 1 terminal"));
+            assertEquals(defaultOutput, outContent.toString());
+        } catch (IOException e) {
+            fail();
+        }
+    }
+
+    /**
+     * Tests the handleAdminInput method for a overall utilization call in the csv format
+     */
+    @Test
+    public void testOverallUtilizationCsvFormat() {
+        try {
+            assertEquals(0, adminInterface.handleAdminInput("uta 1 csv"));
+        } catch (IOException e) {
+            fail();
+        }
+        assertTrue(outContent.toString().startsWith(CsvUtilizationRenderer.HEADER + "\nroom,Reynolds,001,OK,"));
+        assertTrue(outContent.toString().endsWith("\ncampus,,,OK,29.65277777777778,\n"));
+    }
+
+    /**
+     * Tests the handleAdminInput method for a overall utilization call with a unknown format
+     */
+    @Test
+    public void testOverallUtilizationUnknownFormat() {
+        try {
+            assertEquals(1, adminInterface.handleAdminInput("uta 1 xml"));
+        } catch (IOException e) {
+            fail();
+        }
+        assertEquals("Invalid input, unknown format xml, expected terminal, json or csv\n", outContent.toString());
+    }
+
     /**
      * Tests the handleAdminInput method for a overall utilization call error case
      */
@@ -181,6 +232,139 @@ public class AdminInterfaceTest {
 
     }
 
+    /**
+     * Tests the handleAdminInput method for utilization calls with a time resolution
+     */
+    @Test
+    public void testUtilizationResolution() {
+        try {
+            assertEquals(0, adminInterface.handleAdminInput("uta 1"));
+            String defaultOutput = outContent.toString();
+            outContent.reset();
+            assertEquals(0, adminInterface.handleAdminInput("uta 1 1m"));
+            assertEquals(defaultOutput, outContent.toString());
+            outContent.reset();
+            assertEquals(0, adminInterface.handleAdminInput("ut Reynolds 003 1 1m"));
+            assertEquals(1, adminInterface.handleAdminInput("ut Reynolds 003 1 7s"));
+            assertEquals(0, adminInterface.handleAdminInput("uta 1 csv 15m"));
+        } catch (IOException e) {
+            fail();
+        }
+        assertTrue(outContent.toString().startsWith("Utilization of room/area 003 in building Reynolds at 1m resolution is 37.78%\n"
+                + "Invalid input, bucket of 7 seconds does not divide a day evenly\n"
+                + CsvUtilizationRenderer.HEADER + "\n"));
+    }
+
+    /**
+     * Tests the handleAdminInput method for the sensor health report
+     */
+    @Test
+    public void testHealth() {
+        try {
+            assertEquals(0, adminInterface.handleAdminInput("health"));
+            long nextDay = LocalDateTime.parse(Constants.CURRENT_MOCK_DATE + "T00:00").plusDays(1).atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+            for (int i = 0; i < 6; i++) {
+                dataStore.ingest("CS101", new Date(nextDay + i));
+            }
+            assertEquals(0, adminInterface.handleAdminInput("health"));
+        } catch (IOException e) {
+            fail();
+        }
+        assertEquals("All 17 sensors are healthy\n"
+                + "1 of 17 sensors flagged:\n"
+                + "CS101 in room/area SecondFloor of building McLaughlin: chattering, too many readings per minute\n", outContent.toString());
+    }
+
+    /**
+     * Tests the handleAdminInput method for ranking the rooms/areas
+     */
+    @Test
+    public void testRank() {
+        try {
+            assertEquals(0, adminInterface.handleAdminInput("rank top 2 1"));
+            assertEquals(0, adminInterface.handleAdminInput("rank bottom 1 1 Reynolds"));
+            assertEquals(1, adminInterface.handleAdminInput("rank middle 1 1"));
+            assertEquals(1, adminInterface.handleAdminInput("rank top 1 1 NotABuilding"));
+        } catch (IOException e) {
+            fail();
+        }
+        assertEquals("Most utilized rooms/areas over the past 1 days:\n"
+                + "1. FirstFloor in building McLaughlin: 66.74%\n"
+                + "2. SecondFloor in building McLaughlin: 54.37%\n"
+                + "Least utilized rooms/areas over the past 1 days:\n"
+                + "1. 001 in building Reynolds: 21.46%\n"
+                + "Invalid input, expected top or bottom followed by the number of rooms/areas and days\n"
+                + "Error occurred ranking rooms/areas, Building NotABuilding was not found\n", outContent.toString());
+    }
+
+    /**
+     * Tests the handleAdminInput method for the combined occupancy of the rooms/areas of a building
+     */
+    @Test
+    public void testBusy() {
+        DataAnalyzer dataAnalyzer = adminInterface.getDataAnalyzer();
+        LocalDate day = LocalDate.parse(Constants.CURRENT_MOCK_DATE);
+        int[] counts = dataAnalyzer.getConcurrentRoomCounts("Reynolds", day, day);
+        int peak = 0;
+
+        for (int minute = 1; minute < counts.length; minute++) {
+            peak = counts[minute] > counts[peak] ? minute : peak;
+        }
+
+        try {
+            assertEquals(0, adminInterface.handleAdminInput("busy " + day + " " + day + " Reynolds"));
+            assertEquals(1, adminInterface.handleAdminInput("busy " + day));
+            assertEquals(1, adminInterface.handleAdminInput("busy " + day + " " + day.minusDays(1)));
+            assertEquals(1, adminInterface.handleAdminInput("busy " + day + " " + day + " NotABuilding"));
+        } catch (IOException e) {
+            fail();
+        }
+        assertTrue(counts[peak] > 0);
+        assertEquals("Rooms/areas of building Reynolds from " + day + " to " + day + ":\n"
+                + "Minutes any room/area is occupied: " + dataAnalyzer.getCombinedOccupiedMinutes("Reynolds", day, day, false) + "\n"
+                + "Minutes every room/area is occupied: " + dataAnalyzer.getCombinedOccupiedMinutes("Reynolds", day, day, true) + "\n"
+                + "Business hour minutes (8:00 to 18:00) any room/area is occupied: " + dataAnalyzer.getBusinessHoursOccupiedMinutes("Reynolds", day, day) + "\n"
+                + "Most rooms/areas occupied at once: " + counts[peak] + " at " + day.atStartOfDay().plusMinutes(peak) + "\n"
+                + "Invalid input, missing start and or end date\n"
+                + "Invalid input, end date must not be before start date\n"
+                + "Building NotABuilding was not found\n", outContent.toString());
+    }
+
+    /**
+     * Tests the handleAdminInput method for approximate utilization calls, which are counted exactly and say so
+     */
+    @Test
+    public void testApproximateUtilizationExact() {
+        try {
+            assertEquals(0, adminInterface.handleAdminInput("uta 1 approx"));
+            assertEquals(0, adminInterface.handleAdminInput("ut Reynolds 003 1 approx"));
+        } catch (IOException e) {
+            fail();
+        }
+        assertEquals(0.0, adminInterface.getDataAnalyzer().estimateOverallUtilization(365).getMargin(), 0.0);
+        assertEquals("Approximate overall utilization over the past 1 days: 29.65% +/- 0.00% (95% confidence, exact count from the occupancy bitmaps)\n"
+                + "Approximate utilization of room/area 003 in building Reynolds is 37.78% +/- 0.00% (95% confidence, exact count from the occupancy bitmaps)\n", outContent.toString());
+    }
+
+    /**
+     * Tests the handleAdminInput method for approximate utilization error cases
+     */
+    @Test
+    public void testApproximateUtilizationError() {
+        try {
+            assertEquals(1, adminInterface.handleAdminInput("uta approx"));
+            assertEquals(1, adminInterface.handleAdminInput("ut Reynolds 1 approx"));
+            assertEquals(1, adminInterface.handleAdminInput("ut Reynolds 999 1 approx"));
+            assertEquals(1, adminInterface.handleAdminInput("uta x approx"));
+        } catch (IOException e) {
+            fail();
+        }
+        assertEquals("Invalid input, missing number of days\n"
+                + "Invalid input, missing building, days, and or room/area name\n"
+                + "Error occurred getting utilization, Building name and Room name combination was not found\n"
+                + "Invalid input, number of days must be a number\n", outContent.toString());
+    }
+
     /**
      * Tests the handleAdminInput method for a utilization call
      */
@@ -247,6 +431,20 @@ public class AdminInterfaceTest {
         assertEquals("Attempting to import data from ../resources/sensorData/DataFile_2020-02-09.csv\nData uploaded...\n", outContent.toString());
     }
 
+    /**
+     * Tests the handleAdminInput method for importing the same data file twice
+     */
+    @Test
+    public void testImportDataTwice() {
+        try {
+            assertEquals(0, adminInterface.handleAdminInput("import DataFile_2020-02-09.csv"));
+            assertEquals(0, adminInterface.handleAdminInput("import DataFile_2020-02-09.csv"));
+        } catch (IOException e) {
+            fail();
+        }
+        assertTrue(outContent.toString().endsWith("DataFile_2020-02-09.csv\nData file was already imported, skipping...\n"));
+    }
+
     /**
      * Tests the handleAdminInput method for a import data call without a filename
      */
@@ -312,6 +510,133 @@ public class AdminInterfaceTest {
         assertEquals("Invalid input, missing sensor name\n", outContent.toString());
     }
 
+    /**
+     * Tests the handleAdminInput method for a compact scenario
+     */
+    @Test
+    public void testCompact() {
+        try {
+            assertEquals(0, adminInterface.handleAdminInput("compact"));
+        } catch (IOException e) {
+            fail();
+        }
+        assertEquals("Compaction reclaimed 0 bytes (0 readings removed, 0 room days aggregated, 0 room days dropped)\n", outContent.toString());
+    }
+
+    /**
+     * Tests that the compact command changes the retention policy of the background compactor
+     */
+    @Test
+    public void testCompactChangesBackgroundPolicy() {
+        DataCompactor compactor = new DataCompactor(dataStore, RetentionPolicy.defaultPolicy());
+
+        compactor.start(Constants.COMPACTION_INTERVAL_MINUTES);
+        try {
+            assertEquals(0, adminInterface.handleAdminInput("compact 30 400"));
+        } catch (IOException e) {
+            fail();
+        } finally {
+            compactor.stop();
+        }
+        assertEquals(30, compactor.getRetentionPolicy().getRawRetentionDays());
+        assertEquals(400, compactor.getRetentionPolicy().getAggregateRetentionDays());
+    }
+
+    /**
+     * Tests the handleAdminInput method for a compact scenario with a invalid policy
+     */
+    @Test
+    public void testCompactInvalidPolicy() {
+        try {
+            assertEquals(1, adminInterface.handleAdminInput("compact 7 1"));
+        } catch (IOException e) {
+            fail();
+        }
+        assertEquals("Invalid retention policy: Aggregate retention must not be shorter than raw retention\n", outContent.toString());
+    }
+
+    /**
+     * Tests the handleAdminInput method for a stats scenario
+     */
+    @Test
+    public void testStats() {
+        try {
+            assertEquals(0, adminInterface.handleAdminInput("stats"));
+        } catch (IOException e) {
+            fail();
+        }
+        assertTrue(outContent.toString().startsWith("Performance metrics:\n\n"));
+        assertTrue(outContent.toString().contains("analyzer_query_seconds{query=\"occupancy\"} count="));
+    }
+
+    /**
+     * Tests the handleAdminInput method for a stats dump scenario
+     *
+     * @throws IOException if the temporary file cannot be created
+     */
+    @Test
+    public void testStatsDump() throws IOException {
+        File dumpFile = File.createTempFile("metrics", ".prom");
+        dumpFile.deleteOnExit();
+
+        assertEquals(0, adminInterface.handleAdminInput("stats " + dumpFile.getPath()));
+        assertEquals("Metrics written to " + dumpFile.getPath() + "\n", outContent.toString());
+        assertTrue(new String(Files.readAllBytes(dumpFile.toPath()), StandardCharsets.UTF_8).contains("# TYPE import_file_seconds histogram"));
+    }
+
+    /**
+     * Tests the handleAdminInput method for a replay scenario
+     */
+    @Test
+    public void testReplay() {
+        try {
+            assertEquals(0, adminInterface.handleAdminInput("replay 2020-02-08 2020-02-08 360"));
+        } catch (IOException e) {
+            fail();
+        }
+        assertTrue(outContent.toString().startsWith("2020-02-08T00:00 occupied 0/9\n2020-02-08T06:00 occupied 0/9\n"));
+        assertTrue(outContent.toString().contains("Replayed 4 steps in "));
+    }
+
+    /**
+     * Tests the handleAdminInput method for a replay scenario with invalid dates
+     */
+    @Test
+    public void testReplayInvalidDate() {
+        try {
+            assertEquals(1, adminInterface.handleAdminInput("replay 2020-02 2020-02-08 15"));
+        } catch (IOException e) {
+            fail();
+        }
+        assertEquals("Invalid input, dates must be in the form yyyy-MM-dd\n", outContent.toString());
+    }
+
+    /**
+     * Tests the handleAdminInput method for a range utilization scenario
+     */
+    @Test
+    public void testRangeUtilization() {
+        try {
+            assertEquals(0, adminInterface.handleAdminInput("utr Reynolds 003 2020-02-08 2020-02-08"));
+        } catch (IOException e) {
+            fail();
+        }
+        assertEquals("Utilization of room/area 003 in building Reynolds from 2020-02-08T00:00 to 2020-02-09T00:00 is 37.78%\n", outContent.toString());
+    }
+
+    /**
+     * Tests the handleAdminInput method for a overall range utilization scenario with a missing date
+     */
+    @Test
+    public void testOverallRangeUtilizationMissingDate() {
+        try {
+            assertEquals(1, adminInterface.handleAdminInput("utar 2020-02-08"));
+        } catch (IOException e) {
+            fail();
+        }
+        assertEquals("Invalid input, missing start and or end date\n", outContent.toString());
+    }
+
     /**
      * Main method for AdminInterfaceTest class
      *
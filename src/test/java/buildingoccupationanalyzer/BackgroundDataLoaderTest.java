@@ -0,0 +1,198 @@
+package buildingoccupationanalyzer;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.JUnitCore;
+import org.junit.runner.Result;
+import org.junit.runner.notification.Failure;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.io.StringReader;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+
+/**
+ * Class for testing the BackgroundDataLoader class
+ */
+public class BackgroundDataLoaderTest {
+    private final ByteArrayOutputStream outContent = new ByteArrayOutputStream();
+    private final PrintStream originalOut = System.out;
+    private DataStore dataStore;
+
+    /**
+     * Method for setting up test session
+     */
+    @Before
+    public void setup() {
+        dataStore = new DataStore(MainApplication.initializeSensorLocationMap(), new HashMap<>());
+        System.setOut(new PrintStream(outContent));
+    }
+
+    /**
+     * Method for tearing down test session
+     */
+    @After
+    public void tearDown() {
+        System.setOut(originalOut);
+    }
+
+    /**
+     * Tests loading several files in the background gives the same data as loading them up front
+     *
+     * @throws Exception if a data file can not be read or the wait is interrupted
+     */
+    @Test
+    public void testLoad() throws Exception {
+        DataStore expected = new DataStore(MainApplication.initializeSensorLocationMap(), MainApplication.initializeSensorData());
+        expected.addData("DataFile_2020-02-09.csv");
+        BackgroundDataLoader loader = new BackgroundDataLoader(dataStore, Arrays.asList(Constants.DATA_FILE_NAME, "DataFile_2020-02-09.csv"));
+
+        loader.start(System.nanoTime());
+        loader.awaitLoaded();
+
+        assertTrue(loader.isLoaded());
+        assertEquals("2 of 2 data files loaded", loader.getProgress());
+        assertEquals(loader, dataStore.getDataLoader());
+        assertEquals(expected.getReadingCount(), dataStore.getReadingCount());
+        assertEquals(expected.getSensorDataMap(), dataStore.getSensorDataMap());
+        assertFalse(dataStore.addData(Constants.DATA_FILE_NAME)); //Loaded files are recorded in the import manifest
+    }
+
+    /**
+     * Tests that the live occupancy and sensor health after a background load match loading the files one by one in time
+     * order, whichever file the threads finish first
+     *
+     * @throws Exception if a data file can not be read or the wait is interrupted
+     */
+    @Test
+    public void testLiveStateIndependentOfLoadOrder() throws Exception {
+        DataStore expected = new DataStore(MainApplication.initializeSensorLocationMap(), new HashMap<>());
+        List<String> files = Arrays.asList("DataFile_2020-02-07.csv", Constants.DATA_FILE_NAME, "DataFile_2020-02-09.csv");
+        List<String> reversed = new ArrayList<>(files);
+        long firstDay = LocalDate.parse("2020-02-07").atStartOfDay(ZoneId.systemDefault()).toInstant().toEpochMilli();
+        long day = (long) Constants.TOTAL_MINUTES_IN_A_DAY * Constants.TOTAL_MILLISECONDS_IN_A_MINUTE;
+
+        for (String file : files) {
+            expected.addData(file);
+        }
+        Collections.reverse(reversed);
+        for (List<String> order : Arrays.asList(files, reversed)) {
+            DataStore loaded = new DataStore(MainApplication.initializeSensorLocationMap(), new HashMap<>());
+            BackgroundDataLoader loader = new BackgroundDataLoader(loaded, order);
+
+            loader.start(System.nanoTime());
+            loader.awaitLoaded();
+            for (ArrayList<String> sensors : expected.getSensorLocationMap().values()) {
+                for (String sensor : sensors) {
+                    assertEquals(sensor, describeHealth(expected, sensor), describeHealth(loaded, sensor));
+                }
+            }
+            for (long time = firstDay; time < firstDay + 3 * day; time += 7 * Constants.TOTAL_MILLISECONDS_IN_A_MINUTE) {
+                for (String roomKey : expected.getSensorLocationMap().keySet()) {
+                    assertEquals(roomKey, expected.getLiveOccupancy().getOccupancy(roomKey, time), loaded.getLiveOccupancy().getOccupancy(roomKey, time));
+                }
+            }
+        }
+    }
+
+    /**
+     * Helper method for describing the health statistics of a sensor
+     *
+     * @param store  data store whose health monitor to read
+     * @param sensor name of the sensor
+     * @return the statistics as a string
+     */
+    private static String describeHealth(DataStore store, String sensor) {
+        SensorHealth health = store.getLiveOccupancy().getHealthMonitor().getHealth(sensor);
+
+        return health == null ? "none" : health.getReadings() + " " + health.getLateReadings() + " " + health.getLastReading() + " " + health.getLongestStreak()
+                + " " + health.getChatteringMinutes() + " " + health.getUnpairedIntervals();
+    }
+
+    /**
+     * Tests that a file whose contents fail to import is reported and skipped, waiting commands go on once the other
+     * files are loaded
+     *
+     * @throws Exception if a data file can not be read or the wait is interrupted
+     */
+    @Test(timeout = 10000)
+    public void testMalformedFileIsSkipped() throws Exception {
+        DataStore expected = new DataStore(MainApplication.initializeSensorLocationMap(), MainApplication.initializeSensorData());
+        PrintStream originalErr = System.err;
+        ByteArrayOutputStream errContent = new ByteArrayOutputStream();
+        BackgroundDataLoader loader = new BackgroundDataLoader(dataStore, Arrays.asList("DataFile_2020-02-06.csv", Constants.DATA_FILE_NAME));
+
+        System.setErr(new PrintStream(errContent));
+        try {
+            loader.start(System.nanoTime());
+            BackgroundDataLoader.awaitData(dataStore);
+        } finally {
+            System.setErr(originalErr);
+        }
+
+        assertTrue(loader.isLoaded());
+        assertEquals("2 of 2 data files loaded", loader.getProgress());
+        assertTrue(errContent.toString().contains("Data file DataFile_2020-02-06.csv could not be loaded, it is skipped"));
+        assertTrue(errContent.toString().contains("ArrayIndexOutOfBoundsException"));
+        assertEquals(expected.getSensorDataMap(), dataStore.getSensorDataMap()); //Nothing of the skipped file is stored
+    }
+
+    /**
+     * Tests that awaitData returns right away for a data store without a background loader
+     */
+    @Test
+    public void testAwaitDataWithoutLoader() {
+        BackgroundDataLoader.awaitData(dataStore);
+
+        assertEquals("", outContent.toString());
+    }
+
+    /**
+     * Tests that list commands answer before the data is loaded and data commands wait for it
+     *
+     * @throws IOException if the interface fails
+     */
+    @Test
+    public void testInterfacesWaitForData() throws IOException {
+        BackgroundDataLoader loader = new BackgroundDataLoader(dataStore, Arrays.asList(Constants.DATA_FILE_NAME));
+        AdminInterface adminInterface = new AdminInterface(dataStore, new BufferedReader(new StringReader("")));
+
+        dataStore.setDataLoader(loader);
+        new UserInterface(dataStore).handleUserInput("db", null);
+        assertEquals("Buildings:\n" + dataStore.getBuildings().toString() + "\n\n", outContent.toString());
+        assertEquals("0 of 1 data files loaded", loader.getProgress());
+
+        loader.start(System.nanoTime());
+        outContent.reset();
+        assertEquals(0, adminInterface.handleAdminInput("ut Reynolds 003 1"));
+        assertTrue(loader.isLoaded());
+        assertTrue(outContent.toString().endsWith("Utilization of room/area 003 in building Reynolds is 37.78%\n"));
+    }
+
+    /**
+     * Main method for BackgroundDataLoaderTest class
+     *
+     * @param args Command line arguments
+     */
+    public static void main(String[] args) {
+        Result result = JUnitCore.runClasses(BackgroundDataLoaderTest.class);
+        for (Failure failure : result.getFailures()) {
+            System.out.println(failure.toString());
+        }
+
+        System.out.println(result.wasSuccessful());
+    }
+}
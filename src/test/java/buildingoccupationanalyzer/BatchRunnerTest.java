@@ -0,0 +1,151 @@
+package buildingoccupationanalyzer;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.JUnitCore;
+import org.junit.runner.Result;
+import org.junit.runner.notification.Failure;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Class for testing the BatchRunner class
+ */
+public class BatchRunnerTest {
+    private BatchRunner batchRunner;
+
+    /**
+     * Method for setting up test session
+     */
+    @Before
+    public void setup() {
+        batchRunner = new BatchRunner(new DataStore(MainApplication.initializeSensorLocationMap(), MainApplication.initializeSensorData()), 4);
+    }
+
+    /**
+     * Helper method for running commands and splitting the output into lines
+     *
+     * @param commands commands to run
+     * @return the result lines
+     * @throws IOException if the output cannot be written
+     */
+    private String[] run(String... commands) throws IOException {
+        StringWriter output = new StringWriter();
+        batchRunner.run(Arrays.asList(commands), output);
+        return output.toString().split(System.lineSeparator());
+    }
+
+    /**
+     * Tests the result lines of read commands
+     *
+     * @throws IOException if the output cannot be written
+     */
+    @Test
+    public void testReadCommands() throws IOException {
+        String[] lines = run("uta 1", "ut Reynolds 003 1", "oc Reynolds 003", "oc all Reynolds");
+
+        assertEquals(4, lines.length);
+        assertTrue(lines[0].startsWith("{\"line\":1,\"command\":\"uta 1\",\"status\":\"OK\",\"result\":{\"status\":\"OK\",\"utilization\":29.65277777777778,"));
+        assertTrue(lines[1].startsWith("{\"line\":2,\"command\":\"ut Reynolds 003 1\",\"status\":\"OK\",\"result\":{\"building\":\"Reynolds\",\"room\":\"003\",\"status\":\"OK\",\"utilization\":37.7"));
+        assertTrue(lines[2].startsWith("{\"line\":3,\"command\":\"oc Reynolds 003\",\"status\":\"OK\",\"occupied\":"));
+        assertTrue(lines[3].startsWith("{\"line\":4,\"command\":\"oc all Reynolds\",\"status\":\"OK\",\"occupancy\":{\"Reynolds~001\":"));
+    }
+
+    /**
+     * Tests that failed commands are reported and counted without stopping the batch
+     *
+     * @throws IOException if the output cannot be written
+     */
+    @Test
+    public void testFailedCommands() throws IOException {
+        StringWriter output = new StringWriter();
+        int failed = batchRunner.run(Arrays.asList("# nightly report", "", "ut Reynoolds 003 1", "uta x", "import missing.csv", "foo", "uta 0", "uta 1"), output);
+        String[] lines = output.toString().split(System.lineSeparator());
+
+        assertEquals(5, failed);
+        assertEquals(6, lines.length);
+        assertTrue(lines[0].startsWith("{\"line\":3,\"command\":\"ut Reynoolds 003 1\",\"status\":\"ERROR\",\"message\":\"Building name and Room name combination was not found\""));
+        assertEquals("{\"line\":4,\"command\":\"uta x\",\"status\":\"ERROR\",\"message\":\"Number of days must be a number\"}", lines[1]);
+        assertEquals("{\"line\":5,\"command\":\"import missing.csv\",\"status\":\"ERROR\",\"message\":\"Error occurred while importing new data, invalid file name\"}", lines[2]);
+        assertEquals("{\"line\":6,\"command\":\"foo\",\"status\":\"ERROR\",\"message\":\"Unknown command foo\"}", lines[3]);
+        assertTrue(lines[4].startsWith("{\"line\":7,\"command\":\"uta 0\",\"status\":\"ERROR\",\"message\":\"Error, days must not be 0\""));
+        assertTrue(lines[5].contains("\"status\":\"OK\""));
+    }
+
+    /**
+     * Tests that results of pipelined commands keep the script order
+     *
+     * @throws IOException if the output cannot be written
+     */
+    @Test
+    public void testOrderedOutput() throws IOException {
+        List<String> commands = new ArrayList<>();
+        for (int i = 0; i < 200; i++) {
+            commands.add(i % 2 == 0 ? "uta 1" : "ut McLaughlin FirstFloor 1");
+        }
+        StringWriter output = new StringWriter();
+
+        assertEquals(0, batchRunner.run(commands, output));
+        String[] lines = output.toString().split(System.lineSeparator());
+        assertEquals(200, lines.length);
+        for (int i = 0; i < lines.length; i++) {
+            assertTrue(lines[i].startsWith("{\"line\":" + (i + 1) + ",\"command\":\"" + commands.get(i) + "\""));
+        }
+    }
+
+    /**
+     * Tests that write commands are barriers, commands after them see their changes and commands before them do not
+     *
+     * @throws IOException if the output cannot be written
+     */
+    @Test
+    public void testWriteBarrier() throws IOException {
+        String[] lines = run("ls", "ls", "del DS101", "ls", "del DS101", "import DataFile_2020-02-08.csv", "import DataFile_2020-02-09.csv");
+
+        assertTrue(lines[0].contains("\"DS101\""));
+        assertTrue(lines[1].contains("\"DS101\""));
+        assertEquals("{\"line\":3,\"command\":\"del DS101\",\"status\":\"OK\",\"message\":\"Sensor Removed\"}", lines[2]);
+        assertFalse(lines[3].contains("\"DS101\""));
+        assertEquals("{\"line\":5,\"command\":\"del DS101\",\"status\":\"ERROR\",\"message\":\"Sensor Not Found\"}", lines[4]);
+        assertEquals("{\"line\":6,\"command\":\"import DataFile_2020-02-08.csv\",\"status\":\"OK\",\"imported\":true}", lines[5]);
+        assertEquals("{\"line\":7,\"command\":\"import DataFile_2020-02-09.csv\",\"status\":\"OK\",\"imported\":true}", lines[6]);
+    }
+
+    /**
+     * Tests reading commands from a reader
+     *
+     * @throws IOException if the commands cannot be read
+     */
+    @Test
+    public void testReadCommandsFromStandardInput() throws IOException {
+        List<String> commands = BatchRunner.readCommands("-", new BufferedReader(new StringReader("uta 1\nls\n")));
+
+        assertEquals(Arrays.asList("uta 1", "ls"), commands);
+        assertTrue(BatchRunner.isWriteCommand("import DataFile_2020-02-09.csv"));
+        assertFalse(BatchRunner.isWriteCommand("uta 1"));
+    }
+
+    /**
+     * Main method for BatchRunnerTest class
+     *
+     * @param args Command line arguments
+     */
+    public static void main(String[] args) {
+        Result result = JUnitCore.runClasses(BatchRunnerTest.class);
+        for (Failure failure : result.getFailures()) {
+            System.out.println(failure.toString());
+        }
+
+        System.out.println(result.wasSuccessful());
+    }
+}
@@ -0,0 +1,131 @@
+package buildingoccupationanalyzer;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.JUnitCore;
+import org.junit.runner.Result;
+import org.junit.runner.notification.Failure;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Class for testing the BitsetAggregator backends and the bitset queries of the DataAnalyzer class
+ */
+public class BitsetAggregatorTest {
+    private static final LocalDate DAY = LocalDate.parse(Constants.CURRENT_MOCK_DATE);
+
+    private DataStore dataStore;
+    private DataAnalyzer dataAnalyzer;
+
+    /**
+     * Method for setting up test session
+     */
+    @Before
+    public void setup() {
+        dataStore = new DataStore(MainApplication.initializeSensorLocationMap(), MainApplication.initializeSensorData());
+        dataAnalyzer = new DataAnalyzer(dataStore);
+    }
+
+    /**
+     * Tests that the backend gives the same results as a bit by bit computation for one to nine bitsets
+     */
+    @Test
+    public void testBackendMatchesBitByBit() {
+        Random random = new Random(7);
+        BitsetAggregator backend = new ScalarBitsetAggregator();
+        int bits = 1000;
+
+        for (int count = 1; count <= 9; count++) {
+            List<long[]> bitsets = new ArrayList<>();
+            long[] or = new long[(bits + 63) / 64];
+            long[] and = new long[or.length];
+            int[] perBit = new int[bits];
+
+            for (int b = 0; b < count; b++) {
+                long[] bitset = new long[or.length];
+                for (int bit = 0; bit < bits; bit++) {
+                    if (random.nextInt(3) > 0) {
+                        bitset[bit / 64] |= 1L << (bit % 64);
+                        perBit[bit]++;
+                    }
+                }
+                bitsets.add(bitset);
+            }
+            for (int bit = 0; bit < bits; bit++) {
+                or[bit / 64] |= perBit[bit] > 0 ? 1L << (bit % 64) : 0;
+                and[bit / 64] |= perBit[bit] == count ? 1L << (bit % 64) : 0;
+            }
+            assertArrayEquals(or, backend.or(bitsets));
+            assertArrayEquals(and, backend.and(bitsets));
+            assertArrayEquals(perBit, backend.countPerBit(bitsets, bits));
+            assertEquals(Arrays.stream(or).map(Long::bitCount).sum(), backend.popcount(or));
+        }
+    }
+
+    /**
+     * Tests that copying a bitmap range into a bitset keeps every minute at its offset
+     */
+    @Test
+    public void testBitmapToWords() {
+        OccupancyBitmap bitmap = OccupancyBitmap.builder().addRange(65500, 65600).add(70000).add(200000).build();
+        long[] words = bitmap.toWords(65530, 70001);
+
+        for (long minute = 65530; minute < 70001; minute++) {
+            int offset = (int) (minute - 65530);
+            assertEquals(bitmap.contains(minute), (words[offset / 64] & (1L << (offset % 64))) != 0);
+        }
+        assertEquals(71, new ScalarBitsetAggregator().popcount(words));
+        assertEquals(0, bitmap.toWords(10, 10).length);
+    }
+
+    /**
+     * Tests the per-minute counts of occupied rooms/areas and business hour occupancy of the sample data
+     */
+    @Test
+    public void testCampusQueries() {
+        long dayStart = DAY.toEpochDay() * Constants.TOTAL_MINUTES_IN_A_DAY;
+        long roomMinutes = 0;
+
+        for (String roomKey : dataStore.getSensorLocationMap().keySet()) {
+            roomMinutes += dataStore.getOccupancyIndex().getRoomBitmap(roomKey).getCardinality(dayStart, dayStart + Constants.TOTAL_MINUTES_IN_A_DAY);
+        }
+        int[] counts = dataAnalyzer.getConcurrentRoomCounts(null, DAY, DAY);
+        long countedMinutes = 0;
+        long anyRoomBusinessMinutes = 0;
+
+        assertEquals(Constants.TOTAL_MINUTES_IN_A_DAY, counts.length);
+        for (int minute = 0; minute < counts.length; minute++) {
+            countedMinutes += counts[minute];
+            if (counts[minute] > 0 && minute >= Constants.BUSINESS_HOURS_START * 60 && minute < Constants.BUSINESS_HOURS_END * 60) {
+                anyRoomBusinessMinutes++;
+            }
+        }
+        assertEquals(roomMinutes, countedMinutes);
+        assertEquals(anyRoomBusinessMinutes, dataAnalyzer.getBusinessHoursOccupiedMinutes(null, DAY, DAY));
+        assertTrue(dataAnalyzer.getBusinessHoursOccupiedMinutes("Reynolds", DAY, DAY) <= dataAnalyzer.getCombinedOccupiedMinutes("Reynolds", DAY, DAY, false));
+        assertEquals(0, dataAnalyzer.getBusinessHoursOccupiedMinutes("NotABuilding", DAY, DAY));
+        assertEquals(2 * Constants.TOTAL_MINUTES_IN_A_DAY, dataAnalyzer.getConcurrentRoomCounts("NotABuilding", DAY.minusDays(1), DAY).length);
+    }
+
+    /**
+     * Main method for BitsetAggregatorTest class
+     *
+     * @param args Command line arguments
+     */
+    public static void main(String[] args) {
+        Result result = JUnitCore.runClasses(BitsetAggregatorTest.class);
+        for (Failure failure : result.getFailures()) {
+            System.out.println(failure.toString());
+        }
+
+        System.out.println(result.wasSuccessful());
+    }
+}
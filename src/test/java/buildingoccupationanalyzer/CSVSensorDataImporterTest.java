@@ -10,7 +10,9 @@ import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.fail;
 
 import java.io.IOException;
+import java.util.Arrays;
 import java.util.TimeZone;
+import java.util.TreeSet;
 
 /**
  * Class for testing the CSVSensorDataImporter class
@@ -37,6 +39,19 @@ public class CSVSensorDataImporterTest {
         }
     }
 
+    /**
+     * Tests that the importData method with a sensor filter only imports the accepted sensors
+     */
+    @Test
+    public void testDataImportFiltered() {
+        try {
+            assertEquals("[CS107, CS108, DS107]", new TreeSet<>(dataImporter.importData(Constants.DATA_FILE_NAME, Arrays.asList("CS107", "CS108", "DS107")::contains).keySet()).toString());
+            assertEquals(dataImporter.importData(Constants.DATA_FILE_NAME).get("CS107"), dataImporter.importData(Constants.DATA_FILE_NAME, "CS107"::equals).get("CS107"));
+        } catch (IOException e) {
+            fail();
+        }
+    }
+
     /**
      * Tests the importData method with a invalid file
      *
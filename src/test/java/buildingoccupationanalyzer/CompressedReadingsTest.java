@@ -0,0 +1,208 @@
+package buildingoccupationanalyzer;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.JUnitCore;
+import org.junit.runner.Result;
+import org.junit.runner.notification.Failure;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.io.IOException;
+import java.time.Clock;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.List;
+
+/**
+ * Class for testing the ReadingBlock and CompressedReadings classes and the compressed storage of the DataStore class
+ */
+public class CompressedReadingsTest {
+    private static final long START = 1581120000000L;
+
+    private DataStore plainStore;
+    private DataStore compressedStore;
+
+    /**
+     * Method for setting up test session
+     */
+    @Before
+    public void setup() {
+        plainStore = new DataStore(MainApplication.initializeSensorLocationMap(), MainApplication.initializeSensorData());
+        compressedStore = new DataStore(MainApplication.initializeSensorLocationMap(), MainApplication.initializeSensorData(), true);
+    }
+
+    /**
+     * Tests that readings taken at a fixed interval pack into zero bits and round trip
+     */
+    @Test
+    public void testRegularBlock() {
+        long[] timestamps = new long[Constants.READING_BLOCK_SIZE];
+        long[] decoded = new long[timestamps.length];
+
+        for (int i = 0; i < timestamps.length; i++) {
+            timestamps[i] = START + i * (long) Constants.TOTAL_MILLISECONDS_IN_A_MINUTE;
+        }
+        ReadingBlock block = ReadingBlock.encode(timestamps, 0, timestamps.length);
+        block.decode(decoded, 0);
+
+        assertEquals(0, block.getBitWidth());
+        assertEquals(START, block.getMin());
+        assertEquals(timestamps[timestamps.length - 1], block.getMax());
+        assertTrue(Arrays.equals(timestamps, decoded));
+    }
+
+    /**
+     * Tests that irregular, unsorted, duplicate and extreme timestamps round trip in their stored order
+     */
+    @Test
+    public void testIrregularBlocks() {
+        long[][] cases = {
+            {START},
+            {START, START + 17, START + 17, START + 5000, START - 60000, START + 1},
+            {Long.MIN_VALUE, Long.MAX_VALUE, 0, -1, Long.MAX_VALUE},
+        };
+
+        for (long[] timestamps : cases) {
+            long[] decoded = new long[timestamps.length + 2];
+            ReadingBlock block = ReadingBlock.encode(timestamps, 0, timestamps.length);
+
+            block.decode(decoded, 2);
+            assertTrue(Arrays.equals(timestamps, Arrays.copyOfRange(decoded, 2, decoded.length)));
+            assertEquals(Arrays.stream(timestamps).min().getAsLong(), block.getMin());
+            assertEquals(Arrays.stream(timestamps).max().getAsLong(), block.getMax());
+        }
+        assertEquals(64, ReadingBlock.encode(cases[2], 0, cases[2].length).getBitWidth());
+    }
+
+    /**
+     * Tests that compressed readings spanning several blocks decode to the encoded list and use less memory
+     */
+    @Test
+    public void testCompressedReadingsRoundTrip() {
+        List<Date> readings = new ArrayList<>();
+
+        for (int i = 0; i < Constants.READING_BLOCK_SIZE * 3 + 7; i++) {
+            readings.add(new Date(START + i * 61000L + (i % 5) * 1000L));
+        }
+        CompressedReadings compressed = CompressedReadings.encode(readings);
+
+        assertEquals(readings.size(), compressed.size());
+        assertEquals(readings, compressed.decode());
+        assertTrue(compressed.getMemoryBytes() < readings.size() * 4L);
+        assertEquals(0, CompressedReadings.encode(new ArrayList<>()).decode().size());
+    }
+
+    /**
+     * Tests that a cursor returns exactly the readings within its window, in stored order
+     */
+    @Test
+    public void testCursorWindow() {
+        List<Date> readings = new ArrayList<>();
+        List<Long> expected = new ArrayList<>();
+        long windowStart = START + 300 * 60000L;
+        long windowEnd = START + 310 * 60000L;
+
+        for (int i = 0; i < 1000; i++) {
+            readings.add(new Date(START + i * 60000L));
+            if (readings.get(i).getTime() >= windowStart && readings.get(i).getTime() < windowEnd) {
+                expected.add(readings.get(i).getTime());
+            }
+        }
+        List<Long> actual = new ArrayList<>();
+        ReadingCursor cursor = CompressedReadings.encode(readings).cursor(windowStart, windowEnd);
+        while (cursor.next()) {
+            actual.add(cursor.getMillis());
+        }
+
+        assertEquals(expected, actual);
+        assertFalse(cursor.next());
+        assertFalse(CompressedReadings.encode(readings).cursor(0, START).next());
+    }
+
+    /**
+     * Tests that a compressed data store holds the same readings and gives the same utilization as a plain one
+     */
+    @Test
+    public void testCompressedStoreMatchesPlainStore() {
+        assertTrue(compressedStore.isCompressedStorage());
+        assertEquals(plainStore.getSensorDataMap(), compressedStore.getSensorDataMap());
+        assertEquals(plainStore.getReadingCount(), compressedStore.getReadingCount());
+        assertTrue(compressedStore.getReadingMemoryBytes() * 4 < plainStore.getReadingMemoryBytes());
+        assertEquals(new DataAnalyzer(plainStore).getOverallUtilization(1), new DataAnalyzer(compressedStore).getOverallUtilization(1), 0.0);
+        assertEquals(new DataAnalyzer(plainStore).getUtilization("Reynolds", "003", 1), new DataAnalyzer(compressedStore).getUtilization("Reynolds", "003", 1), 0.0);
+    }
+
+    /**
+     * Tests that occupancy checks walking compressed readings with a cursor match the plain data store at every minute
+     * of the mock day
+     */
+    @Test
+    public void testCompressedOccupancyMatchesPlainStore() {
+        long dayStart = LocalDate.parse(Constants.CURRENT_MOCK_DATE).atStartOfDay(ZoneId.systemDefault()).toInstant().toEpochMilli();
+
+        for (int minute = 0; minute < Constants.TOTAL_MINUTES_IN_A_DAY; minute += 7) {
+            Clock clock = Clock.fixed(new Date(dayStart + minute * 60000L).toInstant(), ZoneId.systemDefault());
+            assertEquals(new DataAnalyzer(plainStore, clock).checkOccupancyAll(), new DataAnalyzer(compressedStore, clock).checkOccupancyAll());
+        }
+    }
+
+    /**
+     * Tests that the bitmaps built by walking compressed readings with cursors hold the same minutes as the bitmaps built
+     * from the decoded readings
+     */
+    @Test
+    public void testCursorBitmapsMatchDecodedReadings() {
+        DataAnalyzer compressedAnalyzer = new DataAnalyzer(compressedStore);
+
+        for (ArrayList<String> sensors : compressedStore.getSensorLocationMap().values()) {
+            OccupancyBitmap decoded = compressedAnalyzer.buildOccupancyBitmap(sensors, plainStore.getSensorDataMap());
+            OccupancyBitmap walked = compressedAnalyzer.buildOccupancyBitmap(sensors);
+
+            assertEquals(decoded.getCardinality(), walked.getCardinality());
+            assertEquals(decoded.getCardinality(), decoded.and(walked).getCardinality());
+        }
+    }
+
+    /**
+     * Tests that removing sensors, importing files and compacting ingested readings work on compressed storage
+     *
+     * @throws IOException if the import fails
+     */
+    @Test
+    public void testCompressedStoreWrites() throws IOException {
+        Date reading = new Date(START + 123456L);
+
+        assertEquals("Sensor Removed", compressedStore.removeSensor("CS101"));
+        assertEquals(null, compressedStore.getReadings("CS101"));
+        compressedStore.ingest("CS102", reading);
+        assertTrue(compressedStore.getReadings("CS102").contains(reading));
+        assertTrue(compressedStore.getReadingCursor("CS102", reading.getTime(), reading.getTime() + 1).next());
+        compressedStore.flushWriteBuffer();
+        assertEquals(0, compressedStore.getWriteBuffer().size());
+        assertTrue(compressedStore.getReadings("CS102").contains(reading));
+        assertTrue(compressedStore.getReadingCursor("CS102", reading.getTime(), reading.getTime() + 1).next());
+
+        compressedStore.getImportManifest().record(Constants.DATA_FILE_NAME);
+        assertFalse(compressedStore.addData(Constants.DATA_FILE_NAME));
+    }
+
+    /**
+     * Main method for CompressedReadingsTest class
+     *
+     * @param args Command line arguments
+     */
+    public static void main(String[] args) {
+        Result result = JUnitCore.runClasses(CompressedReadingsTest.class);
+        for (Failure failure : result.getFailures()) {
+            System.out.println(failure.toString());
+        }
+
+        System.out.println(result.wasSuccessful());
+    }
+}
@@ -8,6 +8,7 @@ import org.junit.runner.Result;
 import org.junit.runner.notification.Failure;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
 import static org.junit.Assert.fail;
 
 import java.io.ByteArrayOutputStream;
@@ -16,6 +17,7 @@ import java.text.ParseException;
 import java.text.SimpleDateFormat;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.Map;
 
 /**
  * Class for testing the DataAnalyzer class
@@ -149,6 +151,40 @@ public class DataAnalyzerTest {
         assertEquals("", outContentError.toString());
     }
 
+    /**
+     * Tests that the batch occupancy check agrees with the single room check for every room
+     */
+    @Test
+    public void testCheckOccupancyAll() {
+        Map<String, Integer> occupancy = dataAnalyzer.checkOccupancyAll();
+
+        assertEquals(dataStore.getSensorLocationMap().keySet(), occupancy.keySet());
+        for (Map.Entry<String, Integer> entry : occupancy.entrySet()) {
+            String[] location = entry.getKey().split(Constants.BUILDING_AREA_NAME_SEPARATOR);
+            assertEquals(dataAnalyzer.checkOccupancy(location[0], location[1]), entry.getValue().intValue());
+        }
+    }
+
+    /**
+     * Tests the batch occupancy check for a single building
+     */
+    @Test
+    public void testCheckOccupancyForBuilding() {
+        assertEquals("[Reynolds~001, Reynolds~002, Reynolds~003]", dataAnalyzer.checkOccupancyForBuilding("Reynolds").keySet().toString());
+        assertTrue(dataAnalyzer.checkOccupancyForBuilding("NotABuilding").isEmpty());
+    }
+
+    /**
+     * Tests that the occupancy window matches the individual date bounds
+     */
+    @Test
+    public void testCreateOccupancyWindow() {
+        OccupancyWindow window = dataAnalyzer.createOccupancyWindow();
+
+        assertEquals(Constants.TIME_BETWEEN_READINGS * 2L * Constants.TOTAL_MILLISECONDS_IN_A_MINUTE, window.getUpperBound() - window.getLowerBound(), 2000);
+        assertEquals(dataAnalyzer.createDateBound(false, false).getTime(), window.getCurrentTime(), 2000);
+    }
+
     /**
      * Tests the getUtilization method happy path
      */
@@ -176,6 +212,40 @@ public class DataAnalyzerTest {
         assertEquals("Number of days must not be 0\n", outContentError.toString());
     }
 
+    /**
+     * Tests the getUtilization method over a range of time
+     */
+    @Test
+    public void testGetUtilizationRange() {
+        LocalDateTime start = LocalDateTime.of(2020, 2, 8, 0, 0);
+
+        assertEquals(37.77777777777778, dataAnalyzer.getUtilization("Reynolds", "003", start, start.plusDays(1)), 1e-9);
+        assertEquals(18.888888888888889, dataAnalyzer.getUtilization("Reynolds", "003", start.minusDays(1), start.plusDays(1)), 1e-9);
+        assertEquals("", outContentError.toString());
+    }
+
+    /**
+     * Tests the getUtilization method over a range of time that is shorter than a hour
+     */
+    @Test
+    public void testGetUtilizationRangeError() {
+        LocalDateTime start = LocalDateTime.of(2020, 2, 8, 9, 0);
+
+        assertEquals(Constants.ERROR_DOUBLE_VALUE, dataAnalyzer.getUtilization("Reynolds", "003", start, start.plusMinutes(30)), 0);
+        assertEquals("Error, end must be at least one hour after start\n", outContentError.toString());
+    }
+
+    /**
+     * Tests the getOverallUtilization method over a range of time matches the day based report
+     */
+    @Test
+    public void testGetOverallUtilizationRange() {
+        LocalDateTime start = LocalDateTime.of(2020, 2, 8, 0, 0);
+
+        assertEquals(29.65277777777778, dataAnalyzer.getOverallUtilization(start, start.plusDays(1)), 1e-9);
+        assertTrue(outContent.toString().endsWith("Overall utilization for building McLaughlin is: 32.38%\n\n"));
+    }
+
     /**
      * Tests the getOverallUtilization method in a happy path
      */
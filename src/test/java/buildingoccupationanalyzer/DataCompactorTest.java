@@ -0,0 +1,100 @@
+package buildingoccupationanalyzer;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.JUnitCore;
+import org.junit.runner.Result;
+import org.junit.runner.notification.Failure;
+
+import java.io.IOException;
+import java.util.HashMap;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Class for testing the DataCompactor class
+ */
+public class DataCompactorTest {
+    private DataStore dataStore;
+    private DataAnalyzer dataAnalyzer;
+
+    /**
+     * Method for setting up test session
+     *
+     * @throws IOException if the test data fails to import
+     */
+    @Before
+    public void setup() throws IOException {
+        dataStore = new DataStore(MainApplication.initializeSensorLocationMap(), new HashMap<>());
+        dataStore.addData("DataFile_2020-02-07.csv");
+        dataStore.addData("DataFile_2020-02-09.csv");
+        dataAnalyzer = new DataAnalyzer(dataStore);
+    }
+
+    /**
+     * Tests that compaction aggregates old days without changing utilization results
+     */
+    @Test
+    public void testCompactKeepsUtilization() {
+        double before = dataAnalyzer.getUtilization("McLaughlin", "GroupStudy4", 2);
+        CompactionReport report = new DataCompactor(dataStore, new RetentionPolicy(1, 365, Constants.CURRENT_MOCK_DATE)).compact();
+
+        assertEquals(4, report.getReadingsRemoved());
+        assertEquals(1, report.getDaysAggregated());
+        assertTrue(report.getBytesReclaimed() < 4 * 32);
+        assertEquals(4, dataStore.getSensorDataMap().get("DS101").size()); //Readings after the mock date are kept raw
+        assertEquals(before, dataAnalyzer.getUtilization("McLaughlin", "GroupStudy4", 2), 0);
+    }
+
+    /**
+     * Tests that data past the hard horizon is dropped
+     */
+    @Test
+    public void testCompactDropsPastHorizon() {
+        DataCompactor compactor = new DataCompactor(dataStore, new RetentionPolicy(1, 2, Constants.CURRENT_MOCK_DATE));
+        compactor.compact();
+        compactor.setRetentionPolicy(new RetentionPolicy(1, 1, Constants.CURRENT_MOCK_DATE));
+        CompactionReport report = compactor.compact();
+
+        assertEquals(1, report.getDaysDropped());
+        assertEquals(report, compactor.getLastReport());
+        assertNull(dataStore.getHourlyAggregates().get("McLaughlin~GroupStudy4"));
+        assertEquals(0.0, dataAnalyzer.getUtilization("McLaughlin", "GroupStudy4", 2), 0);
+    }
+
+    /**
+     * Tests that compaction leaves data within the raw window untouched
+     */
+    @Test
+    public void testCompactNothingToDo() {
+        CompactionReport report = new DataCompactor(dataStore, RetentionPolicy.defaultPolicy()).compact();
+
+        assertEquals(0, report.getReadingsRemoved());
+        assertEquals(0, report.getBytesReclaimed());
+        assertEquals(8, dataStore.getSensorDataMap().get("DS101").size());
+    }
+
+    /**
+     * Tests that a invalid retention policy is rejected
+     */
+    @Test(expected = IllegalArgumentException.class)
+    public void testInvalidRetentionPolicy() {
+        new RetentionPolicy(7, 1, Constants.CURRENT_MOCK_DATE);
+    }
+
+    /**
+     * Main method for DataCompactorTest class
+     *
+     * @param args Command line arguments
+     */
+    public static void main(String[] args) {
+        Result result = JUnitCore.runClasses(DataCompactorTest.class);
+        for (Failure failure : result.getFailures()) {
+            System.out.println(failure.toString());
+        }
+
+        System.out.println(result.wasSuccessful());
+    }
+}
@@ -227,6 +227,60 @@ public class DataStoreTest {
         }
     }
 
+    /**
+     * Tests that importing a file with readings that are already stored does not duplicate them
+     */
+    @Test
+    public void testAddDataDuplicateReadings() {
+        long readingCount = dataStore.getReadingCount();
+        String before = dataStore.getSensorDataMap().get("DS101").toString();
+
+        try {
+            assertEquals(true, dataStore.addData(Constants.DATA_FILE_NAME));
+            assertEquals(false, dataStore.addData(Constants.DATA_FILE_NAME));
+        } catch (IOException e) {
+            fail();
+        }
+        assertEquals(readingCount, dataStore.getReadingCount());
+        assertEquals(before, dataStore.getSensorDataMap().get("DS101").toString());
+    }
+
+    /**
+     * Tests the mergeReadings method keeps readings sorted and drops duplicates
+     */
+    @Test
+    public void testMergeReadings() {
+        List<Date> current = new ArrayList<>();
+        List<Date> incoming = new ArrayList<>();
+        List<Date> added = new ArrayList<>();
+
+        current.add(new Date(1000));
+        current.add(new Date(3000));
+        incoming.add(new Date(4000));
+        incoming.add(new Date(3000));
+        incoming.add(new Date(2000));
+        incoming.add(new Date(2000));
+
+        assertEquals("[1000, 2000, 3000, 4000]", toMillis(DataStore.mergeReadings(current, incoming, added)));
+        assertEquals("[2000, 4000]", toMillis(added));
+        assertEquals(2, current.size());
+    }
+
+    /**
+     * Helper method for printing readings as milliseconds
+     *
+     * @param readings list of readings
+     * @return the readings as a list of milliseconds
+     */
+    private static String toMillis(List<Date> readings) {
+        List<Long> millis = new ArrayList<>();
+
+        for (Date reading : readings) {
+            millis.add(reading.getTime());
+        }
+        return millis.toString();
+    }
+
     /**
      * Main method for DataStoreTest class
      *
@@ -0,0 +1,103 @@
+package buildingoccupationanalyzer;
+
+import jdk.jfr.Configuration;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.JUnitCore;
+import org.junit.runner.Result;
+import org.junit.runner.notification.Failure;
+
+import java.io.ByteArrayOutputStream;
+import java.io.InputStreamReader;
+import java.io.PrintStream;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+/**
+ * Class for testing the flight recorder events and the shipped JFC settings profile
+ */
+public class FlightRecorderEventsTest {
+    private final ByteArrayOutputStream outContent = new ByteArrayOutputStream();
+    private final PrintStream originalOut = System.out;
+
+    /**
+     * Method for setting up test session
+     */
+    @Before
+    public void setup() { System.setOut(new PrintStream(outContent)); }
+
+    /**
+     * Method for restoring items modified by test session
+     */
+    @After
+    public void restoreStreams() { System.setOut(originalOut); }
+
+    /**
+     * Tests that importing and analyzing data emits the program events when recording with the shipped profile
+     *
+     * @throws Exception if the recording fails
+     */
+    @Test
+    public void testEventsRecorded() throws Exception {
+        Configuration configuration;
+        try (Reader reader = new InputStreamReader(getClass().getResourceAsStream("/jfr/buildingOccupancy.jfc"), StandardCharsets.UTF_8)) {
+            configuration = Configuration.create(reader);
+        }
+        Path recordingFile = Files.createTempFile("occupancy", ".jfr");
+        Map<String, Integer> eventCounts = new HashMap<>();
+        Map<String, Integer> phaseCounts = new HashMap<>();
+
+        try (Recording recording = new Recording(configuration)) {
+            recording.enable("buildingoccupationanalyzer.ReportRender").withThreshold(Duration.ZERO);
+            recording.start();
+            DataStore dataStore = new DataStore(MainApplication.initializeSensorLocationMap(), MainApplication.initializeSensorData());
+            DataAnalyzer dataAnalyzer = new DataAnalyzer(dataStore);
+            dataAnalyzer.getOverallUtilization(1);
+            dataAnalyzer.checkOccupancy("Reynolds", "003");
+            recording.stop();
+            recording.dump(recordingFile);
+        }
+
+        for (RecordedEvent event : RecordingFile.readAllEvents(recordingFile)) {
+            eventCounts.merge(event.getEventType().getName(), 1, Integer::sum);
+            if (event.getEventType().getName().equals("buildingoccupationanalyzer.AnalyzerPhase")) {
+                phaseCounts.merge(event.getString("phase"), 1, Integer::sum);
+            }
+        }
+        Files.delete(recordingFile);
+
+        assertEquals(Integer.valueOf(1), eventCounts.get("buildingoccupationanalyzer.ImportFile"));
+        assertEquals(Integer.valueOf(9), eventCounts.get("buildingoccupationanalyzer.RoomUtilization"));
+        assertEquals(Integer.valueOf(11), eventCounts.get("buildingoccupationanalyzer.ReportRender"));
+        assertEquals(Integer.valueOf(1), eventCounts.get("buildingoccupationanalyzer.OccupancyCheck"));
+        assertEquals(Integer.valueOf(9), phaseCounts.get(AnalyzerPhaseEvent.DOOR_INTERVAL_EXPANSION)); //One per room/area, not per door pair
+        assertEquals(Integer.valueOf(9), phaseCounts.get(AnalyzerPhaseEvent.OCCUPANCY_BITMAP));
+        assertNull(eventCounts.get("jdk.ObjectAllocationInNewTLAB"));
+    }
+
+    /**
+     * Main method for FlightRecorderEventsTest class
+     *
+     * @param args Command line arguments
+     */
+    public static void main(String[] args) {
+        Result result = JUnitCore.runClasses(FlightRecorderEventsTest.class);
+        for (Failure failure : result.getFailures()) {
+            System.out.println(failure.toString());
+        }
+
+        System.out.println(result.wasSuccessful());
+    }
+}
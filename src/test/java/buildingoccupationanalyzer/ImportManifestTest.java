@@ -0,0 +1,73 @@
+package buildingoccupationanalyzer;
+
+import org.junit.Test;
+import org.junit.runner.JUnitCore;
+import org.junit.runner.Result;
+import org.junit.runner.notification.Failure;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.FileNotFoundException;
+import java.io.IOException;
+
+/**
+ * Class for testing the ImportManifest class
+ */
+public class ImportManifestTest {
+
+    /**
+     * Tests that fingerprints are stable and differ between files
+     *
+     * @throws IOException if a data file can not be read
+     */
+    @Test
+    public void testFingerprint() throws IOException {
+        String fingerprint = ImportManifest.fingerprint("DataFile_2020-02-08.csv");
+
+        assertEquals(64, fingerprint.length());
+        assertEquals(fingerprint, ImportManifest.fingerprint("DataFile_2020-02-08.csv"));
+        assertNotEquals(fingerprint, ImportManifest.fingerprint("DataFile_2020-02-09.csv"));
+    }
+
+    /**
+     * Tests recording imported files
+     *
+     * @throws IOException if a data file can not be read
+     */
+    @Test
+    public void testRecord() throws IOException {
+        ImportManifest manifest = new ImportManifest();
+
+        assertFalse(manifest.contains(ImportManifest.fingerprint("DataFile_2020-02-07.csv")));
+        manifest.record("DataFile_2020-02-07.csv");
+        assertTrue(manifest.contains(ImportManifest.fingerprint("DataFile_2020-02-07.csv")));
+        assertEquals("[DataFile_2020-02-07.csv]", manifest.getEntries().keySet().toString());
+    }
+
+    /**
+     * Tests the fingerprint of a file that does not exist
+     *
+     * @throws IOException Should be thrown by the test to pass
+     */
+    @Test(expected = FileNotFoundException.class)
+    public void testFingerprintMissingFile() throws IOException {
+        ImportManifest.fingerprint("InvalidFileName");
+    }
+
+    /**
+     * Main method for ImportManifestTest class
+     *
+     * @param args Command line arguments
+     */
+    public static void main(String[] args) {
+        Result result = JUnitCore.runClasses(ImportManifestTest.class);
+        for (Failure failure : result.getFailures()) {
+            System.out.println(failure.toString());
+        }
+
+        System.out.println(result.wasSuccessful());
+    }
+}
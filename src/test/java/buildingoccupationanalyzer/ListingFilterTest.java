@@ -0,0 +1,124 @@
+package buildingoccupationanalyzer;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.JUnitCore;
+import org.junit.runner.Result;
+import org.junit.runner.notification.Failure;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.io.IOException;
+import java.io.StringWriter;
+
+/**
+ * Class for testing the ListingFilter class and the streamed listings of the DataStore class
+ */
+public class ListingFilterTest {
+    private DataStore dataStore;
+
+    /**
+     * Method for setting up test session
+     */
+    @Before
+    public void setup() {
+        dataStore = new DataStore(MainApplication.initializeSensorLocationMap(), MainApplication.initializeSensorData());
+    }
+
+    /**
+     * Tests parsing listing command arguments
+     */
+    @Test
+    public void testParse() {
+        ListingFilter filter = ListingFilter.parse("ls all CS page 2".split(" "));
+
+        assertEquals(2, filter.getPage());
+        assertTrue(filter.matchesBuilding("Reynolds"));
+        assertTrue(filter.matchesSensor("CS107"));
+        assertFalse(filter.matchesSensor("DS107"));
+
+        filter = ListingFilter.parse("da Reynolds".split(" "));
+        assertEquals(0, filter.getPage());
+        assertFalse(filter.filtersSensors());
+        assertFalse(filter.matchesBuilding("McLaughlin"));
+    }
+
+    /**
+     * Tests that a page must be a positive number
+     */
+    @Test(expected = IllegalArgumentException.class)
+    public void testParseInvalidPage() {
+        ListingFilter.parse("db page 0".split(" "));
+    }
+
+    /**
+     * Tests selecting entries of a page
+     */
+    @Test
+    public void testIsOnPage() {
+        ListingFilter filter = new ListingFilter(null, null, 2, 3);
+
+        assertFalse(filter.isOnPage(2));
+        assertTrue(filter.isOnPage(3));
+        assertTrue(filter.isOnPage(5));
+        assertFalse(filter.isOnPage(6));
+        assertTrue(ListingFilter.all().isOnPage(1000));
+    }
+
+    /**
+     * Tests listing the sensors of a building filtered by sensor type
+     *
+     * @throws IOException if the writer fails
+     */
+    @Test
+    public void testWriteSensorsFiltered() throws IOException {
+        StringWriter writer = new StringWriter();
+
+        assertEquals(1, dataStore.writeSensors(writer, ListingFilter.parse("ls Reynolds CS".split(" "))));
+        assertEquals("\nListing sensors in building:\nReynolds\nAnd in the area:\n003\n[CS107, CS108]\n", writer.toString());
+    }
+
+    /**
+     * Tests listing one page of areas/rooms, building headers are repeated on the page an area/room starts on
+     *
+     * @throws IOException if the writer fails
+     */
+    @Test
+    public void testWriteAreasPaged() throws IOException {
+        StringWriter writer = new StringWriter();
+        ListingFilter filter = new ListingFilter(null, null, 2, 5);
+
+        assertEquals(9, dataStore.writeAreas(writer, filter));
+        filter.writeFooter(9, writer);
+        assertEquals("\n\nMcLaughlin:\nSecondFloor\n\nReynolds:\n001\n002\n003\nPage 2 of 2 (9 entries)", writer.toString());
+    }
+
+    /**
+     * Tests listing one page of buildings
+     *
+     * @throws IOException if the writer fails
+     */
+    @Test
+    public void testWriteBuildingsPaged() throws IOException {
+        StringWriter writer = new StringWriter();
+
+        assertEquals(2, dataStore.writeBuildings(writer, new ListingFilter(null, null, 2, 1)));
+        assertEquals("\nMcLaughlin", writer.toString());
+    }
+
+    /**
+     * Main method for ListingFilterTest class
+     *
+     * @param args Command line arguments
+     */
+    public static void main(String[] args) {
+        Result result = JUnitCore.runClasses(ListingFilterTest.class);
+        for (Failure failure : result.getFailures()) {
+            System.out.println(failure.toString());
+        }
+
+        System.out.println(result.wasSuccessful());
+    }
+}
@@ -0,0 +1,170 @@
+package buildingoccupationanalyzer;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.JUnitCore;
+import org.junit.runner.Result;
+import org.junit.runner.notification.Failure;
+
+import java.time.Clock;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.HashMap;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+/**
+ * Class for testing the LiveOccupancyTable and RoomOccupancyState classes
+ */
+public class LiveOccupancyTableTest {
+    private static final long MINUTE = Constants.TOTAL_MILLISECONDS_IN_A_MINUTE;
+
+    private DataStore dataStore;
+
+    /**
+     * Method for setting up test session
+     */
+    @Before
+    public void setup() {
+        HashMap<String, ArrayList<String>> locations = new HashMap<>();
+        locations.put("Hall~Lab", new ArrayList<>(Arrays.asList("DS1", "CS1")));
+        locations.put("Hall~Office", new ArrayList<>(Arrays.asList("DS2")));
+        dataStore = new DataStore(locations, new HashMap<>());
+    }
+
+    /**
+     * Tests that ceiling readings keep a room occupied for the reading window only
+     */
+    @Test
+    public void testCeilingReading() {
+        dataStore.ingest("CS1", new Date(100 * MINUTE));
+        LiveOccupancyTable table = dataStore.getLiveOccupancy();
+
+        assertEquals(1, table.getOccupancy("Hall~Lab", 100 * MINUTE + 30000));
+        assertEquals(0, table.getOccupancy("Hall~Lab", 102 * MINUTE));
+        assertEquals(0, table.getOccupancy("Hall~Office", 100 * MINUTE));
+    }
+
+    /**
+     * Tests that door readings only count as occupied once a interval is closed, and that a late door reading pairs the
+     * readings up again
+     */
+    @Test
+    public void testDoorInterval() {
+        LiveOccupancyTable table = dataStore.getLiveOccupancy();
+
+        dataStore.ingest("DS2", new Date(10 * MINUTE));
+        assertEquals(0, table.getOccupancy("Hall~Office", 20 * MINUTE));
+        dataStore.ingest("DS2", new Date(30 * MINUTE));
+        assertEquals(1, table.getOccupancy("Hall~Office", 20 * MINUTE));
+        assertEquals(0, table.getOccupancy("Hall~Office", 40 * MINUTE));
+        assertEquals(30 * MINUTE, table.getState("Hall~Office").getLastDoorReading());
+
+        dataStore.ingest("DS2", new Date(5 * MINUTE));
+        assertEquals(1, table.getOccupancy("Hall~Office", 7 * MINUTE));
+        assertEquals(0, table.getOccupancy("Hall~Office", 20 * MINUTE));
+    }
+
+    /**
+     * Tests that a late ceiling reading is applied to the state in place, the state keeps only the latest reading and
+     * answers earlier times from the stored readings
+     */
+    @Test
+    public void testLateCeilingReading() {
+        LiveOccupancyTable table = dataStore.getLiveOccupancy();
+
+        dataStore.ingest("CS1", new Date(100 * MINUTE));
+        RoomOccupancyState state = table.getState("Hall~Lab");
+        dataStore.ingest("CS1", new Date(10 * MINUTE));
+
+        assertSame(state, table.getState("Hall~Lab"));
+        assertEquals(100 * MINUTE, state.getLastCeilingReading());
+        assertEquals(1, table.getOccupancy("Hall~Lab", 10 * MINUTE));
+        assertEquals(0, table.getOccupancy("Hall~Lab", 50 * MINUTE));
+        assertEquals(1, table.getOccupancy("Hall~Lab", 100 * MINUTE));
+    }
+
+    /**
+     * Tests the lookups for unknown rooms and sensors
+     */
+    @Test
+    public void testUnknownRoomAndSensor() {
+        LiveOccupancyTable table = dataStore.getLiveOccupancy();
+
+        assertEquals(-1, table.getOccupancy("Hall~Nowhere", 0));
+        assertNull(table.recordReading("CS999", 0));
+        assertEquals("{Hall~Office=0}", table.getOccupancy(Arrays.asList("Hall~Nowhere", "Hall~Office"), 0).toString());
+    }
+
+    /**
+     * Tests that the table is rebuilt from imported files
+     */
+    @Test
+    public void testRebuildFromImport() {
+        DataStore campus = new DataStore(MainApplication.initializeSensorLocationMap(), MainApplication.initializeSensorData());
+        RoomOccupancyState state = campus.getLiveOccupancy().getState("Reynolds~003");
+        long latestCeilingReading = 0;
+
+        for (Date reading : campus.getSensorDataMap().get("CS107")) {
+            latestCeilingReading = Math.max(latestCeilingReading, reading.getTime());
+        }
+        for (Date reading : campus.getSensorDataMap().get("CS108")) {
+            latestCeilingReading = Math.max(latestCeilingReading, reading.getTime());
+        }
+
+        assertEquals(latestCeilingReading, state.getLastCeilingReading());
+        assertEquals(9, new DataAnalyzer(campus).getLiveOccupancyAll(null).size());
+    }
+
+    /**
+     * Tests that the live occupancy matches checkOccupancy for every room/area at times spread over the mock day, also
+     * after late door readings change how the stored readings pair up
+     */
+    @Test
+    public void testMatchesCheckOccupancy() {
+        DataStore campus = new DataStore(MainApplication.initializeSensorLocationMap(), MainApplication.initializeSensorData());
+        long dayStart = LocalDate.parse(Constants.CURRENT_MOCK_DATE).atStartOfDay(ZoneId.systemDefault()).toInstant().toEpochMilli();
+
+        assertLiveMatchesChecks(campus, dayStart);
+        campus.ingest("DS108", new Date(dayStart + 9 * 60 * MINUTE + 1000));
+        campus.ingest("DS101", new Date(dayStart + 14 * 60 * MINUTE + 2000));
+        campus.ingest("CS107", new Date(dayStart + 11 * 60 * MINUTE));
+        assertLiveMatchesChecks(campus, dayStart);
+        campus.flushWriteBuffer();
+        assertLiveMatchesChecks(campus, dayStart);
+    }
+
+    /**
+     * Helper method for checking the live occupancy of every room/area against checkOccupancy over the mock day
+     *
+     * @param campus   data store to check
+     * @param dayStart start of the mock day in milliseconds
+     */
+    private static void assertLiveMatchesChecks(DataStore campus, long dayStart) {
+        for (int minute = 0; minute < Constants.TOTAL_MINUTES_IN_A_DAY; minute += 13) {
+            Clock clock = Clock.fixed(new Date(dayStart + minute * MINUTE).toInstant(), ZoneId.systemDefault());
+            DataAnalyzer analyzer = new DataAnalyzer(campus, clock);
+
+            assertEquals("minute " + minute, analyzer.checkOccupancyAll(), analyzer.getLiveOccupancyAll(null));
+        }
+    }
+
+    /**
+     * Main method for LiveOccupancyTableTest class
+     *
+     * @param args Command line arguments
+     */
+    public static void main(String[] args) {
+        Result result = JUnitCore.runClasses(LiveOccupancyTableTest.class);
+        for (Failure failure : result.getFailures()) {
+            System.out.println(failure.toString());
+        }
+
+        System.out.println(result.wasSuccessful());
+    }
+}
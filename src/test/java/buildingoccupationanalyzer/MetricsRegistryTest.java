@@ -0,0 +1,155 @@
+package buildingoccupationanalyzer;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.JUnitCore;
+import org.junit.runner.Result;
+import org.junit.runner.notification.Failure;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.lang.ref.WeakReference;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Class for testing the MetricsRegistry, Counter and LatencyHistogram classes
+ */
+public class MetricsRegistryTest {
+    private static final int GC_ATTEMPTS = 50;
+    private static final long GC_WAIT_MILLISECONDS = 20;
+
+    private MetricsRegistry registry;
+
+    /**
+     * Method for setting up test session
+     */
+    @Before
+    public void setup() { registry = new MetricsRegistry(); }
+
+    /**
+     * Tests that counters are shared by name
+     */
+    @Test
+    public void testCounter() {
+        registry.counter("test_total", "help").increment();
+        registry.counter("test_total", "help").add(4);
+        assertEquals(5, registry.counter("test_total", "help").getValue());
+    }
+
+    /**
+     * Tests the histogram percentile estimates
+     */
+    @Test
+    public void testHistogramPercentiles() {
+        LatencyHistogram histogram = registry.histogram("test_seconds", "help");
+
+        for (int i = 0; i < 99; i++) {
+            histogram.record(1000);
+        }
+        histogram.record(5000000);
+
+        assertEquals(100, histogram.getCount());
+        assertEquals(1024, histogram.getPercentile(50));
+        assertEquals(1024, histogram.getPercentile(99));
+        assertEquals(8388608, histogram.getPercentile(100));
+        assertEquals(0, registry.histogram("empty_seconds", "help").getPercentile(50));
+    }
+
+    /**
+     * Tests the Prometheus text output
+     *
+     * @throws IOException if writing fails
+     */
+    @Test
+    public void testWritePrometheus() throws IOException {
+        StringWriter writer = new StringWriter();
+        registry.counter("requests_total{kind=\"a\"}", "Requests").add(2);
+        registry.counter("requests_total{kind=\"b\"}", "Requests").add(3);
+        registry.gauge("items", "Items", () -> 7);
+        registry.histogram("latency_seconds{query=\"q\"}", "Latency").record(2000);
+
+        registry.writePrometheus(writer);
+        String output = writer.toString();
+
+        assertTrue(output.startsWith("# HELP requests_total Requests\n# TYPE requests_total counter\n"
+                + "requests_total{kind=\"a\"} 2\nrequests_total{kind=\"b\"} 3\n"
+                + "# HELP items Items\n# TYPE items gauge\nitems 7\n"
+                + "# HELP latency_seconds Latency\n# TYPE latency_seconds histogram\n"
+                + "latency_seconds_bucket{query=\"q\",le=\"1.024E-6\"} 0\n"
+                + "latency_seconds_bucket{query=\"q\",le=\"2.048E-6\"} 1\n"));
+        assertTrue(output.endsWith("latency_seconds_bucket{query=\"q\",le=\"+Inf\"} 1\n"
+                + "latency_seconds_sum{query=\"q\"} 2.0E-6\nlatency_seconds_count{query=\"q\"} 1\n"));
+    }
+
+    /**
+     * Tests that data store and analyzer operations are recorded in the default registry
+     */
+    @Test
+    public void testDefaultRegistryInstrumentation() {
+        DataStore dataStore = new DataStore(MainApplication.initializeSensorLocationMap(), MainApplication.initializeSensorData());
+        LatencyHistogram occupancy = MetricsRegistry.getDefault().histogram("analyzer_query_seconds{query=\"occupancy\"}", "");
+        long before = occupancy.getCount();
+
+        new DataAnalyzer(dataStore).checkOccupancy("Reynolds", "003");
+
+        assertEquals(before + 1, occupancy.getCount());
+        assertTrue(MetricsRegistry.getDefault().getSummary().contains("datastore_readings{store=\"" + dataStore.getStoreId() + "\"} = " + dataStore.getReadingCount()));
+    }
+
+    /**
+     * Tests that the gauges of several data stores are all reported, each labelled by its store
+     */
+    @Test
+    public void testGaugesPerDataStore() {
+        DataStore first = new DataStore(MainApplication.initializeSensorLocationMap(), MainApplication.initializeSensorData());
+        DataStore second = new DataStore(MainApplication.initializeSensorLocationMap(), new HashMap<>());
+        String summary = MetricsRegistry.getDefault().getSummary();
+
+        assertTrue(summary.contains("datastore_readings{store=\"" + first.getStoreId() + "\"} = " + first.getReadingCount()));
+        assertTrue(summary.contains("datastore_readings{store=\"" + second.getStoreId() + "\"} = 0"));
+        assertTrue(first.getReadingCount() > 0);
+    }
+
+    /**
+     * Tests that a gauge read from an object reads the object and does not keep it alive
+     *
+     * @throws InterruptedException if interrupted while waiting for the object to be collected
+     */
+    @Test
+    public void testWeakGaugeDroppedWithOwner() throws InterruptedException {
+        List<String> owner = new ArrayList<>(List.of("a", "b"));
+        WeakReference<List<String>> ownerReference = new WeakReference<>(owner);
+        registry.gauge("owned_items", "Owned items", owner, List::size);
+
+        assertTrue(registry.getSummary().contains("owned_items = 2"));
+
+        owner = null;
+        for (int i = 0; i < GC_ATTEMPTS && ownerReference.get() != null; i++) {
+            System.gc();
+            Thread.sleep(GC_WAIT_MILLISECONDS);
+        }
+        assertNull(ownerReference.get());
+        assertFalse(registry.getSummary().contains("owned_items"));
+    }
+
+    /**
+     * Main method for MetricsRegistryTest class
+     *
+     * @param args Command line arguments
+     */
+    public static void main(String[] args) {
+        Result result = JUnitCore.runClasses(MetricsRegistryTest.class);
+        for (Failure failure : result.getFailures()) {
+            System.out.println(failure.toString());
+        }
+
+        System.out.println(result.wasSuccessful());
+    }
+}
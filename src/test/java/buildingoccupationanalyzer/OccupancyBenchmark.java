@@ -0,0 +1,262 @@
+package buildingoccupationanalyzer;
+
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Random;
+import java.util.Set;
+import java.util.function.Supplier;
+
+/**
+ * Benchmark harness comparing the occupied-minute representations and bitset aggregation backends of the analyzer on a
+ * generated long history
+ * Every room/area gets one ceiling and one door sensor with a few occupied stretches per day. Run it with
+ * gradle benchmark or java buildingoccupationanalyzer.OccupancyBenchmark [rooms] [days] [iterations]
+ */
+public final class OccupancyBenchmark {
+    private static final int DEFAULT_ROOMS = 40;
+    private static final int DEFAULT_DAYS = 365;
+    private static final int DEFAULT_ITERATIONS = 5;
+    private static final int STRETCHES_PER_DAY = 6;
+    private static final int MAX_STRETCH_MINUTES = 90;
+    private static final int QUERY_DAYS = 30;
+    private static final long MINUTES_MAP_ENTRY_BYTES = 48;
+    private static final double NANOS_PER_MILLI = 1e6;
+
+    private final DataAnalyzer dataAnalyzer = new DataAnalyzer(new DataStore(new HashMap<>(), new HashMap<>()));
+    private final List<List<String>> roomSensors = new ArrayList<>();
+    private final HashMap<String, ArrayList<Date>> sensorData = new HashMap<>();
+    private final LocalDate firstDay;
+    private final LocalDate lastDay;
+    private final int iterations;
+
+    /**
+     * Constructor for OccupancyBenchmark class, generates the history
+     *
+     * @param rooms              number of rooms/areas
+     * @param days               number of days of history
+     * @param incomingIterations number of timed runs per measurement, the fastest run is reported
+     */
+    private OccupancyBenchmark(int rooms, int days, int incomingIterations) {
+        Random random = new Random(1);
+        this.firstDay = LocalDate.parse(Constants.CURRENT_MOCK_DATE).minusDays(days - 1);
+        this.lastDay = this.firstDay.plusDays(days - 1);
+        this.iterations = incomingIterations;
+        for (int room = 0; room < rooms; room++) {
+            String ceilingSensor = Constants.CEILING_SENSOR_ID + room;
+            String doorSensor = Constants.DOOR_SENSOR_ID + room;
+            ArrayList<Date> ceilingReadings = new ArrayList<>();
+            ArrayList<Date> doorReadings = new ArrayList<>();
+
+            for (int day = 0; day < days; day++) {
+                long dayStart = this.firstDay.plusDays(day).atStartOfDay(ZoneId.systemDefault()).toInstant().toEpochMilli();
+
+                for (int stretch = 0; stretch < STRETCHES_PER_DAY; stretch++) {
+                    long start = dayStart + (long) (stretch * 2 + 1) * Constants.TOTAL_MINUTES_IN_HOUR * Constants.TOTAL_MILLISECONDS_IN_A_MINUTE;
+                    int length = 1 + random.nextInt(MAX_STRETCH_MINUTES);
+
+                    if (random.nextBoolean()) {
+                        for (int minute = 0; minute < length; minute++) {
+                            ceilingReadings.add(new Date(start + (long) minute * Constants.TOTAL_MILLISECONDS_IN_A_MINUTE));
+                        }
+                    } else {
+                        doorReadings.add(new Date(start));
+                        doorReadings.add(new Date(start + (long) length * Constants.TOTAL_MILLISECONDS_IN_A_MINUTE));
+                    }
+                }
+            }
+            this.roomSensors.add(Arrays.asList(ceilingSensor, doorSensor));
+            this.sensorData.put(ceilingSensor, ceilingReadings);
+            this.sensorData.put(doorSensor, doorReadings);
+        }
+    }
+
+    /**
+     * Main method for OccupancyBenchmark class
+     *
+     * @param args number of rooms/areas, days and iterations, all optional
+     */
+    public static void main(String[] args) {
+        int rooms = args.length > 0 ? Integer.parseInt(args[0]) : DEFAULT_ROOMS;
+        int days = args.length > 1 ? Integer.parseInt(args[1]) : DEFAULT_DAYS;
+        int iterations = args.length > 2 ? Integer.parseInt(args[2]) : DEFAULT_ITERATIONS;
+
+        System.out.println("Occupancy benchmark: " + rooms + " rooms/areas, " + days + " days, best of " + iterations + " runs");
+        new OccupancyBenchmark(rooms, days, iterations).run();
+    }
+
+    /**
+     * Method for running every measurement
+     */
+    private void run() {
+        List<HashMap<String, HashMap<Integer, String>>> minutesMaps = time("build minutes maps", () -> {
+            List<HashMap<String, HashMap<Integer, String>>> maps = new ArrayList<>();
+            for (List<String> sensors : this.roomSensors) {
+                maps.add(this.dataAnalyzer.buildMinutesMap(sensors, this.sensorData));
+            }
+            return maps;
+        });
+        List<OccupancyBitmap> bitmaps = time("build bitmaps", () -> {
+            List<OccupancyBitmap> built = new ArrayList<>();
+            for (List<String> sensors : this.roomSensors) {
+                built.add(this.dataAnalyzer.buildOccupancyBitmap(sensors, this.sensorData));
+            }
+            return built;
+        });
+        long mapEntries = 0;
+        long bitmapBytes = 0;
+
+        for (int i = 0; i < bitmaps.size(); i++) {
+            for (HashMap<Integer, String> day : minutesMaps.get(i).values()) {
+                mapEntries += day.size();
+            }
+            bitmapBytes += bitmaps.get(i).getMemoryBytes();
+        }
+        System.out.println(String.format(Locale.ROOT, "  memory: minutes maps ~%d KiB (%d minutes), bitmaps ~%d KiB", mapEntries * MINUTES_MAP_ENTRY_BYTES / 1024, mapEntries, bitmapBytes / 1024));
+
+        List<String> queryDays = this.dataAnalyzer.getValidDates(QUERY_DAYS);
+        long queryStart = this.lastDay.minusDays(QUERY_DAYS - 1).toEpochDay() * Constants.TOTAL_MINUTES_IN_A_DAY;
+        long queryEnd = (this.lastDay.toEpochDay() + 1) * Constants.TOTAL_MINUTES_IN_A_DAY;
+        long mapMinutes = time("utilization, minutes maps", () -> {
+            long total = 0;
+            for (HashMap<String, HashMap<Integer, String>> map : minutesMaps) {
+                for (String key : map.keySet()) {
+                    total += queryDays.indexOf(key) != -1 ? map.get(key).size() : 0;
+                }
+            }
+            return total;
+        });
+        long bitmapMinutes = time("utilization, bitmaps", () -> {
+            long total = 0;
+            for (OccupancyBitmap bitmap : bitmaps) {
+                total += bitmap.getCardinality(queryStart, queryEnd);
+            }
+            return total;
+        });
+        check(mapMinutes, bitmapMinutes);
+
+        long mapUnion = time("campus OR, minutes maps", () -> {
+            Set<String> union = new HashSet<>();
+            for (HashMap<String, HashMap<Integer, String>> map : minutesMaps) {
+                map.forEach((day, minutes) -> minutes.keySet().forEach(minute -> union.add(day + Constants.BUILDING_AREA_NAME_SEPARATOR + minute)));
+            }
+            return (long) union.size();
+        });
+        long bitmapUnion = time("campus OR, bitmaps", () -> OccupancyBitmap.orAll(bitmaps).getCardinality());
+        check(mapUnion, bitmapUnion);
+        time("campus AND, bitmaps", () -> {
+            OccupancyBitmap intersection = bitmaps.get(0);
+            for (int i = 1; i < bitmaps.size(); i++) {
+                intersection = intersection.and(bitmaps.get(i));
+            }
+            return intersection.getCardinality();
+        });
+        runAggregators(bitmaps);
+        runStorage(bitmaps);
+    }
+
+    /**
+     * Method for timing scans of the readings held plain and compressed by a data store, the whole history is walked
+     * the way the occupancy index builds room/area bitmaps and the last QUERY_DAYS days the way finer resolutions do
+     *
+     * @param bitmaps bitmap of each room/area built from the generated readings
+     */
+    private void runStorage(List<OccupancyBitmap> bitmaps) {
+        HashMap<String, ArrayList<String>> locations = new HashMap<>();
+        long windowStart = this.lastDay.minusDays(QUERY_DAYS - 1).atStartOfDay(ZoneId.systemDefault()).toInstant().toEpochMilli();
+        long windowEnd = this.lastDay.plusDays(1).atStartOfDay(ZoneId.systemDefault()).toInstant().toEpochMilli();
+
+        for (int room = 0; room < this.roomSensors.size(); room++) {
+            locations.put("Benchmark" + Constants.BUILDING_AREA_NAME_SEPARATOR + room, new ArrayList<>(this.roomSensors.get(room)));
+        }
+        for (boolean compressed : new boolean[] {false, true}) {
+            DataStore dataStore = new DataStore(locations, new HashMap<>(this.sensorData), compressed);
+            DataAnalyzer analyzer = new DataAnalyzer(dataStore);
+            String name = compressed ? "compressed" : "plain";
+
+            System.out.println(String.format(Locale.ROOT, "  reading memory, %-15s %10d KiB", name, dataStore.getReadingMemoryBytes() / 1024));
+            long minutes = time("scan history, " + name, () -> {
+                long total = 0;
+                for (List<String> sensors : this.roomSensors) {
+                    total += analyzer.buildOccupancyBitmap(sensors).getCardinality();
+                }
+                return total;
+            });
+            time("scan " + QUERY_DAYS + " days, " + name, () -> {
+                long total = 0;
+                for (List<String> sensors : this.roomSensors) {
+                    for (String sensor : sensors) {
+                        ReadingCursor cursor = dataStore.getReadingCursor(sensor, windowStart, windowEnd);
+                        while (cursor.next()) {
+                            total++;
+                        }
+                    }
+                }
+                return total;
+            });
+            check(bitmaps.stream().mapToLong(OccupancyBitmap::getCardinality).sum(), minutes);
+        }
+    }
+
+    /**
+     * Method for timing the bitset aggregation backend on the whole history of every room/area
+     *
+     * @param bitmaps bitmap of each room/area
+     */
+    private void runAggregators(List<OccupancyBitmap> bitmaps) {
+        long startMinute = this.firstDay.toEpochDay() * Constants.TOTAL_MINUTES_IN_A_DAY;
+        int minutes = (int) ((this.lastDay.toEpochDay() + 1) * Constants.TOTAL_MINUTES_IN_A_DAY - startMinute);
+        List<long[]> roomWords = new ArrayList<>();
+        long[] businessHours = DataAnalyzer.createBusinessHoursMask(minutes);
+        BitsetAggregator aggregator = new ScalarBitsetAggregator();
+
+        for (OccupancyBitmap bitmap : bitmaps) {
+            roomWords.add(bitmap.toWords(startMinute, startMinute + minutes));
+        }
+        long occupied = time("campus OR, " + aggregator.getName(), () -> aggregator.popcount(aggregator.or(roomWords)));
+        time("business hours AND, " + aggregator.getName(), () -> aggregator.popcount(aggregator.and(Arrays.asList(aggregator.or(roomWords), businessHours))));
+        int[] counts = time("rooms per minute, " + aggregator.getName(), () -> aggregator.countPerBit(roomWords, minutes));
+
+        check(OccupancyBitmap.orAll(bitmaps).getCardinality(startMinute, startMinute + minutes), occupied);
+        check(bitmaps.stream().mapToLong(bitmap -> bitmap.getCardinality(startMinute, startMinute + minutes)).sum(), Arrays.stream(counts).asLongStream().sum());
+    }
+
+    /**
+     * Helper method for timing a measurement, the fastest of the configured runs is printed
+     *
+     * @param name        name of the measurement
+     * @param measurement work to time
+     * @param <T>         type of the result
+     * @return the result of the last run
+     */
+    private <T> T time(String name, Supplier<T> measurement) {
+        long best = Long.MAX_VALUE;
+        T result = null;
+
+        for (int i = 0; i < this.iterations; i++) {
+            long startTime = System.nanoTime();
+            result = measurement.get();
+            best = Math.min(best, System.nanoTime() - startTime);
+        }
+        System.out.println(String.format(Locale.ROOT, "  %-30s %10.3f ms", name, best / NANOS_PER_MILLI));
+        return result;
+    }
+
+    /**
+     * Helper method for checking that both representations gave the same answer
+     *
+     * @param expected answer of the reference representation
+     * @param actual   answer of the compared representation
+     */
+    private static void check(long expected, long actual) {
+        if (expected != actual) {
+            throw new IllegalStateException("Result " + actual + " differs from reference result " + expected);
+        }
+    }
+}
@@ -0,0 +1,191 @@
+package buildingoccupationanalyzer;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.JUnitCore;
+import org.junit.runner.Result;
+import org.junit.runner.notification.Failure;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+/**
+ * Class for testing the OccupancyBitmap class and the occupancy bitmaps of the OccupancyIndex class
+ */
+public class OccupancyBitmapTest {
+    private static final long BASE = 400L * OccupancyBitmap.CHUNK_SIZE;
+
+    private DataStore dataStore;
+    private DataAnalyzer dataAnalyzer;
+
+    /**
+     * Method for setting up test session
+     */
+    @Before
+    public void setup() {
+        dataStore = new DataStore(MainApplication.initializeSensorLocationMap(), MainApplication.initializeSensorData());
+        dataAnalyzer = new DataAnalyzer(dataStore);
+    }
+
+    /**
+     * Tests that each chunk is held in the smallest container
+     */
+    @Test
+    public void testContainerSelection() {
+        OccupancyBitmap.Builder builder = OccupancyBitmap.builder();
+
+        for (int i = 0; i < 100; i++) {
+            builder.add(BASE + i * 7);
+        }
+        builder.addRange(BASE + OccupancyBitmap.CHUNK_SIZE, BASE + 2L * OccupancyBitmap.CHUNK_SIZE);
+        for (int i = 0; i < OccupancyBitmap.CHUNK_SIZE; i += 2) {
+            builder.add(BASE + 2L * OccupancyBitmap.CHUNK_SIZE + i);
+        }
+        OccupancyBitmap bitmap = builder.build();
+
+        assertEquals("array,run,bitset", bitmap.getContainerKinds());
+        assertEquals(100 + OccupancyBitmap.CHUNK_SIZE + OccupancyBitmap.CHUNK_SIZE / 2, bitmap.getCardinality());
+        assertEquals(BASE, bitmap.getFirstMinute());
+        assertEquals(BASE + 3L * OccupancyBitmap.CHUNK_SIZE - 2, bitmap.getLastMinute());
+        assertTrue(OccupancyBitmap.empty().isEmpty());
+        assertEquals(-1, OccupancyBitmap.empty().getFirstMinute());
+    }
+
+    /**
+     * Tests range cardinality, membership, OR and AND against a plain bit set on random minutes
+     */
+    @Test
+    public void testAgainstBitSet() {
+        Random random = new Random(42);
+        BitSet[] expected = {new BitSet(), new BitSet()};
+        OccupancyBitmap[] bitmaps = new OccupancyBitmap[2];
+        int span = 3 * OccupancyBitmap.CHUNK_SIZE;
+
+        for (int b = 0; b < bitmaps.length; b++) {
+            OccupancyBitmap.Builder builder = OccupancyBitmap.builder();
+            for (int i = 0; i < 400; i++) {
+                int start = random.nextInt(span);
+                int length = random.nextInt(b == 0 ? 3 : 500);
+
+                builder.addRange(BASE + start, BASE + start + length);
+                expected[b].set(start, start + length);
+            }
+            bitmaps[b] = builder.build();
+        }
+        BitSet union = (BitSet) expected[0].clone();
+        BitSet intersection = (BitSet) expected[0].clone();
+        union.or(expected[1]);
+        intersection.and(expected[1]);
+        OccupancyBitmap unionBitmap = bitmaps[0].or(bitmaps[1]);
+        OccupancyBitmap intersectionBitmap = bitmaps[0].and(bitmaps[1]);
+
+        for (int i = 0; i < 200; i++) {
+            int from = random.nextInt(span);
+            int to = from + random.nextInt(span - from + 1);
+
+            assertEquals(expected[0].get(from, to).cardinality(), bitmaps[0].getCardinality(BASE + from, BASE + to));
+            assertEquals(expected[1].get(from, to).cardinality(), bitmaps[1].getCardinality(BASE + from, BASE + to));
+            assertEquals(union.get(from, to).cardinality(), unionBitmap.getCardinality(BASE + from, BASE + to));
+            assertEquals(intersection.get(from, to).cardinality(), intersectionBitmap.getCardinality(BASE + from, BASE + to));
+            assertEquals(expected[0].get(from), bitmaps[0].contains(BASE + from));
+        }
+        assertEquals(union.cardinality(), OccupancyBitmap.orAll(Arrays.asList(bitmaps)).getCardinality());
+        assertFalse(bitmaps[0].contains(BASE - 1));
+    }
+
+    /**
+     * Tests that the chunk cardinality bounds enclose the exact count of any range and are exact for whole chunks
+     */
+    @Test
+    public void testCardinalityBounds() {
+        Random random = new Random(5);
+        OccupancyBitmap.Builder builder = OccupancyBitmap.builder();
+        int span = 3 * OccupancyBitmap.CHUNK_SIZE;
+
+        builder.addRange(BASE, BASE + OccupancyBitmap.CHUNK_SIZE - 10);
+        for (int i = 0; i < 300; i++) {
+            int start = OccupancyBitmap.CHUNK_SIZE + random.nextInt(span - OccupancyBitmap.CHUNK_SIZE);
+            builder.addRange(BASE + start, BASE + start + random.nextInt(200));
+        }
+        OccupancyBitmap bitmap = builder.build();
+
+        for (int i = 0; i < 200; i++) {
+            int from = random.nextInt(span);
+            int to = from + random.nextInt(span - from + 1);
+            long exact = bitmap.getCardinality(BASE + from, BASE + to);
+
+            assertTrue(bitmap.getCardinalityLowerBound(BASE + from, BASE + to) <= exact);
+            assertTrue(bitmap.getCardinalityUpperBound(BASE + from, BASE + to) >= exact);
+        }
+        assertEquals(bitmap.getCardinality(), bitmap.getCardinalityLowerBound(BASE, BASE + span));
+        assertEquals(bitmap.getCardinality(), bitmap.getCardinalityUpperBound(BASE, BASE + span));
+        assertEquals(OccupancyBitmap.CHUNK_SIZE - 20, bitmap.getCardinalityLowerBound(BASE + 10, BASE + OccupancyBitmap.CHUNK_SIZE));
+        assertEquals(0, bitmap.getCardinalityLowerBound(BASE + 5, BASE + 10));
+        assertEquals(5, bitmap.getCardinalityUpperBound(BASE + 5, BASE + 10));
+        assertEquals(0, bitmap.getCardinalityUpperBound(BASE + 10, BASE + 10));
+    }
+
+    /**
+     * Tests that each rooms bitmap holds the same minutes as the minutes map of its readings
+     */
+    @Test
+    public void testRoomBitmapsMatchMinutesMap() {
+        for (Map.Entry<String, ArrayList<String>> room : dataStore.getSensorLocationMap().entrySet()) {
+            HashMap<String, HashMap<Integer, String>> minutesMap = dataAnalyzer.buildMinutesMap(room.getValue(), dataStore.getSensorData(room.getValue()));
+            OccupancyBitmap bitmap = dataStore.getOccupancyIndex().getRoomBitmap(room.getKey());
+            long minutes = 0;
+
+            for (Map.Entry<String, HashMap<Integer, String>> day : minutesMap.entrySet()) {
+                String[] parts = day.getKey().split("~");
+                long dayStart = LocalDate.of(Integer.parseInt(parts[2]) + 1900, Integer.parseInt(parts[1]) + 1, Integer.parseInt(parts[0])).toEpochDay() * Constants.TOTAL_MINUTES_IN_A_DAY;
+
+                for (Integer minute : day.getValue().keySet()) {
+                    assertTrue(bitmap.contains(dayStart + minute));
+                }
+                minutes += day.getValue().size();
+            }
+            assertEquals(room.getKey(), minutes, bitmap.getCardinality());
+        }
+        long dayStart = LocalDate.parse(Constants.CURRENT_MOCK_DATE).toEpochDay() * Constants.TOTAL_MINUTES_IN_A_DAY;
+        assertEquals(544, dataStore.getOccupancyIndex().getRoomBitmap("Reynolds~003").getCardinality(dayStart, dayStart + Constants.TOTAL_MINUTES_IN_A_DAY));
+    }
+
+    /**
+     * Tests that building occupancy combined with OR and AND is bounded by its rooms/areas
+     */
+    @Test
+    public void testCombinedOccupiedMinutes() {
+        LocalDate day = LocalDate.parse(Constants.CURRENT_MOCK_DATE);
+        long any = dataAnalyzer.getCombinedOccupiedMinutes("Reynolds", day, day, false);
+        long all = dataAnalyzer.getCombinedOccupiedMinutes("Reynolds", day, day, true);
+        long campus = dataAnalyzer.getCombinedOccupiedMinutes(null, day, day, false);
+
+        assertTrue(any >= 544);
+        assertTrue(all <= 544);
+        assertTrue(campus >= any && campus <= Constants.TOTAL_MINUTES_IN_A_DAY);
+        assertEquals(0, dataAnalyzer.getCombinedOccupiedMinutes("NotABuilding", day, day, true));
+    }
+
+    /**
+     * Main method for OccupancyBitmapTest class
+     *
+     * @param args Command line arguments
+     */
+    public static void main(String[] args) {
+        Result result = JUnitCore.runClasses(OccupancyBitmapTest.class);
+        for (Failure failure : result.getFailures()) {
+            System.out.println(failure.toString());
+        }
+
+        System.out.println(result.wasSuccessful());
+    }
+}
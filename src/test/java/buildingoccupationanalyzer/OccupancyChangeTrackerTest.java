@@ -0,0 +1,200 @@
+package buildingoccupationanalyzer;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.JUnitCore;
+import org.junit.runner.Result;
+import org.junit.runner.notification.Failure;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Class for testing the OccupancyChangeTracker and OccupancySubscription classes
+ */
+public class OccupancyChangeTrackerTest {
+    private static final long NOW = 1581170400000L;
+    private static final long MINUTE = Constants.TOTAL_MILLISECONDS_IN_A_MINUTE;
+
+    private DataStore dataStore;
+    private OccupancyChangeTracker tracker;
+
+    /**
+     * Method for setting up test session
+     */
+    @Before
+    public void setup() {
+        HashMap<String, ArrayList<String>> locations = new HashMap<>();
+        locations.put("Test~A", new ArrayList<>(Arrays.asList("CS1", "DS1")));
+        locations.put("Test~B", new ArrayList<>(Arrays.asList("CS2")));
+        locations.put("Other~C", new ArrayList<>(Arrays.asList("CS3")));
+        dataStore = new DataStore(locations, new HashMap<>());
+        tracker = dataStore.getLiveOccupancy().getChangeTracker();
+        setTime(NOW);
+    }
+
+    /**
+     * Helper method for setting the time the tracker checks occupancy at
+     *
+     * @param millis the time in milliseconds
+     */
+    private void setTime(long millis) {
+        tracker.setClock(Clock.fixed(Instant.ofEpochMilli(millis), ZoneId.systemDefault()));
+    }
+
+    /**
+     * Tests that a subscription starts with the current occupancy of its rooms/areas
+     *
+     * @throws InterruptedException if the test is interrupted
+     */
+    @Test
+    public void testInitialState() throws InterruptedException {
+        OccupancySubscription subscription = tracker.subscribe("Test", null);
+        OccupancyChange first = subscription.poll(0);
+        OccupancyChange second = subscription.poll(0);
+
+        assertEquals("Test", first.getBuilding());
+        assertEquals("Test", second.getBuilding());
+        assertFalse(first.isOccupied() || second.isOccupied());
+        assertTrue(second.getSequence() > first.getSequence());
+        assertNull(subscription.poll(0));
+    }
+
+    /**
+     * Tests that readings publish a change only when the occupancy flips, and that a room/area without readings becomes
+     * vacant on the next sweep
+     *
+     * @throws InterruptedException if the test is interrupted
+     */
+    @Test
+    public void testReadingsAndSweep() throws InterruptedException {
+        OccupancySubscription subscription = tracker.subscribe("Test", "A");
+        subscription.poll(0);
+
+        dataStore.ingest("CS1", new Date(NOW));
+        OccupancyChange change = subscription.poll(0);
+        assertEquals("Test~A", change.getRoomKey());
+        assertTrue(change.isOccupied());
+        assertEquals("{\"sequence\":" + change.getSequence() + ",\"building\":\"Test\",\"room\":\"A\",\"occupied\":true,\"time\":" + NOW + "}", change.toJson());
+
+        setTime(NOW + MINUTE / 2);
+        dataStore.ingest("CS1", new Date(NOW + MINUTE / 2));
+        tracker.sweep();
+        assertNull(subscription.poll(0));
+
+        setTime(NOW + 2 * MINUTE);
+        tracker.sweep();
+        assertFalse(subscription.poll(0).isOccupied());
+    }
+
+    /**
+     * Tests that subscriptions only receive changes of their rooms/areas and closed subscriptions receive none
+     *
+     * @throws InterruptedException if the test is interrupted
+     */
+    @Test
+    public void testFilter() throws InterruptedException {
+        OccupancySubscription room = tracker.subscribe("Test", "A");
+        OccupancySubscription campus = tracker.subscribe(null, null);
+        OccupancySubscription closed = tracker.subscribe("Other", null);
+
+        assertEquals(3, tracker.getSubscriptionCount());
+        closed.close();
+        assertEquals(2, tracker.getSubscriptionCount());
+        room.poll(0);
+        for (int i = 0; i < 3; i++) {
+            campus.poll(0);
+        }
+        closed.poll(0);
+
+        dataStore.ingest("CS3", new Date(NOW));
+        assertNull(room.poll(0));
+        assertNull(closed.poll(0));
+        assertEquals("Other~C", campus.poll(0).getRoomKey());
+    }
+
+    /**
+     * Tests that a subscription that falls behind drops its oldest changes and keeps the latest
+     *
+     * @throws InterruptedException if the test is interrupted
+     */
+    @Test
+    public void testOverflow() throws InterruptedException {
+        OccupancySubscription subscription = tracker.subscribe("Test", "B");
+        int flips = Constants.OCCUPANCY_SUBSCRIPTION_QUEUE_CHANGES;
+        OccupancyChange last = null;
+
+        for (int i = 0; i < flips; i++) {
+            long time = NOW + i * 2 * MINUTE;
+            setTime(time);
+            dataStore.ingest("CS2", new Date(time));
+            setTime(time + MINUTE + 1);
+            tracker.sweep();
+        }
+        assertEquals(flips + 1 - Constants.OCCUPANCY_SUBSCRIPTION_QUEUE_CHANGES + flips, subscription.getDroppedChanges());
+        for (OccupancyChange change = subscription.poll(0); change != null; change = subscription.poll(0)) {
+            last = change;
+        }
+        assertFalse(last.isOccupied());
+        assertEquals(NOW + (flips - 1) * 2 * MINUTE + MINUTE + 1, last.getTime());
+    }
+
+    /**
+     * Tests that the occupancy pushed to a campus subscription matches oc at times spread over the mock day, with
+     * readings ingested between the sweeps
+     *
+     * @throws InterruptedException if the test is interrupted
+     */
+    @Test
+    public void testChangesMatchCheckOccupancy() throws InterruptedException {
+        DataStore campus = new DataStore(MainApplication.initializeSensorLocationMap(), MainApplication.initializeSensorData());
+        OccupancyChangeTracker campusTracker = campus.getLiveOccupancy().getChangeTracker();
+        long dayStart = LocalDate.parse(Constants.CURRENT_MOCK_DATE).atStartOfDay(ZoneId.systemDefault()).toInstant().toEpochMilli();
+        Map<String, Integer> pushed = new TreeMap<>();
+        Clock clock = Clock.fixed(Instant.ofEpochMilli(dayStart), ZoneId.systemDefault());
+
+        campusTracker.setClock(clock);
+        campusTracker.sweep();
+        OccupancySubscription subscription = campusTracker.subscribe(null, null);
+        for (int minute = 0; minute < Constants.TOTAL_MINUTES_IN_A_DAY; minute += 17) {
+            clock = Clock.fixed(Instant.ofEpochMilli(dayStart + minute * MINUTE), ZoneId.systemDefault());
+            campusTracker.setClock(clock);
+            if (minute % 5 == 0) {
+                campus.ingest(minute % 2 == 0 ? "DS108" : "CS104", new Date(dayStart + (minute + 1) * MINUTE));
+            }
+            campusTracker.sweep();
+            for (OccupancyChange change = subscription.poll(0); change != null; change = subscription.poll(0)) {
+                pushed.put(change.getRoomKey(), change.isOccupied() ? 1 : 0);
+            }
+            assertEquals("minute " + minute, new TreeMap<>(new DataAnalyzer(campus, clock).checkOccupancyAll()), pushed);
+        }
+        assertEquals(0, subscription.getDroppedChanges());
+    }
+
+    /**
+     * Main method for OccupancyChangeTrackerTest class
+     *
+     * @param args Command line arguments
+     */
+    public static void main(String[] args) {
+        Result result = JUnitCore.runClasses(OccupancyChangeTrackerTest.class);
+        for (Failure failure : result.getFailures()) {
+            System.out.println(failure.toString());
+        }
+
+        System.out.println(result.wasSuccessful());
+    }
+}
@@ -0,0 +1,139 @@
+package buildingoccupationanalyzer;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.JUnitCore;
+import org.junit.runner.Result;
+import org.junit.runner.notification.Failure;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.time.Clock;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.HashMap;
+
+/**
+ * Class for testing the OccupancyEventServer class
+ */
+public class OccupancyEventServerTest {
+    private static final long NOW = 1581170400000L;
+    private static final int READ_TIMEOUT_MILLIS = 10000;
+
+    private DataStore dataStore;
+    private OccupancyEventServer server;
+
+    /**
+     * Method for setting up test session
+     *
+     * @throws IOException if the server could not be started
+     */
+    @Before
+    public void setup() throws IOException {
+        HashMap<String, ArrayList<String>> locations = new HashMap<>();
+        locations.put("Test~A", new ArrayList<>(Arrays.asList("CS1")));
+        locations.put("Test~B", new ArrayList<>(Arrays.asList("CS2")));
+        dataStore = new DataStore(locations, new HashMap<>());
+        dataStore.getLiveOccupancy().getChangeTracker().setClock(Clock.fixed(Instant.ofEpochMilli(NOW), ZoneId.systemDefault()));
+        server = new OccupancyEventServer(dataStore, 0);
+        server.start();
+    }
+
+    /**
+     * Method for cleaning up after a test
+     */
+    @After
+    public void tearDown() {
+        server.stop();
+    }
+
+    /**
+     * Helper method for opening a events stream
+     *
+     * @param query query string of the request
+     * @return the connection
+     * @throws IOException if the connection could not be opened
+     */
+    private HttpURLConnection open(String query) throws IOException {
+        HttpURLConnection connection = (HttpURLConnection) new URL("http://localhost:" + server.getPort() + OccupancyEventServer.EVENTS_PATH + query).openConnection();
+        connection.setReadTimeout(READ_TIMEOUT_MILLIS);
+        return connection;
+    }
+
+    /**
+     * Helper method for reading the data line of the next occupancy event
+     *
+     * @param reader reader of the events stream
+     * @return the data of the event
+     * @throws IOException if the stream could not be read
+     */
+    private static String readEventData(BufferedReader reader) throws IOException {
+        for (String line = reader.readLine(); line != null; line = reader.readLine()) {
+            if (line.startsWith("data: {")) {
+                return line.substring("data: ".length());
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Tests that a stream starts with the current occupancy and pushes changes as readings arrive
+     *
+     * @throws IOException if the stream could not be read
+     */
+    @Test
+    public void testStream() throws IOException {
+        HttpURLConnection connection = open("?building=Test&room=A");
+
+        assertEquals(HttpURLConnection.HTTP_OK, connection.getResponseCode());
+        assertTrue(connection.getContentType().startsWith("text/event-stream"));
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(connection.getInputStream(), StandardCharsets.UTF_8))) {
+            assertTrue(readEventData(reader).contains("\"room\":\"A\",\"occupied\":false"));
+            dataStore.ingest("CS2", new Date(NOW));
+            dataStore.ingest("CS1", new Date(NOW));
+            assertTrue(readEventData(reader).contains("\"room\":\"A\",\"occupied\":true"));
+        }
+        connection.disconnect();
+    }
+
+    /**
+     * Tests that requests for unknown buildings or rooms/areas and non GET requests are refused
+     *
+     * @throws IOException if a request could not be sent
+     */
+    @Test
+    public void testInvalidRequests() throws IOException {
+        assertEquals(HttpURLConnection.HTTP_NOT_FOUND, open("?building=Nowhere").getResponseCode());
+        assertEquals(HttpURLConnection.HTTP_NOT_FOUND, open("?building=Test&room=Z").getResponseCode());
+        assertEquals(HttpURLConnection.HTTP_BAD_REQUEST, open("?room=A").getResponseCode());
+
+        HttpURLConnection post = open("");
+        post.setRequestMethod("POST");
+        assertEquals(HttpURLConnection.HTTP_BAD_METHOD, post.getResponseCode());
+    }
+
+    /**
+     * Main method for OccupancyEventServerTest class
+     *
+     * @param args Command line arguments
+     */
+    public static void main(String[] args) {
+        Result result = JUnitCore.runClasses(OccupancyEventServerTest.class);
+        for (Failure failure : result.getFailures()) {
+            System.out.println(failure.toString());
+        }
+
+        System.out.println(result.wasSuccessful());
+    }
+}
@@ -0,0 +1,129 @@
+package buildingoccupationanalyzer;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.JUnitCore;
+import org.junit.runner.Result;
+import org.junit.runner.notification.Failure;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.IOException;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.Date;
+import java.util.HashMap;
+
+/**
+ * Class for testing the OccupancyIndex and RoomOccupancyIndex classes
+ */
+public class OccupancyIndexTest {
+    private static final LocalDateTime MOCK_DAY_START = LocalDate.parse(Constants.CURRENT_MOCK_DATE).atStartOfDay();
+    private static final LocalDateTime MOCK_DAY_END = MOCK_DAY_START.plusDays(1);
+
+    private DataStore dataStore;
+    private DataAnalyzer dataAnalyzer;
+
+    /**
+     * Method for setting up test session
+     */
+    @Before
+    public void setup() {
+        dataStore = new DataStore(MainApplication.initializeSensorLocationMap(), MainApplication.initializeSensorData());
+        dataAnalyzer = new DataAnalyzer(dataStore);
+    }
+
+    /**
+     * Tests that the index gives the same utilization as a scan of the raw readings for every room/area
+     */
+    @Test
+    public void testMatchesScan() {
+        for (String roomKey : dataStore.getSensorLocationMap().keySet()) {
+            String building = roomKey.split(Constants.BUILDING_AREA_NAME_SEPARATOR)[0];
+            String room = roomKey.split(Constants.BUILDING_AREA_NAME_SEPARATOR)[1];
+
+            assertEquals(roomKey, dataAnalyzer.getUtilization(building, room, 1),
+                    dataAnalyzer.getUtilization(building, room, MOCK_DAY_START, MOCK_DAY_END), 1e-9);
+        }
+    }
+
+    /**
+     * Tests that ranges of hours add up to the whole day and that ranges outside the indexed days are empty
+     */
+    @Test
+    public void testHourRanges() {
+        OccupancyIndex index = dataStore.getOccupancyIndex();
+        String roomKey = "Reynolds~003";
+        long morning = index.getOccupiedMinutes(roomKey, MOCK_DAY_START, MOCK_DAY_START.plusHours(12));
+        long evening = index.getOccupiedMinutes(roomKey, MOCK_DAY_START.plusHours(12), MOCK_DAY_END);
+
+        assertEquals(index.getOccupiedMinutes(roomKey, MOCK_DAY_START, MOCK_DAY_END), morning + evening);
+        assertEquals(morning + evening, index.getOccupiedMinutes(roomKey, MOCK_DAY_START.minusYears(1), MOCK_DAY_END.plusYears(1)));
+        assertEquals(0, index.getOccupiedMinutes(roomKey, MOCK_DAY_END, MOCK_DAY_END.plusDays(3)));
+        assertEquals(-1, index.getOccupiedMinutes("Nowhere~000", MOCK_DAY_START, MOCK_DAY_END));
+    }
+
+    /**
+     * Tests building a room index directly from hourly minutes, including a gap day
+     */
+    @Test
+    public void testRoomIndexBuild() {
+        HashMap<LocalDate, int[]> days = new HashMap<>();
+        int[] hours = new int[Constants.TOTAL_HOURS_IN_A_DAY];
+
+        hours[9] = 60;
+        hours[10] = 30;
+        days.put(LocalDate.of(2020, 2, 1), hours);
+        days.put(LocalDate.of(2020, 2, 3), hours);
+        RoomOccupancyIndex index = RoomOccupancyIndex.build(days);
+
+        assertEquals(180, index.getTotalOccupiedMinutes());
+        assertEquals(90, index.getOccupiedMinutes(LocalDateTime.of(2020, 2, 1, 0, 0), LocalDateTime.of(2020, 2, 3, 0, 0)));
+        assertEquals(60, index.getOccupiedMinutes(LocalDateTime.of(2020, 2, 3, 9, 45), LocalDateTime.of(2020, 2, 3, 10, 0)));
+        assertEquals(0, RoomOccupancyIndex.build(new HashMap<>()).getTotalOccupiedMinutes());
+    }
+
+    /**
+     * Tests that importing a new day updates the index
+     */
+    @Test
+    public void testAddDataUpdatesIndex() {
+        LocalDateTime nextDay = MOCK_DAY_END;
+
+        assertEquals(0, dataAnalyzer.getUtilization("McLaughlin", "GroupStudy4", nextDay, nextDay.plusDays(1)), 0);
+        try {
+            dataStore.addData("DataFile_2020-02-09.csv");
+        } catch (IOException e) {
+            fail();
+        }
+        assertTrue(dataAnalyzer.getUtilization("McLaughlin", "GroupStudy4", nextDay, nextDay.plusDays(1)) > 0);
+    }
+
+    /**
+     * Tests that a ingested reading is indexed on the next query
+     */
+    @Test
+    public void testIngestUpdatesIndex() {
+        LocalDateTime nextDay = MOCK_DAY_END;
+
+        dataStore.ingest("CS107", Date.from(nextDay.plusHours(8).atZone(ZoneId.systemDefault()).toInstant()));
+        assertEquals(1, dataStore.getOccupancyIndex().getOccupiedMinutes("Reynolds~003", nextDay, nextDay.plusDays(1)));
+    }
+
+    /**
+     * Main method for OccupancyIndexTest class
+     *
+     * @param args Command line arguments
+     */
+    public static void main(String[] args) {
+        Result result = JUnitCore.runClasses(OccupancyIndexTest.class);
+        for (Failure failure : result.getFailures()) {
+            System.out.println(failure.toString());
+        }
+
+        System.out.println(result.wasSuccessful());
+    }
+}
@@ -0,0 +1,126 @@
+package buildingoccupationanalyzer;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.JUnitCore;
+import org.junit.runner.Result;
+import org.junit.runner.notification.Failure;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Class for testing the ReplaySimulator and SimulatedClock classes
+ */
+public class ReplaySimulatorTest {
+    private DataStore dataStore;
+
+    /**
+     * Method for setting up test session
+     */
+    @Before
+    public void setup() {
+        dataStore = new DataStore(MainApplication.initializeSensorLocationMap(), MainApplication.initializeSensorData());
+    }
+
+    /**
+     * Tests that a replay steps through the whole day and matches direct occupancy checks
+     */
+    @Test
+    public void testReplayDay() {
+        List<OccupancySnapshot> snapshots = new ArrayList<>();
+        LocalDate day = LocalDate.parse(Constants.CURRENT_MOCK_DATE);
+        ReplayReport report = new ReplaySimulator(dataStore).replay(day, day, Duration.ofMinutes(60), 0, snapshots::add);
+        SimulatedClock clock = new SimulatedClock(day.atTime(12, 0).atZone(ZoneId.systemDefault()).toInstant(), ZoneId.systemDefault());
+
+        assertEquals(24, report.getSteps());
+        assertEquals(24, snapshots.size());
+        assertEquals(LocalDateTime.of(2020, 2, 8, 0, 0), snapshots.get(0).getTime());
+        assertEquals(new DataAnalyzer(dataStore, clock).checkOccupancyAll(), snapshots.get(12).getOccupancy());
+        assertEquals(0, snapshots.get(0).getOccupiedCount());
+        assertTrue(snapshots.get(12).getOccupiedCount() > 0);
+        assertTrue(report.getStepsPerSecond() > 0);
+    }
+
+    /**
+     * Tests that a throttled replay does not run faster than the requested speed
+     */
+    @Test
+    public void testReplaySpeed() {
+        LocalDate day = LocalDate.parse(Constants.CURRENT_MOCK_DATE);
+        ReplayReport report = new ReplaySimulator(dataStore).replay(day, day, Duration.ofHours(6), 6 * 3600 * 20, snapshot -> { });
+
+        assertEquals(4, report.getSteps());
+        assertTrue(report.getElapsedNanos() >= 3 * 50000000L);
+        assertTrue(report.getSimulationNanos() < report.getElapsedNanos());
+    }
+
+    /**
+     * Tests that the replay throughput leaves out the time spent in the listener
+     */
+    @Test
+    public void testListenerNotTimed() {
+        LocalDate day = LocalDate.parse(Constants.CURRENT_MOCK_DATE);
+        ReplayReport report = new ReplaySimulator(dataStore).replay(day, day, Duration.ofHours(6), 0, snapshot -> sleep(50));
+
+        assertEquals(4, report.getSteps());
+        assertTrue(report.getElapsedNanos() >= 4 * 50000000L);
+        assertTrue(report.getSimulationNanos() < report.getElapsedNanos() - 4 * 50000000L);
+    }
+
+    /**
+     * Helper method for a slow listener
+     *
+     * @param millis time to sleep in milliseconds
+     */
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Tests that the simulated clock only moves when advanced
+     */
+    @Test
+    public void testSimulatedClock() {
+        SimulatedClock clock = new SimulatedClock(LocalDate.parse(Constants.CURRENT_MOCK_DATE).atStartOfDay(ZoneId.systemDefault()).toInstant(), ZoneId.systemDefault());
+        DataAnalyzer dataAnalyzer = new DataAnalyzer(dataStore, clock);
+
+        clock.advance(Duration.ofHours(10));
+        assertEquals(LocalDateTime.of(2020, 2, 8, 10, 0), LocalDateTime.now(clock));
+        assertEquals(clock.millis(), dataAnalyzer.createOccupancyWindow().getCurrentTime());
+    }
+
+    /**
+     * Tests that a invalid step is rejected
+     */
+    @Test(expected = IllegalArgumentException.class)
+    public void testInvalidStep() {
+        LocalDate day = LocalDate.parse(Constants.CURRENT_MOCK_DATE);
+        new ReplaySimulator(dataStore).replay(day, day, Duration.ZERO, 0, snapshot -> { });
+    }
+
+    /**
+     * Main method for ReplaySimulatorTest class
+     *
+     * @param args Command line arguments
+     */
+    public static void main(String[] args) {
+        Result result = JUnitCore.runClasses(ReplaySimulatorTest.class);
+        for (Failure failure : result.getFailures()) {
+            System.out.println(failure.toString());
+        }
+
+        System.out.println(result.wasSuccessful());
+    }
+}
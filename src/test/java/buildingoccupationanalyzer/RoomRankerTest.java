@@ -0,0 +1,107 @@
+package buildingoccupationanalyzer;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.JUnitCore;
+import org.junit.runner.Result;
+import org.junit.runner.notification.Failure;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Class for testing the RoomRanker class
+ */
+public class RoomRankerTest {
+    private DataStore dataStore;
+    private DataAnalyzer dataAnalyzer;
+
+    /**
+     * Method for setting up test session
+     */
+    @Before
+    public void setup() {
+        dataStore = new DataStore(MainApplication.initializeSensorLocationMap(), MainApplication.initializeSensorData());
+        dataAnalyzer = new DataAnalyzer(dataStore);
+    }
+
+    /**
+     * Tests that every K of both directions matches sorting the exact utilization of every room/area
+     */
+    @Test
+    public void testMatchesFullSort() {
+        List<RoomUtilization> all = new ArrayList<>();
+
+        for (String roomKey : dataStore.getSensorLocationMap().keySet()) {
+            String[] names = roomKey.split(Constants.BUILDING_AREA_NAME_SEPARATOR);
+            all.add(dataAnalyzer.analyzeRoom(names[0], names[1], 1));
+        }
+        Comparator<RoomUtilization> ascending = Comparator.comparingDouble(RoomUtilization::getUtilization);
+        for (int k = 1; k <= all.size() + 1; k++) {
+            all.sort(ascending.reversed());
+            assertRanking(all.subList(0, Math.min(k, all.size())), dataAnalyzer.rankRooms(null, 1, k, true));
+            all.sort(ascending);
+            assertRanking(all.subList(0, Math.min(k, all.size())), dataAnalyzer.rankRooms(null, 1, k, false));
+        }
+    }
+
+    /**
+     * Tests the ranking of the sample data, ranking the most utilized room/area only counts the rooms/areas its bound
+     * cannot rule out
+     */
+    @Test
+    public void testSampleRanking() {
+        RoomRanking top = dataAnalyzer.rankRooms(null, 1, 1, true);
+        RoomRanking bottom = dataAnalyzer.rankRooms("Reynolds", 1, 2, false);
+
+        assertEquals("FirstFloor", top.getRooms().get(0).getRoom());
+        assertTrue(top.getEvaluatedRooms() < dataStore.getSensorLocationMap().size());
+        assertEquals(2, bottom.getRooms().size());
+        assertEquals("001", bottom.getRooms().get(0).getRoom());
+        assertEquals("002", bottom.getRooms().get(1).getRoom());
+        assertEquals(37.77777777777778, dataAnalyzer.rankRooms("Reynolds", 1, 1, true).getRooms().get(0).getUtilization(), 0.0);
+    }
+
+    /**
+     * Tests the error cases of the ranking
+     */
+    @Test
+    public void testErrors() {
+        assertEquals(UtilizationStatus.INVALID_ARGUMENT, dataAnalyzer.rankRooms(null, 0, 3, true).getStatus());
+        assertEquals(UtilizationStatus.INVALID_ARGUMENT, dataAnalyzer.rankRooms(null, 1, 0, true).getStatus());
+        assertEquals(UtilizationStatus.NOT_FOUND, dataAnalyzer.rankRooms("NotABuilding", 1, 3, false).getStatus());
+        assertTrue(dataAnalyzer.rankRooms("NotABuilding", 1, 3, false).getRooms().isEmpty());
+    }
+
+    /**
+     * Helper method for checking a ranking holds the expected utilizations in order
+     *
+     * @param expected expected rooms/areas, best ranked first
+     * @param ranking  ranking to check
+     */
+    private static void assertRanking(List<RoomUtilization> expected, RoomRanking ranking) {
+        assertTrue(ranking.isOk());
+        assertEquals(expected.size(), ranking.getRooms().size());
+        for (int i = 0; i < expected.size(); i++) {
+            assertEquals(expected.get(i).getUtilization(), ranking.getRooms().get(i).getUtilization(), 0.0);
+        }
+    }
+
+    /**
+     * Main method for RoomRankerTest class
+     *
+     * @param args Command line arguments
+     */
+    public static void main(String[] args) {
+        Result result = JUnitCore.runClasses(RoomRankerTest.class);
+        for (Failure failure : result.getFailures()) {
+            System.out.println(failure.toString());
+        }
+
+        System.out.println(result.wasSuccessful());
+    }
+}
@@ -0,0 +1,209 @@
+package buildingoccupationanalyzer;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.JUnitCore;
+import org.junit.runner.Result;
+import org.junit.runner.notification.Failure;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.IOException;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.EnumSet;
+import java.util.List;
+
+/**
+ * Class for testing the SensorHealthMonitor and SensorHealth classes
+ */
+public class SensorHealthMonitorTest {
+    private static final long MINUTE = Constants.TOTAL_MILLISECONDS_IN_A_MINUTE;
+    private static final long HOUR = 60 * MINUTE;
+    private static final long DAY_START = LocalDate.parse(Constants.CURRENT_MOCK_DATE).atStartOfDay(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    private static final long NOW = DAY_START + 23 * HOUR;
+
+    private SensorHealthMonitor monitor;
+
+    /**
+     * Method for setting up test session
+     */
+    @Before
+    public void setup() {
+        monitor = new SensorHealthMonitor();
+    }
+
+    /**
+     * Tests that a ceiling sensor reporting every 30 seconds is only stuck once its streak reaches SENSOR_STUCK_HOURS
+     */
+    @Test
+    public void testStuck() {
+        for (long time = NOW - 25 * HOUR; time <= NOW; time += MINUTE / 2) {
+            monitor.record("CS1", time);
+        }
+        for (long time = NOW - 23 * HOUR; time <= NOW; time += MINUTE / 2) {
+            monitor.record("CS2", time);
+        }
+        assertEquals(EnumSet.of(SensorAnomaly.STUCK), monitor.getHealth("CS1").getAnomalies(NOW));
+        assertEquals(25 * HOUR, monitor.getHealth("CS1").getLongestStreak());
+        assertTrue(monitor.getHealth("CS2").getAnomalies(NOW).isEmpty());
+    }
+
+    /**
+     * Tests that sensors without recent readings or without any reading are silent
+     */
+    @Test
+    public void testSilent() {
+        monitor.record("CS1", NOW - (Constants.SENSOR_SILENT_HOURS + 1) * HOUR);
+        monitor.record("CS2", NOW - HOUR);
+
+        assertEquals(EnumSet.of(SensorAnomaly.SILENT), monitor.findAnomalies(Arrays.asList("CS1", "CS2", "CS3"), NOW).get("CS1"));
+        assertEquals(EnumSet.of(SensorAnomaly.SILENT), monitor.findAnomalies(Arrays.asList("CS1", "CS2", "CS3"), NOW).get("CS3"));
+        assertEquals(2, monitor.findAnomalies(Arrays.asList("CS1", "CS2", "CS3"), NOW).size());
+    }
+
+    /**
+     * Tests that a door sensor with a missing reading is unpaired while paired readings are healthy
+     */
+    @Test
+    public void testUnpaired() {
+        monitor.record("DS1", DAY_START + 9 * HOUR);
+        monitor.record("DS1", DAY_START + 10 * HOUR);
+        monitor.record("DS2", DAY_START - 20 * HOUR); //End reading of this interval is missing
+        monitor.record("DS2", DAY_START + 9 * HOUR);
+        monitor.record("DS2", DAY_START + 10 * HOUR);
+        monitor.record("DS3", DAY_START + 22 * HOUR); //Still open, the room is occupied
+        monitor.record("DS4", NOW - (Constants.SENSOR_MAX_DOOR_INTERVAL_HOURS + 1) * HOUR);
+
+        assertTrue(monitor.getHealth("DS1").getAnomalies(NOW).isEmpty());
+        assertEquals(EnumSet.of(SensorAnomaly.UNPAIRED), monitor.getHealth("DS2").getAnomalies(NOW));
+        assertEquals(1, monitor.getHealth("DS2").getUnpairedIntervals());
+        assertTrue(monitor.getHealth("DS3").getAnomalies(NOW).isEmpty());
+        assertEquals(EnumSet.of(SensorAnomaly.UNPAIRED), monitor.getHealth("DS4").getAnomalies(NOW));
+    }
+
+    /**
+     * Tests that a sensor with too many readings in a minute is chattering and each minute is counted once
+     */
+    @Test
+    public void testChattering() {
+        for (int i = 0; i < 10; i++) {
+            monitor.record("CS1", NOW - HOUR + i * 1000);
+            monitor.record("CS2", NOW - HOUR + i * MINUTE / 2);
+        }
+        assertEquals(EnumSet.of(SensorAnomaly.CHATTERING), monitor.getHealth("CS1").getAnomalies(NOW));
+        assertEquals(1, monitor.getHealth("CS1").getChatteringMinutes());
+        assertTrue(monitor.getHealth("CS2").getAnomalies(NOW).isEmpty());
+    }
+
+    /**
+     * Tests that duplicate readings are ignored and readings older than the latest are only counted as late
+     */
+    @Test
+    public void testLateReadings() {
+        monitor.record("CS1", NOW - HOUR);
+        monitor.record("CS1", NOW - HOUR);
+        monitor.record("CS1", NOW - 2 * HOUR);
+
+        assertEquals(1, monitor.getHealth("CS1").getReadings());
+        assertEquals(1, monitor.getHealth("CS1").getLateReadings());
+        assertEquals(NOW - HOUR, monitor.getHealth("CS1").getLastReading());
+    }
+
+    /**
+     * Tests that the data store feeds the monitor from its startup data and from ingested readings
+     */
+    @Test
+    public void testDataStoreFeedsMonitor() {
+        DataStore dataStore = new DataStore(MainApplication.initializeSensorLocationMap(), MainApplication.initializeSensorData());
+        SensorHealthMonitor storeMonitor = dataStore.getLiveOccupancy().getHealthMonitor();
+
+        assertEquals(dataStore.getReadings("CS107").size(), storeMonitor.getHealth("CS107").getReadings());
+        assertTrue(storeMonitor.findAnomalies(Arrays.asList("CS107", "DS107"), NOW).isEmpty());
+        for (int i = 0; i < 6; i++) {
+            dataStore.ingest("CS107", new Date(NOW + 10 * MINUTE + i));
+        }
+        assertEquals(EnumSet.of(SensorAnomaly.CHATTERING), storeMonitor.getHealth("CS107").getAnomalies(NOW));
+        dataStore.removeSensor("CS108");
+        assertEquals(null, storeMonitor.getHealth("CS108"));
+    }
+
+    /**
+     * Tests that a late ingested reading has the sensor replayed from its stored readings in time order, and that
+     * importing older readings replays the sensor without counting them as late
+     *
+     * @throws IOException if the import fails
+     */
+    @Test
+    public void testLateReadingsReplayStoredReadings() throws IOException {
+        DataStore dataStore = new DataStore(MainApplication.initializeSensorLocationMap(), MainApplication.initializeSensorData());
+        SensorHealthMonitor storeMonitor = dataStore.getLiveOccupancy().getHealthMonitor();
+        long lastReading = storeMonitor.getHealth("DS107").getLastReading();
+
+        dataStore.ingest("DS107", new Date(DAY_START + 9 * HOUR + 1000));
+        assertEquals(dataStore.getReadings("DS107").size(), storeMonitor.getHealth("DS107").getReadings());
+        assertEquals(1, storeMonitor.getHealth("DS107").getLateReadings());
+        assertEquals(lastReading, storeMonitor.getHealth("DS107").getLastReading());
+
+        dataStore.addData("DataFile_2020-02-07.csv");
+        assertEquals(dataStore.getReadings("CS107").size(), storeMonitor.getHealth("CS107").getReadings());
+        assertEquals(0, storeMonitor.getHealth("CS107").getLateReadings());
+        assertEquals(1, storeMonitor.getHealth("DS107").getLateReadings());
+    }
+
+    /**
+     * Tests that a late reading only replays the stored readings after the last checkpoint before it, and that the
+     * statistics match applying every reading in time order
+     */
+    @Test
+    public void testLateReadingReplaysFromCheckpoint() {
+        List<Date> stored = new ArrayList<>();
+        List<Long> replayStarts = new ArrayList<>();
+        ReadingCursor.Source source = (sensor, start, end) -> {
+            replayStarts.add(start);
+            return ReadingCursor.overSorted(stored, start, end);
+        };
+        long late = DAY_START + 20 * HOUR + 3 * MINUTE;
+        SensorHealthMonitor inOrder = new SensorHealthMonitor();
+
+        for (long time = DAY_START; time < DAY_START + 30 * HOUR; time += MINUTE) {
+            if (time != late && time != late - MINUTE) { //Gap breaks the streak until the late reading arrives
+                stored.add(new Date(time));
+                monitor.record("CS1", time, source);
+            }
+        }
+        stored.add(new Date(late));
+        stored.sort(null);
+        monitor.record("CS1", late, source);
+        for (Date reading : stored) {
+            inOrder.record("CS1", reading.getTime());
+        }
+
+        SensorHealth replayed = monitor.getHealth("CS1");
+        assertEquals(1, replayStarts.size());
+        assertTrue(replayStarts.get(0) > late - HOUR);
+        assertEquals(inOrder.getHealth("CS1").getReadings(), replayed.getReadings());
+        assertEquals(inOrder.getHealth("CS1").getLastReading(), replayed.getLastReading());
+        assertEquals(30 * HOUR - MINUTE, replayed.getLongestStreak());
+        assertEquals(inOrder.getHealth("CS1").getAnomalies(NOW), replayed.getAnomalies(NOW));
+        assertEquals(1, replayed.getLateReadings());
+    }
+
+    /**
+     * Main method for SensorHealthMonitorTest class
+     *
+     * @param args Command line arguments
+     */
+    public static void main(String[] args) {
+        Result result = JUnitCore.runClasses(SensorHealthMonitorTest.class);
+        for (Failure failure : result.getFailures()) {
+            System.out.println(failure.toString());
+        }
+
+        System.out.println(result.wasSuccessful());
+    }
+}
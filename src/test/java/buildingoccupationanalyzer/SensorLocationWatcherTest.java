@@ -0,0 +1,159 @@
+package buildingoccupationanalyzer;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.junit.runner.JUnitCore;
+import org.junit.runner.Result;
+import org.junit.runner.notification.Failure;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+
+/**
+ * Class for testing the SensorLocationWatcher class and reloading the locations of the DataStore class
+ */
+public class SensorLocationWatcherTest {
+    private static final String HEADER = "Building Name,Room or Floor,Room/Floor Name,Sensors (Seperated By Spaces)";
+    private static final List<String> LOCATIONS = Arrays.asList(HEADER, "Reynolds,003,DS107 CS107 CS108", "Reynolds,001,DS106",
+            "McLaughlin,SecondFloor,DS109 CS101 CS102 CS103");
+    private static final long WATCH_TIMEOUT_MILLIS = 10000;
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private Path file;
+    private DataStore dataStore;
+
+    /**
+     * Method for setting up test session
+     *
+     * @throws IOException if the location file could not be written
+     */
+    @Before
+    public void setup() throws IOException {
+        file = folder.getRoot().toPath().resolve(Constants.CONFIG_FILE_NAME);
+        Files.write(file, LOCATIONS, StandardCharsets.UTF_8);
+        dataStore = new DataStore(new CSVSensorLocationFileImporter().importFile(file), MainApplication.initializeSensorData());
+    }
+
+    /**
+     * Tests that a reload swaps in the new locations, rebuilds only the changed rooms/areas and keeps the readings
+     *
+     * @throws IOException if the location file could not be written
+     */
+    @Test
+    public void testReload() throws IOException {
+        SensorLocationWatcher watcher = new SensorLocationWatcher(dataStore, file);
+        long readings = dataStore.getReadingCount();
+        OccupancyBitmap unchanged = dataStore.getOccupancyIndex().getRoomBitmap("Reynolds~001");
+
+        Files.write(file, Arrays.asList(HEADER, "Reynolds,003,DS107 CS107", "Reynolds,001,DS106",
+                "McLaughlin,SecondFloor,DS109 CS101 CS102 CS103", "Reynolds,Lab,CS108"), StandardCharsets.UTF_8);
+        assertEquals(new HashSet<>(Arrays.asList("Reynolds~003", "Reynolds~Lab")), watcher.reload());
+        assertEquals(Arrays.asList("CS108"), dataStore.getSensorLocationMap().get("Reynolds~Lab"));
+        assertEquals(readings, dataStore.getReadingCount());
+        assertSame(unchanged, dataStore.getOccupancyIndex().getRoomBitmap("Reynolds~001"));
+        assertNotNull(dataStore.getOccupancyIndex().getRoomBitmap("Reynolds~Lab"));
+        assertNotNull(dataStore.getLiveOccupancy().getState("Reynolds~Lab"));
+        assertNotNull(dataStore.getLiveOccupancy().getHealthMonitor().getHealth("CS108"));
+        assertTrue(new DataAnalyzer(dataStore).analyzeRoom("Reynolds", "Lab", 1).isOk());
+    }
+
+    /**
+     * Tests that removed rooms/areas are dropped and a unchanged file changes nothing
+     *
+     * @throws IOException if the location file could not be written
+     */
+    @Test
+    public void testReloadRemovedRoom() throws IOException {
+        SensorLocationWatcher watcher = new SensorLocationWatcher(dataStore, file);
+
+        assertTrue(watcher.reload().isEmpty());
+        Files.write(file, LOCATIONS.subList(0, 3), StandardCharsets.UTF_8);
+        assertEquals(new HashSet<>(Arrays.asList("McLaughlin~SecondFloor")), watcher.reload());
+        assertNull(dataStore.getOccupancyIndex().getRoomBitmap("McLaughlin~SecondFloor"));
+        assertNull(dataStore.getLiveOccupancy().getState("McLaughlin~SecondFloor"));
+        assertNull(dataStore.getLiveOccupancy().getHealthMonitor().getHealth("CS101"));
+        assertEquals(Arrays.asList("Reynolds"), dataStore.getBuildingsAsList());
+    }
+
+    /**
+     * Tests that a reload keeps removed sensors out of the locations, and that removing a sensor swaps in new sensor
+     * lists instead of changing the lists of the map queries may be iterating
+     *
+     * @throws IOException if the location file could not be read
+     */
+    @Test
+    public void testReloadKeepsRemovedSensors() throws IOException {
+        SensorLocationWatcher watcher = new SensorLocationWatcher(dataStore, file);
+        ArrayList<String> sensorsBefore = dataStore.getSensorLocationMap().get("Reynolds~003");
+
+        assertEquals("Sensor Removed", dataStore.removeSensor("CS108"));
+        assertEquals(Arrays.asList("DS107", "CS107", "CS108"), sensorsBefore);
+        assertEquals(Arrays.asList("DS107", "CS107"), dataStore.getSensorLocationMap().get("Reynolds~003"));
+        assertTrue(watcher.reload().isEmpty());
+        assertEquals(Arrays.asList("DS107", "CS107"), dataStore.getSensorLocationMap().get("Reynolds~003"));
+        assertNull(dataStore.getLiveOccupancy().getHealthMonitor().getHealth("CS108"));
+    }
+
+    /**
+     * Tests that a malformed file keeps the current locations
+     *
+     * @throws IOException if the location file could not be written
+     */
+    @Test
+    public void testReloadMalformedFile() throws IOException {
+        SensorLocationWatcher watcher = new SensorLocationWatcher(dataStore, file);
+
+        Files.write(file, Arrays.asList(HEADER, "Reynolds"), StandardCharsets.UTF_8);
+        assertNull(watcher.reload());
+        assertEquals(3, dataStore.getSensorLocationMap().size());
+    }
+
+    /**
+     * Tests that a change of the file on disk is picked up by the watch thread
+     *
+     * @throws Exception if the location file could not be written or the test was interrupted
+     */
+    @Test
+    public void testWatch() throws Exception {
+        try (SensorLocationWatcher watcher = new SensorLocationWatcher(dataStore, file)) {
+            watcher.start();
+            Files.write(file, LOCATIONS.subList(0, 3), StandardCharsets.UTF_8);
+
+            long deadline = System.currentTimeMillis() + WATCH_TIMEOUT_MILLIS;
+            while (dataStore.getSensorLocationMap().size() != 2 && System.currentTimeMillis() < deadline) {
+                Thread.sleep(Constants.LOCATION_RELOAD_DEBOUNCE_MILLIS);
+            }
+            assertEquals(2, dataStore.getSensorLocationMap().size());
+        }
+    }
+
+    /**
+     * Main method for SensorLocationWatcherTest class
+     *
+     * @param args Command line arguments
+     */
+    public static void main(String[] args) {
+        Result result = JUnitCore.runClasses(SensorLocationWatcherTest.class);
+        for (Failure failure : result.getFailures()) {
+            System.out.println(failure.toString());
+        }
+
+        System.out.println(result.wasSuccessful());
+    }
+}
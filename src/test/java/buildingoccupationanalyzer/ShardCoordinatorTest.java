@@ -0,0 +1,196 @@
+package buildingoccupationanalyzer;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.JUnitCore;
+import org.junit.runner.Result;
+import org.junit.runner.notification.Failure;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.io.StringReader;
+import java.net.InetSocketAddress;
+import java.net.ServerSocket;
+import java.text.DecimalFormat;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.TreeSet;
+
+/**
+ * Class for testing the ShardServer, ShardCoordinator and CoordinatorInterface classes with shards on localhost
+ */
+public class ShardCoordinatorTest {
+    private final ByteArrayOutputStream outContent = new ByteArrayOutputStream();
+    private final PrintStream originalOut = System.out;
+    private List<ShardServer> shardServers;
+    private ShardCoordinator coordinator;
+
+    /**
+     * Method for setting up test session, starts one shard per building
+     *
+     * @throws IOException if a shard can not be started
+     */
+    @Before
+    public void setup() throws IOException {
+        List<InetSocketAddress> addresses = new ArrayList<>();
+
+        shardServers = new ArrayList<>();
+        for (String building : Arrays.asList("Reynolds", "McLaughlin")) {
+            ShardServer shardServer = new ShardServer(ShardServer.createShardStore(Collections.singletonList(building)), 0);
+            shardServer.start();
+            shardServers.add(shardServer);
+            addresses.add(new InetSocketAddress("localhost", shardServer.getPort()));
+        }
+        coordinator = new ShardCoordinator(addresses);
+        System.setOut(new PrintStream(outContent));
+    }
+
+    /**
+     * Method for restoring items modified by test session
+     */
+    @After
+    public void tearDown() {
+        System.setOut(originalOut);
+        coordinator.shutdown();
+        for (ShardServer shardServer : shardServers) {
+            shardServer.stop();
+        }
+    }
+
+    /**
+     * Tests that a shard only holds the readings of the sensors of its buildings
+     */
+    @Test
+    public void testShardStoreHoldsOwnSensors() {
+        DataStore shardStore = shardServers.get(0).getDataStore();
+        DataStore campus = new DataStore(MainApplication.initializeSensorLocationMap(), MainApplication.initializeSensorData());
+
+        assertEquals(new TreeSet<>(Arrays.asList("CS107", "CS108", "DS105", "DS106", "DS107")), new TreeSet<>(shardStore.getSensorDataMap().keySet()));
+        assertEquals(campus.getReadings("CS107"), shardStore.getReadings("CS107"));
+    }
+
+    /**
+     * Tests that the sharded campus result matches a single process and is rendered by the coordinator interface
+     */
+    @Test
+    public void testOverallUtilization() {
+        DataAnalyzer dataAnalyzer = new DataAnalyzer(new DataStore(MainApplication.initializeSensorLocationMap(), MainApplication.initializeSensorData()));
+        CoordinatorInterface coordinatorInterface = new CoordinatorInterface(coordinator, new BufferedReader(new StringReader("")));
+        CampusUtilization expected = dataAnalyzer.analyzeCampus(1);
+        CampusUtilization result = coordinator.analyzeCampus(1);
+
+        assertTrue(result.isOk());
+        assertEquals(expected.getUtilization(), result.getUtilization(), 1e-9);
+        assertEquals(expected.getBuildings().size(), result.getBuildings().size());
+        assertEquals(0, coordinatorInterface.handleCoordinatorInput("uta 1"));
+        assertTrue(outContent.toString().contains("Overall utilization for room/area 003 in building Reynolds is: 37.78%\n"));
+        assertTrue(outContent.toString().contains("Overall utilization for building McLaughlin is: 32.38%\n\n"));
+        assertTrue(outContent.toString().endsWith("Overall utilization over the past 1 days: " + new DecimalFormat("0.00").format(expected.getUtilization()) + "%\n"));
+
+        outContent.reset();
+        assertEquals(0, coordinatorInterface.handleCoordinatorInput("uta 1 json"));
+        assertTrue(outContent.toString().startsWith("{"));
+    }
+
+    /**
+     * Tests that the sharded campus occupancy covers every room/area of every shard
+     *
+     * @throws IOException if a shard fails
+     */
+    @Test
+    public void testCheckOccupancyAll() throws IOException {
+        DataAnalyzer dataAnalyzer = new DataAnalyzer(new DataStore(MainApplication.initializeSensorLocationMap(), MainApplication.initializeSensorData()));
+
+        assertEquals(new HashMap<>(dataAnalyzer.checkOccupancyAll()), new HashMap<>(coordinator.checkOccupancyAll()));
+    }
+
+    /**
+     * Tests that a invalid number of days and a shard error are reported with their status by the coordinator interface
+     *
+     * @throws IOException if a free port can not be found
+     */
+    @Test
+    public void testShardError() throws IOException {
+        ByteArrayOutputStream errContent = new ByteArrayOutputStream();
+        PrintStream originalErr = System.err;
+        CoordinatorInterface coordinatorInterface = new CoordinatorInterface(coordinator, new BufferedReader(new StringReader("")));
+        List<InetSocketAddress> addresses = new ArrayList<>(coordinator.getShards());
+        int freePort;
+
+        try (ServerSocket socket = new ServerSocket(0)) {
+            freePort = socket.getLocalPort();
+        }
+        addresses.add(new InetSocketAddress("localhost", freePort));
+        ShardCoordinator downCoordinator = new ShardCoordinator(addresses);
+
+        System.setErr(new PrintStream(errContent));
+        try {
+            assertEquals(UtilizationStatus.INVALID_ARGUMENT, coordinator.analyzeCampus(0).getStatus());
+            assertEquals(1, coordinatorInterface.handleCoordinatorInput("uta 0"));
+            assertEquals("Error, days must not be 0\n", errContent.toString());
+
+            CampusUtilization result = downCoordinator.analyzeCampus(1);
+            assertEquals(UtilizationStatus.SHARD_ERROR, result.getStatus());
+            assertTrue(result.getMessage().startsWith("Error occurred while querying shards: Shard "));
+            errContent.reset();
+            assertEquals(1, new CoordinatorInterface(downCoordinator, new BufferedReader(new StringReader(""))).handleCoordinatorInput("uta 1"));
+            assertTrue(errContent.toString().startsWith("Error occurred while querying shards: Shard "));
+        } finally {
+            System.setErr(originalErr);
+            downCoordinator.shutdown();
+        }
+        assertEquals("", outContent.toString());
+    }
+
+    /**
+     * Tests that a shard that is not running is reported
+     *
+     * @throws IOException if a free port can not be found
+     */
+    @Test(expected = IOException.class)
+    public void testShardDown() throws IOException {
+        int freePort;
+
+        try (ServerSocket socket = new ServerSocket(0)) {
+            freePort = socket.getLocalPort();
+        }
+        ShardCoordinator downCoordinator = new ShardCoordinator(Collections.singletonList(new InetSocketAddress("localhost", freePort)));
+        try {
+            downCoordinator.checkOccupancyAll();
+        } finally {
+            downCoordinator.shutdown();
+        }
+    }
+
+    /**
+     * Tests parsing shard lists
+     */
+    @Test
+    public void testParseShards() {
+        assertEquals(Arrays.asList(new InetSocketAddress("localhost", 9001), new InetSocketAddress("127.0.0.1", 9002)),
+                ShardCoordinator.parseShards("9001,127.0.0.1:9002"));
+    }
+
+    /**
+     * Main method for ShardCoordinatorTest class
+     *
+     * @param args Command line arguments
+     */
+    public static void main(String[] args) {
+        Result result = JUnitCore.runClasses(ShardCoordinatorTest.class);
+        for (Failure failure : result.getFailures()) {
+            System.out.println(failure.toString());
+        }
+
+        System.out.println(result.wasSuccessful());
+    }
+}
@@ -0,0 +1,128 @@
+package buildingoccupationanalyzer;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.JUnitCore;
+import org.junit.runner.Result;
+import org.junit.runner.notification.Failure;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.Map;
+
+/**
+ * Class for testing the TimeResolution class and utilization at other time resolutions
+ */
+public class TimeResolutionTest {
+    private static final LocalDate DAY = LocalDate.parse(Constants.CURRENT_MOCK_DATE);
+
+    private DataStore dataStore;
+    private DataAnalyzer dataAnalyzer;
+
+    /**
+     * Method for setting up test session
+     */
+    @Before
+    public void setup() {
+        dataStore = new DataStore(MainApplication.initializeSensorLocationMap(), MainApplication.initializeSensorData());
+        dataAnalyzer = new DataAnalyzer(dataStore);
+    }
+
+    /**
+     * Tests parsing resolutions and rejecting buckets that do not divide a day
+     */
+    @Test
+    public void testParse() {
+        assertEquals(TimeResolution.TEN_SECONDS, TimeResolution.parse("10s"));
+        assertEquals(TimeResolution.MINUTE, TimeResolution.parse("60s"));
+        assertEquals(TimeResolution.FIFTEEN_MINUTES, TimeResolution.parse("15m"));
+        assertEquals(TimeResolution.HOUR, TimeResolution.parse("1h"));
+        assertEquals("15m", TimeResolution.parse("900s").toString());
+        assertEquals(96, TimeResolution.FIFTEEN_MINUTES.getBucketsPerDay());
+        for (String invalid : new String[] {"7s", "0m", "25h", "15", "m", "99999999999s"}) {
+            try {
+                TimeResolution.parse(invalid);
+                fail(invalid);
+            } catch (IllegalArgumentException e) {
+                assertTrue(e.getMessage().contains(invalid) || e.getMessage().contains("divide"));
+            }
+        }
+    }
+
+    /**
+     * Tests that minute buckets are the local minutes used by the occupancy index
+     */
+    @Test
+    public void testMinuteBuckets() {
+        for (Date reading : dataStore.getReadings("CS107")) {
+            assertEquals(Utils.getLocalMinute(reading.getTime()), TimeResolution.MINUTE.getBucket(reading.getTime()));
+            assertEquals(Utils.getLocalMinute(reading.getTime()) / 15, TimeResolution.FIFTEEN_MINUTES.getBucket(reading.getTime()));
+        }
+        assertEquals(DAY.toEpochDay() * 8640, TimeResolution.TEN_SECONDS.getDayStart(DAY));
+    }
+
+    /**
+     * Tests that one minute resolution gives the same results as the minute based analysis
+     */
+    @Test
+    public void testMinuteResolutionMatches() {
+        assertEquals(dataAnalyzer.analyzeCampus(1).getUtilization(), dataAnalyzer.analyzeCampus(1, TimeResolution.parse("1m")).getUtilization(), 0.0);
+        assertEquals(37.77777777777778, dataAnalyzer.analyzeRoom("Reynolds", "003", 1, TimeResolution.MINUTE).getUtilization(), 0.0);
+        for (Map.Entry<String, ArrayList<String>> room : dataStore.getSensorLocationMap().entrySet()) {
+            OccupancyBitmap fromReadings = dataAnalyzer.buildOccupancyBitmap(room.getValue(), DAY, DAY.plusDays(1), TimeResolution.MINUTE);
+            assertEquals(room.getKey(), dataStore.getOccupancyIndex().getRoomBitmap(room.getKey()).getCardinality(), fromReadings.getCardinality());
+        }
+    }
+
+    /**
+     * Tests that coarse buckets derived from the occupancy index match buckets built from the readings and only grow
+     * with the bucket size
+     */
+    @Test
+    public void testCoarseResolutions() {
+        for (Map.Entry<String, ArrayList<String>> room : dataStore.getSensorLocationMap().entrySet()) {
+            OccupancyBitmap fromReadings = dataAnalyzer.buildOccupancyBitmap(room.getValue(), DAY, DAY.plusDays(1), TimeResolution.FIFTEEN_MINUTES);
+            OccupancyBitmap fromIndex = dataStore.getOccupancyIndex().getRoomBitmap(room.getKey()).coarsen(15);
+            assertEquals(room.getKey(), fromReadings.getCardinality(), fromIndex.getCardinality());
+            assertEquals(room.getKey(), fromReadings.getCardinality(), fromReadings.and(fromIndex).getCardinality());
+        }
+        double minute = dataAnalyzer.analyzeCampus(1).getUtilization();
+        double quarter = dataAnalyzer.analyzeCampus(1, TimeResolution.FIFTEEN_MINUTES).getUtilization();
+        double hour = dataAnalyzer.analyzeCampus(1, TimeResolution.HOUR).getUtilization();
+        assertTrue(minute <= quarter && quarter <= hour && hour <= 100.0);
+    }
+
+    /**
+     * Tests utilization at second resolution, ceiling readings 30 seconds apart occupy every third ten second bucket
+     */
+    @Test
+    public void testFineResolution() {
+        RoomUtilization tenSeconds = dataAnalyzer.analyzeRoom("Reynolds", "003", 1, TimeResolution.TEN_SECONDS);
+        RoomUtilization seconds = dataAnalyzer.analyzeRoom("Reynolds", "003", 1, TimeResolution.SECOND);
+
+        assertTrue(tenSeconds.isOk());
+        assertTrue(tenSeconds.getUtilization() > 0.0 && tenSeconds.getUtilization() <= 37.77777777777778);
+        assertTrue(seconds.getUtilization() > 0.0 && seconds.getUtilization() <= tenSeconds.getUtilization());
+        assertEquals(UtilizationStatus.NOT_FOUND, dataAnalyzer.analyzeRoom("Reynolds", "999", 1, TimeResolution.TEN_SECONDS).getStatus());
+        assertEquals(UtilizationStatus.INVALID_ARGUMENT, dataAnalyzer.analyzeCampus(0, TimeResolution.TEN_SECONDS).getStatus());
+    }
+
+    /**
+     * Main method for TimeResolutionTest class
+     *
+     * @param args Command line arguments
+     */
+    public static void main(String[] args) {
+        Result result = JUnitCore.runClasses(TimeResolutionTest.class);
+        for (Failure failure : result.getFailures()) {
+            System.out.println(failure.toString());
+        }
+
+        System.out.println(result.wasSuccessful());
+    }
+}
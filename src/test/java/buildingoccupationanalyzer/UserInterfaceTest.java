@@ -14,6 +14,7 @@ import java.io.PrintStream;
 import java.io.ByteArrayOutputStream;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
 import static org.junit.Assert.fail;
 
 /**
@@ -83,6 +84,41 @@ public class UserInterfaceTest {
                 + "003\n\n", outContent.toString());
     }
 
+    /**
+     * Tests the handleUserInput method for a list rooms command filtered by building
+     */
+    @Test
+    public void testListRoomsOfBuilding() {
+        try {
+            userInterface.handleUserInput("da Reynolds", reader);
+        } catch (IOException e) {
+            fail();
+        }
+        assertEquals("Rooms/Areas:\n\n\n"
+                + "Reynolds:\n"
+                + "001\n"
+                + "002\n"
+                + "003\n\n", outContent.toString());
+    }
+
+    /**
+     * Tests the handleUserInput method for a paged list buildings command
+     */
+    @Test
+    public void testListBuildingsPaged() {
+        try {
+            userInterface.handleUserInput("db page 1", reader);
+            userInterface.handleUserInput("db page x", reader);
+        } catch (IOException e) {
+            fail();
+        }
+        assertEquals("Buildings:\n\n"
+                + "Reynolds\n"
+                + "McLaughlin\n"
+                + "Page 1 of 1 (2 entries)\n\n"
+                + "Invalid input, page must be a number\n", outContent.toString());
+    }
+
     /**
      * Tests the handleUserInput method for a list buildings command
      */
@@ -175,6 +211,32 @@ public class UserInterfaceTest {
         assertEquals("Invalid input, missing building and or room/area name\n", outContent.toString());
     }
 
+    /**
+     * Tests the occupancy command for all rooms of a building
+     */
+    @Test
+    public void testOccupancyAllBuilding() {
+        try {
+            userInterface.handleUserInput("oc all Reynolds", reader);
+        } catch (IOException e) {
+            fail();
+        }
+        assertTrue(outContent.toString().matches("Reynolds 001: (not )?occupied\\nReynolds 002: (not )?occupied\\nReynolds 003: (not )?occupied\\n"));
+    }
+
+    /**
+     * Tests the occupancy command for all rooms of a unknown building
+     */
+    @Test
+    public void testOccupancyAllInvalidBuilding() {
+        try {
+            userInterface.handleUserInput("oc all Nowhere", reader);
+        } catch (IOException e) {
+            fail();
+        }
+        assertEquals("No rooms/areas found\n", outContent.toString());
+    }
+
     /**
      * Main method for UserInterfaceTest class
      *
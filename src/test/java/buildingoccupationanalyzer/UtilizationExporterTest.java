@@ -0,0 +1,154 @@
+package buildingoccupationanalyzer;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.JUnitCore;
+import org.junit.runner.Result;
+import org.junit.runner.notification.Failure;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.io.StringWriter;
+import java.time.LocalDate;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Class for testing the UtilizationExporter class
+ */
+public class UtilizationExporterTest {
+    private static final LocalDate DAY = LocalDate.parse(Constants.CURRENT_MOCK_DATE);
+
+    private DataStore dataStore;
+    private DataAnalyzer dataAnalyzer;
+
+    /**
+     * Method for setting up test session
+     */
+    @Before
+    public void setup() {
+        dataStore = new DataStore(MainApplication.initializeSensorLocationMap(), MainApplication.initializeSensorData());
+        dataAnalyzer = new DataAnalyzer(dataStore);
+    }
+
+    /**
+     * Tests that a daily CSV export matches the range utilization of each room/area
+     *
+     * @throws IOException if the writer fails
+     */
+    @Test
+    public void testCsvDaily() throws IOException {
+        StringWriter writer = new StringWriter();
+
+        assertEquals(9, new UtilizationExporter(dataStore).exportCsv(DAY, DAY, UtilizationExporter.Granularity.DAY, writer));
+        String[] lines = writer.toString().split("\n");
+        assertEquals(UtilizationExporter.CSV_HEADER, lines[0]);
+        assertEquals(10, lines.length);
+        for (int i = 1; i < lines.length; i++) {
+            String[] columns = lines[i].split(",");
+            RoomUtilization expected = dataAnalyzer.analyzeRoom(columns[0], columns[1], DAY.atStartOfDay(), DAY.plusDays(1).atStartOfDay());
+
+            assertEquals("2020-02-08T00:00", columns[2]);
+            assertEquals(expected.getUtilization(), Double.parseDouble(columns[4]), 1e-9);
+        }
+        assertTrue(writer.toString().contains("\nReynolds,003,2020-02-08T00:00,544,37.77777777777778\n"));
+    }
+
+    /**
+     * Tests that hourly rows add up to the daily rows
+     *
+     * @throws IOException if the writer fails
+     */
+    @Test
+    public void testCsvHourly() throws IOException {
+        StringWriter writer = new StringWriter();
+        Map<String, Integer> minutesPerRoom = new HashMap<>();
+
+        assertEquals(9 * 24 * 2, new UtilizationExporter(dataStore).exportCsv(DAY.minusDays(1), DAY, UtilizationExporter.Granularity.HOUR, writer));
+        String[] lines = writer.toString().split("\n");
+        assertEquals("Reynolds,001,2020-02-07T01:00,0,0.0", lines[2]);
+        for (int i = 1; i < lines.length; i++) {
+            String[] columns = lines[i].split(",");
+            minutesPerRoom.merge(columns[0] + columns[1], Integer.parseInt(columns[3]), Integer::sum);
+        }
+        assertEquals(Integer.valueOf(544), minutesPerRoom.get("Reynolds003"));
+    }
+
+    /**
+     * Tests the binary columnar export across several blocks against the CSV export
+     *
+     * @throws IOException if the stream fails
+     */
+    @Test
+    public void testBinary() throws IOException {
+        StringWriter csv = new StringWriter();
+        ByteArrayOutputStream binary = new ByteArrayOutputStream();
+        UtilizationExporter exporter = new UtilizationExporter(dataStore, 50);
+
+        exporter.exportCsv(DAY, DAY, UtilizationExporter.Granularity.HOUR, csv);
+        assertEquals(216, exporter.exportBinary(DAY, DAY, UtilizationExporter.Granularity.HOUR, binary));
+
+        String[] lines = csv.toString().split("\n");
+        DataInputStream input = new DataInputStream(new ByteArrayInputStream(binary.toByteArray()));
+        byte[] magic = new byte[4];
+        input.readFully(magic);
+        assertArrayEquals(UtilizationExporter.BINARY_MAGIC, magic);
+        assertEquals(UtilizationExporter.BINARY_VERSION, input.readShort());
+        assertEquals(60, input.readInt());
+        assertEquals(DAY.toEpochDay() * 1440, input.readLong());
+
+        int row = 1;
+        int blocks = 0;
+        for (int rowCount = input.readInt(); rowCount > 0; rowCount = input.readInt()) {
+            String[] rooms = new String[input.readInt()];
+            short[] roomIds = new short[rowCount];
+            int[] periods = new int[rowCount];
+            short[] minutes = new short[rowCount];
+
+            for (int i = 0; i < rooms.length; i++) {
+                rooms[i] = input.readUTF() + "," + input.readUTF();
+            }
+            for (int i = 0; i < rowCount; i++) {
+                roomIds[i] = input.readShort();
+            }
+            for (int i = 0; i < rowCount; i++) {
+                periods[i] = input.readInt();
+            }
+            for (int i = 0; i < rowCount; i++) {
+                minutes[i] = input.readShort();
+            }
+            for (int i = 0; i < rowCount; i++) {
+                String[] columns = lines[row++].split(",");
+
+                assertEquals(columns[0] + "," + columns[1], rooms[roomIds[i]]);
+                assertEquals(DAY.atStartOfDay().plusHours(periods[i]).toString(), columns[2]);
+                assertEquals(Short.parseShort(columns[3]), minutes[i]);
+                assertEquals(Double.parseDouble(columns[4]), input.readFloat(), 1e-4);
+            }
+            blocks++;
+        }
+        assertEquals(lines.length, row);
+        assertEquals(5, blocks);
+        assertEquals(-1, input.read());
+    }
+
+    /**
+     * Main method for UtilizationExporterTest class
+     *
+     * @param args Command line arguments
+     */
+    public static void main(String[] args) {
+        Result result = JUnitCore.runClasses(UtilizationExporterTest.class);
+        for (Failure failure : result.getFailures()) {
+            System.out.println(failure.toString());
+        }
+
+        System.out.println(result.wasSuccessful());
+    }
+}
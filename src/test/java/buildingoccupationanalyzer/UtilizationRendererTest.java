@@ -0,0 +1,133 @@
+package buildingoccupationanalyzer;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.JUnitCore;
+import org.junit.runner.Result;
+import org.junit.runner.notification.Failure;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.util.ArrayList;
+import java.util.Arrays;
+
+/**
+ * Class for testing the utilization result objects and their renderers
+ */
+public class UtilizationRendererTest {
+    private DataAnalyzer dataAnalyzer;
+
+    /**
+     * Method for setting up test session
+     */
+    @Before
+    public void setup() {
+        dataAnalyzer = new DataAnalyzer(new DataStore(MainApplication.initializeSensorLocationMap(), MainApplication.initializeSensorData()));
+    }
+
+    /**
+     * Tests that the structured campus result carries every room/area and building
+     */
+    @Test
+    public void testAnalyzeCampus() {
+        CampusUtilization result = dataAnalyzer.analyzeCampus(1);
+
+        assertTrue(result.isOk());
+        assertEquals(29.65277777777778, result.getUtilization(), 0);
+        assertEquals(2, result.getBuildings().size());
+        assertEquals(9, result.getBuildings().get(0).getRooms().size() + result.getBuildings().get(1).getRooms().size());
+    }
+
+    /**
+     * Tests that errors are returned as a status instead of being printed
+     */
+    @Test
+    public void testAnalyzeErrors() {
+        RoomUtilization room = dataAnalyzer.analyzeRoom("Reynoolds", "003", 1);
+        CampusUtilization campus = dataAnalyzer.analyzeCampus(0);
+
+        assertEquals(UtilizationStatus.NOT_FOUND, room.getStatus());
+        assertEquals("Building name and Room name combination was not found", room.getMessage());
+        assertEquals(UtilizationStatus.INVALID_ARGUMENT, campus.getStatus());
+        assertEquals("Error, days must not be 0", campus.getMessage());
+        assertFalse(dataAnalyzer.analyzeBuilding(null, 1).isOk());
+    }
+
+    /**
+     * Tests the terminal renderer
+     *
+     * @throws IOException if the writer fails
+     */
+    @Test
+    public void testTerminalRenderer() throws IOException {
+        StringWriter writer = new StringWriter();
+
+        new TerminalUtilizationRenderer().renderBuilding(dataAnalyzer.analyzeBuilding("Reynolds", 1), writer);
+        assertEquals("Overall utilization for room/area 001 in building Reynolds is: 21.46%\n"
+                + "Overall utilization for room/area 002 in building Reynolds is: 21.53%\n"
+                + "Overall utilization for room/area 003 in building Reynolds is: 37.78%\n", writer.toString());
+    }
+
+    /**
+     * Tests the json renderer
+     *
+     * @throws IOException if the writer fails
+     */
+    @Test
+    public void testJsonRenderer() throws IOException {
+        StringWriter writer = new StringWriter();
+        BuildingUtilization building = BuildingUtilization.ok("Main \"Hall\"", Arrays.asList(RoomUtilization.ok("Main \"Hall\"", "1", 50.0), RoomUtilization.ok("Main \"Hall\"", "2", 25.0)));
+
+        new JsonUtilizationRenderer().renderCampus(CampusUtilization.ok(Arrays.asList(building)), writer);
+        assertEquals("{\"status\":\"OK\",\"utilization\":37.5,\"buildings\":[{\"building\":\"Main \\\"Hall\\\"\",\"status\":\"OK\",\"utilization\":37.5,\"rooms\":["
+                + "{\"building\":\"Main \\\"Hall\\\"\",\"room\":\"1\",\"status\":\"OK\",\"utilization\":50.0},"
+                + "{\"building\":\"Main \\\"Hall\\\"\",\"room\":\"2\",\"status\":\"OK\",\"utilization\":25.0}]}]}", writer.toString());
+
+        writer = new StringWriter();
+        new JsonUtilizationRenderer().renderCampus(CampusUtilization.error(new ArrayList<>(), UtilizationStatus.INVALID_ARGUMENT, "Error, days must not be 0"), writer);
+        assertEquals("{\"status\":\"INVALID_ARGUMENT\",\"message\":\"Error, days must not be 0\",\"buildings\":[]}", writer.toString());
+    }
+
+    /**
+     * Tests the csv renderer
+     *
+     * @throws IOException if the writer fails
+     */
+    @Test
+    public void testCsvRenderer() throws IOException {
+        StringWriter writer = new StringWriter();
+        BuildingUtilization building = BuildingUtilization.error("Hall", Arrays.asList(RoomUtilization.ok("Hall", "1", 50.0)), UtilizationStatus.NOT_FOUND, "missing, room");
+
+        new CsvUtilizationRenderer().renderCampus(CampusUtilization.error(Arrays.asList(building), UtilizationStatus.NOT_FOUND, "missing, room"), writer);
+        assertEquals(CsvUtilizationRenderer.HEADER + "\n"
+                + "room,Hall,1,OK,50.0,\n"
+                + "building,Hall,,NOT_FOUND,,\"missing, room\"\n"
+                + "campus,,,NOT_FOUND,,\"missing, room\"\n", writer.toString());
+    }
+
+    /**
+     * Tests that a unknown format is rejected
+     */
+    @Test(expected = IllegalArgumentException.class)
+    public void testUnknownFormat() {
+        UtilizationRenderer.forFormat("xml");
+    }
+
+    /**
+     * Main method for UtilizationRendererTest class
+     *
+     * @param args Command line arguments
+     */
+    public static void main(String[] args) {
+        Result result = JUnitCore.runClasses(UtilizationRendererTest.class);
+        for (Failure failure : result.getFailures()) {
+            System.out.println(failure.toString());
+        }
+
+        System.out.println(result.wasSuccessful());
+    }
+}
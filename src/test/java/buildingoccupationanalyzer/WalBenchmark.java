@@ -0,0 +1,138 @@
+package buildingoccupationanalyzer;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.stream.Stream;
+
+/**
+ * Benchmark harness for the ingest throughput of the data store without a write-ahead log and with the log under each
+ * fsync policy. Writer threads ingest readings of their own sensors concurrently so commits of the log are grouped. Run
+ * it with gradle walBenchmark or java buildingoccupationanalyzer.WalBenchmark [threads] [readings per thread]
+ */
+public final class WalBenchmark {
+    private static final int DEFAULT_THREADS = 8;
+    private static final int DEFAULT_READINGS = 20000;
+    private static final double NANOS_PER_SECOND = 1e9;
+
+    private final int threads;
+    private final int readingsPerThread;
+    private final long firstReading;
+
+    /**
+     * Constructor for WalBenchmark class
+     *
+     * @param incomingThreads           number of writer threads
+     * @param incomingReadingsPerThread number of readings each writer ingests
+     */
+    private WalBenchmark(int incomingThreads, int incomingReadingsPerThread) {
+        this.threads = incomingThreads;
+        this.readingsPerThread = incomingReadingsPerThread;
+        this.firstReading = LocalDate.parse(Constants.CURRENT_MOCK_DATE).atStartOfDay(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+
+    /**
+     * Main method for WalBenchmark class
+     *
+     * @param args number of writer threads and readings per thread, both optional
+     * @throws Exception if a run fails
+     */
+    public static void main(String[] args) throws Exception {
+        int threads = args.length > 0 ? Integer.parseInt(args[0]) : DEFAULT_THREADS;
+        int readings = args.length > 1 ? Integer.parseInt(args[1]) : DEFAULT_READINGS;
+        WalBenchmark benchmark = new WalBenchmark(threads, readings);
+
+        System.out.println("Write-ahead log benchmark: " + threads + " writer threads, " + readings + " readings each");
+        benchmark.run(null);
+        for (FsyncPolicy policy : FsyncPolicy.values()) {
+            benchmark.run(policy);
+        }
+    }
+
+    /**
+     * Method for timing one run and checking that a recovered data store holds every ingested reading
+     *
+     * @param policy fsync policy of the log, null to run without a log
+     * @throws Exception if the run fails
+     */
+    private void run(FsyncPolicy policy) throws Exception {
+        Path directory = Files.createTempDirectory("wal-benchmark");
+        DataStore dataStore = new DataStore(new HashMap<>(), new HashMap<>());
+        List<Thread> writers = new ArrayList<>();
+
+        try {
+            if (policy != null) {
+                dataStore.recover(directory, policy);
+            }
+            for (int t = 0; t < this.threads; t++) {
+                String sensor = Constants.CEILING_SENSOR_ID + t;
+                writers.add(new Thread(() -> {
+                    for (int i = 0; i < this.readingsPerThread; i++) {
+                        dataStore.ingest(sensor, new Date(this.firstReading + (long) i * Constants.TOTAL_MILLISECONDS_IN_A_MINUTE));
+                    }
+                }));
+            }
+
+            long startTime = System.nanoTime();
+            for (Thread writer : writers) {
+                writer.start();
+            }
+            for (Thread writer : writers) {
+                writer.join();
+            }
+            long elapsed = System.nanoTime() - startTime;
+            long total = (long) this.threads * this.readingsPerThread;
+            String name = policy == null ? "no log" : "log, fsync " + policy.name().toLowerCase(Locale.ROOT);
+
+            System.out.println(String.format(Locale.ROOT, "  %-22s %12.0f readings/s", name, total / (elapsed / NANOS_PER_SECOND)));
+            if (policy != null) {
+                dataStore.closeWriteAheadLog();
+                check(directory, total);
+            }
+        } finally {
+            dataStore.closeWriteAheadLog();
+            deleteRecursively(directory);
+        }
+    }
+
+    /**
+     * Helper method for checking that a data store recovered from the log holds every ingested reading
+     *
+     * @param directory log directory
+     * @param expected  number of ingested readings
+     * @throws IOException if the log could not be read
+     */
+    private static void check(Path directory, long expected) throws IOException {
+        DataStore recovered = new DataStore(new HashMap<>(), new HashMap<>());
+
+        recovered.recover(directory, FsyncPolicy.NEVER);
+        recovered.closeWriteAheadLog();
+        if (recovered.getReadingCount() != expected) {
+            throw new IllegalStateException("Recovered " + recovered.getReadingCount() + " readings, expected " + expected);
+        }
+    }
+
+    /**
+     * Helper method for deleting a directory and its files
+     *
+     * @param directory directory to delete
+     * @throws IOException if a file could not be deleted
+     */
+    private static void deleteRecursively(Path directory) throws IOException {
+        List<Path> paths = new ArrayList<>();
+
+        try (Stream<Path> walk = Files.walk(directory)) {
+            walk.forEach(paths::add);
+        }
+        for (int i = paths.size() - 1; i >= 0; i--) {
+            Files.delete(paths.get(i));
+        }
+    }
+}
@@ -0,0 +1,478 @@
+package buildingoccupationanalyzer;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.junit.runner.JUnitCore;
+import org.junit.runner.Result;
+import org.junit.runner.notification.Failure;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Class for testing the WriteAheadLog class and recovery of the DataStore class from it
+ */
+public class WriteAheadLogTest {
+    private static final long READING = 1581170400000L;
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private Path directory;
+    private Path logFile;
+
+    /**
+     * Method for setting up test session
+     *
+     * @throws IOException if the temporary directory could not be created
+     */
+    @Before
+    public void setup() throws IOException {
+        directory = folder.newFolder("wal").toPath();
+        logFile = directory.resolve(Constants.WAL_LOG_FILE_NAME);
+    }
+
+    /**
+     * Tests that committed records are replayed in order when the log is opened again
+     *
+     * @throws IOException if the log could not be written
+     */
+    @Test
+    public void testReplay() throws IOException {
+        WriteAheadLog log = WriteAheadLog.open(logFile, FsyncPolicy.ALWAYS, new RecordingHandler());
+
+        log.appendReadings("CS101", Arrays.asList(new Date(READING), new Date(READING + 1)));
+        log.appendRemoveSensor("DS102");
+        log.commit(log.appendImport("DataFile.csv", "abc"));
+        log.close();
+
+        RecordingHandler handler = new RecordingHandler();
+        WriteAheadLog.open(logFile, FsyncPolicy.ALWAYS, handler).close();
+        assertEquals(Arrays.asList("readings CS101 [" + READING + ", " + (READING + 1) + "]", "remove DS102", "import DataFile.csv abc"), handler.records);
+    }
+
+    /**
+     * Tests that a torn record at the end of the log is cut off and later records are appended after the valid ones
+     *
+     * @throws IOException if the log could not be written
+     */
+    @Test
+    public void testTornTail() throws IOException {
+        WriteAheadLog log = WriteAheadLog.open(logFile, FsyncPolicy.NEVER, new RecordingHandler());
+        log.commit(log.appendReading("CS101", READING));
+        log.close();
+        long validBytes = Files.size(logFile);
+
+        try (FileChannel channel = FileChannel.open(logFile, StandardOpenOption.APPEND)) {
+            channel.write(ByteBuffer.wrap(new byte[] {0, 0, 0, 40, 1, 2})); //Header of a record whose write was cut short
+        }
+        log = WriteAheadLog.open(logFile, FsyncPolicy.NEVER, new RecordingHandler());
+        assertEquals(validBytes, log.size());
+        log.commit(log.appendReading("CS101", READING + 1));
+        log.close();
+
+        RecordingHandler handler = new RecordingHandler();
+        WriteAheadLog.open(logFile, FsyncPolicy.NEVER, handler).close();
+        assertEquals(Arrays.asList("readings CS101 [" + READING + "]", "readings CS101 [" + (READING + 1) + "]"), handler.records);
+    }
+
+    /**
+     * Tests that replay stops at a record whose checksum does not match
+     *
+     * @throws IOException if the log could not be written
+     */
+    @Test
+    public void testCorruptRecord() throws IOException {
+        WriteAheadLog log = WriteAheadLog.open(logFile, FsyncPolicy.NEVER, new RecordingHandler());
+        log.appendReading("CS101", READING);
+        log.commit(log.appendReading("CS102", READING));
+        log.close();
+
+        byte[] bytes = Files.readAllBytes(logFile);
+        bytes[bytes.length - 1] ^= 1; //Flip a bit of the last reading
+        Files.write(logFile, bytes);
+
+        RecordingHandler handler = new RecordingHandler();
+        WriteAheadLog.open(logFile, FsyncPolicy.NEVER, handler).close();
+        assertEquals(Arrays.asList("readings CS101 [" + READING + "]"), handler.records);
+    }
+
+    /**
+     * Tests that concurrent writers all have their records committed and share group commits
+     *
+     * @throws Exception if the log could not be written or a writer was interrupted
+     */
+    @Test
+    public void testGroupCommit() throws Exception {
+        WriteAheadLog log = WriteAheadLog.open(logFile, FsyncPolicy.ALWAYS, new RecordingHandler());
+        List<Thread> writers = new ArrayList<>();
+        List<IOException> failures = new ArrayList<>();
+        int threads = 8;
+        int readings = 50;
+
+        for (int t = 0; t < threads; t++) {
+            String sensor = Constants.CEILING_SENSOR_ID + t;
+            writers.add(new Thread(() -> {
+                try {
+                    for (int i = 0; i < readings; i++) {
+                        log.commit(log.appendReading(sensor, READING + i));
+                    }
+                } catch (IOException e) {
+                    synchronized (failures) {
+                        failures.add(e);
+                    }
+                }
+            }));
+        }
+        for (Thread writer : writers) {
+            writer.start();
+        }
+        for (Thread writer : writers) {
+            writer.join();
+        }
+        log.close();
+        assertTrue(failures.isEmpty());
+
+        RecordingHandler handler = new RecordingHandler();
+        WriteAheadLog.open(logFile, FsyncPolicy.ALWAYS, handler).close();
+        assertEquals(threads * readings, handler.records.size());
+    }
+
+    /**
+     * Tests that reset empties the log and releases writers whose records were not written
+     *
+     * @throws IOException if the log could not be written
+     */
+    @Test
+    public void testReset() throws IOException {
+        WriteAheadLog log = WriteAheadLog.open(logFile, FsyncPolicy.NEVER, new RecordingHandler());
+        log.commit(log.appendReading("CS101", READING));
+        long pending = log.appendReading("CS101", READING + 1);
+
+        log.reset();
+        log.commit(pending);
+        assertEquals(0, log.size());
+        log.close();
+        assertEquals(0, Files.size(logFile));
+    }
+
+    /**
+     * Tests that a data store recovers ingested readings, imports and removed sensors from the log
+     *
+     * @throws IOException if the log could not be written
+     */
+    @Test
+    public void testDataStoreRecovery() throws IOException {
+        DataStore dataStore = new DataStore(MainApplication.initializeSensorLocationMap(), new HashMap<>());
+        dataStore.recover(directory, FsyncPolicy.ALWAYS);
+        dataStore.addData(Constants.DATA_FILE_NAME);
+        dataStore.ingest("CS101", new Date(READING));
+        dataStore.removeSensor("DS102");
+        long readings = dataStore.getReadingCount() + dataStore.getWriteBuffer().size();
+        dataStore.closeWriteAheadLog();
+
+        DataStore recovered = new DataStore(MainApplication.initializeSensorLocationMap(), new HashMap<>());
+        recovered.recover(directory, FsyncPolicy.ALWAYS);
+        assertEquals(readings, recovered.getReadingCount());
+        assertTrue(recovered.getReadings("CS101").contains(new Date(READING)));
+        assertEquals(null, recovered.getReadings("DS102"));
+        assertFalse(recovered.getSensorLocationMap().toString().contains("DS102"));
+        assertFalse(recovered.addData(Constants.DATA_FILE_NAME));
+        recovered.closeWriteAheadLog();
+    }
+
+    /**
+     * Tests that a checkpoint moves the logged data into the snapshot and recovery replays the log on top of it
+     *
+     * @throws IOException if the log or snapshot could not be written
+     */
+    @Test
+    public void testCheckpoint() throws IOException {
+        DataStore dataStore = new DataStore(MainApplication.initializeSensorLocationMap(), new HashMap<>());
+        dataStore.recover(directory, FsyncPolicy.INTERVAL);
+        dataStore.addData(Constants.DATA_FILE_NAME);
+        dataStore.removeSensor("DS102");
+        dataStore.checkpoint();
+        assertEquals(0, dataStore.getWriteAheadLog().size());
+        assertTrue(Files.exists(directory.resolve(Constants.WAL_SNAPSHOT_FILE_NAME)));
+        dataStore.ingest("CS101", new Date(READING));
+        long readings = dataStore.getReadingCount() + dataStore.getWriteBuffer().size();
+        dataStore.closeWriteAheadLog();
+
+        DataStore recovered = new DataStore(MainApplication.initializeSensorLocationMap(), new HashMap<>());
+        recovered.recover(directory, FsyncPolicy.INTERVAL);
+        assertEquals(readings, recovered.getReadingCount());
+        assertTrue(recovered.getReadings("CS101").contains(new Date(READING)));
+        assertFalse(recovered.getSensorLocationMap().toString().contains("DS102"));
+        assertTrue(recovered.getImportManifest().getEntries().containsKey(Constants.DATA_FILE_NAME));
+        recovered.closeWriteAheadLog();
+    }
+
+    /**
+     * Tests that the hourly aggregates of compacted days are kept in the snapshot, so a checkpoint after a compaction
+     * and recovery from it keep the compacted days
+     *
+     * @throws IOException if the log or snapshot could not be written
+     */
+    @Test
+    public void testCheckpointAfterCompaction() throws IOException {
+        DataStore dataStore = new DataStore(MainApplication.initializeSensorLocationMap(), new HashMap<>());
+        dataStore.recover(directory, FsyncPolicy.ALWAYS);
+        dataStore.addData(Constants.DATA_FILE_NAME);
+        CompactionReport report = new DataCompactor(dataStore, new RetentionPolicy(1, 365, "2020-02-10")).compact();
+        double utilization = new DataAnalyzer(dataStore).getUtilization("Reynolds", "003", 3);
+        long readingCount = dataStore.getReadingCount();
+        Map<String, HashMap<String, RoomDayAggregate>> aggregates = new HashMap<>(dataStore.getHourlyAggregates());
+        dataStore.checkpoint();
+        dataStore.closeWriteAheadLog();
+
+        DataStore recovered = new DataStore(MainApplication.initializeSensorLocationMap(), new HashMap<>());
+        recovered.recover(directory, FsyncPolicy.ALWAYS);
+        assertTrue(report.getDaysAggregated() > 0);
+        assertEquals(readingCount, recovered.getReadingCount());
+        assertEquals(aggregates.keySet(), recovered.getHourlyAggregates().keySet());
+        for (Map.Entry<String, HashMap<String, RoomDayAggregate>> room : aggregates.entrySet()) {
+            for (RoomDayAggregate aggregate : room.getValue().values()) {
+                RoomDayAggregate restored = recovered.getHourlyAggregates().get(room.getKey()).get(aggregate.getDayKey());
+                assertEquals(aggregate.getDayStart(), restored.getDayStart());
+                for (int hour = 0; hour < Constants.TOTAL_HOURS_IN_A_DAY; hour++) {
+                    assertEquals(aggregate.getOccupiedMinutes(hour), restored.getOccupiedMinutes(hour));
+                }
+            }
+        }
+        assertTrue(utilization > 0);
+        assertEquals(utilization, new DataAnalyzer(recovered).getUtilization("Reynolds", "003", 3), 0.0);
+        recovered.closeWriteAheadLog();
+    }
+
+    /**
+     * Tests that a write failing halfway is cut off the log and its records are written by the next commit, so replay
+     * does not stop at a torn frame in the middle of the log
+     *
+     * @throws IOException if the log could not be written
+     */
+    @Test
+    public void testFailedWriteIsRolledBack() throws IOException {
+        FaultyChannel channel = new FaultyChannel(logFile);
+        WriteAheadLog log = WriteAheadLog.open(channel, FsyncPolicy.NEVER, new RecordingHandler());
+
+        log.commit(log.appendReading("CS101", READING));
+        channel.failWrites = true;
+        long failed = log.appendReading("CS101", READING + 1);
+        try {
+            log.commit(failed);
+            fail("Expected the commit to fail");
+        } catch (IOException e) {
+            assertEquals("disk full", e.getMessage());
+        }
+        channel.failWrites = false;
+        log.commit(log.appendReading("CS101", READING + 2));
+        log.close();
+
+        RecordingHandler handler = new RecordingHandler();
+        WriteAheadLog.open(logFile, FsyncPolicy.NEVER, handler).close();
+        assertEquals(Arrays.asList("readings CS101 [" + READING + "]", "readings CS101 [" + (READING + 1) + "]", "readings CS101 [" + (READING + 2) + "]"), handler.records);
+    }
+
+    /**
+     * Tests that a log that can not be cut back after a failed write fails every later commit
+     *
+     * @throws IOException if the log could not be opened
+     */
+    @Test
+    public void testFailedRollBackFailsLaterCommits() throws IOException {
+        FaultyChannel channel = new FaultyChannel(logFile);
+        WriteAheadLog log = WriteAheadLog.open(channel, FsyncPolicy.NEVER, new RecordingHandler());
+
+        channel.failWrites = true;
+        channel.failTruncates = true;
+        for (int i = 0; i < 2; i++) {
+            channel.failWrites = i == 0;
+            try {
+                log.commit(log.appendReading("CS101", READING + i));
+                fail("Expected commit " + i + " to fail");
+            } catch (IOException e) {
+                assertEquals("disk full", i == 0 ? e.getMessage() : e.getCause().getMessage());
+            }
+        }
+        channel.failTruncates = false;
+        log.reset();
+        log.commit(log.appendReading("CS101", READING + 2));
+        try {
+            log.close();
+        } catch (IOException e) {
+            fail("Expected a reset to recover the log");
+        }
+    }
+
+    /**
+     * Tests that the interval policy forces a idle log without waiting for the next commit
+     *
+     * @throws Exception if the log could not be written or the test was interrupted
+     */
+    @Test
+    public void testIntervalForce() throws Exception {
+        FaultyChannel channel = new FaultyChannel(logFile);
+        WriteAheadLog log = WriteAheadLog.open(channel, FsyncPolicy.INTERVAL, new RecordingHandler());
+
+        log.commit(log.appendReading("CS101", READING));
+        for (int i = 0; i < 50 && channel.forces == 0; i++) {
+            Thread.sleep(Constants.WAL_FSYNC_INTERVAL_MILLIS);
+        }
+        assertTrue(channel.forces > 0);
+        log.close();
+    }
+
+    /**
+     * File channel that can fail writes halfway and truncates, counts forces
+     */
+    private static final class FaultyChannel extends FileChannel {
+        private final FileChannel channel;
+        private volatile boolean failWrites;
+        private volatile boolean failTruncates;
+        private volatile int forces;
+
+        /**
+         * Constructor for FaultyChannel class
+         *
+         * @param path file to open
+         * @throws IOException if the file could not be opened
+         */
+        FaultyChannel(Path path) throws IOException {
+            channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        }
+
+        @Override
+        public int write(ByteBuffer src) throws IOException {
+            if (!failWrites) {
+                return channel.write(src);
+            }
+            ByteBuffer half = src.duplicate();
+            half.limit(src.position() + src.remaining() / 2);
+            channel.write(half); //Leaves a torn frame behind
+            throw new IOException("disk full");
+        }
+
+        @Override
+        public FileChannel truncate(long size) throws IOException {
+            if (failTruncates) {
+                throw new IOException("read-only file system");
+            }
+            channel.truncate(size);
+            return this;
+        }
+
+        @Override
+        public void force(boolean metaData) throws IOException {
+            forces++;
+            channel.force(metaData);
+        }
+
+        @Override
+        public int read(ByteBuffer dst) throws IOException { return channel.read(dst); }
+
+        @Override
+        public long read(ByteBuffer[] dsts, int offset, int length) throws IOException { return channel.read(dsts, offset, length); }
+
+        @Override
+        public long write(ByteBuffer[] srcs, int offset, int length) throws IOException { return channel.write(srcs, offset, length); }
+
+        @Override
+        public long position() throws IOException { return channel.position(); }
+
+        @Override
+        public FileChannel position(long newPosition) throws IOException {
+            channel.position(newPosition);
+            return this;
+        }
+
+        @Override
+        public long size() throws IOException { return channel.size(); }
+
+        @Override
+        public long transferTo(long position, long count, WritableByteChannel target) throws IOException { return channel.transferTo(position, count, target); }
+
+        @Override
+        public long transferFrom(ReadableByteChannel src, long position, long count) throws IOException { return channel.transferFrom(src, position, count); }
+
+        @Override
+        public int read(ByteBuffer dst, long position) throws IOException { return channel.read(dst, position); }
+
+        @Override
+        public int write(ByteBuffer src, long position) throws IOException { return channel.write(src, position); }
+
+        @Override
+        public MappedByteBuffer map(MapMode mode, long position, long size) throws IOException { return channel.map(mode, position, size); }
+
+        @Override
+        public FileLock lock(long position, long size, boolean shared) throws IOException { return channel.lock(position, size, shared); }
+
+        @Override
+        public FileLock tryLock(long position, long size, boolean shared) throws IOException { return channel.tryLock(position, size, shared); }
+
+        @Override
+        protected void implCloseChannel() throws IOException { channel.close(); }
+    }
+
+    /**
+     * Handler recording replayed records as strings
+     */
+    private static final class RecordingHandler implements WriteAheadLog.RecordHandler {
+        private final List<String> records = new ArrayList<>();
+
+        @Override
+        public void readings(String sensorName, long[] readings) {
+            records.add("readings " + sensorName + " " + Arrays.toString(readings));
+        }
+
+        @Override
+        public void removeSensor(String sensorName) {
+            records.add("remove " + sensorName);
+        }
+
+        @Override
+        public void imported(String fileName, String fingerprint) {
+            records.add("import " + fileName + " " + fingerprint);
+        }
+
+        @Override
+        public void aggregate(String roomKey, RoomDayAggregate aggregate) {
+            records.add("aggregate " + roomKey + " " + aggregate.getDayKey() + " " + aggregate.getOccupiedMinutes());
+        }
+    }
+
+    /**
+     * Main method for WriteAheadLogTest class
+     *
+     * @param args Command line arguments
+     */
+    public static void main(String[] args) {
+        Result result = JUnitCore.runClasses(WriteAheadLogTest.class);
+        for (Failure failure : result.getFailures()) {
+            System.out.println(failure.toString());
+        }
+
+        System.out.println(result.wasSuccessful());
+    }
+}
@@ -0,0 +1,186 @@
+package buildingoccupationanalyzer;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.JUnitCore;
+import org.junit.runner.Result;
+import org.junit.runner.notification.Failure;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+
+/**
+ * Class for testing the WriteBuffer class and the data store write path built on it
+ */
+public class WriteBufferTest {
+    private static final LocalDateTime NEXT_DAY = LocalDate.parse(Constants.CURRENT_MOCK_DATE).plusDays(1).atStartOfDay();
+
+    private DataStore dataStore;
+
+    /**
+     * Method for setting up test session
+     */
+    @Before
+    public void setup() {
+        dataStore = new DataStore(MainApplication.initializeSensorLocationMap(), MainApplication.initializeSensorData());
+    }
+
+    /**
+     * Tests that the memtable is flushed into a sorted run once full
+     */
+    @Test
+    public void testFlushThreshold() {
+        WriteBuffer buffer = new WriteBuffer(3);
+
+        assertEquals(0, buffer.add("CS101", new Date(3000)));
+        assertEquals(0, buffer.add("CS101", new Date(1000)));
+        assertEquals(1, buffer.add("CS102", new Date(2000)));
+        assertEquals(3, buffer.getRuns().get(0).size());
+        assertEquals("[" + new Date(1000) + ", " + new Date(3000) + "]", buffer.getRuns().get(0).getReadings("CS101").toString());
+        assertEquals(3, buffer.size());
+
+        buffer.add("CS101", new Date(500));
+        assertEquals(3, buffer.getPending("CS101").size());
+        assertNull(buffer.getPending("CS999"));
+    }
+
+    /**
+     * Tests that out of order readings are returned in time order before and after compaction
+     */
+    @Test
+    public void testOutOfOrderIngest() {
+        long before = dataStore.getReadingCount();
+
+        dataStore.ingest("CS107", at(9, 30));
+        dataStore.ingest("CS107", at(8, 15));
+        dataStore.ingest("CS107", at(8, 15));
+
+        ArrayList<Date> readings = dataStore.getReadings("CS107");
+        assertEquals(at(8, 15), readings.get(readings.size() - 2));
+        assertEquals(at(9, 30), readings.get(readings.size() - 1));
+        assertEquals(before, dataStore.getReadingCount()); //Still buffered
+
+        dataStore.flushWriteBuffer();
+        assertEquals(0, dataStore.getWriteBuffer().size());
+        assertEquals(before + 2, dataStore.getReadingCount());
+        assertEquals(readings, dataStore.getReadings("CS107"));
+    }
+
+    /**
+     * Tests that queries see buffered readings
+     */
+    @Test
+    public void testQueriesSeeBufferedReadings() {
+        DataAnalyzer dataAnalyzer = new DataAnalyzer(dataStore);
+
+        dataStore.ingest("CS107", at(10, 5));
+        dataStore.ingest("CS107", at(10, 0));
+        double buffered = dataAnalyzer.getUtilization("Reynolds", "003", NEXT_DAY, NEXT_DAY.plusDays(1));
+
+        assertEquals(2.0 / Constants.TOTAL_MINUTES_IN_A_DAY * Constants.PERCENT_COVERT_NUMBER, buffered, 1e-9);
+        dataStore.flushWriteBuffer();
+        assertEquals(buffered, dataAnalyzer.getUtilization("Reynolds", "003", NEXT_DAY, NEXT_DAY.plusDays(1)), 1e-9);
+    }
+
+    /**
+     * Tests that ingesting more readings than fit in the buffer compacts runs in the background without losing readings
+     *
+     * @throws InterruptedException if the test is interrupted while waiting for compaction
+     */
+    @Test
+    public void testBackgroundCompaction() throws InterruptedException {
+        int readings = Constants.WRITE_BUFFER_FLUSH_READINGS * (Constants.WRITE_BUFFER_MAX_RUNS + 1);
+        DataStore emptyStore = new DataStore(new HashMap<>(), new HashMap<>());
+
+        for (int i = readings - 1; i >= 0; i--) {
+            emptyStore.ingest("CS101", new Date(i * (long) Constants.TOTAL_MILLISECONDS_IN_A_MINUTE));
+        }
+        for (int i = 0; i < 100 && emptyStore.getWriteBuffer().getRuns().size() >= Constants.WRITE_BUFFER_MAX_RUNS; i++) {
+            Thread.sleep(10);
+        }
+        assertTrue(emptyStore.getWriteBuffer().getRuns().size() < Constants.WRITE_BUFFER_MAX_RUNS);
+        assertEquals(readings, emptyStore.getReadings("CS101").size());
+        assertEquals(new Date(0), emptyStore.getReadings("CS101").get(0));
+    }
+
+    /**
+     * Tests that cursors merge the buffered readings into the stored readings in time order, a reading that is both
+     * buffered and stored is returned once
+     */
+    @Test
+    public void testCursorMergesBufferedReadings() {
+        Date firstStored = dataStore.getSensorDataMap().get("CS107").get(0);
+
+        dataStore.ingest("CS107", at(10, 5));
+        dataStore.ingest("CS107", at(10, 0));
+        dataStore.ingest("CS107", at(10, 0));
+        dataStore.ingest("CS107", firstStored);
+
+        assertEquals(dataStore.getReadings("CS107"), walk(dataStore.getReadingCursor("CS107", Long.MIN_VALUE, Long.MAX_VALUE)));
+        assertEquals(Arrays.asList(at(10, 0)), walk(dataStore.getReadingCursor("CS107", at(9, 0).getTime(), at(10, 5).getTime())));
+        assertEquals(Arrays.asList(firstStored), walk(dataStore.getReadingCursor("CS107", firstStored.getTime(), firstStored.getTime() + 1)));
+    }
+
+    /**
+     * Helper method for collecting the readings of a cursor
+     *
+     * @param cursor cursor to walk
+     * @return the readings
+     */
+    private static List<Date> walk(ReadingCursor cursor) {
+        List<Date> readings = new ArrayList<>();
+
+        while (cursor.next()) {
+            readings.add(new Date(cursor.getMillis()));
+        }
+        return readings;
+    }
+
+    /**
+     * Tests that removing a sensor also drops its buffered readings
+     */
+    @Test
+    public void testRemoveSensorDropsBuffered() {
+        dataStore.ingest("CS104", at(9, 0));
+        dataStore.ingest("CS107", at(9, 0));
+        dataStore.removeSensor("CS104");
+
+        assertNull(dataStore.getReadings("CS104"));
+        assertEquals(1, dataStore.getWriteBuffer().size());
+    }
+
+    /**
+     * Helper method for creating a reading on the day after the mock date
+     *
+     * @param hour   hour of the reading
+     * @param minute minute of the reading
+     * @return the reading
+     */
+    private static Date at(int hour, int minute) {
+        return Date.from(NEXT_DAY.withHour(hour).withMinute(minute).atZone(ZoneId.systemDefault()).toInstant());
+    }
+
+    /**
+     * Main method for WriteBufferTest class
+     *
+     * @param args Command line arguments
+     */
+    public static void main(String[] args) {
+        Result result = JUnitCore.runClasses(WriteBufferTest.class);
+        for (Failure failure : result.getFailures()) {
+            System.out.println(failure.toString());
+        }
+
+        System.out.println(result.wasSuccessful());
+    }
+}